@@ -24,6 +24,7 @@ from model.fraud_detection_model import FraudDetectionModel
 import time
 import random
 import asyncio
+from concurrent.futures import ThreadPoolExecutor
 
 from model.baseball_game_simulator import BaseballGameSimulator
 from image_service import ImageService, ImageGenerationRequest
@@ -105,13 +106,32 @@ app.add_middleware(
 # 실시간 타석별 시뮬레이션
 # =============================================
 simulation_logs = {}
-@app.post("/simulate-at-bat")
-def simulate_complete_at_bat(request: dict,background_tasks: BackgroundTasks):
-    try:
-        simulator = BaseballGameSimulator()
-        sim_id = request.get("simulation_id")
-        if not sim_id:
-            return {"error": "simulation_id 필요"}
+TEAM_MAP = {
+    1: "롯데 자이언츠",
+    2: "LG 트윈스",
+    3: "한화 이글스",
+    4: "삼성 라이온즈",
+    5: "키움 히어로즈",
+    6: "두산 베어스",
+    7: "KIA 타이거즈",
+    8: "KT Wiz",
+    9: "NC 다이노스",
+    10: "SSG 랜더스",
+}
+
+def prepare_at_bat(request: dict):
+    """타석 요청에서 게임 로그/상황/선수 정보 추출 (선계산 요청은 게임 로그에 남기지 않음)"""
+    sim_id = request.get("simulation_id")
+    if not sim_id:
+        return None
+    precompute = bool(request.get("precompute"))
+    if precompute:
+        game_log = {
+            "home": {"name": "홈팀", "score": 0},
+            "away": {"name": "원정팀", "score": 0},
+            "innings": []
+        }
+    else:
         if sim_id not in simulation_logs:
             simulation_logs[sim_id] = {
                 "home": {"name": "홈팀", "score": 0},
@@ -119,149 +139,237 @@ def simulate_complete_at_bat(request: dict,background_tasks: BackgroundTasks):
                 "innings": []
             }
         game_log = simulation_logs[sim_id]
-        TEAM_MAP = {
-            1: "롯데 자이언츠",
-            2: "LG 트윈스",
-            3: "한화 이글스",
-            4: "삼성 라이온즈",
-            5: "키움 히어로즈",
-            6: "두산 베어스",
-            7: "KIA 타이거즈",
-            8: "KT Wiz",
-            9: "NC 다이노스",
-            10: "SSG 랜더스",
-        }
-        home_team_id = request.get("home_team")
-        away_team_id = request.get("away_team")
-        home_team_name = TEAM_MAP.get(home_team_id, "홈팀")
-        away_team_name = TEAM_MAP.get(away_team_id, "원정팀")
-        game_log["home"]["name"] = home_team_name
-        game_log["away"]["name"] = away_team_name
-
-        # 게임 상황 추출
-        inning = request.get("inning", 1)
-        half = request.get("half", "초")
-        outs = request.get("outs", 0)
-        runners = []
-        if request.get("base1"):
-            runners.append("1루")
-        if request.get("base2"):
-            runners.append("2루")
-        if request.get("base3"):
-            runners.append("3루")
-
+    home_team_name = TEAM_MAP.get(request.get("home_team"), "홈팀")
+    away_team_name = TEAM_MAP.get(request.get("away_team"), "원정팀")
+    game_log["home"]["name"] = home_team_name
+    game_log["away"]["name"] = away_team_name
+
+    # 게임 상황 추출
+    runners = []
+    if request.get("base1"):
+        runners.append("1루")
+    if request.get("base2"):
+        runners.append("2루")
+    if request.get("base3"):
+        runners.append("3루")
+
+    return {
+        "sim_id": sim_id,
+        "precompute": precompute,
+        "game_log": game_log,
+        "home_team_name": home_team_name,
+        "away_team_name": away_team_name,
+        "inning": request.get("inning", 1),
+        "half": request.get("half", "초"),
+        "outs": request.get("outs", 0),
+        "runners": runners,
         # 선수 정보
-        batter_info = request.get("batter")
-        pitcher_info = request.get("pitcher")
-        batter_name = batter_info.get('player_name') if batter_info else 'Unknown'
-        pitcher_name = pitcher_info.get('player_name') if pitcher_info else 'Unknown'
+        "batter_info": request.get("batter"),
+        "pitcher_info": request.get("pitcher"),
+    }
+
+def prediction_input(ctx):
+    """AI 모델 예측 입력 (inning, outs, runners, batter, pitcher, location)"""
+    return (ctx["inning"], ctx["outs"], ctx["runners"], ctx["batter_info"], ctx["pitcher_info"],
+            'p_home' if ctx["half"] == "초" else 'p_away')
+
+def finish_at_bat(request: dict, ctx, result, probabilities, background_tasks: BackgroundTasks):
+    """예측 결과로 타석 시뮬레이션 완료 (주루/득점, 로그, 편파 해설, 기사 생성)"""
+    if result is None:
+        return {"error": "예측 실패"}
+
+    # 완전한 시뮬레이션 수행 (비즈니스 로직은 AtBatSimulator에 위임)
+    simulation_result = AtBatSimulator.perform_complete_simulation(
+        request, result, ctx["batter_info"], ctx["pitcher_info"]
+    )
+
+    if simulation_result.get("error"):
+        return simulation_result
+    # 예측 확률 정보 추가
+    simulation_result["probabilities"] = probabilities
+
+    # 선계산 타석은 경기에서 공개될 때 /simulate-at-bat/narrate로 로그/해설/기사를 만든다
+    if not ctx["precompute"]:
+        narrate_at_bat(ctx, result, simulation_result, background_tasks)
+
+    return simulation_result
+
+def narrate_at_bat(ctx, result, simulation_result, background_tasks: BackgroundTasks):
+    """타석 결과를 게임 로그에 남기고 편파 해설 생성, 경기가 끝났으면 기사 생성"""
+    sim_id = ctx["sim_id"]
+    game_log = ctx["game_log"]
+    home_team_name = ctx["home_team_name"]
+    away_team_name = ctx["away_team_name"]
+    inning = ctx["inning"]
+    half = ctx["half"]
+    outs = ctx["outs"]
+    runners = ctx["runners"]
+    batter_info = ctx["batter_info"]
+    pitcher_info = ctx["pitcher_info"]
+    batter_name = batter_info.get('player_name') if batter_info else 'Unknown'
+    pitcher_name = pitcher_info.get('player_name') if pitcher_info else 'Unknown'
+    probabilities = simulation_result.get("probabilities") or {}
+
+    # 로그 출력
+    print(f"\n{'='*70}")
+    print(f"[{inning}회{half} {outs}아웃] {batter_name} vs {pitcher_name}")
+    print(f"주자 상황: {', '.join(runners) if runners else '주자 없음'}")
+    print(f"결과: {result} (확률: {probabilities.get(result, 0):.1%})")
+    print(f"베이스 변화: ", end="")
+
+    new_state = simulation_result.get("new_game_state", {})
+    new_bases = []
+    if new_state.get("base1"):
+        new_bases.append("1루")
+    if new_state.get("base2"):
+        new_bases.append("2루")
+    if new_state.get("base3"):
+        new_bases.append("3루")
+    print(f"{', '.join(new_bases) if new_bases else '주자 없음'}")
+
+    print(f"득점: {simulation_result.get('rbi', 0)}점")
+    print(f"스코어: {new_state.get('awayScore', 0)} - {new_state.get('homeScore', 0)}")
+    print(f"{'='*70}\n")
+
+    game_log["home"]["score"] = new_state.get("homeScore", game_log["home"]["score"])
+    game_log["away"]["score"] = new_state.get("awayScore", game_log["away"]["score"])
+
+    inning_idx = inning - 1
+    if len(game_log["innings"]) <= inning_idx:
+        game_log["innings"].append({"inning": f"{inning}회", "plays": []})
+
+    game_log["innings"][inning_idx]["plays"].append({
+        "outs": outs,
+        "bases": runners,
+        "score": f"{new_state.get('awayScore',0)}-{new_state.get('homeScore',0)}",
+        "batter": batter_name,
+        "pitcher": pitcher_name,
+        "result": result
+    })
+
+    # 주자 상황 텍스트
+    runner_log = "주자 없음" if not runners else "만루" if len(runners) == 3 else ", ".join(runners)
+    hit_result  = '안타' if result == '1루타' else result
+    hit_result  = '볼넷' if result == '4구' else result
+
+    # 현재 타석 결과 텍스트
+    game_description = {
+    "이닝": f"{inning}회{half}",
+    "아웃": f"{outs}아웃",
+    "타자": batter_name,
+    "투수": pitcher_name,
+    "주자 상황": runner_log,
+    "타석 결과": hit_result,
+    "득점": f"{simulation_result.get('rbi', 0)}점",
+    "스코어": f"{away_team_name} {new_state.get('awayScore', 0)} - {home_team_name} {new_state.get('homeScore', 0)}",
+    "공격팀": away_team_name if half == '초' else home_team_name,
+    "수비팀": home_team_name if half == '초' else away_team_name,
+    }
+
+    # 타석 결과와 편파팀을 llm에 보낸 후에 편파 해설 텍스트 확인
+    print("=" * 100)
+    time.sleep(1 + (random.random() - 0.5))
+    home_comment = generate_bias_commentary(game_description, home_team_name, sim_id, 1)
+    print("홈팀 편파 : " + home_comment)
+    print("=" * 100)
+
+    time.sleep(1 + (random.random() - 0.5))
+    away_comment = generate_bias_commentary(game_description, away_team_name, sim_id, 0)
+    print("원정팀 편파 : " + away_comment)
+    print("=" * 100)
+
+    # send_message(home_comment, sim_id, 1)
+    # send_message(away_comment, sim_id, 0)
+
+    if simulation_result.get("game_ended"):
+        background_tasks.add_task(
+            save_articles,
+            simulation_id=sim_id,
+            game_log=game_log
+        )
+
+@app.post("/simulate-at-bat")
+def simulate_complete_at_bat(request: dict,background_tasks: BackgroundTasks):
+    try:
+        simulator = BaseballGameSimulator()
+        ctx = prepare_at_bat(request)
+        if ctx is None:
+            return {"error": "simulation_id 필요"}
 
         # AI 모델로 타석 결과 예측
-        result, probabilities = simulator.predict_at_bat_result(
-            inning, outs, runners, batter_info, pitcher_info,
-            'p_home' if half == "초" else 'p_away'
-        )
+        result, probabilities = simulator.predict_at_bat_result(*prediction_input(ctx))
 
-        if result is None:
-            return {"error": "예측 실패"}
+        return finish_at_bat(request, ctx, result, probabilities, background_tasks)
 
-        # 완전한 시뮬레이션 수행 (비즈니스 로직은 AtBatSimulator에 위임)
-        simulation_result = AtBatSimulator.perform_complete_simulation(
-            request, result, batter_info, pitcher_info
-        )
+    except Exception as e:
+        print(f"ERROR 시뮬레이션 오류: {str(e)}")
+        return {"error": f"시뮬레이션 오류: {str(e)}"}
 
-        if simulation_result.get("error"):
-            return simulation_result
-        # 예측 확률 정보 추가
-        simulation_result["probabilities"] = probabilities
-
-        # 로그 출력
-        print(f"\n{'='*70}")
-        print(f"[{inning}회{half} {outs}아웃] {batter_name} vs {pitcher_name}")
-        print(f"주자 상황: {', '.join(runners) if runners else '주자 없음'}")
-        print(f"결과: {result} (확률: {probabilities.get(result, 0):.1%})")
-        print(f"베이스 변화: ", end="")
-
-        new_state = simulation_result.get("new_game_state", {})
-        new_bases = []
-        if new_state.get("base1"):
-            new_bases.append("1루")
-        if new_state.get("base2"):
-            new_bases.append("2루")
-        if new_state.get("base3"):
-            new_bases.append("3루")
-        print(f"{', '.join(new_bases) if new_bases else '주자 없음'}")
-
-        print(f"득점: {simulation_result.get('rbi', 0)}점")
-        print(f"스코어: {new_state.get('awayScore', 0)} - {new_state.get('homeScore', 0)}")
-        print(f"{'='*70}\n")
-
-        game_log["home"]["score"] = new_state.get("homeScore", game_log["home"]["score"])
-        game_log["away"]["score"] = new_state.get("awayScore", game_log["away"]["score"])
-
-        inning_idx = inning - 1
-        if len(game_log["innings"]) <= inning_idx:
-            game_log["innings"].append({"inning": f"{inning}회", "plays": []})
-
-        game_log["innings"][inning_idx]["plays"].append({
-            "outs": outs,
-            "bases": runners,
-            "score": f"{new_state.get('awayScore',0)}-{new_state.get('homeScore',0)}",
-            "batter": batter_name,
-            "pitcher": pitcher_name,
-            "result": result
-        })
-
-        # 주자 상황 텍스트
-        runner_log = "주자 없음" if not runners else "만루" if len(runners) == 3 else ", ".join(runners)
-        hit_result  = '안타' if result == '1루타' else result
-        hit_result  = '볼넷' if result == '4구' else result
-
-        # 현재 타석 결과 텍스트
-        game_description = {
-        "이닝": f"{inning}회{half}",
-        "아웃": f"{outs}아웃",
-        "타자": batter_name,
-        "투수": pitcher_name,
-        "주자 상황": runner_log,
-        "타석 결과": hit_result,
-        "득점": f"{simulation_result.get('rbi', 0)}점",
-        "스코어": f"{away_team_name} {new_state.get('awayScore', 0)} - {home_team_name} {new_state.get('homeScore', 0)}",
-        "공격팀": away_team_name if half == '초' else home_team_name,
-        "수비팀": home_team_name if half == '초' else away_team_name,
-        }
+@app.post("/simulate-at-bat/batch")
+def simulate_at_bat_batch(request: dict, background_tasks: BackgroundTasks):
+    """같은 tick에 몰린 여러 게임의 타석을 한 번에 처리 (모델 호출 1회, 결과는 요청 순서대로)"""
+    requests_list = request.get("requests") or []
+    results = [None] * len(requests_list)
+    try:
+        simulator = BaseballGameSimulator()
+    except Exception as e:
+        print(f"ERROR 배치 시뮬레이션 오류: {str(e)}")
+        return {"results": [{"error": f"시뮬레이션 오류: {str(e)}"} for _ in requests_list]}
 
-        # 타석 결과와 편파팀을 llm에 보낸 후에 편파 해설 텍스트 확인
-        print("=" * 100)
-        time.sleep(1 + (random.random() - 0.5))
-        home_comment = generate_bias_commentary(game_description, home_team_name, sim_id, 1)
-        print("홈팀 편파 : " + home_comment)
-        print("=" * 100)
+    # 요청별 상황 정리 (잘못된 요청은 해당 위치에만 에러)
+    contexts = []
+    for idx, at_bat_request in enumerate(requests_list):
+        try:
+            ctx = prepare_at_bat(at_bat_request)
+            if ctx is None:
+                results[idx] = {"error": "simulation_id 필요"}
+            else:
+                contexts.append((idx, ctx))
+        except Exception as e:
+            results[idx] = {"error": f"시뮬레이션 오류: {str(e)}"}
+
+    # 모델 예측은 한 번에
+    try:
+        predictions = simulator.predict_at_bat_results_batch([prediction_input(ctx) for _, ctx in contexts])
+    except Exception as e:
+        print(f"ERROR 배치 예측 오류: {str(e)}")
+        for idx, _ in contexts:
+            results[idx] = {"error": f"시뮬레이션 오류: {str(e)}"}
+        return {"results": results}
 
-        time.sleep(1 + (random.random() - 0.5))
-        away_comment = generate_bias_commentary(game_description, away_team_name, sim_id, 0)
-        print("원정팀 편파 : " + away_comment)
-        print("=" * 100)
+    # 주루/해설은 게임별로 병렬 처리 (해설 생성 대기가 게임 수만큼 쌓이지 않도록)
+    def finish(idx, ctx, prediction):
+        try:
+            return idx, finish_at_bat(requests_list[idx], ctx, prediction[0], prediction[1], background_tasks)
+        except Exception as e:
+            print(f"ERROR 시뮬레이션 오류: {str(e)}")
+            return idx, {"error": f"시뮬레이션 오류: {str(e)}"}
 
-        sim_id = request.get("simulation_id")
-        if not sim_id:
-            return {"error": "simulation_id 필요"}
-        
-        # send_message(home_comment, sim_id, 1)
-        # send_message(away_comment, sim_id, 0)
+    with ThreadPoolExecutor(max_workers=max(1, min(len(contexts), 16))) as executor:
+        futures = [executor.submit(finish, idx, ctx, prediction)
+                   for (idx, ctx), prediction in zip(contexts, predictions)]
+        for future in futures:
+            idx, result = future.result()
+            results[idx] = result
 
-        if simulation_result.get("game_ended"):
-            background_tasks.add_task(
-                save_articles,
-                simulation_id=sim_id,
-                game_log=game_log
-            )
+    return {"results": results}
 
-        return simulation_result
+@app.post("/simulate-at-bat/narrate")
+def narrate_precomputed_at_bat(request: dict, background_tasks: BackgroundTasks):
+    """선계산된 타석이 공개되거나 Java에서 예측한 타석이 확정될 때 게임 로그/편파 해설/기사 생성 (결과는 Java가 정한 값 그대로)"""
+    try:
+        at_bat_request = dict(request.get("request") or {})
+        at_bat_request.pop("precompute", None)
+        decided = request.get("result") or {}
+        ctx = prepare_at_bat(at_bat_request)
+        if ctx is None:
+            return {"error": "simulation_id 필요"}
+        narrate_at_bat(ctx, decided.get("result_korean"), decided, background_tasks)
+        return {"status": "success"}
 
     except Exception as e:
-        print(f"ERROR 시뮬레이션 오류: {str(e)}")
-        return {"error": f"시뮬레이션 오류: {str(e)}"}
+        print(f"ERROR 타석 해설 오류: {str(e)}")
+        return {"error": f"해설 오류: {str(e)}"}
 
 @app.post("/api/ai/suno/callback")
 async def suno_callback(request: Request):
@@ -470,6 +470,43 @@ class BaseballGameSimulator:
         
         return monte_carlo_result, result_probabilities
 
+    def predict_at_bat_results_batch(self, items):
+        """여러 타석 결과를 한 번의 모델 호출로 예측
+
+        items: (inning, outs, runners, batter_info, pitcher_info, location) 튜플 리스트
+        반환: 입력 순서대로 (결과, 확률 dict) 리스트
+        """
+        if not items:
+            return []
+
+        # 구장 팩터 기본값
+        stadium_factor = 100
+
+        rows = [
+            self.create_prediction_input(inning, outs, runners, batter_info, pitcher_info, location, stadium_factor)
+            for inning, outs, runners, batter_info, pitcher_info, location in items
+        ]
+
+        input_df = self.feature_engineering(pd.DataFrame(rows))
+
+        feature_names = self.model_info['feature_names']
+        available_features = [col for col in feature_names if col in input_df.columns]
+        X = input_df[available_features]
+
+        categorical_features = self.model_info['categorical_features']
+        for col in categorical_features:
+            if col in X.columns:
+                X[col] = X[col].astype('category')
+
+        probabilities = self.model.predict_proba(X)
+        classes = self.model_info['classes']
+
+        results = []
+        for probs in probabilities:
+            monte_carlo_result = np.random.choice(classes, p=probs)
+            results.append((monte_carlo_result, dict(zip(classes, probs))))
+        return results
+
 class GameState:
     """게임 상태 관리 클래스"""
     
@@ -0,0 +1,92 @@
+# -*- coding: utf-8 -*-
+"""
+타석 규칙 패리티 데이터 생성
+AtBatSimulator(주루/아웃/경기 종료 규칙)로 모든 결과 x 주자 x 아웃 x 경기 상황을 처리한 결과를
+AT_BATS 컬럼 형식(TSV)으로 저장한다. Spring Boot의 AtBatRules 패리티 테스트가 이 파일을 재생한다.
+
+실행: python model/export_at_bat_parity.py [출력 경로]
+"""
+
+import os
+import sys
+from unittest import mock
+
+sys.path.append(os.path.dirname(os.path.dirname(os.path.abspath(__file__))))
+from model.at_bat_simulator import AtBatSimulator
+
+RESULTS = [
+    "1루타", "2루타", "3루타", "4구", "내야 안타", "땅볼 아웃", "병살타 아웃", "사구",
+    "삼진", "선행주자아웃 출루", "실책 출루", "직선타 아웃", "플라이 아웃", "홈런", "희생플라이 아웃",
+]
+
+# (이닝, 초/말, 홈 점수, 원정 점수)
+SITUATIONS = [
+    (1, "초", 0, 0),
+    (8, "말", 4, 4),
+    (9, "초", 1, 4),
+    (9, "말", 2, 3),
+    (10, "초", 5, 5),
+    (12, "말", 6, 8),
+]
+
+RUNNERS = (101, 102, 103)
+BATTER = 200
+
+COLUMNS = [
+    "inning", "half", "prev_outs", "prev_score_home", "prev_score_away",
+    "prev_base_1", "prev_base_2", "prev_base_3", "batter_p_no", "result_korean", "ground_out_advance",
+    "rbi", "new_inning", "new_half", "new_outs", "new_score_home", "new_score_away",
+    "new_base_1", "new_base_2", "new_base_3", "inning_changed", "game_ended", "winner",
+]
+
+
+def fmt(value):
+    if value is None:
+        return ""
+    if isinstance(value, bool):
+        return "true" if value else "false"
+    return str(value)
+
+
+def simulate(inning, half, outs, home, away, bases, result, advance):
+    request = {
+        "inning": inning, "half": half, "outs": outs,
+        "homeScore": home, "awayScore": away,
+        "base1": RUNNERS[0] if bases & 1 else None,
+        "base2": RUNNERS[1] if bases & 2 else None,
+        "base3": RUNNERS[2] if bases & 4 else None,
+    }
+    # 2루 주자 땅볼 진루 확률(70%)을 고정해서 두 경우를 모두 기록
+    roll = 0.0 if advance else 0.99
+    with mock.patch("model.at_bat_simulator.np.random.random", return_value=roll), \
+            mock.patch("builtins.print"):
+        out = AtBatSimulator.perform_complete_simulation(request, result, {"p_no": BATTER}, {"p_no": 900})
+    state = out["new_game_state"]
+    return [
+        inning, half, outs, home, away,
+        request["base1"], request["base2"], request["base3"], BATTER, result, advance,
+        out["rbi"], state["inning"], state["half"], state["outs"], state["homeScore"], state["awayScore"],
+        state["base1"], state["base2"], state["base3"], state["inning_changed"], out["game_ended"], out["winner"],
+    ]
+
+
+def main(path):
+    rows = []
+    for inning, half, home, away in SITUATIONS:
+        for outs in range(3):
+            for bases in range(8):
+                for result in RESULTS:
+                    rows.append(simulate(inning, half, outs, home, away, bases, result, True))
+                    if result == "땅볼 아웃" and bases == 0b010:
+                        rows.append(simulate(inning, half, outs, home, away, bases, result, False))
+
+    with open(path, "w", encoding="utf-8") as f:
+        f.write("\t".join(COLUMNS) + "\n")
+        for row in rows:
+            f.write("\t".join(fmt(v) for v in row) + "\n")
+    print(f"{len(rows)}건 저장: {path}")
+
+
+if __name__ == "__main__":
+    default_path = os.path.join(os.path.dirname(__file__), "..", "..", "springboot", "src", "test", "resources", "at_bat_parity.tsv")
+    main(sys.argv[1] if len(sys.argv) > 1 else default_path)
@@ -0,0 +1,273 @@
+# -*- coding: utf-8 -*-
+"""
+타석 예측 모델 ONNX 내보내기
+trained_model.pkl을 Spring Boot(OnnxAtBatModel)가 JVM 안에서 실행할 수 있는 ONNX 모델로 저장한다.
+
+- at_bat_model.onnx : 입력 "features" float[N, 26] (범주형은 어휘 순서 인덱스, 어휘에 없으면 NaN)
+                      출력 "probabilities" float[N, 클래스 수]
+- at_bat_model.json : 피처 순서 / 범주형 어휘 / 클래스 순서 (Java 인코더가 그대로 사용)
+- at_bat_model_parity.tsv : 고정 상황별 Python 서비스 예측 확률 (Spring Boot OnnxAtBatModelParityTests 데이터)
+- springboot/src/test/resources/at_bat_feature_parity.tsv : 같은 고정 상황의 Python 피처만 (모델 없이도 인코더 테스트가 항상 실행되도록 커밋)
+
+CatBoost ONNX 내보내기는 범주형 피처(문자열)를 지원하지 않는다.
+모델이 범주형 피처를 쓰면 --train-data로 학습 데이터를 넘겨, 같은 파라미터로 범주형을 인덱스로 바꿔 다시 학습한 뒤 내보낸다.
+
+실행: python model/export_onnx_model.py [--train-data 학습.tsv] [--target result] [--output 모델.onnx]
+      python model/export_onnx_model.py --features-only   (피처 패리티 데이터만, trained_model.pkl/catboost/onnx 불필요)
+"""
+
+import argparse
+import json
+import os
+import pickle
+import sys
+
+import numpy as np
+import pandas as pd
+
+sys.path.append(os.path.dirname(os.path.dirname(os.path.abspath(__file__))))
+from model.baseball_game_simulator import BaseballGameSimulator
+
+MODEL_DIR = os.path.dirname(os.path.abspath(__file__))
+FEATURE_PARITY_PATH = os.path.join(MODEL_DIR, "..", "..", "springboot", "src", "test", "resources", "at_bat_feature_parity.tsv")
+
+# 학습 데이터 범주 (model_feature.md, AtBatFeatureEncoder.DEFAULT_VOCABULARY와 동일)
+VOCABULARY = {
+    "inning": ["1회", "2회", "3회", "4회", "5회", "6회", "7회", "8회", "9회"],
+    "Prev_Outs": ["무사", "1사", "2사"],
+    "Prev_Runners": ["주자 없음", "1루", "2루", "3루", "1,2루", "1,3루", "2,3루", "만루"],
+    "location": ["p_away", "p_home"],
+    "hand": ["bl_pl", "bl_pr", "br_pl", "br_pr"],
+}
+
+# 패리티 데이터용 고정 선수 (빈 값/타석 0/유형 불일치 포함)
+BATTERS = [
+    {"p_no": 1, "hand": "right", "player_type": "batter", "batting_stats": {
+        "b_AVG": 0.312, "b_OBP": 0.389, "b_2B": 31, "b_3B": 3, "b_HR": 22, "b_HP": 7, "b_GDP": 9,
+        "b_SF": 6, "b_RBI": 88, "b_SB": 12, "b_SO": 95, "b_ePA": 560}},
+    {"p_no": 2, "hand": "left", "player_type": "batter", "batting_stats": {
+        "b_AVG": 0.241, "b_OBP": None, "b_2B": 12, "b_3B": 0, "b_HR": 4, "b_HP": None, "b_GDP": 3,
+        "b_SF": 1, "b_RBI": 21, "b_SB": 2, "b_SO": 44, "b_ePA": 0}},
+    {"p_no": 3, "hand": "right", "player_type": "pitcher", "pitching_stats": {
+        "p_ERA": 4.12, "p_FIP": 4.40, "p_WHIP": 1.38, "p_IP": 88.1, "p_2B": 17, "p_3B": 1, "p_HR": 9,
+        "p_HP": 5, "p_SO": 71, "p_ROE": 3}},
+]
+PITCHERS = [
+    {"p_no": 11, "hand": "left", "player_type": "pitcher", "pitching_stats": {
+        "p_ERA": 2.87, "p_FIP": 3.05, "p_WHIP": 1.06, "p_IP": 171.2, "p_2B": 25, "p_3B": 2, "p_HR": 11,
+        "p_HP": 6, "p_SO": 182, "p_ROE": 4}},
+    {"p_no": 12, "hand": "right", "player_type": "pitcher", "pitching_stats": {
+        "p_ERA": 5.61, "p_FIP": None, "p_WHIP": 1.71, "p_IP": 0, "p_2B": 2, "p_3B": 0, "p_HR": 1,
+        "p_HP": 0, "p_SO": 3, "p_ROE": 0}},
+    {"p_no": 13, "hand": "right", "player_type": "batter", "batting_stats": {
+        "b_AVG": 0.275, "b_OBP": 0.340, "b_2B": 20, "b_3B": 1, "b_HR": 10, "b_HP": 4, "b_GDP": 6,
+        "b_SF": 3, "b_RBI": 50, "b_SB": 4, "b_SO": 70, "b_ePA": 420}},
+]
+
+# (이닝, 초/말, 아웃, 주자 비트마스크: 1루=1, 2루=2, 3루=4)
+SITUATIONS = [
+    (1, "초", 0, 0), (3, "말", 1, 1), (5, "초", 2, 3), (7, "말", 0, 5),
+    (8, "초", 1, 6), (9, "말", 2, 7), (10, "초", 0, 2), (12, "말", 1, 4),
+]
+
+BATTER_COLUMNS = ["b_AVG", "b_OBP", "b_2B", "b_3B", "b_HR", "b_HP", "b_GDP", "b_SF", "b_RBI", "b_SB", "b_SO", "b_ePA"]
+PITCHER_COLUMNS = ["p_ERA", "p_FIP", "p_WHIP", "p_IP", "p_2B", "p_3B", "p_HR", "p_HP", "p_SO", "p_ROE"]
+
+
+def load_model():
+    with open(os.path.join(MODEL_DIR, "trained_model.pkl"), "rb") as f:
+        model = pickle.load(f)
+    return model, load_model_info()
+
+
+def load_model_info():
+    with open(os.path.join(MODEL_DIR, "model_info.pkl"), "rb") as f:
+        return pickle.load(f)
+
+
+def python_features(rows, model_info):
+    """Python 서비스와 같은 방식으로 피처 생성 (create_prediction_input + feature_engineering)"""
+    df = BaseballGameSimulator.feature_engineering(None, pd.DataFrame(rows))
+    return df[model_info["feature_names"]]
+
+
+def encode(X, model_info):
+    """범주형 피처를 어휘 인덱스로 바꾼 float32 행렬 (어휘에 없으면 NaN)"""
+    encoded = X.copy()
+    for col in model_info["categorical_features"]:
+        codes = {value: i for i, value in enumerate(VOCABULARY[col])}
+        encoded[col] = encoded[col].map(codes)
+    return encoded.astype(np.float32)
+
+
+def python_probabilities(model, X, model_info):
+    """Python 서비스 예측 경로 그대로 (범주형 → category)"""
+    X = X.copy()
+    for col in model_info["categorical_features"]:
+        X[col] = X[col].astype("category")
+    return model.predict_proba(X)
+
+
+def onnx_model(model, model_info, args):
+    """ONNX로 내보낼 수 있는 CatBoost 모델 (범주형 피처가 있으면 인덱스 인코딩으로 재학습)"""
+    if not model.get_cat_feature_indices():
+        return model
+    if not args.train_data:
+        sys.exit("모델이 범주형 피처를 사용합니다. --train-data로 학습 데이터를 지정하면 인덱스 인코딩으로 재학습해 내보냅니다.")
+
+    from catboost import CatBoostClassifier
+
+    train = pd.read_csv(args.train_data, sep="\t")
+    train = BaseballGameSimulator.feature_engineering(None, train)
+    X = encode(train[model_info["feature_names"]], model_info)
+    y = train[args.target]
+
+    params = {k: v for k, v in model.get_params().items() if k not in ("cat_features", "class_names")}
+    params["class_names"] = list(model_info["classes"])
+    params["verbose"] = False
+    student = CatBoostClassifier(**params)
+    student.fit(X, y)
+
+    # 학습 데이터 기준 원본 모델과의 확률 차이
+    original = python_probabilities(model, train[model_info["feature_names"]], model_info)
+    diff = np.abs(original - student.predict_proba(X))
+    print(f"재학습 모델 확률 차이: 평균 {diff.mean():.5f}, 최대 {diff.max():.5f}")
+    return student
+
+
+def strip_zipmap(path):
+    """분류기 출력의 ZipMap(seq(map))을 제거해 probabilities를 float 텐서로 노출"""
+    import onnx
+    from onnx import TensorProto, helper
+
+    graph_model = onnx.load(path)
+    graph = graph_model.graph
+    for node in list(graph.node):
+        if node.op_type != "ZipMap":
+            continue
+        tensor_name, output_name = node.input[0], node.output[0]
+        graph.node.remove(node)
+        for other in graph.node:
+            for i, name in enumerate(other.output):
+                if name == tensor_name:
+                    other.output[i] = output_name
+        for i, output in enumerate(graph.output):
+            if output.name == output_name:
+                graph.output.remove(output)
+                graph.output.insert(i, helper.make_tensor_value_info(output_name, TensorProto.FLOAT, [None, None]))
+                break
+    onnx.save(graph_model, path)
+
+
+def parity_inputs():
+    """고정 상황 x 선수 조합의 Python 서비스 예측 입력과 Java 인코더 입력값"""
+    simulator = BaseballGameSimulator.__new__(BaseballGameSimulator)
+    rows, meta = [], []
+    for inning, half, outs, bases in SITUATIONS:
+        runners = [name for bit, name in ((1, "1루"), (2, "2루"), (4, "3루")) if bases & bit]
+        location = "p_home" if half == "초" else "p_away"
+        for batter in BATTERS:
+            for pitcher in PITCHERS:
+                rows.append(simulator.create_prediction_input(inning, outs, runners, batter, pitcher, location, 100))
+                meta.append((inning, half, outs, bases, batter, pitcher))
+    return rows, meta
+
+
+def fmt(value):
+    if value is None or (isinstance(value, float) and np.isnan(value)):
+        return ""
+    return str(value)
+
+
+def input_columns():
+    return (["inning", "half", "outs", "bases", "batter_type", "batter_hand"] + BATTER_COLUMNS
+            + ["pitcher_type", "pitcher_hand"] + PITCHER_COLUMNS)
+
+
+def input_values(inning, half, outs, bases, batter, pitcher):
+    b = batter.get("batting_stats", {})
+    p = pitcher.get("pitching_stats", {})
+    return ([inning, half, outs, bases, batter["player_type"], batter["hand"]]
+            + [b.get(c) for c in BATTER_COLUMNS]
+            + [pitcher["player_type"], pitcher["hand"]]
+            + [p.get(c) for c in PITCHER_COLUMNS])
+
+
+def write_feature_parity(path, model_info):
+    """고정 상황별 Python 피처 (Java 인코더 입력값 + 기대 피처, 모델 불필요)"""
+    rows, meta = parity_inputs()
+    encoded = encode(python_features(rows, model_info), model_info).to_numpy()
+
+    columns = input_columns() + [f"f_{name}" for name in model_info["feature_names"]]
+    with open(path, "w", encoding="utf-8") as f:
+        f.write("\t".join(columns) + "\n")
+        for values, features in zip(meta, encoded):
+            f.write("\t".join(fmt(v) for v in input_values(*values) + [float(v) for v in features]) + "\n")
+    print(f"피처 패리티 데이터 {len(meta)}건 저장: {path}")
+
+
+def write_parity(path, model, model_info, onnx_path):
+    """고정 상황별 Python 서비스 예측 확률 (Java 인코더 입력값 + 기대 피처 + 확률)"""
+    rows, meta = parity_inputs()
+    X = python_features(rows, model_info)
+    expected = python_probabilities(model, X, model_info)
+    encoded = encode(X, model_info).to_numpy()
+
+    import onnxruntime as ort
+    session = ort.InferenceSession(onnx_path, providers=["CPUExecutionProvider"])
+    onnx_probs = session.run(["probabilities"], {"features": encoded})[0]
+    tolerance = float(np.abs(onnx_probs - expected).max()) + 1e-4
+    print(f"ONNX 확률 차이(고정 상황): 최대 {tolerance - 1e-4:.6f}")
+
+    columns = (input_columns()
+               + [f"f_{name}" for name in model_info["feature_names"]]
+               + [f"prob_{name}" for name in model_info["classes"]])
+    with open(path, "w", encoding="utf-8") as f:
+        f.write(f"# tolerance={tolerance:.6f}\n")
+        f.write("\t".join(columns) + "\n")
+        for values, features, probs in zip(meta, encoded, expected):
+            values = input_values(*values) + [float(v) for v in features] + [float(v) for v in probs]
+            f.write("\t".join(fmt(v) for v in values) + "\n")
+    print(f"패리티 데이터 {len(meta)}건 저장: {path}")
+
+
+def main():
+    parser = argparse.ArgumentParser()
+    parser.add_argument("--train-data", help="범주형 피처 모델 재학습용 학습 데이터 (TSV)")
+    parser.add_argument("--target", default="result", help="학습 데이터의 결과 컬럼")
+    parser.add_argument("--output", default=os.path.join(MODEL_DIR, "at_bat_model.onnx"))
+    parser.add_argument("--features-only", action="store_true", help="모델 없이 피처 패리티 데이터만 저장")
+    args = parser.parse_args()
+
+    if args.features_only:
+        write_feature_parity(FEATURE_PARITY_PATH, load_model_info())
+        return
+
+    model, model_info = load_model()
+    exported = onnx_model(model, model_info, args)
+    exported.save_model(args.output, format="onnx", export_parameters={
+        "onnx_domain": "ai.catboost",
+        "onnx_model_version": 1,
+        "onnx_doc_string": "at-bat outcome classifier",
+        "onnx_graph_name": "AtBatOutcome",
+    })
+    strip_zipmap(args.output)
+
+    base_path = os.path.splitext(args.output)[0]
+    metadata = {
+        "features": list(model_info["feature_names"]),
+        "categorical_features": {col: VOCABULARY[col] for col in model_info["categorical_features"]},
+        "classes": list(model_info["classes"]),
+        "input": "features",
+        "output": "probabilities",
+    }
+    with open(base_path + ".json", "w", encoding="utf-8") as f:
+        json.dump(metadata, f, ensure_ascii=False, indent=2)
+    print(f"ONNX 모델 저장: {args.output}")
+
+    write_parity(base_path + "_parity.tsv", model, model_info, args.output)
+    write_feature_parity(FEATURE_PARITY_PATH, model_info)
+
+
+if __name__ == "__main__":
+    main()
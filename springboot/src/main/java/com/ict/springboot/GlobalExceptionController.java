@@ -2,6 +2,7 @@ package com.ict.springboot;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
@@ -65,6 +66,16 @@ public class GlobalExceptionController {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(map);
     }
 
+    //<< 게임 actor 메일박스가 가득 찬 경우 (잠시 후 재시도) >>
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Map<String, String>> rejectedExecution(RejectedExecutionException e) {
+        Map<String, String> map = new HashMap<>();
+        map.put("ERROR", e.getMessage() != null && !e.getMessage().isBlank()
+                        ? e.getMessage()
+                        : "요청이 많아 처리할 수 없습니다. 잠시 후 다시 시도해 주세요.");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(map);
+    }
+
     
     //<<실행중 오류 예외 처리 >>
     @ExceptionHandler(RuntimeException.class)
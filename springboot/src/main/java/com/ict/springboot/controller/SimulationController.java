@@ -3,8 +3,10 @@ package com.ict.springboot.controller;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -12,6 +14,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -19,7 +22,14 @@ import org.springframework.web.bind.annotation.RestController;
 import com.ict.springboot.dto.SimulationDto;
 import com.ict.springboot.dto.SimulationRequestDto;
 import com.ict.springboot.dto.UsersDto;
+import com.ict.springboot.service.GameAdmission;
+import com.ict.springboot.service.LineupOptimizer;
+import com.ict.springboot.service.MatchupMatrix;
+import com.ict.springboot.service.MonteCarloSimulator;
+import com.ict.springboot.service.SeasonProjection;
+import com.ict.springboot.service.SimulationActors;
 import com.ict.springboot.service.SimulationService;
+import com.ict.springboot.service.SpectatorPresence;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -33,6 +43,13 @@ import lombok.RequiredArgsConstructor;
 public class SimulationController {
 
     private final SimulationService simulationService;
+    private final MonteCarloSimulator monteCarloSimulator;
+    private final LineupOptimizer lineupOptimizer;
+    private final SeasonProjection seasonProjection;
+    private final MatchupMatrix matchupMatrix;
+    private final SimulationActors simulationActors;
+    private final SpectatorPresence spectatorPresence;
+    private final GameAdmission gameAdmission;
     
     @Operation(summary = "시뮬레이션 목록 조회", description = "모든 시뮬레이션 조회 (파라미터로 필터링 가능)")
     @GetMapping("")
@@ -54,12 +71,102 @@ public class SimulationController {
         return ResponseEntity.ok(simulationService.startSimulationWithLineup(request, loginUser));
     }
     
+    @Operation(summary = "몬테카를로 시뮬레이션", description = "선택한 라인업으로 N경기를 한 번에 시뮬레이션해 승리 확률, 득점 분포, 선수별 기대 기록 조회")
+    @PostMapping("/monte-carlo")
+    public ResponseEntity<?> runMonteCarlo(@RequestBody SimulationRequestDto request,
+                                           @RequestParam(required = false) Integer games,
+                                           @RequestParam(required = false) Long timeBudgetMs,
+                                           @RequestParam(required = false) Long seed) {
+        try {
+            return ResponseEntity.ok(monteCarloSimulator.run(request, games, timeBudgetMs, seed));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @Operation(summary = "타순 최적화", description = "타자 9명(batting1~9)과 상대 투수(pitcher, 없으면 리그 평균)로 타순을 탐색해 "
+        + "경기당 기대 득점이 높은 타순과 현재 타순의 기대 득점 조회 (마르코프 체인으로 후보를 추린 뒤 시뮬레이션으로 정밀화)")
+    @PostMapping("/lineup-optimize")
+    public ResponseEntity<?> optimizeLineup(@RequestBody SimulationRequestDto.LineupDto lineup,
+                                            @RequestParam(required = false) Integer top,
+                                            @RequestParam(required = false) Long timeBudgetMs,
+                                            @RequestParam(required = false) Long seed) {
+        try {
+            return ResponseEntity.ok(lineupOptimizer.optimize(lineup, top, timeBudgetMs, seed));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @Operation(summary = "시즌 전망", description = "남은 정규시즌 일정을 선수 스탯 기반 팀 전력으로 반복 시뮬레이션한 "
+        + "팀별 가을야구 진출 확률, 1위 확률, 기대 승/패/무, 순위 분포 조회 (실제 경기 결과가 나오면 그 경기만 반영해 갱신)")
+    @GetMapping("/season-projection")
+    public ResponseEntity<?> getSeasonProjection(@RequestParam(required = false) Integer year) {
+        try {
+            return ResponseEntity.ok(seasonProjection.projection(year));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @Operation(summary = "타자-투수 맞대결 확률", description = "맞대결 행렬에서 주자(bases, 1루 = 1, 2루 = 2, 3루 = 4)/아웃 상황의 "
+        + "타석 결과별 확률 조회 (batter/pitcher를 비우면 리그 평균)")
+    @GetMapping("/matchup-matrix")
+    public ResponseEntity<?> getMatchupProbabilities(@RequestParam(required = false) Long batter,
+                                                     @RequestParam(required = false) Long pitcher,
+                                                     @RequestParam(required = false) Integer bases,
+                                                     @RequestParam(required = false) Integer outs) {
+        try {
+            return ResponseEntity.ok(matchupMatrix.lookup(batter, pitcher, bases, outs));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
     @Operation(summary = "타석 결과 조회", description = "특정 시뮬레이션의 모든 타석 결과 조회")
     @GetMapping("/{simulationId}/at-bats")
     public List<Map<String, Object>> getSimulationAtBats(@PathVariable Long simulationId) {
         return simulationService.getSimulationAtBats(simulationId);
     }
 
+    @Operation(summary = "박스스코어 조회", description = "이닝별 득점(line score), 타순별 타자 기록(PA/AB/H/HR/BB/HBP/SO/RBI), 팀별 투수 기록(BF/IP/H/HR/BB/SO/R) 조회")
+    @GetMapping("/{simulationId}/box-score")
+    public Map<String, Object> getBoxScore(@PathVariable Long simulationId) {
+        return simulationService.getBoxScore(simulationId);
+    }
+
+    @Operation(summary = "관전자 수 조회", description = "게임별 웹소켓 채팅 세션 수와 SSE 중계 구독자 수 (관전자가 없으면 게임 루프가 몰아서 진행)")
+    @GetMapping("/{simulationId}/presence")
+    public Map<String, Object> getPresence(@PathVariable Long simulationId) {
+        return spectatorPresence.presence(simulationId);
+    }
+
+    @Operation(summary = "게임 시작 대기 조회", description = "실시간 게임 수 한도로 시작을 기다리는 경우 대기 순번과 예상 지연(ms)")
+    @GetMapping("/{simulationId}/admission")
+    public Map<String, Object> getAdmission(@PathVariable Long simulationId) {
+        return gameAdmission.status(simulationId);
+    }
+
+    @Operation(summary = "분기 가능한 시점 조회", description = "이닝 초/말 시작 스냅샷 목록 (what-if 분기 시작점)")
+    @GetMapping("/{simulationId}/snapshots")
+    public Map<String, Object> getSnapshots(@PathVariable Long simulationId) {
+        return simulationService.getSnapshots(simulationId);
+    }
+
+    @Operation(summary = "what-if 분기", description = "특정 이닝 초/말 시작 스냅샷에서 새 시뮬레이션을 만들어 바로 시작. "
+        + "분기 이전 타석 기록은 복사하지 않고 원본과 공유 (half는 초/말, 원본 소유자 또는 관리자만)")
+    @PostMapping("/{simulationId}/fork")
+    public ResponseEntity<?> forkSimulation(@PathVariable Long simulationId,
+                                            @RequestParam int inning,
+                                            @RequestParam String half,
+                                            HttpServletRequest httpRequest) {
+        UsersDto loginUser = (UsersDto) httpRequest.getAttribute("user");
+        if (loginUser == null) {
+            return ResponseEntity.status(401).body(Map.of("message", "로그인이 필요합니다."));
+        }
+        return ResponseEntity.ok(simulationService.forkSimulation(simulationId, inning, half, loginUser));
+    }
+
     @Operation(summary = "실시간 게임 시작", description = "실시간 시뮬레이션 게임 시작")
     @PostMapping("/{simulationId}/start-game")
     public Map<String, Object> startGame(@PathVariable Long simulationId) {
@@ -70,13 +177,57 @@ public class SimulationController {
     // @Operation(summary = "다음 타석 진행", description = "실시간 게임 다음 타석 진행")
     // @PostMapping("/{simulationId}/next-at-bat")
     // public Map<String, Object> getNextAtBat(@PathVariable Long simulationId) {
-    //     return simulationService.processNextAtBat(simulationId);
+    //     return simulationActors.advance(simulationId);
     // }
 
-    @Operation(summary = "게임 상태 조회", description = "현재 진행 중인 게임 상태 조회")
+    @Operation(summary = "게임 상태 조회", description = "현재 진행 중인 게임 상태 조회. ETag(epoch.version)/If-None-Match 지원 (바뀌지 않았으면 304), "
+        + "since=버전&epoch=epoch이면 그 버전 이후 바뀐 필드만(delta), version=버전이면 해당 버전의 전체 상태")
     @GetMapping("/{simulationId}/game-state")
-    public Map<String, Object> getGameState(@PathVariable Long simulationId) {
-        return simulationService.getCurrentGameState(simulationId);
+    public CompletableFuture<ResponseEntity<?>> getGameState(@PathVariable Long simulationId,
+                                                             @RequestParam(required = false) Long since,
+                                                             @RequestParam(required = false) Long version,
+                                                             @RequestParam(required = false) Long epoch,
+                                                             @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        if (version != null) {
+            return CompletableFuture.completedFuture(ResponseEntity.ok(simulationService.getGameStateAt(simulationId, epoch, version)));
+        }
+        // 마지막으로 받은 버전 그대로면 상태를 직렬화하지 않고 304
+        String currentETag = simulationService.gameStateETag(simulationId);
+        if (currentETag != null && ifNoneMatch != null && ifNoneMatch.contains(currentETag)) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(currentETag).build());
+        }
+        if (since != null) {
+            return CompletableFuture.completedFuture(withETag(simulationService.getGameStateSince(simulationId, epoch, since)));
+        }
+        return simulationActors.query(simulationId).thenApply(this::withETag);
+    }
+
+    private ResponseEntity<?> withETag(Map<String, Object> response) {
+        String eTag = SimulationService.gameStateETag(response);
+        return eTag != null ? ResponseEntity.ok().eTag(eTag).body(response) : ResponseEntity.ok(response);
+    }
+
+    @Operation(summary = "실시간 게임 중지", description = "관리자 전용: 진행 중인 게임을 중지 (STOPPED)")
+    @PostMapping("/{simulationId}/stop")
+    public CompletableFuture<ResponseEntity<?>> stopGame(@PathVariable Long simulationId, HttpServletRequest httpRequest) {
+        ResponseEntity<?> denied = requireAdmin(httpRequest);
+        if (denied != null) {
+            return CompletableFuture.completedFuture(denied);
+        }
+        return simulationActors.stop(simulationId).thenApply(ResponseEntity::ok);
+    }
+
+    @Operation(summary = "실시간 게임 되감기", description = "관리자 전용: 진행 중인 게임을 특정 이닝 초/말 시작 시점으로 되감기")
+    @PostMapping("/{simulationId}/rewind")
+    public CompletableFuture<ResponseEntity<?>> rewindGame(@PathVariable Long simulationId,
+                                                           @RequestParam int inning,
+                                                           @RequestParam String half,
+                                                           HttpServletRequest httpRequest) {
+        ResponseEntity<?> denied = requireAdmin(httpRequest);
+        if (denied != null) {
+            return CompletableFuture.completedFuture(denied);
+        }
+        return simulationActors.rewind(simulationId, inning, half).thenApply(ResponseEntity::ok);
     }
     
     // 특정 팀이 참여한 시뮬레이션 조회
@@ -131,4 +282,15 @@ public class SimulationController {
         UsersDto loginUser = (UsersDto) httpRequest.getAttribute("user");
         return ResponseEntity.ok(simulationService.delete(id, loginUser));
     }
-}
\ No newline at end of file
+
+    private ResponseEntity<?> requireAdmin(HttpServletRequest httpRequest) {
+        UsersDto loginUser = (UsersDto) httpRequest.getAttribute("user");
+        if (loginUser == null) {
+            return ResponseEntity.status(401).body(Map.of("message", "로그인이 필요합니다."));
+        }
+        if (!"ADMIN".equals(loginUser.getRole())) {
+            return ResponseEntity.status(403).body(Map.of("message", "관리자만 사용할 수 있습니다."));
+        }
+        return null;
+    }
+}
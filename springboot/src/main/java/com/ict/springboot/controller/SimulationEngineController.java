@@ -0,0 +1,219 @@
+package com.ict.springboot.controller;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.ict.springboot.dto.UsersDto;
+import com.ict.springboot.service.AtBatArchiver;
+import com.ict.springboot.service.AtBatBatcher;
+import com.ict.springboot.service.AtBatInferenceGuard;
+import com.ict.springboot.service.AtBatPredictionCache;
+import com.ict.springboot.service.AtBatWriter;
+import com.ict.springboot.service.GameAdmission;
+import com.ict.springboot.service.GameCatchUp;
+import com.ict.springboot.service.GameLoopEngine;
+import com.ict.springboot.service.MatchupMatrix;
+import com.ict.springboot.service.OnnxAtBatModel;
+import com.ict.springboot.service.SeasonProjection;
+import com.ict.springboot.service.SimulationActors;
+import com.ict.springboot.service.SimulationLiveFeed;
+import com.ict.springboot.service.SpectatorPresence;
+import com.ict.springboot.service.TimelinePrecomputer;
+import com.ict.springboot.service.WinExpectancy;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+
+@Tag(name = "시뮬레이션 엔진", description = "실시간 시뮬레이션 엔진 상태 API")
+@RestController
+@RequestMapping("/api/simulations/engine")
+@RequiredArgsConstructor
+public class SimulationEngineController {
+
+    private final GameLoopEngine gameLoopEngine;
+    private final AtBatBatcher atBatBatcher;
+    private final OnnxAtBatModel onnxAtBatModel;
+    private final AtBatPredictionCache predictionCache;
+    private final TimelinePrecomputer timelinePrecomputer;
+    private final AtBatWriter atBatWriter;
+    private final SimulationActors simulationActors;
+    private final SimulationLiveFeed simulationLiveFeed;
+    private final AtBatArchiver atBatArchiver;
+    private final SpectatorPresence spectatorPresence;
+    private final GameCatchUp gameCatchUp;
+    private final GameAdmission gameAdmission;
+    private final AtBatInferenceGuard inferenceGuard;
+    private final WinExpectancy winExpectancy;
+    private final SeasonProjection seasonProjection;
+    private final MatchupMatrix matchupMatrix;
+
+    @Operation(summary = "게임 루프 지표", description = "진행 중인 게임 수, 처리 중인 타석 수, 스케줄링 지연(ms) 조회")
+    @GetMapping("/metrics")
+    public Map<String, Object> getLoopMetrics() {
+        return gameLoopEngine.metrics();
+    }
+
+    @Operation(summary = "타석 배치 지표", description = "FastAPI 배치 호출 수, 평균 배치 크기, 단건 대체 횟수 조회")
+    @GetMapping("/batch")
+    public Map<String, Object> getBatchMetrics() {
+        return atBatBatcher.metrics();
+    }
+
+    @Operation(summary = "타석 예측 모드", description = "예측 모드(remote/local), JVM 내 예측 횟수와 평균 소요 시간(μs) 조회")
+    @GetMapping("/inference")
+    public Map<String, Object> getInferenceMetrics() {
+        return onnxAtBatModel.metrics();
+    }
+
+    @Operation(summary = "타석 예측 캐시 지표", description = "캐시 크기, 추정 메모리(bytes), 적중률, 제거/무효화 횟수 조회")
+    @GetMapping("/prediction-cache")
+    public Map<String, Object> getPredictionCacheMetrics() {
+        return predictionCache.metrics();
+    }
+
+    @Operation(summary = "경기 선계산 지표", description = "선계산 중/완료 경기 수, 대기 중인 타석 수, 폐기 횟수, 평균 선계산 시간(ms) 조회")
+    @GetMapping("/precompute")
+    public Map<String, Object> getPrecomputeMetrics() {
+        return timelinePrecomputer.metrics();
+    }
+
+    @Operation(summary = "타석 기록 저장 지표", description = "저장 대기 건수, 배치 수/평균 크기, 평균 flush 시간(ms), INSERT 처리량(rows/s) 조회")
+    @GetMapping("/at-bat-writer")
+    public Map<String, Object> getAtBatWriterMetrics() {
+        return atBatWriter.metrics();
+    }
+
+    @Operation(summary = "게임 actor 지표", description = "actor 수, 메일박스 대기 메시지 수, 예측 대기 중인 게임 수, 메시지 처리 지연(ms) 조회")
+    @GetMapping("/actors")
+    public Map<String, Object> getActorMetrics() {
+        return simulationActors.metrics();
+    }
+
+    @Operation(summary = "경기 중계 지표", description = "중계 채널/구독자 수, 발행 1건당 전송 수, 평균 프레임 크기(bytes), 재연결 이어 받기/snapshot 횟수 조회")
+    @GetMapping("/live-feed")
+    public Map<String, Object> getLiveFeedMetrics() {
+        return simulationLiveFeed.metrics();
+    }
+
+    @Operation(summary = "타석 기록 보관 지표", description = "보관한 경기/타석 수, 행 추정 크기 대비 보관본 크기(bytes, 압축률), "
+        + "보관본 복원/행 조회 각각의 경기당 평균 조회 시간(ms) 조회")
+    @GetMapping("/archive")
+    public Map<String, Object> getArchiveMetrics() {
+        return atBatArchiver.metrics();
+    }
+
+    @Operation(summary = "따라잡기 지표", description = "재시작 시 복구한 게임 수, 시작 Job 없이 시작한 게임 수, 따라잡은 게임/타석 수, 게임당 평균 소요 시간(ms) 조회")
+    @GetMapping("/catch-up")
+    public Map<String, Object> getCatchUpMetrics() {
+        return gameCatchUp.metrics();
+    }
+
+    @Operation(summary = "게임 시작 승인 지표", description = "동시 진행 게임 수 한도 대비 사용률, 한도가 가득 찬 시간 비율, "
+        + "대기열(예상 지연 포함)과 평균/최대 대기 시간(ms) 조회")
+    @GetMapping("/admission")
+    public Map<String, Object> getAdmissionMetrics() {
+        return gameAdmission.metrics();
+    }
+
+    @Operation(summary = "FastAPI 호출 보호 지표", description = "엔드포인트별 서킷 브레이커 상태, 실패/느린 호출/차단 횟수, "
+        + "동시 호출 수, 평균 응답 시간과 현재 타임아웃(ms), 리그 평균으로 처리한 타석 수 조회")
+    @GetMapping("/resilience")
+    public Map<String, Object> getResilienceMetrics() {
+        return inferenceGuard.metrics();
+    }
+
+    @Operation(summary = "승리 기대값 표 상태", description = "표 준비 여부, 읽은 파일/생성 여부, 시드와 상황별 표본 수, 칸 수와 메모리(bytes), 생성 시간(ms) 조회")
+    @GetMapping("/win-expectancy")
+    public Map<String, Object> getWinExpectancy() {
+        return winExpectancy.metrics();
+    }
+
+    @Operation(summary = "승리 기대값 표 다시 만들기", description = "관리자 전용: 리그 평균 확률로 상황별 하프 이닝을 시뮬레이션해 표를 만들고 파일로 저장한 뒤 교체 "
+        + "(같은 시드/표본 수/선수 스탯이면 같은 표)")
+    @PostMapping("/win-expectancy/rebuild")
+    public ResponseEntity<?> rebuildWinExpectancy(@RequestParam(required = false) Long seed,
+                                                  @RequestParam(required = false) Integer samples,
+                                                  HttpServletRequest httpRequest) {
+        ResponseEntity<?> denied = requireAdmin(httpRequest);
+        if (denied != null) {
+            return denied;
+        }
+        try {
+            return ResponseEntity.ok(winExpectancy.rebuild(seed, samples));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @Operation(summary = "시즌 전망 지표", description = "준비 여부, 처음부터 다시 시뮬레이션한 횟수와 시간(ms), "
+        + "반영한 실제 경기 결과 수와 마지막 반영 시간(ms), 결과 배열 메모리(bytes) 조회")
+    @GetMapping("/season-projection")
+    public Map<String, Object> getSeasonProjectionMetrics() {
+        return seasonProjection.metrics();
+    }
+
+    @Operation(summary = "시즌 전망 갱신", description = "관리자 전용: 일정을 다시 읽어 새로 끝난 경기 결과만 반영 "
+        + "(일정이 바뀌었거나 선수 스탯이 다시 로딩되었으면 처음부터 시뮬레이션)")
+    @PostMapping("/season-projection/refresh")
+    public ResponseEntity<?> refreshSeasonProjection(HttpServletRequest httpRequest) {
+        ResponseEntity<?> denied = requireAdmin(httpRequest);
+        if (denied != null) {
+            return denied;
+        }
+        try {
+            return ResponseEntity.ok(seasonProjection.refresh());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @Operation(summary = "시즌 전망 다시 만들기", description = "관리자 전용: 남은 일정을 처음부터 다시 시뮬레이션 (같은 시즌/시드/시뮬레이션 수/선수 스탯이면 같은 결과)")
+    @PostMapping("/season-projection/rebuild")
+    public ResponseEntity<?> rebuildSeasonProjection(@RequestParam(required = false) Integer year,
+                                                     @RequestParam(required = false) Long seed,
+                                                     @RequestParam(required = false) Integer simulations,
+                                                     HttpServletRequest httpRequest) {
+        ResponseEntity<?> denied = requireAdmin(httpRequest);
+        if (denied != null) {
+            return denied;
+        }
+        try {
+            return ResponseEntity.ok(seasonProjection.rebuild(year, seed, simulations));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @Operation(summary = "맞대결 행렬 상태", description = "준비 여부, 타자/투수 수와 쌍 수, 값 개수와 메모리(bytes), "
+        + "생성 시각/시간(ms)과 생성 횟수, 실시간 타석 사용 여부 조회")
+    @GetMapping("/matchup-matrix")
+    public Map<String, Object> getMatchupMatrix() {
+        return matchupMatrix.metrics();
+    }
+
+    @Operation(summary = "관전 현황", description = "관전자가 있는 게임 목록(관전자 많은 순)과 웹소켓/SSE 관전자 수 조회")
+    @GetMapping("/presence")
+    public List<Map<String, Object>> getPresence() {
+        return spectatorPresence.watchedGames();
+    }
+
+    private ResponseEntity<?> requireAdmin(HttpServletRequest httpRequest) {
+        UsersDto loginUser = (UsersDto) httpRequest.getAttribute("user");
+        if (loginUser == null) {
+            return ResponseEntity.status(401).body(Map.of("message", "로그인이 필요합니다."));
+        }
+        if (!"ADMIN".equals(loginUser.getRole())) {
+            return ResponseEntity.status(403).body(Map.of("message", "관리자만 사용할 수 있습니다."));
+        }
+        return null;
+    }
+}
@@ -1,6 +1,7 @@
 package com.ict.springboot.controller;
 
 import com.ict.springboot.dto.UsersDto;
+import com.ict.springboot.service.SimulationLiveFeed;
 import com.ict.springboot.service.SimulationSseService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -20,6 +21,7 @@ import java.util.Map;
 public class SimulationSseController {
 
     private final SimulationSseService simulationSseService;
+    private final SimulationLiveFeed simulationLiveFeed;
 
     /**
      * SSE 구독 (실시간 시뮬레이션 이벤트 받기)
@@ -47,4 +49,16 @@ public class SimulationSseController {
             "message", "현재 " + connectedUsers + "명이 연결되어 있습니다."
         ));
     }
+
+    /**
+     * 경기 중계 구독 (game-state/at-bats 폴링 대신 사용)
+     */
+    @Operation(summary = "경기 중계 SSE 구독", description = "타석 결과(atBat, 게임 상태는 직전 버전과의 델타)와 상태 변경(start/stop/rewind)을 실시간으로 받기 위한 SSE 연결. "
+        + "연결 직후 현재 상태(snapshot)를 받고, 재연결 시 Last-Event-ID(또는 lastEventId 파라미터) 이후 이벤트를 이어 받는다")
+    @GetMapping(value = "/{simulationId}/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeLive(@PathVariable Long simulationId,
+                                    @RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader,
+                                    @RequestParam(required = false) String lastEventId) {
+        return simulationLiveFeed.subscribe(simulationId, lastEventIdHeader != null ? lastEventIdHeader : lastEventId);
+    }
 }
@@ -28,6 +28,8 @@ public class SimulationDto {
     private LocalDateTime showAt;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long parentSimulationId;
+    private Long forkAtBatId;
 
     // DTO를 Entity로 변환하는 메서드
     public SimulationEntity toEntity() {
@@ -44,6 +46,8 @@ public class SimulationDto {
             .isFinished(isFinished)
             .createdAt(createdAt)
             .updatedAt(updatedAt)
+            .parentSimulationId(parentSimulationId)
+            .forkAtBatId(forkAtBatId)
             .build();
     }
 
@@ -62,6 +66,8 @@ public class SimulationDto {
             .isFinished(simulationEntity.getIsFinished())
             .createdAt(simulationEntity.getCreatedAt())
             .updatedAt(simulationEntity.getUpdatedAt())
+            .parentSimulationId(simulationEntity.getParentSimulationId())
+            .forkAtBatId(simulationEntity.getForkAtBatId())
             .build();
     }
 }
@@ -18,7 +18,8 @@ import java.time.LocalDateTime;
 public class AtBatEntity {
     
     @Id
-    @SequenceGenerator(name = "SEQ_AT_BATS_GENERATOR", sequenceName = "SEQ_AT_BATS", initialValue = 1, allocationSize = 1)
+    // 타석 기록은 AtBatWriter가 배치 INSERT (ID는 시퀀스 블록 단위로 미리 할당, sql/alter_seq_at_bats.sql)
+    @SequenceGenerator(name = "SEQ_AT_BATS_GENERATOR", sequenceName = "SEQ_AT_BATS", initialValue = 1, allocationSize = 50)
     @GeneratedValue(generator = "SEQ_AT_BATS_GENERATOR", strategy = GenerationType.SEQUENCE)
     private Long id;
 
@@ -87,6 +88,12 @@ public class AtBatEntity {
     @Column(name = "probabilities", columnDefinition = "VARCHAR2(4000)")
     private String probabilities; // AI 예측 확률 (JSON)
 
+    @Column(name = "win_probability")
+    private Double winProbability; // 타석 후 홈팀 승리 확률 (WinExpectancy, 소수 넷째 자리)
+
+    @Column(name = "win_probability_added")
+    private Double winProbabilityAdded; // 공격팀 기준 승리 확률 변화량 (WPA)
+
     @Column(name = "created_at")
     @ColumnDefault("SYSDATE")
     @CreationTimestamp
@@ -0,0 +1,59 @@
+package com.ict.springboot.entity;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.CreationTimestamp;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * 끝난 시뮬레이션의 타석 기록 보관본 (AtBatArchive 형식, 시뮬레이션당 1건)
+ * SIMULATIONS 목록 조회에서 BLOB을 함께 읽지 않도록 시뮬레이션 ID를 키로 따로 저장한다.
+ */
+@Entity
+@Table(name = "SIMULATION_AT_BAT_ARCHIVE")
+@Setter
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimulationAtBatArchiveEntity {
+
+    @Id
+    @Column(name = "simulation_id", length = 20, nullable = false)
+    private Long simulationId;
+
+    @Column(name = "at_bat_count", nullable = false)
+    private Integer atBatCount;
+
+    // AT_BATS 행으로 저장했을 때의 추정 크기 (AtBatArchive.estimatedRowBytes)
+    @Column(name = "row_bytes", nullable = false)
+    private Long rowBytes;
+
+    @Column(name = "archive_bytes", nullable = false)
+    private Integer archiveBytes;
+
+    @Lob
+    @Column(name = "archive", columnDefinition = "BLOB", nullable = false)
+    private byte[] archive;
+
+    // AT_BATS 행 삭제 여부
+    @Column(name = "rows_purged")
+    @ColumnDefault("0")
+    private Boolean rowsPurged;
+
+    @Column(name = "created_at")
+    @ColumnDefault("SYSDATE")
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+}
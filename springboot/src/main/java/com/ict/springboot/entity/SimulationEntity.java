@@ -72,4 +72,12 @@ public class SimulationEntity {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // 분기(what-if) 시뮬레이션: 원본 시뮬레이션 ID와 공유하는 원본 타석 기록의 마지막 타석 ID
+    // (forkAtBatId까지의 원본 타석은 복사하지 않고 원본 것을 그대로 읽는다, 공유 타석이 없으면 null)
+    @Column(name = "parent_simulation_id")
+    private Long parentSimulationId;
+
+    @Column(name = "fork_at_bat_id")
+    private Long forkAtBatId;
+
 }
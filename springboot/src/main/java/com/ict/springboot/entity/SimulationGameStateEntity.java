@@ -90,11 +90,15 @@ public class SimulationGameStateEntity {
     // 게임 상태
     @Column(name = "game_status", length = 20, nullable = false)
     @ColumnDefault("'READY'")
-    private String gameStatus; // READY, PLAYING, FINISHED
+    private String gameStatus; // READY, PLAYING, FINISHED, STOPPED
 
     @Column(name = "winner", length = 10)
     private String winner; // "HOME", "AWAY", "TIE"
 
+    // 박스스코어 (경기 종료/중지 시 한 번 저장, BoxScore.encode 형식)
+    @Column(name = "box_score", length = 2000)
+    private byte[] boxScore;
+
     // 메타 정보
     @Column(name = "created_at")
     @ColumnDefault("SYSDATE")
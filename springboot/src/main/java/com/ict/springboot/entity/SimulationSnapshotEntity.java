@@ -0,0 +1,78 @@
+package com.ict.springboot.entity;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.CreationTimestamp;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * 하프 이닝 시작 시점의 게임 스냅샷 (한 번 저장하면 수정하지 않음)
+ * - 이닝 시작 상황(점수, 양 팀 타순)과 박스스코어, 그때까지의 타석 기록 위치(lastAtBatId)
+ * - 분기(fork)와 되감기는 이 스냅샷에서 바로 시작하므로 이전 타석을 다시 읽거나 계산하지 않는다
+ */
+@Entity
+@Table(name = "SIMULATION_SNAPSHOTS")
+@Setter
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimulationSnapshotEntity {
+
+    @Id
+    @SequenceGenerator(name = "SEQ_SIM_SNAPSHOT_GENERATOR", sequenceName = "SEQ_SIM_SNAPSHOT", allocationSize = 1, initialValue = 1)
+    @GeneratedValue(generator = "SEQ_SIM_SNAPSHOT_GENERATOR", strategy = GenerationType.SEQUENCE)
+    @Column(length = 20, nullable = false)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "simulation_id", nullable = false)
+    private SimulationEntity simulation;
+
+    @Column(name = "inning", nullable = false)
+    private Integer inning;
+
+    @Column(name = "half", length = 10, nullable = false)
+    private String half; // "초" 또는 "말"
+
+    @Column(name = "home_score", nullable = false)
+    private Integer homeScore;
+
+    @Column(name = "away_score", nullable = false)
+    private Integer awayScore;
+
+    @Column(name = "home_batter_idx", nullable = false)
+    private Integer homeBatterIdx;
+
+    @Column(name = "away_batter_idx", nullable = false)
+    private Integer awayBatterIdx;
+
+    // 이 시점까지의 마지막 타석 ID (타석 기록 위치, 첫 타석 전이면 null)
+    @Column(name = "last_at_bat_id")
+    private Long lastAtBatId;
+
+    // 이 시점의 박스스코어 (BoxScore.encode 형식)
+    @Column(name = "box_score", length = 2000)
+    private byte[] boxScore;
+
+    @Column(name = "created_at")
+    @ColumnDefault("SYSDATE")
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+}
@@ -3,9 +3,7 @@ package com.ict.springboot.job;
 import com.ict.springboot.entity.SimulationEntity;
 import com.ict.springboot.repository.SimulationRepository;
 import com.ict.springboot.repository.SimulationGameStateRepository;
-import com.ict.springboot.service.NotificationService;
-import com.ict.springboot.service.QuartzSimulationScheduler;
-import com.ict.springboot.service.SimulationService;
+import com.ict.springboot.service.GameAdmission;
 import lombok.extern.slf4j.Slf4j;
 import org.quartz.Job;
 import org.quartz.JobExecutionContext;
@@ -14,20 +12,18 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
+import java.util.Map;
 
 /**
  * 시뮬레이션 실행 Job
- * 예약된 시뮬레이션을 실행하고 게임 진행 Job을 스케줄링
+ * 예약된 시뮬레이션 시작을 GameAdmission에 요청 (예산이 없으면 대기열에서 순서대로 시작)
  */
 @Component
 @Slf4j
 public class SimulationExecutionJob implements Job {
     
     @Autowired
-    private SimulationService simulationService;
-    
-    @Autowired
-    private QuartzSimulationScheduler quartzScheduler;
+    private GameAdmission gameAdmission;
     
     @Autowired
     private SimulationRepository simulationRepo;
@@ -35,9 +31,6 @@ public class SimulationExecutionJob implements Job {
     @Autowired
     private SimulationGameStateRepository gameStateRepo;
     
-    @Autowired
-    private NotificationService notificationService;
-    
     @Override
     public void execute(JobExecutionContext context) throws JobExecutionException {
         try {
@@ -61,21 +54,10 @@ public class SimulationExecutionJob implements Job {
                 return;
             }
             
-            // 시뮬레이션 실행
-            simulationService.startRealtimeGame(simulationId);
-            
-            // 게임 시작 알림 발송
-            notificationService.notifySimulationStarted(
-                simulation.getUser().getId(), 
-                simulationId, 
-                simulation.getHometeam(), 
-                simulation.getAwayteam()
-            );
-            
-            // 게임 진행 Job 스케줄링 (10초마다)
-            quartzScheduler.scheduleGameProgress(simulationId);
+            // 시뮬레이션 실행 (실시간 추론 예산이 남아 있으면 시작 + 알림 + 게임 루프 등록, 없으면 대기열)
+            Map<String, Object> result = gameAdmission.requestStart(simulation);
             
-            log.info("시뮬레이션 실행 Job 완료: simulationId={}", simulationId);
+            log.info("시뮬레이션 실행 Job 완료: simulationId={}, status={}", simulationId, result.get("status"));
             
         } catch (Exception e) {
             log.error("시뮬레이션 실행 Job 오류", e);
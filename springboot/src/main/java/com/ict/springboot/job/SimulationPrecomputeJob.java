@@ -0,0 +1,46 @@
+package com.ict.springboot.job;
+
+import com.ict.springboot.repository.SimulationGameStateRepository;
+import com.ict.springboot.service.TimelinePrecomputer;
+import lombok.extern.slf4j.Slf4j;
+import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * 경기 선계산 Job
+ * 경기 시작 몇 분 전에 경기 전체를 백그라운드에서 미리 시뮬레이션하도록 등록
+ */
+@Component
+@Slf4j
+public class SimulationPrecomputeJob implements Job {
+    
+    @Autowired
+    private TimelinePrecomputer timelinePrecomputer;
+    
+    @Autowired
+    private SimulationGameStateRepository gameStateRepo;
+    
+    @Override
+    public void execute(JobExecutionContext context) throws JobExecutionException {
+        try {
+            Long simulationId = context.getJobDetail().getJobDataMap().getLong("simulationId");
+            
+            // 이미 게임이 시작되었으면 선계산하지 않음 (실시간 예측으로 진행 중)
+            if (gameStateRepo.findBySimulationId(simulationId).isPresent()) {
+                log.warn("이미 시작된 게임은 선계산하지 않습니다: simulationId={}", simulationId);
+                return;
+            }
+            
+            if (timelinePrecomputer.submit(simulationId)) {
+                log.info("경기 선계산 등록: simulationId={}", simulationId);
+            }
+            
+        } catch (Exception e) {
+            log.error("경기 선계산 Job 오류", e);
+            throw new JobExecutionException(e);
+        }
+    }
+}
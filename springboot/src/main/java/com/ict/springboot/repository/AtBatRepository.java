@@ -2,9 +2,11 @@ package com.ict.springboot.repository;
 
 import com.ict.springboot.entity.AtBatEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -21,6 +23,16 @@ public interface AtBatRepository extends JpaRepository<AtBatEntity, Long> {
      */
     List<AtBatEntity> findBySimulation_IdOrderByInningHalfAsc(Long simulationId);
 
+    /**
+     * 특정 시뮬레이션의 타석 데이터 조회 (발생 순서)
+     */
+    List<AtBatEntity> findBySimulation_IdOrderByIdAsc(Long simulationId);
+
+    /**
+     * 특정 시뮬레이션의 특정 타석까지의 타석 데이터 조회 (분기 시뮬레이션이 공유하는 구간)
+     */
+    List<AtBatEntity> findBySimulation_IdAndIdLessThanEqualOrderByIdAsc(Long simulationId, Long lastId);
+
     /**
      * 특정 시뮬레이션의 특정 이닝 타석 데이터 조회
      */
@@ -37,4 +49,12 @@ public interface AtBatRepository extends JpaRepository<AtBatEntity, Long> {
      */
     @Query("DELETE FROM AtBatEntity a WHERE a.simulation.id = :simulationId AND a.inningHalf >= :fromInning")
     void deleteBySimulationIdAndFromInning(@Param("simulationId") Long simulationId, @Param("fromInning") String fromInning);
+
+    /**
+     * 특정 시뮬레이션의 특정 타석(ID)부터의 타석 데이터 삭제 (되감기)
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM AtBatEntity a WHERE a.simulation.id = :simulationId AND a.id >= :fromId")
+    int deleteBySimulationIdFromId(@Param("simulationId") Long simulationId, @Param("fromId") Long fromId);
 }
@@ -65,4 +65,7 @@ public interface ScheduleRepository extends JpaRepository<ScheduleEntity, Long>
     """)
     List<ScheduleEntity> findWithStadiumOrderByGameTimeDesc();
 
+    // 시즌 전체 일정 (시즌 전망용, 경기 순서대로)
+    List<ScheduleEntity> findByYearOrderByGameDateAscGameTimeAscIdAsc(Integer year);
+
 }
@@ -0,0 +1,24 @@
+package com.ict.springboot.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.ict.springboot.entity.SimulationAtBatArchiveEntity;
+
+@Repository
+public interface SimulationAtBatArchiveRepository extends JpaRepository<SimulationAtBatArchiveEntity, Long> {
+
+    // 보관본 바이트만 조회 (없으면 null)
+    @Query("SELECT a.archive FROM SimulationAtBatArchiveEntity a WHERE a.simulationId = :simulationId")
+    byte[] findArchiveBySimulationId(@Param("simulationId") Long simulationId);
+
+    // 보관 대상: 끝났고 아직 보관본이 없는 시뮬레이션 (오래된 순)
+    @Query("SELECT s.id FROM SimulationEntity s WHERE s.isFinished = true "
+        + "AND NOT EXISTS (SELECT 1 FROM SimulationAtBatArchiveEntity a WHERE a.simulationId = s.id) ORDER BY s.id ASC")
+    List<Long> findUnarchivedFinishedIds(Pageable pageable);
+}
@@ -5,9 +5,11 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.ict.springboot.entity.SimulationGameStateEntity;
 
@@ -32,6 +34,28 @@ public interface SimulationGameStateRepository extends JpaRepository<SimulationG
         @Param("startOfDay") LocalDateTime startOfDay,
         @Param("endOfDay") LocalDateTime endOfDay);
     
+    // 메모리 상주 게임 상태 반영 (write-behind flush, 조회 없이 UPDATE만 수행)
+    @Modifying
+    @Transactional
+    @Query("UPDATE SimulationGameStateEntity sgs SET sgs.inning = :#{#s.inning}, sgs.half = :#{#s.half}, sgs.outs = :#{#s.outs}, "
+        + "sgs.base1 = :#{#s.base1}, sgs.base2 = :#{#s.base2}, sgs.base3 = :#{#s.base3}, "
+        + "sgs.homeScore = :#{#s.homeScore}, sgs.awayScore = :#{#s.awayScore}, "
+        + "sgs.homeBatterIdx = :#{#s.homeBatterIdx}, sgs.awayBatterIdx = :#{#s.awayBatterIdx}, "
+        + "sgs.currentPitcherPNo = :#{#s.currentPitcherPNo}, sgs.nextBatterPNo = :#{#s.nextBatterPNo}, "
+        + "sgs.gameStatus = :#{#s.gameStatus}, sgs.winner = :#{#s.winner}, sgs.updatedAt = :#{#s.updatedAt} "
+        + "WHERE sgs.id = :#{#s.id}")
+    int updateLiveState(@Param("s") SimulationGameStateEntity s);
+
+    // 박스스코어 저장 (경기 종료 시 한 번)
+    @Modifying
+    @Transactional
+    @Query("UPDATE SimulationGameStateEntity sgs SET sgs.boxScore = :boxScore WHERE sgs.simulation.id = :simulationId")
+    int updateBoxScore(@Param("simulationId") Long simulationId, @Param("boxScore") byte[] boxScore);
+
+    // 저장된 박스스코어 조회 (없으면 null)
+    @Query("SELECT sgs.boxScore FROM SimulationGameStateEntity sgs WHERE sgs.simulation.id = :simulationId")
+    byte[] findBoxScoreBySimulationId(@Param("simulationId") Long simulationId);
+
     // 게임 상태와 업데이트 시간으로 조회 (향후 사용 가능)
     @Query("SELECT sgs FROM SimulationGameStateEntity sgs WHERE sgs.gameStatus = :gameStatus AND sgs.updatedAt < :beforeTime")
     List<SimulationGameStateEntity> findByGameStatusAndUpdatedAtBefore(
@@ -44,5 +44,18 @@ public interface SimulationRepository extends JpaRepository<SimulationEntity, Lo
     // 홈팀과 어웨이팀으로 검색
     @Query("SELECT s FROM SimulationEntity s WHERE s.hometeam = :hometeam AND s.awayteam = :awayteam ORDER BY s.createdAt DESC")
     List<SimulationEntity> findByHometeamAndAwayteam(@Param("hometeam") Long hometeam, @Param("awayteam") Long awayteam);
+
+    // 원본 타석 기록을 공유하는 분기 시뮬레이션이 있는지 (공유 구간 삭제 방지)
+    boolean existsByParentSimulationIdAndForkAtBatIdIsNotNull(Long parentSimulationId);
+
+    // 특정 타석 이후까지 공유하는 분기 시뮬레이션이 있는지 (되감기 방지)
+    boolean existsByParentSimulationIdAndForkAtBatIdGreaterThanEqual(Long parentSimulationId, Long fromId);
+
+    // 시작 시각이 지났는데 게임 상태가 없는 시뮬레이션 (시작 Job 유실)
+    @Query("SELECT s FROM SimulationEntity s WHERE s.showAt BETWEEN :startDate AND :endDate "
+        + "AND (s.isFinished IS NULL OR s.isFinished = false) "
+        + "AND NOT EXISTS (SELECT sgs.id FROM SimulationGameStateEntity sgs WHERE sgs.simulation = s) ORDER BY s.showAt ASC")
+    List<SimulationEntity> findUnstartedBetween(@Param("startDate") java.time.LocalDateTime startDate,
+                                                @Param("endDate") java.time.LocalDateTime endDate);
     
 }
@@ -0,0 +1,44 @@
+package com.ict.springboot.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ict.springboot.entity.SimulationSnapshotEntity;
+
+@Repository
+public interface SimulationSnapshotRepository extends JpaRepository<SimulationSnapshotEntity, Long> {
+
+    // 시뮬레이션의 스냅샷 목록 (저장 순서 = 진행 순서)
+    List<SimulationSnapshotEntity> findBySimulation_IdOrderByIdAsc(Long simulationId);
+
+    // 특정 이닝 초/말 시작 스냅샷
+    Optional<SimulationSnapshotEntity> findFirstBySimulation_IdAndInningAndHalfOrderByIdDesc(Long simulationId, Integer inning, String half);
+
+    // 시뮬레이션의 첫 스냅샷 (게임 시작 또는 분기 시점)
+    Optional<SimulationSnapshotEntity> findFirstBySimulation_IdOrderByIdAsc(Long simulationId);
+
+    // 되감기: 특정 스냅샷 이후 스냅샷 삭제
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM SimulationSnapshotEntity s WHERE s.simulation.id = :simulationId AND s.id > :snapshotId")
+    int deleteBySimulationIdAfter(@Param("simulationId") Long simulationId, @Param("snapshotId") Long snapshotId);
+
+    // 되감기: 삭제되는 타석 이후 시점의 스냅샷 삭제
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM SimulationSnapshotEntity s WHERE s.simulation.id = :simulationId AND s.lastAtBatId >= :fromId")
+    int deleteBySimulationIdFromAtBat(@Param("simulationId") Long simulationId, @Param("fromId") Long fromId);
+
+    // 시뮬레이션 삭제 시 스냅샷 삭제
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM SimulationSnapshotEntity s WHERE s.simulation.id = :simulationId")
+    int deleteBySimulationId(@Param("simulationId") Long simulationId);
+}
@@ -0,0 +1,528 @@
+package com.ict.springboot.service;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ict.springboot.entity.AtBatEntity;
+import com.ict.springboot.entity.SimulationEntity;
+
+/**
+ * 끝난 경기의 타석 기록 보관 형식 (열 단위 이진 + deflate)
+ * - 행 대신 열(ID, 이닝, 타자, 투수, 상황, 결과, 확률 …)별로 모든 타석을 이어 쓰고 전체를 deflate로 압축
+ * - 선수 번호는 경기에 나온 번호 사전(정렬 후 차이값)의 인덱스로, ID/시각은 직전 값과의 차이로 저장
+ * - 타석 전/후 아웃과 주자 유무는 1바이트로 묶고, 주자 번호만 따로 저장
+ * - 예측 확률은 1/10000 단위 정수로 양자화 (복원 값은 소수 넷째 자리까지)
+ * - 승리 확률/변화량(WPA)은 저장 값이 이미 소수 넷째 자리라 1/10000 단위 정수로 그대로 복원된다 (형식 2부터)
+ * - 형식에 맞지 않는 값(알 수 없는 결과명, 확률 JSON 등)은 원문 문자열 열에 그대로 보관
+ */
+public final class AtBatArchive {
+
+    // 저장 형식 버전 (첫 바이트, 1 = 승리 확률 열 없음)
+    private static final int FORMAT = 2;
+    private static final int FORMAT_WITHOUT_WIN_PROBABILITY = 1;
+
+    // 확률 양자화 단위
+    private static final double PROBABILITY_SCALE = 10000.0;
+
+    private static final int OUTCOMES = AtBatOutcome.values().length;
+    // 결과 열: 원문 문자열로 보관
+    private static final int RAW_OUTCOME = OUTCOMES;
+    // 확률 마스크: 원문 문자열로 보관
+    private static final int RAW_PROBABILITIES = 1 << OUTCOMES;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private AtBatArchive() {
+    }
+
+    /**
+     * 타석 기록(발생 순서) → 보관 바이트
+     */
+    public static byte[] encode(List<AtBatEntity> atBats) {
+        // 선수 번호 사전
+        TreeSet<Long> players = new TreeSet<>();
+        for (AtBatEntity atBat : atBats) {
+            addPlayer(players, atBat.getBatterPNo());
+            addPlayer(players, atBat.getPitcherPNo());
+            addPlayer(players, atBat.getPrevBase1());
+            addPlayer(players, atBat.getPrevBase2());
+            addPlayer(players, atBat.getPrevBase3());
+            addPlayer(players, atBat.getNewBase1());
+            addPlayer(players, atBat.getNewBase2());
+            addPlayer(players, atBat.getNewBase3());
+        }
+        long[] dictionary = players.stream().mapToLong(Long::longValue).toArray();
+
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        writeVarint(header, atBats.size());
+        writeVarint(header, dictionary.length);
+        long previousPNo = 0;
+        for (long pNo : dictionary) {
+            writeZigZag(header, pNo - previousPNo);
+            previousPNo = pNo;
+        }
+
+        ByteArrayOutputStream ids = new ByteArrayOutputStream();
+        ByteArrayOutputStream times = new ByteArrayOutputStream();
+        ByteArrayOutputStream innings = new ByteArrayOutputStream();
+        ByteArrayOutputStream orders = new ByteArrayOutputStream();
+        ByteArrayOutputStream batters = new ByteArrayOutputStream();
+        ByteArrayOutputStream pitchers = new ByteArrayOutputStream();
+        ByteArrayOutputStream situations = new ByteArrayOutputStream();
+        ByteArrayOutputStream runners = new ByteArrayOutputStream();
+        ByteArrayOutputStream scores = new ByteArrayOutputStream();
+        ByteArrayOutputStream outcomes = new ByteArrayOutputStream();
+        ByteArrayOutputStream rbis = new ByteArrayOutputStream();
+        ByteArrayOutputStream probabilities = new ByteArrayOutputStream();
+        ByteArrayOutputStream winProbabilities = new ByteArrayOutputStream();
+        ByteArrayOutputStream strings = new ByteArrayOutputStream();
+
+        long previousId = 0;
+        long previousTime = 0;
+        int previousHome = 0;
+        int previousAway = 0;
+        for (AtBatEntity atBat : atBats) {
+            writeZigZag(ids, atBat.getId() - previousId);
+            previousId = atBat.getId();
+
+            long time = atBat.getCreatedAt() != null ? atBat.getCreatedAt().atZone(ZONE).toInstant().toEpochMilli() : 0;
+            writeZigZag(times, time - previousTime);
+            previousTime = time;
+
+            // 이닝: (이닝 - 1) * 2 + 초/말 + 1, 0이면 원문
+            int half = halfIndex(atBat.getInningHalf());
+            writeVarint(innings, half + 1);
+            if (half < 0) {
+                writeString(strings, atBat.getInningHalf());
+            }
+            writeVarint(orders, atBat.getBattingOrder() != null ? atBat.getBattingOrder() : 0);
+            writeVarint(batters, playerIndex(dictionary, atBat.getBatterPNo()));
+            writeVarint(pitchers, playerIndex(dictionary, atBat.getPitcherPNo()));
+
+            // 상황 1바이트씩: (아웃 + 1) << 3 | 주자 마스크 (아웃 null이면 0)
+            situations.write(situation(atBat.getPrevOuts(), atBat.getPrevBase1(), atBat.getPrevBase2(), atBat.getPrevBase3()));
+            situations.write(situation(atBat.getNewOuts(), atBat.getNewBase1(), atBat.getNewBase2(), atBat.getNewBase3()));
+            writeRunner(runners, dictionary, atBat.getPrevBase1());
+            writeRunner(runners, dictionary, atBat.getPrevBase2());
+            writeRunner(runners, dictionary, atBat.getPrevBase3());
+            writeRunner(runners, dictionary, atBat.getNewBase1());
+            writeRunner(runners, dictionary, atBat.getNewBase2());
+            writeRunner(runners, dictionary, atBat.getNewBase3());
+
+            // 점수: 타석 전 점수는 직전 타석 후 점수와의 차이, 타석 후 점수는 타석 전 점수와의 차이
+            int prevHome = intValue(atBat.getPrevScoreHome());
+            int prevAway = intValue(atBat.getPrevScoreAway());
+            int newHome = intValue(atBat.getNewScoreHome());
+            int newAway = intValue(atBat.getNewScoreAway());
+            writeZigZag(scores, prevHome - previousHome);
+            writeZigZag(scores, prevAway - previousAway);
+            writeZigZag(scores, newHome - prevHome);
+            writeZigZag(scores, newAway - prevAway);
+            previousHome = newHome;
+            previousAway = newAway;
+
+            AtBatOutcome outcome = AtBatOutcome.fromKorean(atBat.getResultKorean());
+            if (outcome != null && outcome.getCode().equals(atBat.getResult())) {
+                outcomes.write(outcome.ordinal());
+            } else {
+                outcomes.write(RAW_OUTCOME);
+                writeString(strings, atBat.getResult());
+                writeString(strings, atBat.getResultKorean());
+            }
+            writeVarint(rbis, intValue(atBat.getRbi()));
+
+            writeProbabilities(probabilities, strings, atBat.getProbabilities());
+            writeScaled(winProbabilities, atBat.getWinProbability());
+            writeScaled(winProbabilities, atBat.getWinProbabilityAdded());
+        }
+
+        ByteArrayOutputStream raw = new ByteArrayOutputStream(4096);
+        for (ByteArrayOutputStream column : Arrays.asList(header, ids, times, innings, orders, batters, pitchers,
+                situations, runners, scores, outcomes, rbis, probabilities, winProbabilities, strings)) {
+            raw.writeBytes(column.toByteArray());
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(1024);
+        out.write(FORMAT);
+        writeVarint(out, raw.size());
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(raw.toByteArray());
+            deflater.finish();
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                int n = deflater.deflate(buffer);
+                out.write(buffer, 0, n);
+            }
+        } finally {
+            deflater.end();
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 보관 바이트 → 타석 기록 (발생 순서, simulation은 전달한 엔티티)
+     */
+    public static List<AtBatEntity> decode(byte[] archive, SimulationEntity simulation) {
+        if (archive.length == 0 || (archive[0] != FORMAT && archive[0] != FORMAT_WITHOUT_WIN_PROBABILITY)) {
+            throw new IllegalArgumentException("지원하지 않는 타석 보관 형식입니다.");
+        }
+        boolean hasWinProbability = archive[0] == FORMAT;
+        int[] pos = {1};
+        int rawLength = readVarint(archive, pos);
+        byte[] raw = new byte[rawLength];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(archive, pos[0], archive.length - pos[0]);
+            int read = 0;
+            while (read < rawLength) {
+                int n = inflater.inflate(raw, read, rawLength - read);
+                if (n == 0 && (inflater.finished() || inflater.needsInput())) {
+                    throw new IllegalArgumentException("타석 보관 데이터가 손상되었습니다.");
+                }
+                read += n;
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("타석 보관 데이터가 손상되었습니다.", e);
+        } finally {
+            inflater.end();
+        }
+
+        pos[0] = 0;
+        int count = readVarint(raw, pos);
+        long[] dictionary = new long[readVarint(raw, pos)];
+        long previousPNo = 0;
+        for (int i = 0; i < dictionary.length; i++) {
+            previousPNo += readZigZag(raw, pos);
+            dictionary[i] = previousPNo;
+        }
+
+        List<AtBatEntity.AtBatEntityBuilder> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(AtBatEntity.builder().simulation(simulation));
+        }
+
+        // 열 단위로 읽는다 (encode와 같은 순서)
+        long[] ids = new long[count];
+        long previousId = 0;
+        for (int i = 0; i < count; i++) {
+            previousId += readZigZag(raw, pos);
+            ids[i] = previousId;
+            rows.get(i).id(previousId);
+        }
+        long previousTime = 0;
+        for (int i = 0; i < count; i++) {
+            previousTime += readZigZag(raw, pos);
+            rows.get(i).createdAt(previousTime != 0
+                ? LocalDateTime.ofInstant(Instant.ofEpochMilli(previousTime), ZONE) : null);
+        }
+        int[] halves = new int[count];
+        for (int i = 0; i < count; i++) {
+            halves[i] = readVarint(raw, pos) - 1;
+        }
+        for (int i = 0; i < count; i++) {
+            int order = readVarint(raw, pos);
+            rows.get(i).battingOrder(order != 0 ? order : null);
+        }
+        for (int i = 0; i < count; i++) {
+            rows.get(i).batterPNo(dictionary[readVarint(raw, pos)]);
+        }
+        for (int i = 0; i < count; i++) {
+            rows.get(i).pitcherPNo(dictionary[readVarint(raw, pos)]);
+        }
+        int[] situations = new int[count * 2];
+        for (int i = 0; i < situations.length; i++) {
+            situations[i] = raw[pos[0]++] & 0xFF;
+        }
+        for (int i = 0; i < count; i++) {
+            int before = situations[i * 2];
+            int after = situations[i * 2 + 1];
+            rows.get(i)
+                .prevOuts(outs(before))
+                .prevBase1(runner(raw, pos, dictionary, before, 1))
+                .prevBase2(runner(raw, pos, dictionary, before, 2))
+                .prevBase3(runner(raw, pos, dictionary, before, 4))
+                .newOuts(outs(after))
+                .newBase1(runner(raw, pos, dictionary, after, 1))
+                .newBase2(runner(raw, pos, dictionary, after, 2))
+                .newBase3(runner(raw, pos, dictionary, after, 4));
+        }
+        int previousHome = 0;
+        int previousAway = 0;
+        for (int i = 0; i < count; i++) {
+            int prevHome = previousHome + (int) readZigZag(raw, pos);
+            int prevAway = previousAway + (int) readZigZag(raw, pos);
+            previousHome = prevHome + (int) readZigZag(raw, pos);
+            previousAway = prevAway + (int) readZigZag(raw, pos);
+            rows.get(i).prevScoreHome(prevHome).prevScoreAway(prevAway)
+                .newScoreHome(previousHome).newScoreAway(previousAway);
+        }
+        int[] outcomes = new int[count];
+        for (int i = 0; i < count; i++) {
+            outcomes[i] = raw[pos[0]++] & 0xFF;
+        }
+        for (int i = 0; i < count; i++) {
+            rows.get(i).rbi(readVarint(raw, pos));
+        }
+        int[] masks = new int[count];
+        double[][] values = new double[count][];
+        for (int i = 0; i < count; i++) {
+            masks[i] = readVarint(raw, pos);
+            values[i] = new double[OUTCOMES];
+            for (int o = 0; o < OUTCOMES; o++) {
+                if ((masks[i] & (1 << o)) != 0) {
+                    values[i][o] = readVarint(raw, pos) / PROBABILITY_SCALE;
+                }
+            }
+        }
+        if (hasWinProbability) {
+            for (int i = 0; i < count; i++) {
+                rows.get(i).winProbability(readScaled(raw, pos)).winProbabilityAdded(readScaled(raw, pos));
+            }
+        }
+
+        // 원문 문자열 열 (encode에서 행 순서대로 쓴 값)
+        AtBatOutcome[] all = AtBatOutcome.values();
+        List<AtBatEntity> atBats = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            AtBatEntity.AtBatEntityBuilder row = rows.get(i);
+            row.inningHalf(halves[i] >= 0 ? inningHalf(halves[i]) : readString(raw, pos));
+            if (outcomes[i] == RAW_OUTCOME) {
+                row.result(readString(raw, pos)).resultKorean(readString(raw, pos));
+            } else {
+                row.result(all[outcomes[i]].getCode()).resultKorean(all[outcomes[i]].getKorean());
+            }
+            if ((masks[i] & RAW_PROBABILITIES) != 0) {
+                row.probabilities(readString(raw, pos));
+            } else if (masks[i] != 0) {
+                row.probabilities(probabilitiesJson(masks[i], values[i]));
+            }
+            atBats.add(row.build());
+        }
+        return atBats;
+    }
+
+    /**
+     * AT_BATS 행으로 저장했을 때의 추정 크기 (보관 전후 비교용)
+     * 행 헤더 3 bytes + 열 길이 25 bytes + 숫자/날짜 열 21개(평균 5 bytes) + 문자열 열 길이
+     */
+    public static long estimatedRowBytes(List<AtBatEntity> atBats) {
+        long bytes = 0;
+        for (AtBatEntity atBat : atBats) {
+            bytes += 3 + 25 + 21 * 5;
+            bytes += utf8Length(atBat.getInningHalf()) + utf8Length(atBat.getResult())
+                + utf8Length(atBat.getResultKorean()) + utf8Length(atBat.getProbabilities());
+        }
+        return bytes;
+    }
+
+    // =============================================
+    // 열 인코딩
+    // =============================================
+
+    private static void addPlayer(TreeSet<Long> players, Long pNo) {
+        if (pNo != null) {
+            players.add(pNo);
+        }
+    }
+
+    private static int playerIndex(long[] dictionary, Long pNo) {
+        return Arrays.binarySearch(dictionary, pNo != null ? pNo : 0L);
+    }
+
+    private static int situation(Integer outs, Long base1, Long base2, Long base3) {
+        int mask = (base1 != null ? 1 : 0) | (base2 != null ? 2 : 0) | (base3 != null ? 4 : 0);
+        return ((outs != null ? outs + 1 : 0) << 3) | mask;
+    }
+
+    private static Integer outs(int situation) {
+        int outs = situation >>> 3;
+        return outs != 0 ? outs - 1 : null;
+    }
+
+    private static void writeRunner(ByteArrayOutputStream out, long[] dictionary, Long pNo) {
+        if (pNo != null) {
+            writeVarint(out, playerIndex(dictionary, pNo));
+        }
+    }
+
+    private static Long runner(byte[] raw, int[] pos, long[] dictionary, int situation, int bit) {
+        return (situation & bit) != 0 ? dictionary[readVarint(raw, pos)] : null;
+    }
+
+    private static int halfIndex(String inningHalf) {
+        if (inningHalf == null || !inningHalf.matches("\\d{1,3}[초말]")) {
+            return -1;
+        }
+        int inning = Integer.parseInt(inningHalf.substring(0, inningHalf.length() - 1));
+        return inning < 1 ? -1 : (inning - 1) * 2 + (inningHalf.endsWith("말") ? 1 : 0);
+    }
+
+    private static String inningHalf(int half) {
+        return (half / 2 + 1) + (half % 2 == 0 ? "초" : "말");
+    }
+
+    // 확률: 결과별 존재 마스크 + 양자화 값, 결과명 → 숫자 맵이 아니면 원문
+    private static void writeProbabilities(ByteArrayOutputStream out, ByteArrayOutputStream strings, String json) {
+        if (json == null) {
+            writeVarint(out, 0);
+            return;
+        }
+        int mask = 0;
+        int[] quantized = new int[OUTCOMES];
+        try {
+            Map<String, Object> map = MAPPER.readValue(json, new TypeReference<Map<String, Object>>() {});
+            for (Map.Entry<String, Object> entry : map.entrySet()) {
+                AtBatOutcome outcome = AtBatOutcome.fromKorean(entry.getKey());
+                if (outcome == null || !(entry.getValue() instanceof Number)) {
+                    mask = RAW_PROBABILITIES;
+                    break;
+                }
+                double p = ((Number) entry.getValue()).doubleValue();
+                if (p < 0 || p > 1) {
+                    mask = RAW_PROBABILITIES;
+                    break;
+                }
+                mask |= 1 << outcome.ordinal();
+                quantized[outcome.ordinal()] = (int) Math.round(p * PROBABILITY_SCALE);
+            }
+        } catch (Exception e) {
+            mask = RAW_PROBABILITIES;
+        }
+        if (mask == 0) {
+            // 빈 맵
+            mask = RAW_PROBABILITIES;
+        }
+        writeVarint(out, mask);
+        if (mask == RAW_PROBABILITIES) {
+            writeString(strings, json);
+            return;
+        }
+        for (int o = 0; o < OUTCOMES; o++) {
+            if ((mask & (1 << o)) != 0) {
+                writeVarint(out, quantized[o]);
+            }
+        }
+    }
+
+    // AtBatOutcome 순서의 JSON (Python 응답과 같은 결과명 → 확률 형식)
+    private static String probabilitiesJson(int mask, double[] values) {
+        StringBuilder json = new StringBuilder(256).append('{');
+        AtBatOutcome[] all = AtBatOutcome.values();
+        boolean first = true;
+        for (int o = 0; o < OUTCOMES; o++) {
+            if ((mask & (1 << o)) == 0) {
+                continue;
+            }
+            if (!first) {
+                json.append(',');
+            }
+            first = false;
+            json.append('"').append(all[o].getKorean()).append("\":").append(values[o]);
+        }
+        return json.append('}').toString();
+    }
+
+    private static int intValue(Integer value) {
+        return value != null ? value : 0;
+    }
+
+    private static int utf8Length(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8).length : 0;
+    }
+
+    // =============================================
+    // varint
+    // =============================================
+
+    private static void writeString(ByteArrayOutputStream out, String value) {
+        if (value == null) {
+            writeVarint(out, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarint(out, bytes.length + 1);
+        out.writeBytes(bytes);
+    }
+
+    private static String readString(byte[] bytes, int[] pos) {
+        int length = readVarint(bytes, pos);
+        if (length == 0) {
+            return null;
+        }
+        String value = new String(bytes, pos[0], length - 1, StandardCharsets.UTF_8);
+        pos[0] += length - 1;
+        return value;
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        writeVarLong(out, value & 0xFFFFFFFFL);
+    }
+
+    private static int readVarint(byte[] bytes, int[] pos) {
+        return (int) readVarLong(bytes, pos);
+    }
+
+    // 1/10000 단위 값 (0 = 없음, 나머지는 zigzag + 1)
+    private static void writeScaled(ByteArrayOutputStream out, Double value) {
+        if (value == null) {
+            writeVarLong(out, 0);
+            return;
+        }
+        long scaled = Math.round(value * PROBABILITY_SCALE);
+        writeVarLong(out, ((scaled << 1) ^ (scaled >> 63)) + 1);
+    }
+
+    private static Double readScaled(byte[] bytes, int[] pos) {
+        long value = readVarLong(bytes, pos);
+        if (value == 0) {
+            return null;
+        }
+        value--;
+        return ((value >>> 1) ^ -(value & 1)) / PROBABILITY_SCALE;
+    }
+
+    private static void writeZigZag(ByteArrayOutputStream out, long value) {
+        writeVarLong(out, (value << 1) ^ (value >> 63));
+    }
+
+    private static long readZigZag(byte[] bytes, int[] pos) {
+        long value = readVarLong(bytes, pos);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(byte[] bytes, int[] pos) {
+        long value = 0;
+        int shift = 0;
+        while (true) {
+            byte b = bytes[pos[0]++];
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+            shift += 7;
+        }
+    }
+}
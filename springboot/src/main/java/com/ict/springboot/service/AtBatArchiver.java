@@ -0,0 +1,224 @@
+package com.ict.springboot.service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.ict.springboot.entity.AtBatEntity;
+import com.ict.springboot.entity.SimulationAtBatArchiveEntity;
+import com.ict.springboot.entity.SimulationEntity;
+import com.ict.springboot.repository.AtBatRepository;
+import com.ict.springboot.repository.SimulationAtBatArchiveRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 끝난 경기 타석 기록 보관
+ * - 주기적으로 끝난 시뮬레이션의 AT_BATS 행을 AtBatArchive 형식 하나로 묶어 저장 (복원 결과를 검증한 뒤)
+ * - purge-rows면 보관 후 AT_BATS 행을 삭제
+ * - 타석 기록 조회는 load()를 거치며, 보관본이 있으면 행 대신 보관본을 복원해 돌려준다
+ * - 보관 전후 크기와, 보관본/행 조회 각각의 소요 시간을 지표로 남긴다
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AtBatArchiver {
+
+    private final SimulationAtBatArchiveRepository archiveRepo;
+    private final AtBatRepository atBatRepo;
+    private final AtBatWriter atBatWriter;
+
+    @Value("${simulation.archive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${simulation.archive.purge-rows:false}")
+    private boolean purgeRows;
+
+    @Value("${simulation.archive.batch-size:20}")
+    private int batchSize;
+
+    // 보관에 실패한 시뮬레이션 (재시작 전까지 다시 시도하지 않음)
+    private final Set<Long> failed = ConcurrentHashMap.newKeySet();
+
+    // 보관 지표
+    private final AtomicLong archivedGames = new AtomicLong();
+    private final AtomicLong archivedAtBats = new AtomicLong();
+    private final AtomicLong purgedGames = new AtomicLong();
+    private final AtomicLong rowBytes = new AtomicLong();
+    private final AtomicLong archiveBytes = new AtomicLong();
+    private final AtomicLong encodeNanos = new AtomicLong();
+
+    // 조회(리플레이) 지표: 보관본 복원 / 행 조회
+    private final AtomicLong archiveReads = new AtomicLong();
+    private final AtomicLong archiveReadAtBats = new AtomicLong();
+    private final AtomicLong archiveReadNanos = new AtomicLong();
+    private final AtomicLong rowReads = new AtomicLong();
+    private final AtomicLong rowReadAtBats = new AtomicLong();
+    private final AtomicLong rowReadNanos = new AtomicLong();
+
+    @Scheduled(fixedDelayString = "${simulation.archive.interval-ms:600000}",
+               initialDelayString = "${simulation.archive.initial-delay-ms:60000}")
+    public void archiveFinished() {
+        if (!enabled) {
+            return;
+        }
+        List<Long> simulationIds = archiveRepo.findUnarchivedFinishedIds(PageRequest.of(0, batchSize + failed.size()));
+        int done = 0;
+        for (Long simulationId : simulationIds) {
+            if (done >= batchSize) {
+                break;
+            }
+            if (failed.contains(simulationId)) {
+                continue;
+            }
+            try {
+                archive(simulationId);
+            } catch (Exception e) {
+                failed.add(simulationId);
+                log.warn("타석 기록 보관 실패 (행 유지): simulationId={}", simulationId, e);
+            }
+            done++;
+        }
+    }
+
+    /**
+     * 시뮬레이션 하나의 타석 기록 보관 (복원 검증 후 저장, purge-rows면 행 삭제)
+     */
+    public void archive(Long simulationId) {
+        atBatWriter.flush(simulationId);
+        List<AtBatEntity> atBats = atBatRepo.findBySimulation_IdOrderByIdAsc(simulationId);
+
+        long startNanos = System.nanoTime();
+        byte[] archive = AtBatArchive.encode(atBats);
+        encodeNanos.addAndGet(System.nanoTime() - startNanos);
+        verify(atBats, AtBatArchive.decode(archive, null));
+
+        long estimatedRowBytes = AtBatArchive.estimatedRowBytes(atBats);
+        SimulationAtBatArchiveEntity entity = archiveRepo.save(SimulationAtBatArchiveEntity.builder()
+            .simulationId(simulationId)
+            .atBatCount(atBats.size())
+            .rowBytes(estimatedRowBytes)
+            .archiveBytes(archive.length)
+            .archive(archive)
+            .rowsPurged(false)
+            .build());
+
+        // 보관본이 저장된 뒤에만 행 삭제
+        if (purgeRows && !atBats.isEmpty()) {
+            atBatRepo.deleteBySimulationIdFromId(simulationId, 0L);
+            entity.setRowsPurged(true);
+            archiveRepo.save(entity);
+            purgedGames.incrementAndGet();
+        }
+
+        archivedGames.incrementAndGet();
+        archivedAtBats.addAndGet(atBats.size());
+        rowBytes.addAndGet(estimatedRowBytes);
+        archiveBytes.addAndGet(archive.length);
+        log.info("타석 기록 보관: simulationId={}, 타석={}, 행 추정 {} bytes → 보관본 {} bytes, 행 삭제={}",
+            simulationId, atBats.size(), estimatedRowBytes, archive.length, purgeRows && !atBats.isEmpty());
+    }
+
+    /**
+     * 시뮬레이션의 타석 기록 (발생 순서, lastId까지, null이면 전체)
+     * 끝난 시뮬레이션에 보관본이 있으면 보관본을 복원하고, 없으면 AT_BATS 행을 읽는다.
+     */
+    public List<AtBatEntity> load(SimulationEntity simulation, Long lastId) {
+        long startNanos = System.nanoTime();
+        byte[] archive = Boolean.TRUE.equals(simulation.getIsFinished())
+            ? archiveRepo.findArchiveBySimulationId(simulation.getId()) : null;
+        if (archive != null) {
+            List<AtBatEntity> atBats = AtBatArchive.decode(archive, simulation);
+            if (lastId != null) {
+                atBats.removeIf(atBat -> atBat.getId() > lastId);
+            }
+            archiveReads.incrementAndGet();
+            archiveReadAtBats.addAndGet(atBats.size());
+            archiveReadNanos.addAndGet(System.nanoTime() - startNanos);
+            return atBats;
+        }
+
+        List<AtBatEntity> atBats = lastId == null
+            ? atBatRepo.findBySimulation_IdOrderByIdAsc(simulation.getId())
+            : atBatRepo.findBySimulation_IdAndIdLessThanEqualOrderByIdAsc(simulation.getId(), lastId);
+        rowReads.incrementAndGet();
+        rowReadAtBats.addAndGet(atBats.size());
+        rowReadNanos.addAndGet(System.nanoTime() - startNanos);
+        return atBats;
+    }
+
+    /**
+     * 시뮬레이션 삭제 시 보관본 삭제
+     */
+    public void discard(Long simulationId) {
+        if (archiveRepo.existsById(simulationId)) {
+            archiveRepo.deleteById(simulationId);
+        }
+        failed.remove(simulationId);
+    }
+
+    public Map<String, Object> metrics() {
+        long games = archivedGames.get();
+        long rows = rowBytes.get();
+        long archived = archiveBytes.get();
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("enabled", enabled);
+        metrics.put("purgeRows", purgeRows);
+        metrics.put("archivedGames", games);
+        metrics.put("archivedAtBats", archivedAtBats.get());
+        metrics.put("purgedGames", purgedGames.get());
+        metrics.put("failedGames", failed.size());
+        metrics.put("estimatedRowBytes", rows);
+        metrics.put("archiveBytes", archived);
+        metrics.put("savedBytes", rows - archived);
+        metrics.put("compressionRatio", archived > 0 ? rows / (double) archived : 0.0);
+        metrics.put("avgArchiveBytesPerGame", games > 0 ? archived / (double) games : 0.0);
+        metrics.put("avgEncodeMs", games > 0 ? TimeUnit.NANOSECONDS.toMicros(encodeNanos.get()) / 1000.0 / games : 0.0);
+        metrics.put("archiveReplay", replayMetrics(archiveReads.get(), archiveReadAtBats.get(), archiveReadNanos.get()));
+        metrics.put("rowReplay", replayMetrics(rowReads.get(), rowReadAtBats.get(), rowReadNanos.get()));
+        return metrics;
+    }
+
+    // 조회 1회(경기 하나) 평균 소요 시간과 타석당 소요 시간
+    private static Map<String, Object> replayMetrics(long reads, long atBats, long nanos) {
+        Map<String, Object> replay = new HashMap<>();
+        replay.put("reads", reads);
+        replay.put("atBats", atBats);
+        replay.put("avgMs", reads > 0 ? TimeUnit.NANOSECONDS.toMicros(nanos) / 1000.0 / reads : 0.0);
+        replay.put("avgUsPerAtBat", atBats > 0 ? TimeUnit.NANOSECONDS.toMicros(nanos) / (double) atBats : 0.0);
+        return replay;
+    }
+
+    // 행 삭제 전 확인: 복원한 타석이 원래 행과 같은지 (확률은 양자화되므로 제외)
+    private static void verify(List<AtBatEntity> atBats, List<AtBatEntity> decoded) {
+        if (atBats.size() != decoded.size()) {
+            throw new IllegalStateException("복원한 타석 수가 다릅니다: " + atBats.size() + " != " + decoded.size());
+        }
+        for (int i = 0; i < atBats.size(); i++) {
+            if (!fields(atBats.get(i)).equals(fields(decoded.get(i)))) {
+                throw new IllegalStateException("복원한 타석이 원래 기록과 다릅니다: id=" + atBats.get(i).getId());
+            }
+        }
+    }
+
+    private static List<Object> fields(AtBatEntity atBat) {
+        return Arrays.asList(atBat.getId(), atBat.getInningHalf(), atBat.getBatterPNo(), atBat.getPitcherPNo(),
+            atBat.getBattingOrder(), atBat.getResult(), atBat.getResultKorean(), atBat.getRbi(),
+            atBat.getPrevScoreHome(), atBat.getPrevScoreAway(), atBat.getPrevOuts(),
+            atBat.getPrevBase1(), atBat.getPrevBase2(), atBat.getPrevBase3(),
+            atBat.getNewScoreHome(), atBat.getNewScoreAway(), atBat.getNewOuts(),
+            atBat.getNewBase1(), atBat.getNewBase2(), atBat.getNewBase3(),
+            atBat.getWinProbability(), atBat.getWinProbabilityAdded());
+    }
+}
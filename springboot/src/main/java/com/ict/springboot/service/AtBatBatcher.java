@@ -0,0 +1,303 @@
+package com.ict.springboot.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 타석 예측 배치 요청기
+ * - 짧은 대기 시간(max-wait-ms) 안에 들어온 여러 게임의 타석 요청을 모아
+ *   FastAPI /simulate-at-bat/batch 로 한 번에 보내고, 응답을 요청 순서대로 나눠 돌려준다
+ * - 배치 호출이 실패하거나 응답에 해당 게임 결과가 없으면 BatchUnavailableException으로 완료
+ *   → 호출하는 쪽에서 게임별 단건 호출로 대체
+ * - 관전 중인 게임의 요청이 우선: 대기열에서 먼저 꺼내 배치를 채우고,
+ *   관전자 없는 게임만으로 된 배치는 sender 중 reserved-senders개를 남겨 둔 나머지로만 보낸다
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AtBatBatcher {
+
+    private final AtBatInferenceGuard inferenceGuard;
+
+    @Value("${simulation.batch.enabled:true}")
+    private boolean enabled;
+
+    @Value("${simulation.batch.max-size:16}")
+    private int maxSize;
+
+    @Value("${simulation.batch.max-wait-ms:50}")
+    private long maxWaitMs;
+
+    @Value("${simulation.batch.senders:4}")
+    private int senders;
+
+    // 관전 중인 게임 배치용으로 남겨 둘 sender 수
+    @Value("${simulation.batch.reserved-senders:0}")
+    private int reservedSenders;
+
+    // 관전 중인 게임 요청 먼저, 같은 우선순위면 들어온 순서
+    private final BlockingQueue<PendingAtBat> queue = new PriorityBlockingQueue<>(64,
+        Comparator.comparing((PendingAtBat pending) -> !pending.priority).thenComparingLong(pending -> pending.seq));
+    private final AtomicLong submitSeq = new AtomicLong();
+    // 관전자 없는 게임만으로 된 배치의 동시 전송 수 제한
+    private Semaphore backgroundSenders;
+
+    private Thread collector;
+    private ExecutorService senderPool;
+    private volatile boolean running;
+
+    // 지표
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong batchedAtBats = new AtomicLong();
+    private final AtomicLong fallbacks = new AtomicLong();
+    private final AtomicLong priorityAtBats = new AtomicLong();
+    private final AtomicLong priorityWaitNanos = new AtomicLong();
+    private final AtomicLong backgroundAtBats = new AtomicLong();
+    private final AtomicLong backgroundWaitNanos = new AtomicLong();
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        AtomicInteger senderSeq = new AtomicInteger();
+        senderPool = Executors.newFixedThreadPool(senders, r -> {
+            Thread t = new Thread(r, "at-bat-batch-sender-" + senderSeq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        backgroundSenders = new Semaphore(Math.max(1, senders - reservedSenders));
+        running = true;
+        collector = new Thread(this::collect, "at-bat-batch-collector");
+        collector.setDaemon(true);
+        collector.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (collector != null) {
+            collector.interrupt();
+        }
+        if (senderPool != null) {
+            senderPool.shutdown();
+        }
+        // 남은 요청은 단건 호출로 처리되도록 넘긴다
+        PendingAtBat pending;
+        while ((pending = queue.poll()) != null) {
+            pending.future.completeExceptionally(new BatchUnavailableException("배치 요청기 종료"));
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled && running;
+    }
+
+    /**
+     * 타석 요청을 다음 배치에 추가
+     * @param priority 관전 중인 게임의 요청 (먼저 보냄)
+     */
+    public CompletableFuture<Map<String, Object>> submit(Map<String, Object> request, boolean priority) {
+        PendingAtBat pending = new PendingAtBat(request, priority, submitSeq.incrementAndGet());
+        if (!isEnabled()) {
+            pending.future.completeExceptionally(new BatchUnavailableException("배치 요청 비활성화"));
+            return pending.future;
+        }
+        queue.add(pending);
+        return pending.future;
+    }
+
+    /**
+     * 단건 호출로 대체된 횟수 기록
+     */
+    public void recordFallback() {
+        fallbacks.incrementAndGet();
+    }
+
+    public Map<String, Object> metrics() {
+        long count = batches.get();
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("enabled", isEnabled());
+        metrics.put("batches", count);
+        metrics.put("batchedAtBats", batchedAtBats.get());
+        metrics.put("avgBatchSize", count > 0 ? batchedAtBats.get() / (double) count : 0.0);
+        metrics.put("fallbacks", fallbacks.get());
+        metrics.put("queued", queue.size());
+        metrics.put("reservedSenders", reservedSenders);
+        metrics.put("priorityAtBats", priorityAtBats.get());
+        metrics.put("priorityAvgWaitMs", avgWaitMs(priorityWaitNanos.get(), priorityAtBats.get()));
+        metrics.put("backgroundAtBats", backgroundAtBats.get());
+        metrics.put("backgroundAvgWaitMs", avgWaitMs(backgroundWaitNanos.get(), backgroundAtBats.get()));
+        return metrics;
+    }
+
+    private static double avgWaitMs(long nanos, long count) {
+        return count > 0 ? TimeUnit.NANOSECONDS.toMicros(nanos) / 1000.0 / count : 0.0;
+    }
+
+    // 첫 요청이 들어온 뒤 max-wait-ms 동안(또는 max-size까지) 모아서 전송
+    private void collect() {
+        while (running) {
+            try {
+                PendingAtBat first = queue.take();
+                // 관전자 없는 게임 요청으로 시작하는 배치는 남는 sender가 있을 때만 (기다리는 중에 우선 요청이 오면 그쪽부터)
+                if (!first.priority && !acquireBackgroundSender(first)) {
+                    continue;
+                }
+                List<PendingAtBat> batch = new ArrayList<>(maxSize);
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+                boolean interrupted = false;
+                while (batch.size() < maxSize) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) break;
+                    PendingAtBat next;
+                    try {
+                        next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    } catch (InterruptedException e) {
+                        // 모으던 요청은 아래에서 전송(또는 실패 처리)한 뒤 종료
+                        interrupted = true;
+                        break;
+                    }
+                    if (next == null) break;
+                    batch.add(next);
+                }
+                boolean background = !first.priority;
+                try {
+                    senderPool.execute(() -> {
+                        try {
+                            send(batch);
+                        } finally {
+                            if (background) {
+                                backgroundSenders.release();
+                            }
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    // 종료 중(senderPool.shutdown)이면 모은 요청은 단건 호출로 대체
+                    if (background) {
+                        backgroundSenders.release();
+                    }
+                    for (PendingAtBat pending : batch) {
+                        pending.future.completeExceptionally(new BatchUnavailableException("타석 배치 전송 불가: " + e.getMessage()));
+                    }
+                }
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("타석 배치 수집 중 오류", e);
+            }
+        }
+    }
+
+    // 관전자 없는 게임 배치용 sender 확보 (false면 요청을 대기열에 되돌림)
+    private boolean acquireBackgroundSender(PendingAtBat first) throws InterruptedException {
+        try {
+            while (!backgroundSenders.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS)) {
+                PendingAtBat head = queue.peek();
+                if (head != null && head.priority) {
+                    queue.add(first);
+                    return false;
+                }
+            }
+            return true;
+        } catch (InterruptedException e) {
+            first.future.completeExceptionally(new BatchUnavailableException("배치 요청기 종료"));
+            throw e;
+        }
+    }
+
+    private void send(List<PendingAtBat> batch) {
+        long now = System.nanoTime();
+        for (PendingAtBat pending : batch) {
+            if (pending.priority) {
+                priorityAtBats.incrementAndGet();
+                priorityWaitNanos.addAndGet(now - pending.enqueuedNanos);
+            } else {
+                backgroundAtBats.incrementAndGet();
+                backgroundWaitNanos.addAndGet(now - pending.enqueuedNanos);
+            }
+        }
+        try {
+            List<Map<String, Object>> requests = new ArrayList<>(batch.size());
+            for (PendingAtBat pending : batch) {
+                requests.add(pending.request);
+            }
+
+            Map<String, Object> response = inferenceGuard.post(AtBatInferenceGuard.BATCH, Map.of("requests", requests));
+
+            Object resultsObj = response != null ? response.get("results") : null;
+            List<?> results = resultsObj instanceof List ? (List<?>) resultsObj : List.of();
+
+            batches.incrementAndGet();
+            batchedAtBats.addAndGet(batch.size());
+            log.debug("타석 배치 응답 수신: 요청 {}건, 결과 {}건", batch.size(), results.size());
+
+            // 응답을 요청 순서대로 분배 (결과가 빠진 게임은 단건 호출로 대체)
+            for (int i = 0; i < batch.size(); i++) {
+                Object result = i < results.size() ? results.get(i) : null;
+                if (result instanceof Map) {
+                    @SuppressWarnings("unchecked")
+                    Map<String, Object> body = new HashMap<>((Map<String, Object>) result);
+                    batch.get(i).future.complete(body);
+                } else {
+                    batch.get(i).future.completeExceptionally(new BatchUnavailableException("배치 응답에 결과 없음"));
+                }
+            }
+        } catch (Exception e) {
+            log.warn("타석 배치 호출 실패, 게임별 단건 호출로 대체: {}건, {}", batch.size(), e.getMessage());
+            for (PendingAtBat pending : batch) {
+                pending.future.completeExceptionally(new BatchUnavailableException(e.getMessage()));
+            }
+        }
+    }
+
+    private static final class PendingAtBat {
+        private final Map<String, Object> request;
+        private final boolean priority;
+        private final long seq;
+        private final long enqueuedNanos = System.nanoTime();
+        private final CompletableFuture<Map<String, Object>> future = new CompletableFuture<>();
+
+        private PendingAtBat(Map<String, Object> request, boolean priority, long seq) {
+            this.request = request;
+            this.priority = priority;
+            this.seq = seq;
+        }
+    }
+
+    /**
+     * 배치로 처리하지 못한 타석 (단건 호출로 대체해야 함)
+     */
+    public static class BatchUnavailableException extends RuntimeException {
+        public BatchUnavailableException(String message) {
+            super(message);
+        }
+    }
+}
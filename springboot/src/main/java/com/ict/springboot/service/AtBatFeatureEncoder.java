@@ -0,0 +1,176 @@
+package com.ict.springboot.service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 타석 예측 모델 입력 벡터 생성기
+ * - python/model/baseball_game_simulator.py의 create_prediction_input + feature_engineering과 같은 값을
+ *   float 배열에 바로 채운다 (Map/DataFrame 생성 없음)
+ * - 범주형 피처는 모델 메타데이터의 어휘 순서 인덱스로 인코딩 (어휘에 없는 값 = NaN)
+ * - 선수 스탯이 없으면(타자/투수 유형이 다르면) Python과 같은 기본값, 값이 비어 있으면 NaN
+ */
+public final class AtBatFeatureEncoder {
+
+    // model_info.pkl의 feature_names 순서
+    public static final List<String> FEATURE_NAMES = List.of(
+        "inning", "Prev_Outs", "Prev_Runners", "location", "hand",
+        "b_AVG", "b_OBP", "p_ERA", "p_FIP", "p_WHIP", "PF",
+        "b_double_rate", "b_triple_rate", "b_hr_rate", "b_hp_rate", "b_gdp_rate",
+        "b_sf_rate", "b_rbi_rate", "b_run_rate", "b_so_rate",
+        "p_2b_per_inning", "p_3b_per_inning", "p_hr_per_inning", "p_hp_per_inning",
+        "p_so_per_inning", "p_roe_per_inning");
+
+    public static final int FEATURE_COUNT = FEATURE_NAMES.size();
+
+    // 학습 데이터 범주 (model_feature.md)
+    public static final Map<String, List<String>> DEFAULT_VOCABULARY = Map.of(
+        "inning", List.of("1회", "2회", "3회", "4회", "5회", "6회", "7회", "8회", "9회"),
+        "Prev_Outs", List.of("무사", "1사", "2사"),
+        "Prev_Runners", List.of("주자 없음", "1루", "2루", "3루", "1,2루", "1,3루", "2,3루", "만루"),
+        "location", List.of("p_away", "p_home"),
+        "hand", List.of("bl_pl", "bl_pr", "br_pl", "br_pr"));
+
+    // 구장 팩터 (Python 예측 시 기본값 100 고정)
+    public static final double PARK_FACTOR = 100;
+
+    // 연장 12회까지
+    private static final int MAX_INNING = 12;
+
+    // 주자 비트마스크(1루 = 1, 2루 = 2, 3루 = 4) → 주자 상황 텍스트
+    private static final String[] RUNNERS_TEXT = {
+        "주자 없음", "1루", "2루", "1,2루", "3루", "1,3루", "2,3루", "만루"
+    };
+
+    private static final int HAND_BL_PL = 0;
+    private static final int HAND_BL_PR = 1;
+    private static final int HAND_BR_PL = 2;
+    private static final int HAND_BR_PR = 3;
+    private static final String[] HAND_TEXT = { "bl_pl", "bl_pr", "br_pl", "br_pr" };
+
+    // 상황별 범주 코드 (타석마다 문자열을 만들지 않도록 미리 계산)
+    private final float[] inningCodes = new float[MAX_INNING + 1];
+    private final float[] outsCodes = new float[3];
+    private final float[] runnersCodes = new float[8];
+    private final float awayLocationCode; // 초 공격 = 홈팀 투수 (p_home)
+    private final float homeLocationCode;
+    private final float[] handCodes = new float[4];
+
+    public AtBatFeatureEncoder(Map<String, List<String>> vocabulary) {
+        List<String> innings = vocabulary(vocabulary, "inning");
+        for (int inning = 0; inning <= MAX_INNING; inning++) {
+            inningCodes[inning] = code(innings, inning + "회");
+        }
+        List<String> outs = vocabulary(vocabulary, "Prev_Outs");
+        for (int out = 0; out < outsCodes.length; out++) {
+            outsCodes[out] = code(outs, out > 0 ? out + "사" : "무사");
+        }
+        List<String> runners = vocabulary(vocabulary, "Prev_Runners");
+        for (int bases = 0; bases < runnersCodes.length; bases++) {
+            runnersCodes[bases] = code(runners, RUNNERS_TEXT[bases]);
+        }
+        List<String> locations = vocabulary(vocabulary, "location");
+        awayLocationCode = code(locations, "p_home");
+        homeLocationCode = code(locations, "p_away");
+        List<String> hands = vocabulary(vocabulary, "hand");
+        for (int hand = 0; hand < handCodes.length; hand++) {
+            handCodes[hand] = code(hands, HAND_TEXT[hand]);
+        }
+    }
+
+    public static AtBatFeatureEncoder withDefaultVocabulary() {
+        return new AtBatFeatureEncoder(DEFAULT_VOCABULARY);
+    }
+
+    /**
+     * 현재 게임 상태와 타자/투수 스탯으로 입력 벡터 작성
+     */
+    public void encode(LiveGameState state, PlayerStatsSnapshot batter, PlayerStatsSnapshot pitcher, float[] out) {
+        encode(state.getInning(), state.getOuts(), state.basesMask(), state.isTop(), batter, pitcher, out);
+    }
+
+    /**
+     * @param out 길이 FEATURE_COUNT 이상 (FEATURE_NAMES 순서로 채움)
+     */
+    public void encode(int inning, int outs, int basesMask, boolean top,
+                       PlayerStatsSnapshot batter, PlayerStatsSnapshot pitcher, float[] out) {
+        // 범주형
+        out[0] = inning >= 0 && inning <= MAX_INNING ? inningCodes[inning] : Float.NaN;
+        out[1] = outs >= 0 && outs < outsCodes.length ? outsCodes[outs] : Float.NaN;
+        out[2] = runnersCodes[basesMask & 7];
+        out[3] = top ? awayLocationCode : homeLocationCode;
+        out[4] = handCodes[hand(batter.getHand(), pitcher.getHand())];
+
+        // 타자 스탯 (타자가 아니면 Python 기본값)
+        boolean b = batter.isBatter();
+        double ePA = b ? batter.getBEpa() : 400;
+        out[5] = (float) (b ? batter.getBAvg() : 0.250);
+        out[6] = (float) (b ? batter.getBObp() : 0.320);
+
+        // 투수 스탯 (투수가 아니면 Python 기본값)
+        boolean p = pitcher.isPitcher();
+        double ip = p ? pitcher.getPIp() : 100;
+        out[7] = (float) (p ? pitcher.getPEra() : 3.50);
+        out[8] = (float) (p ? pitcher.getPFip() : 3.50);
+        out[9] = (float) (p ? pitcher.getPWhip() : 1.20);
+        out[10] = (float) PARK_FACTOR;
+
+        // 타자 비율 (타석 수 기준)
+        out[11] = rate(b ? batter.getB2B() : 20, ePA);
+        out[12] = rate(b ? batter.getB3B() : 2, ePA);
+        out[13] = rate(b ? batter.getBHr() : 15, ePA);
+        out[14] = rate(b ? batter.getBHp() : 3, ePA);
+        out[15] = rate(b ? batter.getBGdp() : 8, ePA);
+        out[16] = rate(b ? batter.getBSf() : 5, ePA);
+        out[17] = rate(b ? batter.getBRbi() : 60, ePA);
+        out[18] = rate(b ? batter.getBSb() : 5, ePA);
+        out[19] = rate(b ? batter.getBSo() : 80, ePA);
+
+        // 투수 비율 (이닝 기준)
+        out[20] = rate(p ? pitcher.getP2B() : 15, ip);
+        out[21] = rate(p ? pitcher.getP3B() : 2, ip);
+        out[22] = rate(p ? pitcher.getPHr() : 10, ip);
+        out[23] = rate(p ? pitcher.getPHp() : 3, ip);
+        out[24] = rate(p ? pitcher.getPSo() : 80, ip);
+        out[25] = rate(p ? pitcher.getPRoe() : 5, ip);
+    }
+
+    // 투타 상성 (create_prediction_input과 동일: 나머지는 모두 좌타-좌투)
+    private static int hand(String batterHand, String pitcherHand) {
+        boolean batterRight = "right".equals(batterHand);
+        boolean batterLeft = "left".equals(batterHand);
+        boolean pitcherRight = "right".equals(pitcherHand);
+        boolean pitcherLeft = "left".equals(pitcherHand);
+        if (batterRight && pitcherLeft) {
+            return HAND_BR_PL;
+        }
+        if (batterLeft && pitcherRight) {
+            return HAND_BL_PR;
+        }
+        if (batterRight && pitcherRight) {
+            return HAND_BR_PR;
+        }
+        return HAND_BL_PL;
+    }
+
+    // 분모 0 → NaN (replace(0, np.nan)), NaN은 그대로 전파
+    private static float rate(double value, double denominator) {
+        if (denominator == 0) {
+            return Float.NaN;
+        }
+        return (float) (value / denominator);
+    }
+
+    private static List<String> vocabulary(Map<String, List<String>> vocabulary, String feature) {
+        List<String> values = vocabulary.get(feature);
+        if (values == null) {
+            throw new IllegalArgumentException("범주형 피처 어휘 없음: " + feature);
+        }
+        return values;
+    }
+
+    private static float code(List<String> values, String value) {
+        int index = values.indexOf(value);
+        return index >= 0 ? index : Float.NaN;
+    }
+}
@@ -0,0 +1,380 @@
+package com.ict.springboot.service;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * FastAPI 타석 예측 호출 보호 (엔드포인트별: 단건 /simulate-at-bat, 배치 /simulate-at-bat/batch)
+ * - 서킷 브레이커: 최근 window-size회 중 실패(느린 호출 포함) 비율이 failure-rate-threshold 이상이면 open-ms 동안 호출하지 않고 바로 실패,
+ *   이후 half-open-calls회 시험 호출이 모두 성공하면 다시 닫는다
+ * - 벌크헤드: 엔드포인트별 동시 호출 수 제한 (가득 차면 기다리지 않고 실패)
+ * - 응답 시간 기반 타임아웃: 성공한 호출의 평균/편차로 계산한 값(srtt + 4 x rttvar)을 읽기 타임아웃으로 사용 (min~max 범위)
+ * - 호출하지 못한 실시간 타석은 호출하는 쪽에서 리그 평균 결과표(leagueAverage)로 처리 (성능 저하 모드, 선계산 타석은 실패로 돌려줌)
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AtBatInferenceGuard {
+
+    public static final String SINGLE = "/simulate-at-bat";
+    public static final String BATCH = "/simulate-at-bat/batch";
+    // 선계산 타석 공개 시 게임 로그/편파 해설/기사 생성 (타석 진행과 무관하므로 브레이커/벌크헤드 없이 호출)
+    public static final String NARRATE = "/simulate-at-bat/narrate";
+
+    private final PlayerStatsRegistry playerStats;
+    private final AtBatPredictionCache predictionCache;
+
+    @Value("${fastapi.server-url}")
+    private String fastapiServerUrl;
+
+    @Value("${simulation.resilience.enabled:false}")
+    private boolean enabled;
+
+    @Value("${simulation.resilience.window-size:20}")
+    private int windowSize;
+
+    @Value("${simulation.resilience.min-calls:10}")
+    private int minCalls;
+
+    @Value("${simulation.resilience.failure-rate-threshold:0.5}")
+    private double failureRateThreshold;
+
+    @Value("${simulation.resilience.open-ms:30000}")
+    private long openMs;
+
+    @Value("${simulation.resilience.half-open-calls:3}")
+    private int halfOpenCalls;
+
+    @Value("${simulation.resilience.single-max-concurrent:8}")
+    private int singleMaxConcurrent;
+
+    @Value("${simulation.resilience.batch-max-concurrent:4}")
+    private int batchMaxConcurrent;
+
+    @Value("${simulation.resilience.connect-timeout-ms:2000}")
+    private int connectTimeoutMs;
+
+    @Value("${simulation.resilience.min-timeout-ms:2000}")
+    private long minTimeoutMs;
+
+    @Value("${simulation.resilience.max-timeout-ms:60000}")
+    private long maxTimeoutMs;
+
+    private final Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+    private RestTemplate restTemplate;
+
+    // 리그 평균 결과표 (선수 스탯 재로딩 시 다시 만든다)
+    private volatile Log5MatchupModel.MatchupTable leagueTable;
+    private volatile long leagueGeneration = -1;
+    private final AtomicLong degradedAtBats = new AtomicLong();
+
+    @PostConstruct
+    public void start() {
+        endpoints.put(SINGLE, new Endpoint(SINGLE, singleMaxConcurrent));
+        endpoints.put(BATCH, new Endpoint(BATCH, batchMaxConcurrent));
+
+        // 읽기 타임아웃은 요청마다 해당 엔드포인트의 현재 타임아웃으로
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory() {
+            @Override
+            protected void prepareConnection(HttpURLConnection connection, String httpMethod) throws IOException {
+                super.prepareConnection(connection, httpMethod);
+                Endpoint endpoint = endpoints.get(connection.getURL().getPath());
+                connection.setReadTimeout((int) (endpoint != null ? endpoint.timeoutMs() : maxTimeoutMs));
+            }
+        };
+        requestFactory.setConnectTimeout(connectTimeoutMs);
+        restTemplate = new RestTemplate(requestFactory);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 보호된 FastAPI 호출
+     * @throws InferenceUnavailableException 브레이커가 열려 있거나, 동시 호출 한도 초과, 호출 실패/타임아웃
+     */
+    public Map<String, Object> post(String path, Object body) {
+        Endpoint endpoint = endpoints.get(path);
+        if (!enabled || endpoint == null) {
+            return postDirect(path, body);
+        }
+        String rejected = endpoint.tryAcquire();
+        if (rejected != null) {
+            throw new InferenceUnavailableException(path + " 호출 차단: " + rejected);
+        }
+        long startNanos = System.nanoTime();
+        try {
+            Map<String, Object> response = postDirect(path, body);
+            endpoint.record(true, System.nanoTime() - startNanos);
+            return response;
+        } catch (RuntimeException e) {
+            endpoint.record(false, System.nanoTime() - startNanos);
+            throw new InferenceUnavailableException(path + " 호출 실패: " + e.getMessage());
+        } finally {
+            endpoint.release();
+        }
+    }
+
+    /**
+     * 리그 평균 타석 결과 확률 (AtBatOutcome 순서, 주자/아웃 상황별)
+     * @param bases 주자 비트마스크 (1루 = 1, 2루 = 2, 3루 = 4)
+     */
+    public double[] leagueAverage(int bases, int outs) {
+        long generation = predictionCache.generation();
+        Log5MatchupModel.MatchupTable table = leagueTable;
+        if (table == null || generation != leagueGeneration) {
+            table = Log5MatchupModel.matchup(null, null, Log5MatchupModel.LeagueRates.from(playerStats.all()));
+            leagueTable = table;
+            leagueGeneration = generation;
+        }
+        return table.probabilities(bases, outs);
+    }
+
+    /**
+     * 리그 평균으로 처리한 타석 수 기록
+     */
+    public void recordDegraded() {
+        degradedAtBats.incrementAndGet();
+    }
+
+    public boolean isOpen(String path) {
+        Endpoint endpoint = endpoints.get(path);
+        return endpoint != null && endpoint.state() == State.OPEN;
+    }
+
+    public long timeoutMs(String path) {
+        Endpoint endpoint = endpoints.get(path);
+        return endpoint != null ? endpoint.timeoutMs() : maxTimeoutMs;
+    }
+
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("enabled", enabled);
+        metrics.put("degradedAtBats", degradedAtBats.get());
+        for (Endpoint endpoint : endpoints.values()) {
+            metrics.put(endpoint.path, endpoint.metrics());
+        }
+        return metrics;
+    }
+
+    private Map<String, Object> postDirect(String path, Object body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        @SuppressWarnings("rawtypes")
+        ResponseEntity<Map> response = restTemplate.postForEntity(fastapiServerUrl + path, new HttpEntity<>(body, headers), Map.class);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> responseBody = (Map<String, Object>) response.getBody();
+        return responseBody;
+    }
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    /**
+     * 엔드포인트 하나의 브레이커/벌크헤드/응답 시간 (브레이커 상태는 엔드포인트 모니터로 동기화)
+     */
+    private final class Endpoint {
+        private final String path;
+        private final int maxConcurrent;
+        private final Semaphore bulkhead;
+
+        // 최근 호출 결과 (true = 실패)
+        private final boolean[] window = new boolean[Math.max(1, windowSize)];
+        private int windowCalls;
+        private int windowFailures;
+        private int windowPos;
+
+        private State state = State.CLOSED;
+        private long openedAtNanos;
+        private int halfOpenInFlight;
+        private int halfOpenSuccesses;
+
+        // 성공한 호출의 평균 응답 시간/편차 (ms, 0이면 아직 없음)
+        private double srttMs;
+        private double rttVarMs;
+
+        // 지표
+        private final AtomicLong calls = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private final AtomicLong slowCalls = new AtomicLong();
+        private final AtomicLong rejectedOpen = new AtomicLong();
+        private final AtomicLong rejectedBulkhead = new AtomicLong();
+        private final AtomicLong opened = new AtomicLong();
+        private volatile LocalDateTime lastOpenedAt;
+
+        private Endpoint(String path, int maxConcurrent) {
+            this.path = path;
+            this.maxConcurrent = Math.max(1, maxConcurrent);
+            this.bulkhead = new Semaphore(this.maxConcurrent);
+        }
+
+        // 호출 허가 (거부 사유, 허가면 null)
+        private String tryAcquire() {
+            synchronized (this) {
+                if (state == State.OPEN) {
+                    if (System.nanoTime() - openedAtNanos < TimeUnit.MILLISECONDS.toNanos(openMs)) {
+                        rejectedOpen.incrementAndGet();
+                        return "서킷 브레이커 열림";
+                    }
+                    state = State.HALF_OPEN;
+                    halfOpenInFlight = 0;
+                    halfOpenSuccesses = 0;
+                    log.info("FastAPI 서킷 브레이커 시험 호출 시작: {}", path);
+                }
+                if (state == State.HALF_OPEN) {
+                    if (halfOpenInFlight >= halfOpenCalls) {
+                        rejectedOpen.incrementAndGet();
+                        return "서킷 브레이커 시험 호출 중";
+                    }
+                    halfOpenInFlight++;
+                }
+            }
+            if (!bulkhead.tryAcquire()) {
+                synchronized (this) {
+                    if (state == State.HALF_OPEN) {
+                        halfOpenInFlight--;
+                    }
+                }
+                rejectedBulkhead.incrementAndGet();
+                return "동시 호출 한도 초과";
+            }
+            return null;
+        }
+
+        private void release() {
+            bulkhead.release();
+        }
+
+        // 호출 결과 기록 (타임아웃보다 오래 걸린 성공은 느린 호출 = 실패로 센다)
+        private synchronized void record(boolean success, long nanos) {
+            calls.incrementAndGet();
+            double ms = nanos / 1_000_000.0;
+            boolean slow = success && ms > timeoutMs();
+            boolean failed = !success || slow;
+            if (slow) {
+                slowCalls.incrementAndGet();
+            }
+            if (failed) {
+                failures.incrementAndGet();
+            } else {
+                updateRtt(ms);
+            }
+
+            switch (state) {
+                case HALF_OPEN:
+                    halfOpenInFlight--;
+                    if (failed) {
+                        open();
+                    } else if (++halfOpenSuccesses >= halfOpenCalls) {
+                        close();
+                    }
+                    break;
+                case CLOSED:
+                    if (window[windowPos]) {
+                        windowFailures--;
+                    }
+                    window[windowPos] = failed;
+                    if (failed) {
+                        windowFailures++;
+                    }
+                    windowPos = (windowPos + 1) % window.length;
+                    windowCalls = Math.min(windowCalls + 1, window.length);
+                    if (windowCalls >= Math.min(minCalls, window.length)
+                            && windowFailures >= failureRateThreshold * windowCalls) {
+                        open();
+                    }
+                    break;
+                default:
+                    // 열린 동안 끝난 호출 (열리기 전에 시작한 호출)
+                    break;
+            }
+        }
+
+        private void open() {
+            state = State.OPEN;
+            openedAtNanos = System.nanoTime();
+            opened.incrementAndGet();
+            lastOpenedAt = LocalDateTime.now();
+            log.warn("FastAPI 서킷 브레이커 열림: {} ({}ms 동안 리그 평균으로 처리)", path, openMs);
+        }
+
+        private void close() {
+            state = State.CLOSED;
+            Arrays.fill(window, false);
+            windowCalls = 0;
+            windowFailures = 0;
+            windowPos = 0;
+            log.info("FastAPI 서킷 브레이커 닫힘: {}", path);
+        }
+
+        // RFC 6298 방식의 평활 (alpha = 1/8, beta = 1/4)
+        private void updateRtt(double ms) {
+            if (srttMs == 0) {
+                srttMs = ms;
+                rttVarMs = ms / 2;
+            } else {
+                rttVarMs = 0.75 * rttVarMs + 0.25 * Math.abs(srttMs - ms);
+                srttMs = 0.875 * srttMs + 0.125 * ms;
+            }
+        }
+
+        private synchronized long timeoutMs() {
+            if (srttMs == 0) {
+                return maxTimeoutMs;
+            }
+            return Math.max(minTimeoutMs, Math.min(maxTimeoutMs, (long) Math.ceil(srttMs + 4 * rttVarMs)));
+        }
+
+        private synchronized State state() {
+            return state;
+        }
+
+        private synchronized Map<String, Object> metrics() {
+            Map<String, Object> metrics = new LinkedHashMap<>();
+            metrics.put("state", state.name());
+            metrics.put("windowFailureRate", windowCalls > 0 ? windowFailures / (double) windowCalls : 0.0);
+            metrics.put("calls", calls.get());
+            metrics.put("failures", failures.get());
+            metrics.put("slowCalls", slowCalls.get());
+            metrics.put("rejectedOpen", rejectedOpen.get());
+            metrics.put("rejectedBulkhead", rejectedBulkhead.get());
+            metrics.put("inFlight", maxConcurrent - bulkhead.availablePermits());
+            metrics.put("maxConcurrent", maxConcurrent);
+            metrics.put("opened", opened.get());
+            metrics.put("lastOpenedAt", lastOpenedAt);
+            metrics.put("avgLatencyMs", srttMs);
+            metrics.put("timeoutMs", timeoutMs());
+            return metrics;
+        }
+    }
+
+    /**
+     * FastAPI 타석 예측을 호출하지 못함 (리그 평균으로 대체해야 함)
+     */
+    public static class InferenceUnavailableException extends RuntimeException {
+        public InferenceUnavailableException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.ict.springboot.service;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * 타석 결과 분류 (AI 모델 클래스와 동일한 순서)
+ * - korean: 모델/AT_BATS.result_korean 값
+ * - code: AT_BATS.result 값 (영어)
+ */
+public enum AtBatOutcome {
+
+    SINGLE("1루타", "single"),
+    DOUBLE("2루타", "double"),
+    TRIPLE("3루타", "triple"),
+    WALK("4구", "walk"),
+    INFIELD_SINGLE("내야 안타", "infield_single"),
+    GROUND_OUT("땅볼 아웃", "ground_out"),
+    DOUBLE_PLAY("병살타 아웃", "double_play"),
+    HIT_BY_PITCH("사구", "hit_by_pitch"),
+    STRIKEOUT("삼진", "strikeout"),
+    FIELDERS_CHOICE("선행주자아웃 출루", "fielders_choice"),
+    ERROR("실책 출루", "error"),
+    LINE_OUT("직선타 아웃", "line_out"),
+    FLY_OUT("플라이 아웃", "fly_out"),
+    HOME_RUN("홈런", "home_run"),
+    SACRIFICE_FLY("희생플라이 아웃", "sacrifice_fly");
+
+    private static final Map<String, AtBatOutcome> BY_KOREAN = new HashMap<>();
+
+    static {
+        for (AtBatOutcome outcome : values()) {
+            BY_KOREAN.put(outcome.korean, outcome);
+        }
+    }
+
+    private final String korean;
+    private final String code;
+
+    AtBatOutcome(String korean, String code) {
+        this.korean = korean;
+        this.code = code;
+    }
+
+    public String getKorean() {
+        return korean;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    /**
+     * 안타 여부
+     */
+    public boolean isHit() {
+        switch (this) {
+            case SINGLE:
+            case DOUBLE:
+            case TRIPLE:
+            case INFIELD_SINGLE:
+            case HOME_RUN:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * 타수 포함 여부 (볼넷/사구/희생플라이 제외)
+     */
+    public boolean isAtBat() {
+        switch (this) {
+            case WALK:
+            case HIT_BY_PITCH:
+            case SACRIFICE_FLY:
+                return false;
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * 한국어 결과명으로 조회 (모르는 값이면 null)
+     */
+    public static AtBatOutcome fromKorean(String korean) {
+        return korean != null ? BY_KOREAN.get(korean) : null;
+    }
+
+    /**
+     * 결과별 확률(AtBatOutcome 순서)에서 결과 추첨 (np.random.choice와 같은 누적 확률 방식)
+     */
+    public static AtBatOutcome sample(double[] probabilities, RandomGenerator random) {
+        AtBatOutcome[] values = values();
+        double total = 0;
+        for (double p : probabilities) {
+            total += p;
+        }
+        double roll = random.nextDouble() * total;
+        double cumulative = 0;
+        for (int i = 0; i < probabilities.length; i++) {
+            cumulative += probabilities[i];
+            if (roll < cumulative) {
+                return values[i];
+            }
+        }
+        // 부동소수 오차로 끝까지 간 경우 확률이 있는 마지막 결과
+        for (int i = probabilities.length - 1; i >= 0; i--) {
+            if (probabilities[i] > 0) {
+                return values[i];
+            }
+        }
+        throw new IllegalArgumentException("확률 분포가 비어 있습니다.");
+    }
+
+    /**
+     * 응답/기록용 확률 맵 (한국어 결과명 → 확률, Python 응답과 같은 형식)
+     */
+    public static Map<String, Object> probabilityMap(double[] probabilities) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (AtBatOutcome outcome : values()) {
+            map.put(outcome.korean, probabilities[outcome.ordinal()]);
+        }
+        return map;
+    }
+}
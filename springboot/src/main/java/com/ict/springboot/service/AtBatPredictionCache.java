@@ -0,0 +1,250 @@
+package com.ict.springboot.service;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 타석 예측 확률 캐시 (LRU, 크기 제한)
+ * - 모델 입력은 이닝/아웃/주자/초말/타자 스탯/투수 스탯뿐이므로
+ *   (타자 pNo, 투수 pNo, 이닝, 아웃, 주자 비트마스크, 초말)을 64비트 키로 묶어 FastAPI가 돌려준 확률 분포를 보관
+ * - 적중하면 FastAPI 호출 없이 캐시된 분포에서 결과를 추첨한다
+ * - 키 해시로 나눈 세그먼트별 LinkedHashMap(접근 순서) + 락, 세그먼트마다 용량을 넘으면 가장 오래 안 쓴 항목 제거
+ * - 선수 스탯이 다시 로드되면 전체 무효화 (세대 번호로 무효화 이전에 시작된 요청의 저장도 막는다)
+ */
+@Service
+@Slf4j
+public class AtBatPredictionCache {
+
+    // 키 구성: [타자 24bit][투수 24bit][이닝 4bit][아웃 2bit][주자 3bit][초말 1bit]
+    private static final int PNO_BITS = 24;
+    private static final long PNO_LIMIT = 1L << PNO_BITS;
+    private static final int MAX_INNING = 15;
+
+    // 항목당 대략적인 메모리 (LinkedHashMap 엔트리 + Long 키 + float[15])
+    private static final int ENTRY_BYTES = 40 + 16 + 16 + 4 * 15;
+
+    public static final long NO_KEY = -1;
+
+    @Value("${simulation.prediction-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${simulation.prediction-cache.max-entries:50000}")
+    private int maxEntries;
+
+    @Value("${simulation.prediction-cache.segments:16}")
+    private int segmentCount;
+
+    private Segment[] segments;
+    private volatile long generation;
+
+    // 지표
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong puts = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @PostConstruct
+    public void start() {
+        int count = Integer.highestOneBit(Math.max(1, segmentCount));
+        int perSegment = Math.max(1, maxEntries / count);
+        segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment(perSegment);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 상황 키 (선수 번호가 범위를 넘거나 이닝이 비정상이면 NO_KEY = 캐시 사용 안 함)
+     */
+    public static long key(long batterPNo, long pitcherPNo, int inning, int outs, int basesMask, boolean top) {
+        if (batterPNo <= 0 || batterPNo >= PNO_LIMIT || pitcherPNo <= 0 || pitcherPNo >= PNO_LIMIT
+                || inning < 1 || inning > MAX_INNING || outs < 0 || outs > 2) {
+            return NO_KEY;
+        }
+        return (batterPNo << 34) | (pitcherPNo << 10) | ((long) inning << 6)
+            | ((long) outs << 4) | ((long) (basesMask & 7) << 1) | (top ? 1 : 0);
+    }
+
+    public static long key(long batterPNo, long pitcherPNo, LiveGameState state) {
+        return key(batterPNo, pitcherPNo, state.getInning(), state.getOuts(), state.basesMask(), state.isTop());
+    }
+
+    /**
+     * 현재 세대 (FastAPI 호출 전에 읽어 두었다가 put에 넘긴다)
+     */
+    public long generation() {
+        return generation;
+    }
+
+    /**
+     * 캐시된 결과별 확률 (AtBatOutcome 순서, 없으면 null)
+     */
+    public double[] get(long key) {
+        if (!enabled || key == NO_KEY) {
+            return null;
+        }
+        float[] cached = segment(key).get(key);
+        if (cached == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        double[] probabilities = new double[cached.length];
+        for (int i = 0; i < cached.length; i++) {
+            probabilities[i] = cached[i];
+        }
+        return probabilities;
+    }
+
+    /**
+     * FastAPI 응답의 probabilities(한국어 결과명 → 확률) 저장
+     * @param generation 요청 전에 읽은 세대 (그 사이 무효화되었으면 저장하지 않음)
+     */
+    public void put(long key, Object probabilities, long generation) {
+        if (!enabled || key == NO_KEY || !(probabilities instanceof Map)) {
+            return;
+        }
+        float[] values = new float[AtBatOutcome.values().length];
+        int found = 0;
+        for (Map.Entry<?, ?> entry : ((Map<?, ?>) probabilities).entrySet()) {
+            AtBatOutcome outcome = AtBatOutcome.fromKorean(String.valueOf(entry.getKey()));
+            if (outcome == null || !(entry.getValue() instanceof Number)) {
+                return;
+            }
+            values[outcome.ordinal()] = ((Number) entry.getValue()).floatValue();
+            found++;
+        }
+        if (found == 0 || generation != this.generation) {
+            return;
+        }
+        puts.incrementAndGet();
+        Segment segment = segment(key);
+        if (segment.put(key, values)) {
+            evictions.incrementAndGet();
+        }
+        // 저장하는 사이 무효화되었으면 되돌림
+        if (generation != this.generation) {
+            segment.remove(key);
+        }
+    }
+
+    /**
+     * 전체 무효화 (선수 스탯 재로딩 후)
+     */
+    public synchronized void invalidateAll() {
+        if (segments == null) {
+            return;
+        }
+        generation++;
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+        invalidations.incrementAndGet();
+        log.info("타석 예측 캐시 무효화 (세대 {})", generation);
+    }
+
+    public Map<String, Object> metrics() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        long hitCount = hits.get();
+        long lookups = hitCount + misses.get();
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("enabled", enabled);
+        metrics.put("size", size);
+        metrics.put("maxEntries", maxEntries);
+        metrics.put("estimatedBytes", size * ENTRY_BYTES);
+        metrics.put("hits", hitCount);
+        metrics.put("misses", misses.get());
+        metrics.put("hitRate", lookups > 0 ? hitCount / (double) lookups : 0.0);
+        metrics.put("puts", puts.get());
+        metrics.put("evictions", evictions.get());
+        metrics.put("invalidations", invalidations.get());
+        metrics.put("generation", generation);
+        return metrics;
+    }
+
+    private Segment segment(long key) {
+        // 하위 비트는 상황, 상위 비트는 선수이므로 섞어서 분산
+        long h = key * 0x9E3779B97F4A7C15L;
+        return segments[(int) (h >>> 32) & (segments.length - 1)];
+    }
+
+    private static final class Segment {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final int capacity;
+        private final LinkedHashMap<Long, float[]> entries;
+
+        private Segment(int capacity) {
+            this.capacity = capacity;
+            this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        }
+
+        private float[] get(long key) {
+            lock.lock();
+            try {
+                return entries.get(key);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // 반환값: 가장 오래 안 쓴 항목을 제거했는지 여부
+        private boolean put(long key, float[] values) {
+            lock.lock();
+            try {
+                entries.put(key, values);
+                if (entries.size() > capacity) {
+                    Long eldest = entries.keySet().iterator().next();
+                    entries.remove(eldest);
+                    return true;
+                }
+                return false;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void remove(long key) {
+            lock.lock();
+            try {
+                entries.remove(key);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void clear() {
+            lock.lock();
+            try {
+                entries.clear();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private int size() {
+            lock.lock();
+            try {
+                return entries.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
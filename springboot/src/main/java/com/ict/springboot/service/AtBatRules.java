@@ -0,0 +1,300 @@
+package com.ict.springboot.service;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * 타석 결과 처리 규칙 (주루/아웃/이닝 교체/경기 종료)
+ * - python/model/at_bat_simulator.py(AtBatSimulator)와 동일한 규칙을 Java에서 수행
+ * - 주자 상황(8) x 결과(15)별 진루표를 미리 계산해 두고, 타석마다 LiveGameState를 직접 변경 (객체 생성 없음)
+ * - 호출하는 쪽에서 상태 객체를 모니터로 잡은 뒤 사용한다
+ */
+public final class AtBatRules {
+
+    // 2루 주자만 있을 때 땅볼 아웃이면 70% 확률로 3루 진루
+    public static final double GROUND_OUT_ADVANCE_PROBABILITY = 0.70;
+
+    public static final String HOME = "HOME";
+    public static final String AWAY = "AWAY";
+    public static final String TIE = "TIE";
+
+    // 이동 코드: [1루 출처 3bit][2루 출처 3bit][3루 출처 3bit][득점 3bit]
+    // 출처 0 = 비움, 1~3 = 해당 루 주자, 4 = 타자
+    private static final int EMPTY = 0;
+    private static final int BATTER = 4;
+
+    private static final int[][] MOVES = new int[AtBatOutcome.values().length][8];
+    // 2루 주자만 있을 때 땅볼 아웃 + 진루 실패
+    private static final int GROUND_OUT_HOLD_ON_SECOND = move(EMPTY, 2, EMPTY, 0);
+
+    static {
+        for (AtBatOutcome outcome : AtBatOutcome.values()) {
+            for (int bases = 0; bases < 8; bases++) {
+                MOVES[outcome.ordinal()][bases] = baseRunning(outcome,
+                    (bases & 1) != 0, (bases & 2) != 0, (bases & 4) != 0);
+            }
+        }
+    }
+
+    private AtBatRules() {
+    }
+
+    /**
+     * 타석 처리 결과 (재사용 가능한 출력 객체)
+     */
+    public static final class Transition {
+        private int runs;
+        private boolean inningChanged;
+        private boolean gameEnded;
+        private String winner;
+
+        public int getRuns() {
+            return runs;
+        }
+
+        public boolean isInningChanged() {
+            return inningChanged;
+        }
+
+        public boolean isGameEnded() {
+            return gameEnded;
+        }
+
+        public String getWinner() {
+            return winner;
+        }
+
+        private void reset() {
+            runs = 0;
+            inningChanged = false;
+            gameEnded = false;
+            winner = null;
+        }
+    }
+
+    /**
+     * 2루 주자 땅볼 진루 여부 추첨
+     */
+    public static boolean rollGroundOutAdvance(RandomGenerator random) {
+        return random.nextDouble() < GROUND_OUT_ADVANCE_PROBABILITY;
+    }
+
+    /**
+     * 타석 결과를 게임 상태에 반영
+     * @param advanceOnGroundOut 2루 주자만 있을 때 땅볼 아웃이면 3루 진루 여부
+     */
+    public static void resolve(LiveGameState state, AtBatOutcome outcome, long batterPNo,
+                               boolean advanceOnGroundOut, Transition out) {
+        out.reset();
+
+        int bases = state.basesMask();
+        int move = MOVES[outcome.ordinal()][bases];
+        if (outcome == AtBatOutcome.GROUND_OUT && bases == 0b010 && !advanceOnGroundOut) {
+            move = GROUND_OUT_HOLD_ON_SECOND;
+        }
+
+        // 주자 이동
+        long runner1 = state.runnerOn(1);
+        long runner2 = state.runnerOn(2);
+        long runner3 = state.runnerOn(3);
+        state.placeRunners(
+            source(move >>> 9, runner1, runner2, runner3, batterPNo),
+            source((move >>> 6) & 7, runner1, runner2, runner3, batterPNo),
+            source((move >>> 3) & 7, runner1, runner2, runner3, batterPNo));
+
+        // 점수
+        int runs = move & 7;
+        out.runs = runs;
+        int inning = state.getInning();
+        boolean top = state.isTop();
+        if (top) {
+            state.setAwayScore(state.getAwayScore() + runs);
+        } else {
+            state.setHomeScore(state.getHomeScore() + runs);
+        }
+        int homeScore = state.getHomeScore();
+        int awayScore = state.getAwayScore();
+
+        // 9회 이후 말 공격 워크오프 (득점 직후 홈팀이 앞서면 아웃 처리 전에 즉시 종료)
+        if (inning >= 9 && !top && runs > 0 && homeScore > awayScore) {
+            out.gameEnded = true;
+            out.winner = HOME;
+            return;
+        }
+
+        // 아웃 카운트 및 이닝 진행
+        int outs = state.getOuts() + outsRecorded(outcome, bases);
+        if (outs >= 3) {
+            outs = 0;
+            state.placeRunners(0, 0, 0);
+            out.inningChanged = true;
+            if (top) {
+                top = false;
+            } else {
+                top = true;
+                inning++;
+            }
+        }
+
+        String winner = gameEndWinner(inning, top, homeScore, awayScore);
+        if (winner != null) {
+            out.gameEnded = true;
+            out.winner = winner;
+            // 말 이닝 3아웃으로 끝난 경우 표시용 이닝은 이전 이닝 말로 유지
+            if (out.inningChanged && top) {
+                inning--;
+                top = false;
+            }
+        }
+
+        state.setOuts(outs);
+        state.setInning(inning);
+        state.setTop(top);
+    }
+
+    /**
+     * 경기 종료 판정 (반환값: 승자 HOME/AWAY/TIE, 진행 중이면 null)
+     * 이닝 교체 후(또는 현재) 이닝/초말 기준으로 판단한다. 12회까지 연장, 12회 종료 시 동점이면 무승부.
+     */
+    public static String gameEndWinner(int inning, boolean top, int homeScore, int awayScore) {
+        // 9회초 종료 시 홈팀이 앞서면 9회말 진행 없이 종료
+        if (inning == 9 && !top && homeScore > awayScore) {
+            return HOME;
+        }
+        // 9~11회말 종료 시 승부가 났으면 종료, 동점이면 연장
+        if (top && inning >= 10 && inning <= 12) {
+            if (homeScore == awayScore) {
+                return null;
+            }
+            return homeScore > awayScore ? HOME : AWAY;
+        }
+        // 12회말 종료 시 무조건 종료
+        if (top && inning == 13) {
+            if (homeScore == awayScore) {
+                return TIE;
+            }
+            return homeScore > awayScore ? HOME : AWAY;
+        }
+        return null;
+    }
+
+    /**
+     * 결과별 아웃 수 (병살타는 1루 주자가 있을 때만 2아웃)
+     */
+    public static int outsRecorded(AtBatOutcome outcome, int bases) {
+        switch (outcome) {
+            case DOUBLE_PLAY:
+                return (bases & 1) != 0 ? 2 : 1;
+            case FIELDERS_CHOICE:
+            case STRIKEOUT:
+            case FLY_OUT:
+            case GROUND_OUT:
+            case LINE_OUT:
+            case SACRIFICE_FLY:
+                return 1;
+            default:
+                return 0;
+        }
+    }
+
+    private static long source(int from, long runner1, long runner2, long runner3, long batter) {
+        switch (from) {
+            case 1: return runner1;
+            case 2: return runner2;
+            case 3: return runner3;
+            case BATTER: return batter;
+            default: return 0;
+        }
+    }
+
+    private static int move(int to1, int to2, int to3, int runs) {
+        return (to1 << 9) | (to2 << 6) | (to3 << 3) | runs;
+    }
+
+    // 결과/주자 상황별 진루 (AtBatSimulator.simulate_base_running과 동일)
+    private static int baseRunning(AtBatOutcome outcome, boolean on1, boolean on2, boolean on3) {
+        int occupied = (on1 ? 1 : 0) + (on2 ? 1 : 0) + (on3 ? 1 : 0);
+        switch (outcome) {
+            case HOME_RUN:
+                // 모든 주자 + 타자 득점
+                return move(EMPTY, EMPTY, EMPTY, occupied + 1);
+
+            case TRIPLE:
+                // 모든 주자 득점, 타자는 3루
+                return move(EMPTY, EMPTY, BATTER, occupied);
+
+            case DOUBLE:
+                // 2·3루 주자 득점, 1루 주자 3루, 타자 2루
+                return move(EMPTY, BATTER, on1 ? 1 : EMPTY, (on2 ? 1 : 0) + (on3 ? 1 : 0));
+
+            case SINGLE:
+            case INFIELD_SINGLE:
+                // 3루 주자 득점, 2루→3루, 1루→2루, 타자 1루
+                return move(BATTER, on1 ? 1 : EMPTY, on2 ? 2 : EMPTY, on3 ? 1 : 0);
+
+            case WALK:
+            case HIT_BY_PITCH:
+                // 밀려나는 주자만 진루
+                if (!on1) {
+                    return move(BATTER, on2 ? 2 : EMPTY, on3 ? 3 : EMPTY, 0);
+                }
+                if (!on2) {
+                    return move(BATTER, 1, on3 ? 3 : EMPTY, 0);
+                }
+                if (!on3) {
+                    return move(BATTER, 1, 2, 0);
+                }
+                return move(BATTER, 1, 2, 1);
+
+            case ERROR:
+                // 타자 1루, 밀려나는 주자만 진루 (만루면 3루 주자는 홈에 들어오지 않음)
+                if (on1) {
+                    if (on2) {
+                        return on3 ? move(BATTER, 2, 3, 0) : move(BATTER, 1, 2, 0);
+                    }
+                    return move(BATTER, 1, on3 ? 3 : EMPTY, 0);
+                }
+                return move(BATTER, on2 ? 2 : EMPTY, on3 ? 3 : EMPTY, 0);
+
+            case FIELDERS_CHOICE:
+                // 타자 1루, 홈에서 가장 먼 주자(3루 > 2루 > 1루)가 아웃
+                if (on3) {
+                    return move(BATTER, on2 ? 2 : EMPTY, EMPTY, 0);
+                }
+                return move(BATTER, EMPTY, EMPTY, 0);
+
+            case SACRIFICE_FLY:
+                // 3루 주자 태그업 득점, 나머지 주자 그대로
+                return move(on1 ? 1 : EMPTY, on2 ? 2 : EMPTY, EMPTY, on3 ? 1 : 0);
+
+            case GROUND_OUT:
+                // 주자 상황별 진루 (2루만 있을 때 진루 여부는 resolve에서 결정)
+                if (on1 && on2 && on3) {
+                    return move(1, 2, 3, 0);
+                }
+                if (on1) {
+                    return move(EMPTY, 1, on2 ? 2 : (on3 ? 3 : EMPTY), 0);
+                }
+                if (on2) {
+                    return move(EMPTY, on3 ? 2 : EMPTY, on3 ? 3 : 2, 0);
+                }
+                return move(EMPTY, EMPTY, on3 ? 3 : EMPTY, 0);
+
+            case STRIKEOUT:
+            case FLY_OUT:
+            case LINE_OUT:
+                // 주자 그대로
+                return move(on1 ? 1 : EMPTY, on2 ? 2 : EMPTY, on3 ? 3 : EMPTY, 0);
+
+            case DOUBLE_PLAY:
+                // 1루 주자 + 타자 아웃: 3루 주자 득점, 2루→3루
+                if (on1) {
+                    return move(EMPTY, EMPTY, on2 ? 2 : EMPTY, on3 ? 1 : 0);
+                }
+                // 1루 주자가 없으면 타자만 아웃, 주자 그대로
+                return move(EMPTY, on2 ? 2 : EMPTY, on3 ? 3 : EMPTY, 0);
+
+            default:
+                return move(EMPTY, EMPTY, EMPTY, 0);
+        }
+    }
+}
@@ -0,0 +1,484 @@
+package com.ict.springboot.service;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.InvalidDataAccessResourceUsageException;
+import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.ict.springboot.entity.AtBatEntity;
+import com.ict.springboot.repository.AtBatRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 타석 기록 write-behind 저장기
+ * - 모든 진행 중 게임의 타석 기록을 하나의 큐에 모아, 개수(batch-size) 또는 대기 시간(max-delay-ms)이 차면
+ *   JDBC 배치 INSERT 한 번으로 AT_BATS에 반영
+ * - PK는 SEQ_AT_BATS에서 블록 단위(시퀀스 INCREMENT BY 크기)로 미리 받아 두고 큐에 넣을 때 부여
+ *   → 저장 전에도 타석 ID를 응답에 담을 수 있다
+ * - flush는 한 스레드씩 큐 순서대로 처리하므로 같은 시뮬레이션의 타석은 항상 발생 순서대로 저장된다
+ * - 배치가 실패하면 한 건씩 다시 저장해 원인 행만 골라낸다: 데이터 오류(FK/길이/NOT NULL 등)인 행은 로그를 남기고 버리고(deadLettered),
+ *   DB 연결 오류면 남은 행을 순서대로 앞에 남겨 재시도
+ * - 저장 대기 기록은 max-queued까지만 둔다 (DB 장애가 길어져도 메모리가 끝없이 늘지 않도록)
+ *   게임 상태를 바꾸기 전에 reserve로 자리와 ID를 확보하고, 자리가 없으면 reserve-timeout-ms까지 기다린 뒤 예외
+ *   → 그 타석은 진행하지 않으므로 기록 없이 상태만 넘어가는(AT_BATS에 빈 타석이 생기는) 일이 없다 (rejectedQueueFull로 집계)
+ * - 게임 종료/타석 조회/서버 종료 시에는 남은 기록을 즉시 동기 flush
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AtBatWriter {
+
+    private static final String SEQUENCE_NAME = "SEQ_AT_BATS";
+    private static final long IDLE_POLL_MS = 10;
+
+    private static final String INSERT_SQL = "INSERT INTO at_bats (id, simulation_id, inning_half, pitcher_p_no, batter_p_no, "
+        + "batting_order, prev_score_home, prev_score_away, prev_outs, prev_base_1, prev_base_2, prev_base_3, "
+        + "result, result_korean, rbi, new_score_home, new_score_away, new_outs, new_base_1, new_base_2, new_base_3, "
+        + "probabilities, win_probability, win_probability_added, created_at) "
+        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AtBatRepository atBatRepo;
+
+    @Value("${simulation.at-bat-writer.enabled:true}")
+    private boolean enabled;
+
+    @Value("${simulation.at-bat-writer.batch-size:100}")
+    private int batchSize;
+
+    @Value("${simulation.at-bat-writer.max-delay-ms:500}")
+    private long maxDelayMs;
+
+    @Value("${simulation.at-bat-writer.retry-delay-ms:1000}")
+    private long retryDelayMs;
+
+    @Value("${simulation.at-bat-writer.max-queued:50000}")
+    private int maxQueued;
+
+    @Value("${simulation.at-bat-writer.reserve-timeout-ms:1000}")
+    private long reserveTimeoutMs;
+
+    private final BlockingQueue<AtBatEntity> queue = new LinkedBlockingQueue<>();
+    // 저장 대기(queue + head) 자리: reserve에서 얻고 저장/버림/discard 시 반납
+    private Semaphore slots = new Semaphore(0);
+    // 저장에 실패해서 다음 flush에 큐보다 먼저 보낼 기록 (flushLock 보유 시에만 접근)
+    private final ArrayDeque<AtBatEntity> head = new ArrayDeque<>();
+    // simulationId -> 아직 저장되지 않은 타석 수
+    private final Map<Long, Integer> pendingBySimulation = new ConcurrentHashMap<>();
+    private final Object flushLock = new Object();
+
+    // 시퀀스 블록 (allocateId 동기화)
+    private int incrementBy = 1;
+    private long nextId;
+    private long maxId = -1;
+
+    private Thread flusher;
+    private volatile boolean running;
+
+    // 지표
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong deadLettered = new AtomicLong();
+    private final AtomicLong rejectedQueueFull = new AtomicLong();
+    private final AtomicLong sequenceCalls = new AtomicLong();
+    private final AtomicLong totalFlushNanos = new AtomicLong();
+    private final AtomicLong maxFlushMs = new AtomicLong();
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        incrementBy = readSequenceIncrement();
+        slots = new Semaphore(Math.max(batchSize, maxQueued));
+        running = true;
+        flusher = new Thread(this::runFlusher, "at-bat-writer");
+        flusher.setDaemon(true);
+        flusher.start();
+        log.info("타석 기록 배치 저장 사용: batch={}, maxDelay={}ms, 시퀀스 블록={}", batchSize, maxDelayMs, incrementBy);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (flusher != null) {
+            flusher.interrupt();
+        }
+        try {
+            int flushed = flush();
+            log.info("서버 종료 전 타석 기록 flush 완료: {}건", flushed);
+        } catch (Exception e) {
+            log.error("서버 종료 전 타석 기록 flush 실패: 미저장 {}건", queue.size() + headSize(), e);
+        }
+    }
+
+    /**
+     * 타석 기록 한 건의 저장 자리와 ID를 미리 확보 (게임 상태를 바꾸기 전에 호출)
+     * 저장이 밀려 자리가 없으면 reserve-timeout-ms까지 기다리고, 그래도 없으면 IllegalStateException
+     * @return 확보한 타석 ID (배치 저장을 쓰지 않으면 null, write에서 JPA가 부여)
+     */
+    public Long reserve() {
+        if (!enabled) {
+            return null;
+        }
+        acquire(1);
+        try {
+            return allocateId();
+        } catch (RuntimeException e) {
+            slots.release();
+            throw e;
+        }
+    }
+
+    /**
+     * reserve한 타석 기록을 다음 배치에 추가 (자리가 확보되어 있으므로 실패하지 않는다)
+     * @return 타석 ID
+     */
+    public Long write(AtBatEntity atBat) {
+        if (!enabled) {
+            return atBatRepo.save(atBat).getId();
+        }
+        if (atBat.getId() == null) {
+            throw new IllegalStateException("reserve하지 않은 타석 기록입니다.");
+        }
+        enqueue(atBat);
+        return atBat.getId();
+    }
+
+    /**
+     * 여러 타석 기록을 한 번에 자리/ID 확보 후 추가 (자리가 모자라면 하나도 추가하지 않고 예외)
+     */
+    public void writeAll(Collection<AtBatEntity> atBats) {
+        if (!enabled) {
+            atBatRepo.saveAll(atBats);
+            return;
+        }
+        acquire(atBats.size());
+        try {
+            for (AtBatEntity atBat : atBats) {
+                atBat.setId(allocateId());
+            }
+        } catch (RuntimeException e) {
+            slots.release(atBats.size());
+            throw e;
+        }
+        for (AtBatEntity atBat : atBats) {
+            enqueue(atBat);
+        }
+    }
+
+    /**
+     * 해당 시뮬레이션에 아직 저장되지 않은 타석이 있는지
+     */
+    public boolean hasPending(Long simulationId) {
+        return pendingBySimulation.containsKey(simulationId);
+    }
+
+    /**
+     * 해당 시뮬레이션의 타석 기록이 모두 저장되도록 동기 flush (게임 종료/조회 전)
+     */
+    public void flush(Long simulationId) {
+        if (hasPending(simulationId)) {
+            flush();
+        }
+    }
+
+    /**
+     * 해당 시뮬레이션의 저장 대기 기록 버리기 (시뮬레이션 삭제 전)
+     * @return 버린 건수
+     */
+    public int discard(Long simulationId) {
+        synchronized (flushLock) {
+            int before = queue.size() + head.size();
+            head.removeIf(atBat -> simulationId.equals(atBat.getSimulation().getId()));
+            queue.removeIf(atBat -> simulationId.equals(atBat.getSimulation().getId()));
+            pendingBySimulation.remove(simulationId);
+            int discarded = before - queue.size() - head.size();
+            slots.release(discarded);
+            return discarded;
+        }
+    }
+
+    /**
+     * 큐에 쌓인 기록을 모두 동기 저장
+     * @return 저장한 건수
+     */
+    public int flush() {
+        int total = 0;
+        synchronized (flushLock) {
+            List<AtBatEntity> batch = new ArrayList<>(batchSize);
+            while (true) {
+                batch.clear();
+                takeBatch(batch);
+                if (batch.isEmpty()) {
+                    return total;
+                }
+                writeBatch(batch);
+                total += batch.size();
+            }
+        }
+    }
+
+    public Map<String, Object> metrics() {
+        long count = batches.get();
+        long rows = written.get();
+        long flushNanos = totalFlushNanos.get();
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("enabled", enabled);
+        metrics.put("queued", queue.size());
+        metrics.put("enqueued", enqueued.get());
+        metrics.put("written", rows);
+        metrics.put("batches", count);
+        metrics.put("avgBatchSize", count > 0 ? rows / (double) count : 0.0);
+        metrics.put("avgFlushMs", count > 0 ? flushNanos / 1_000_000.0 / count : 0.0);
+        metrics.put("maxFlushMs", maxFlushMs.get());
+        // DB에 보내는 시간 기준 처리량
+        metrics.put("insertRowsPerSecond", flushNanos > 0 ? rows * 1_000_000_000.0 / flushNanos : 0.0);
+        metrics.put("failures", failures.get());
+        metrics.put("deadLettered", deadLettered.get());
+        metrics.put("rejectedQueueFull", rejectedQueueFull.get());
+        metrics.put("maxQueued", maxQueued);
+        metrics.put("sequenceCalls", sequenceCalls.get());
+        metrics.put("sequenceBlock", incrementBy);
+        metrics.put("pendingSimulations", pendingBySimulation.size());
+        return metrics;
+    }
+
+    // =============================================
+    // flush 스레드
+    // =============================================
+
+    // 기록이 들어온 뒤 max-delay-ms 동안(또는 batch-size까지) 모아서 저장
+    // 큐에서 꺼내는 것은 항상 flushLock 안에서만 하므로 다른 스레드의 동기 flush와 순서가 섞이지 않는다
+    private void runFlusher() {
+        while (running) {
+            try {
+                if (queue.isEmpty() && headSize() == 0) {
+                    Thread.sleep(IDLE_POLL_MS);
+                    continue;
+                }
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+                while (queue.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) break;
+                    TimeUnit.NANOSECONDS.sleep(Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(IDLE_POLL_MS)));
+                }
+                flush();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                // DB 연결 오류로 남은 기록은 head에 있으므로 잠시 후 다시 시도
+                log.error("타석 기록 배치 저장 실패 (재시도 예정): 미저장 {}건", queue.size() + headSize(), e);
+                try {
+                    Thread.sleep(retryDelayMs);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    // 이전에 실패한 기록부터, 큐 순서대로 batch-size만큼
+    private void takeBatch(List<AtBatEntity> batch) {
+        while (batch.size() < batchSize && !head.isEmpty()) {
+            batch.add(head.pollFirst());
+        }
+        if (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+        }
+    }
+
+    private void writeBatch(List<AtBatEntity> batch) {
+        long start = System.nanoTime();
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    bind(ps, batch.get(i));
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return batch.size();
+                }
+            });
+        } catch (RuntimeException e) {
+            failures.incrementAndGet();
+            writeOneByOne(batch, e);
+            return;
+        }
+        long elapsed = System.nanoTime() - start;
+        batches.incrementAndGet();
+        written.addAndGet(batch.size());
+        totalFlushNanos.addAndGet(elapsed);
+        maxFlushMs.accumulateAndGet(TimeUnit.NANOSECONDS.toMillis(elapsed), Math::max);
+
+        for (AtBatEntity atBat : batch) {
+            release(atBat.getSimulation().getId());
+        }
+    }
+
+    // 배치 실패 시 한 건씩 순서대로 저장: 데이터 오류인 행만 버리고, 연결 오류면 남은 행을 순서대로 head에 돌려놓고 중단
+    private void writeOneByOne(List<AtBatEntity> batch, RuntimeException batchError) {
+        if (!isBadRow(batchError)) {
+            requeue(batch, 0);
+            throw batchError;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            AtBatEntity atBat = batch.get(i);
+            try {
+                jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, atBat));
+                written.incrementAndGet();
+            } catch (RuntimeException e) {
+                if (!isBadRow(e)) {
+                    requeue(batch, i);
+                    throw e;
+                }
+                long dropped = deadLettered.incrementAndGet();
+                log.error("저장할 수 없는 타석 기록을 버림: simulationId={}, atBatId={}, {} {} (누적 {}건): {}",
+                    atBat.getSimulation().getId(), atBat.getId(), atBat.getInningHalf(), atBat.getResult(), dropped, e.getMessage());
+            }
+            release(atBat.getSimulation().getId());
+        }
+    }
+
+    // 그 행을 다시 보내도 성공할 수 없는 오류 (제약 조건 위반, 값 길이/형식 등)
+    // 연결/자원 오류와 SQL 자체 오류(마이그레이션 누락 등)는 행 문제가 아니므로 재시도 대상
+    private static boolean isBadRow(RuntimeException e) {
+        return e instanceof NonTransientDataAccessException
+            && !(e instanceof DataAccessResourceFailureException)
+            && !(e instanceof InvalidDataAccessResourceUsageException);
+    }
+
+    // from번째부터 순서를 유지한 채 다음 flush에서 먼저 저장
+    private void requeue(List<AtBatEntity> batch, int from) {
+        for (int i = batch.size() - 1; i >= from; i--) {
+            head.addFirst(batch.get(i));
+        }
+    }
+
+    private void enqueue(AtBatEntity atBat) {
+        if (atBat.getCreatedAt() == null) {
+            atBat.setCreatedAt(LocalDateTime.now());
+        }
+        pendingBySimulation.merge(atBat.getSimulation().getId(), 1, Integer::sum);
+        queue.add(atBat);
+        enqueued.incrementAndGet();
+    }
+
+    // 저장 대기 자리 확보 (backpressure: 자리가 날 때까지 reserve-timeout-ms 동안 대기)
+    private void acquire(int count) {
+        boolean acquired;
+        try {
+            acquired = slots.tryAcquire(count, reserveTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            long rejected = rejectedQueueFull.incrementAndGet();
+            log.error("타석 기록 저장이 밀려 새 기록을 받지 않음: 미저장 {}건 (누적 거부 {}건)", queue.size() + headSize(), rejected);
+            throw new IllegalStateException("타석 기록 저장이 밀려 있습니다. 잠시 후 다시 시도하세요.");
+        }
+    }
+
+    // 한 건이 저장되었거나 버려짐 → 자리 반납
+    private void release(Long simulationId) {
+        pendingBySimulation.computeIfPresent(simulationId, (id, pending) -> pending > 1 ? pending - 1 : null);
+        slots.release();
+    }
+
+    private int headSize() {
+        synchronized (flushLock) {
+            return head.size();
+        }
+    }
+
+    private static void bind(PreparedStatement ps, AtBatEntity atBat) throws SQLException {
+        ps.setLong(1, atBat.getId());
+        ps.setLong(2, atBat.getSimulation().getId());
+        ps.setString(3, atBat.getInningHalf());
+        ps.setLong(4, atBat.getPitcherPNo());
+        ps.setLong(5, atBat.getBatterPNo());
+        ps.setObject(6, atBat.getBattingOrder(), Types.INTEGER);
+        ps.setObject(7, atBat.getPrevScoreHome(), Types.INTEGER);
+        ps.setObject(8, atBat.getPrevScoreAway(), Types.INTEGER);
+        ps.setObject(9, atBat.getPrevOuts(), Types.INTEGER);
+        ps.setObject(10, atBat.getPrevBase1(), Types.BIGINT);
+        ps.setObject(11, atBat.getPrevBase2(), Types.BIGINT);
+        ps.setObject(12, atBat.getPrevBase3(), Types.BIGINT);
+        ps.setString(13, atBat.getResult());
+        ps.setString(14, atBat.getResultKorean());
+        ps.setObject(15, atBat.getRbi(), Types.INTEGER);
+        ps.setObject(16, atBat.getNewScoreHome(), Types.INTEGER);
+        ps.setObject(17, atBat.getNewScoreAway(), Types.INTEGER);
+        ps.setObject(18, atBat.getNewOuts(), Types.INTEGER);
+        ps.setObject(19, atBat.getNewBase1(), Types.BIGINT);
+        ps.setObject(20, atBat.getNewBase2(), Types.BIGINT);
+        ps.setObject(21, atBat.getNewBase3(), Types.BIGINT);
+        ps.setString(22, atBat.getProbabilities());
+        ps.setObject(23, atBat.getWinProbability(), Types.DOUBLE);
+        ps.setObject(24, atBat.getWinProbabilityAdded(), Types.DOUBLE);
+        ps.setTimestamp(25, Timestamp.valueOf(atBat.getCreatedAt()));
+    }
+
+    // =============================================
+    // 시퀀스 블록
+    // =============================================
+
+    /**
+     * 다음 타석 ID
+     * Hibernate pooled 최적화와 같은 방식: NEXTVAL 값이 블록의 마지막 ID ([NEXTVAL - INCREMENT_BY + 1, NEXTVAL])
+     * → JPA로 저장하는 타석과 ID가 겹치지 않는다
+     */
+    private synchronized long allocateId() {
+        if (nextId > maxId) {
+            long hi = jdbcTemplate.queryForObject("SELECT " + SEQUENCE_NAME + ".NEXTVAL FROM DUAL", Long.class);
+            sequenceCalls.incrementAndGet();
+            maxId = hi;
+            nextId = Math.max(1, hi - incrementBy + 1);
+        }
+        return nextId++;
+    }
+
+    // 시퀀스 INCREMENT BY 조회 (조회 실패 시 1 = 매번 NEXTVAL)
+    private int readSequenceIncrement() {
+        try {
+            Integer increment = jdbcTemplate.queryForObject(
+                "SELECT increment_by FROM user_sequences WHERE sequence_name = ?", Integer.class, SEQUENCE_NAME);
+            return increment != null && increment > 0 ? increment : 1;
+        } catch (Exception e) {
+            log.warn("{} INCREMENT BY 조회 실패, 1로 사용: {}", SEQUENCE_NAME, e.getMessage());
+            return 1;
+        }
+    }
+}
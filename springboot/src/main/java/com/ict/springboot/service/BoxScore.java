@@ -0,0 +1,294 @@
+package com.ict.springboot.service;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 경기 진행 중 갱신하는 박스스코어 (이닝별 득점 + 타순/투수별 누적 기록)
+ * - 모든 기록은 팀(원정 = 0, 홈 = 1)과 타순으로 인덱스를 계산하는 원시 배열에 보관, 타석마다 O(1) 갱신
+ * - 경기 종료 시 encode()한 바이트를 한 번만 저장하고, 이후에는 decode()로 읽는다 (타석 기록 재집계 없음)
+ * - 갱신/조회는 박스스코어 객체 자체를 모니터로 동기화한다
+ */
+public final class BoxScore {
+
+    public static final int AWAY = 0;
+    public static final int HOME = 1;
+
+    // 타자 기록 (타순별)
+    private static final int PA = 0;
+    private static final int AB = 1;
+    private static final int H = 2;
+    private static final int HR = 3;
+    private static final int BB = 4;
+    private static final int HBP = 5;
+    private static final int SO = 6;
+    private static final int RBI = 7;
+    private static final int BATTING_STATS = 8;
+    private static final String[] BATTING_NAMES = {"PA", "AB", "H", "HR", "BB", "HBP", "SO", "RBI"};
+
+    // 투수 기록 (팀별, 아웃 수 = 이닝 x 3)
+    private static final int BF = 0;
+    private static final int OUTS = 1;
+    private static final int P_H = 2;
+    private static final int P_HR = 3;
+    private static final int P_BB = 4;
+    private static final int P_SO = 5;
+    private static final int R = 6;
+    private static final int PITCHING_STATS = 7;
+    private static final String[] PITCHING_NAMES = {"BF", "OUTS", "H", "HR", "BB", "SO", "R"};
+
+    // 저장 형식 버전 (encode 첫 바이트)
+    private static final int FORMAT = 1;
+
+    // [팀][타순][기록]
+    private final int[] batting = new int[2 * Lineup.SIZE * BATTING_STATS];
+    // [팀][기록]
+    private final int[] pitching = new int[2 * PITCHING_STATS];
+    private final int[] errors = new int[2];
+    // [이닝 - 1][팀], 연장이면 늘린다
+    private int[] lineScore = new int[2 * 9];
+    // 타석이 있었던 마지막 하프 이닝 ((이닝 - 1) * 2 + 팀, 없으면 -1)
+    private int lastHalf = -1;
+
+    /**
+     * 타석 하나 반영
+     * @param top 타석 시작 시점 초/말
+     * @param slot 타순 (0부터)
+     * @param runs 이 타석에서 난 점수
+     * @param outsRecorded 이 타석에서 잡은 아웃 수
+     */
+    public synchronized void record(boolean top, int inning, int slot, AtBatOutcome outcome, int runs, int outsRecorded) {
+        int attacking = top ? AWAY : HOME;
+        int defending = 1 - attacking;
+
+        int b = (attacking * Lineup.SIZE + slot % Lineup.SIZE) * BATTING_STATS;
+        batting[b + PA]++;
+        if (outcome.isAtBat()) batting[b + AB]++;
+        if (outcome.isHit()) batting[b + H]++;
+        if (outcome == AtBatOutcome.HOME_RUN) batting[b + HR]++;
+        if (outcome == AtBatOutcome.WALK) batting[b + BB]++;
+        if (outcome == AtBatOutcome.HIT_BY_PITCH) batting[b + HBP]++;
+        if (outcome == AtBatOutcome.STRIKEOUT) batting[b + SO]++;
+        // 병살/실책으로 들어온 점수는 타점 아님
+        if (outcome != AtBatOutcome.DOUBLE_PLAY && outcome != AtBatOutcome.ERROR) batting[b + RBI] += runs;
+
+        int p = defending * PITCHING_STATS;
+        pitching[p + BF]++;
+        pitching[p + OUTS] += outsRecorded;
+        if (outcome.isHit()) pitching[p + P_H]++;
+        if (outcome == AtBatOutcome.HOME_RUN) pitching[p + P_HR]++;
+        if (outcome == AtBatOutcome.WALK) pitching[p + P_BB]++;
+        if (outcome == AtBatOutcome.STRIKEOUT) pitching[p + P_SO]++;
+        pitching[p + R] += runs;
+
+        if (outcome == AtBatOutcome.ERROR) errors[defending]++;
+
+        int half = (inning - 1) * 2 + attacking;
+        if (half >= lineScore.length) {
+            lineScore = Arrays.copyOf(lineScore, Math.max(lineScore.length * 2, half + 2));
+        }
+        lineScore[half] += runs;
+        lastHalf = Math.max(lastHalf, half);
+    }
+
+    /**
+     * 타석 전/후 아웃 수로 잡은 아웃 수 계산 (3아웃이면 이닝 교체로 0이 된다)
+     */
+    public static int outsRecorded(int outsBefore, int outsAfter) {
+        return outsAfter >= outsBefore ? outsAfter - outsBefore : 3 - outsBefore;
+    }
+
+    /**
+     * 응답용 전체 박스스코어 (선수 번호/이름은 호출하는 쪽에서 타순으로 채움)
+     */
+    public synchronized Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("innings", innings());
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("away", lineScoreOf(AWAY));
+        line.put("home", lineScoreOf(HOME));
+        map.put("lineScore", line);
+
+        Map<String, Object> totals = new LinkedHashMap<>();
+        totals.put("away", totalsOf(AWAY));
+        totals.put("home", totalsOf(HOME));
+        map.put("totals", totals);
+
+        Map<String, Object> battingMap = new LinkedHashMap<>();
+        battingMap.put("away", battingOf(AWAY));
+        battingMap.put("home", battingOf(HOME));
+        map.put("batting", battingMap);
+
+        Map<String, Object> pitchingMap = new LinkedHashMap<>();
+        pitchingMap.put("away", pitchingLine(AWAY));
+        pitchingMap.put("home", pitchingLine(HOME));
+        map.put("pitching", pitchingMap);
+        return map;
+    }
+
+    /**
+     * 타석 하나로 바뀐 부분만 (중계 프레임용: 타자 한 줄, 상대 투수, 해당 이닝 득점, 팀 합계)
+     */
+    public synchronized Map<String, Object> changes(boolean top, int inning, int slot) {
+        int attacking = top ? AWAY : HOME;
+        int defending = 1 - attacking;
+        Map<String, Object> map = new HashMap<>();
+        map.put("team", teamName(attacking));
+        map.put("slot", slot % Lineup.SIZE + 1);
+        map.put("batting", battingLine(attacking, slot % Lineup.SIZE));
+        map.put("pitching", pitchingLine(defending));
+        map.put("inning", inning);
+        map.put("runs", lineScore[(inning - 1) * 2 + attacking]);
+        map.put("totals", totalsOf(attacking));
+        map.put("defenseErrors", errors[defending]);
+        return map;
+    }
+
+    // =============================================
+    // 저장 형식 (varint 나열)
+    // =============================================
+
+    /**
+     * 저장용 바이트 (형식 버전, 하프 이닝 수, 이닝별 득점, 타자 기록, 투수 기록, 실책)
+     */
+    public synchronized byte[] encode() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        writeVarint(out, FORMAT);
+        writeVarint(out, lastHalf + 1);
+        for (int i = 0; i <= lastHalf; i++) {
+            writeVarint(out, lineScore[i]);
+        }
+        for (int value : batting) {
+            writeVarint(out, value);
+        }
+        for (int value : pitching) {
+            writeVarint(out, value);
+        }
+        for (int value : errors) {
+            writeVarint(out, value);
+        }
+        return out.toByteArray();
+    }
+
+    public static BoxScore decode(byte[] bytes) {
+        int[] pos = {0};
+        if (readVarint(bytes, pos) != FORMAT) {
+            throw new IllegalArgumentException("지원하지 않는 박스스코어 형식입니다.");
+        }
+        BoxScore box = new BoxScore();
+        int halves = readVarint(bytes, pos);
+        box.lineScore = new int[Math.max(2 * 9, halves + (halves & 1))];
+        for (int i = 0; i < halves; i++) {
+            box.lineScore[i] = readVarint(bytes, pos);
+        }
+        box.lastHalf = halves - 1;
+        for (int i = 0; i < box.batting.length; i++) {
+            box.batting[i] = readVarint(bytes, pos);
+        }
+        for (int i = 0; i < box.pitching.length; i++) {
+            box.pitching[i] = readVarint(bytes, pos);
+        }
+        for (int i = 0; i < box.errors.length; i++) {
+            box.errors[i] = readVarint(bytes, pos);
+        }
+        return box;
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarint(byte[] bytes, int[] pos) {
+        int value = 0;
+        int shift = 0;
+        while (true) {
+            byte b = bytes[pos[0]++];
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+            shift += 7;
+        }
+    }
+
+    // =============================================
+    // 응답 변환
+    // =============================================
+
+    private int innings() {
+        return Math.max(9, lastHalf / 2 + 1);
+    }
+
+    // 이닝별 득점 (경기가 진행되지 않은 하프 이닝은 null, 예: 9회말 없이 끝난 경우)
+    private List<Integer> lineScoreOf(int team) {
+        List<Integer> runs = new ArrayList<>();
+        for (int inning = 0; inning < innings(); inning++) {
+            int half = inning * 2 + team;
+            runs.add(half <= lastHalf ? lineScore[half] : null);
+        }
+        return runs;
+    }
+
+    private Map<String, Object> totalsOf(int team) {
+        int runs = 0;
+        for (int half = team; half <= lastHalf; half += 2) {
+            runs += lineScore[half];
+        }
+        int hits = 0;
+        int walks = 0;
+        for (int slot = 0; slot < Lineup.SIZE; slot++) {
+            int b = (team * Lineup.SIZE + slot) * BATTING_STATS;
+            hits += batting[b + H];
+            walks += batting[b + BB];
+        }
+        Map<String, Object> totals = new LinkedHashMap<>();
+        totals.put("R", runs);
+        totals.put("H", hits);
+        totals.put("E", errors[team]);
+        totals.put("BB", walks);
+        return totals;
+    }
+
+    private List<Map<String, Object>> battingOf(int team) {
+        List<Map<String, Object>> lines = new ArrayList<>();
+        for (int slot = 0; slot < Lineup.SIZE; slot++) {
+            Map<String, Object> line = battingLine(team, slot);
+            line.put("slot", slot + 1);
+            lines.add(line);
+        }
+        return lines;
+    }
+
+    private Map<String, Object> battingLine(int team, int slot) {
+        int b = (team * Lineup.SIZE + slot) * BATTING_STATS;
+        Map<String, Object> line = new LinkedHashMap<>();
+        for (int i = 0; i < BATTING_STATS; i++) {
+            line.put(BATTING_NAMES[i], batting[b + i]);
+        }
+        return line;
+    }
+
+    private Map<String, Object> pitchingLine(int team) {
+        int p = team * PITCHING_STATS;
+        Map<String, Object> line = new LinkedHashMap<>();
+        for (int i = 0; i < PITCHING_STATS; i++) {
+            line.put(PITCHING_NAMES[i], pitching[p + i]);
+        }
+        // 이닝 표기 (5.2 = 5이닝 2아웃)
+        line.put("IP", pitching[p + OUTS] / 3 + "." + pitching[p + OUTS] % 3);
+        return line;
+    }
+
+    private static String teamName(int team) {
+        return team == AWAY ? "away" : "home";
+    }
+}
@@ -0,0 +1,291 @@
+package com.ict.springboot.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.ict.springboot.entity.SimulationEntity;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 실시간 게임 시작 승인 (동시 진행 게임 수 = 실시간 추론 예산)
+ * - 예약 시각이 된 게임은 예산(max-live-games)이 남아 있으면 바로 시작하고, 없으면 대기열에 넣는다
+ * - 대기열은 진행 중인 게임이 끝나 예산이 생기면 들어온 순서대로 시작 (poll-ms마다 확인)
+ * - 대기 중인 게임의 예상 지연은 진행 중인 게임들의 남은 하프 이닝 수로 추정한다
+ * - 예산 포화 비율/대기 시간을 지표로 남겨 용량 산정에 쓴다
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class GameAdmission {
+
+    // 하프 이닝당 평균 타석 수 (예상 지연 추정용)
+    private static final double AT_BATS_PER_HALF_INNING = 4.3;
+    private static final int REGULATION_HALVES = 18;
+
+    private final SimulationService simulationService;
+    private final NotificationService notificationService;
+    private final GameLoopEngine gameLoopEngine;
+    private final LiveGameStateStore liveStateStore;
+
+    // 동시에 진행할 수 있는 실시간 게임 수 (0 = 제한 없음)
+    @Value("${simulation.admission.max-live-games:0}")
+    private int maxLiveGames;
+
+    // 대기 중인 게임 (들어온 순서, 모니터로 동기화)
+    private final LinkedHashMap<Long, Waiting> waiting = new LinkedHashMap<>();
+    // 시작 처리 중인 게임 (아직 게임 루프에 등록되기 전, 모니터로 동기화)
+    private final Set<Long> starting = new HashSet<>();
+
+    // 지표 (모니터로 동기화)
+    private long admittedStarts;
+    private long queuedStarts;
+    private long waitedStarts;
+    private long totalWaitMs;
+    private long maxWaitMs;
+    private int maxQueueLength;
+    private long sampledMs;
+    private long saturatedMs;
+    private long lastSampleMs;
+
+    /**
+     * 게임 시작 요청 (예약 시각 도래)
+     * 예산이 남아 있고 먼저 기다리는 게임이 없으면 바로 시작, 아니면 대기열에 넣고 예상 지연을 돌려준다.
+     */
+    public Map<String, Object> requestStart(SimulationEntity simulation) {
+        return requestStart(simulation, gameLoopEngine::schedule);
+    }
+
+    /**
+     * 게임 시작 요청 (시작한 게임을 넘길 곳 지정)
+     * @param handOff 시작한 게임의 simulationId를 받아 진행시키는 쪽 (밀린 타석을 먼저 따라잡는 GameCatchUp 등)
+     */
+    public Map<String, Object> requestStart(SimulationEntity simulation, Consumer<Long> handOff) {
+        Long simulationId = simulation.getId();
+        synchronized (this) {
+            if (waiting.containsKey(simulationId)) {
+                return status(simulationId);
+            }
+            if (!waiting.isEmpty() || !hasCapacity()) {
+                waiting.put(simulationId, new Waiting(simulation, handOff, System.currentTimeMillis()));
+                queuedStarts++;
+                maxQueueLength = Math.max(maxQueueLength, waiting.size());
+                Map<String, Object> status = status(simulationId);
+                log.info("실시간 추론 예산 소진으로 게임 시작 대기: simulationId={}, 순번={}, 예상 지연={}ms",
+                    simulationId, status.get("position"), status.get("expectedDelayMs"));
+                return status;
+            }
+            starting.add(simulationId);
+        }
+        try {
+            return start(simulation, handOff, 0);
+        } finally {
+            synchronized (this) {
+                starting.remove(simulationId);
+            }
+        }
+    }
+
+    /**
+     * 대기열에 있거나 시작 처리 중인 게임인지
+     */
+    public synchronized boolean isPending(Long simulationId) {
+        return waiting.containsKey(simulationId) || starting.contains(simulationId);
+    }
+
+    /**
+     * 대기열 처리: 예산이 남는 만큼 대기 중인 게임 시작
+     */
+    @Scheduled(fixedDelayString = "${simulation.admission.poll-ms:1000}")
+    public void drain() {
+        sampleSaturation();
+        while (true) {
+            Waiting next;
+            synchronized (this) {
+                if (waiting.isEmpty() || !hasCapacity()) {
+                    return;
+                }
+                Iterator<Waiting> it = waiting.values().iterator();
+                next = it.next();
+                it.remove();
+                starting.add(next.simulation.getId());
+            }
+            long waitedMs = System.currentTimeMillis() - next.queuedAtMs;
+            try {
+                start(next.simulation, next.handOff, waitedMs);
+            } catch (Exception e) {
+                log.error("대기 중이던 게임 시작 오류: simulationId={}", next.simulation.getId(), e);
+            } finally {
+                synchronized (this) {
+                    starting.remove(next.simulation.getId());
+                }
+            }
+        }
+    }
+
+    /**
+     * 대기 중인 게임의 순번과 예상 지연 (대기 중이 아니면 status = admitted)
+     */
+    public synchronized Map<String, Object> status(Long simulationId) {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("simulationId", simulationId);
+        int position = 0;
+        for (Long waitingId : waiting.keySet()) {
+            if (waitingId.equals(simulationId)) {
+                break;
+            }
+            position++;
+        }
+        if (position == waiting.size()) {
+            status.put("status", "admitted");
+            return status;
+        }
+        long expectedDelayMs = expectedDelayMs(position, remainingMs());
+        status.put("status", "queued");
+        status.put("message", "실시간 게임 수가 한도에 도달해 시작을 기다리는 중입니다.");
+        status.put("position", position + 1);
+        status.put("expectedDelayMs", expectedDelayMs);
+        status.put("expectedStartAt", LocalDateTime.now().plusNanos(expectedDelayMs * 1_000_000L));
+        return status;
+    }
+
+    public synchronized Map<String, Object> metrics() {
+        int live = liveGames();
+        long[] remaining = remainingMs();
+        List<Map<String, Object>> queue = new ArrayList<>();
+        int position = 0;
+        for (Waiting next : waiting.values()) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("simulationId", next.simulation.getId());
+            entry.put("waitedMs", System.currentTimeMillis() - next.queuedAtMs);
+            entry.put("expectedDelayMs", expectedDelayMs(position++, remaining));
+            queue.add(entry);
+        }
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("maxLiveGames", maxLiveGames);
+        metrics.put("liveGames", live);
+        metrics.put("utilization", maxLiveGames > 0 ? live / (double) maxLiveGames : 0.0);
+        // 예산이 가득 찬 상태로 지난 시간 비율
+        metrics.put("saturationRatio", sampledMs > 0 ? saturatedMs / (double) sampledMs : 0.0);
+        metrics.put("admittedStarts", admittedStarts);
+        metrics.put("queuedStarts", queuedStarts);
+        metrics.put("queueLength", waiting.size());
+        metrics.put("maxQueueLength", maxQueueLength);
+        metrics.put("avgQueueWaitMs", waitedStarts > 0 ? totalWaitMs / (double) waitedStarts : 0.0);
+        metrics.put("maxQueueWaitMs", maxWaitMs);
+        metrics.put("queue", queue);
+        return metrics;
+    }
+
+    // 게임 시작 후 게임 루프 엔진(또는 handOff)에 등록 (SimulationExecutionJob이 하던 처리)
+    private Map<String, Object> start(SimulationEntity simulation, Consumer<Long> handOff, long waitedMs) {
+        Long simulationId = simulation.getId();
+        Map<String, Object> response = simulationService.startRealtimeGame(simulationId);
+        if (!"success".equals(response.get("status"))) {
+            log.warn("게임 시작 실패: simulationId={}, {}", simulationId, response.get("message"));
+            return response;
+        }
+
+        notificationService.notifySimulationStarted(
+            simulation.getUser().getId(),
+            simulationId,
+            simulation.getHometeam(),
+            simulation.getAwayteam()
+        );
+        handOff.accept(simulationId);
+
+        synchronized (this) {
+            admittedStarts++;
+            if (waitedMs > 0) {
+                waitedStarts++;
+                totalWaitMs += waitedMs;
+                maxWaitMs = Math.max(maxWaitMs, waitedMs);
+            }
+        }
+        if (waitedMs > 0) {
+            log.info("대기 중이던 게임 시작: simulationId={}, 대기 {}ms", simulationId, waitedMs);
+        }
+        return response;
+    }
+
+    private boolean hasCapacity() {
+        return maxLiveGames <= 0 || liveGames() < maxLiveGames;
+    }
+
+    private int liveGames() {
+        return gameLoopEngine.scheduledCount() + starting.size();
+    }
+
+    private synchronized void sampleSaturation() {
+        long now = System.currentTimeMillis();
+        if (lastSampleMs > 0) {
+            long elapsed = now - lastSampleMs;
+            sampledMs += elapsed;
+            if (maxLiveGames > 0 && liveGames() >= maxLiveGames) {
+                saturatedMs += elapsed;
+            }
+        }
+        lastSampleMs = now;
+    }
+
+    /**
+     * 진행 중인 게임마다 끝나기까지 남은 시간 추정 (오름차순)
+     * 남은 정규 하프 이닝 수 x 하프 이닝당 평균 타석 수 x 타석 간격
+     */
+    private long[] remainingMs() {
+        Set<Long> simulationIds = gameLoopEngine.scheduledIds();
+        long[] remaining = new long[simulationIds.size()];
+        int n = 0;
+        for (Long simulationId : simulationIds) {
+            LiveGameState state = liveStateStore.find(simulationId).orElse(null);
+            int playedHalves = state != null ? (state.getInning() - 1) * 2 + (state.isTop() ? 0 : 1) : 0;
+            int remainingHalves = Math.max(1, REGULATION_HALVES - playedHalves);
+            if (n < remaining.length) {
+                remaining[n++] = Math.round(remainingHalves * AT_BATS_PER_HALF_INNING * gameLoopEngine.getAtBatIntervalMs());
+            }
+        }
+        remaining = Arrays.copyOf(remaining, n);
+        Arrays.sort(remaining);
+        return remaining;
+    }
+
+    /**
+     * 대기 순번(0부터)의 예상 지연: 남은 예산만큼은 바로, 그 뒤로는 진행 중인 게임이 끝나는 순서대로 자리가 난다
+     * (진행 중인 게임 수보다 뒤라면 그 게임들 다음 경기가 끝날 때까지 한 경기 길이씩 더한다)
+     */
+    private long expectedDelayMs(int position, long[] remaining) {
+        int free = maxLiveGames > 0 ? Math.max(0, maxLiveGames - remaining.length - starting.size()) : Integer.MAX_VALUE;
+        if (position < free || remaining.length == 0) {
+            return 0;
+        }
+        int index = position - free;
+        long fullGameMs = Math.round(REGULATION_HALVES * AT_BATS_PER_HALF_INNING * gameLoopEngine.getAtBatIntervalMs());
+        return remaining[index % remaining.length] + (long) (index / remaining.length) * fullGameMs;
+    }
+
+    private static final class Waiting {
+        private final SimulationEntity simulation;
+        private final Consumer<Long> handOff;
+        private final long queuedAtMs;
+
+        private Waiting(SimulationEntity simulation, Consumer<Long> handOff, long queuedAtMs) {
+            this.simulation = simulation;
+            this.handOff = handOff;
+            this.queuedAtMs = queuedAtMs;
+        }
+    }
+}
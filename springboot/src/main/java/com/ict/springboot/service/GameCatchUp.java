@@ -0,0 +1,260 @@
+package com.ict.springboot.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.ict.springboot.entity.SimulationEntity;
+import com.ict.springboot.entity.SimulationGameStateEntity;
+import com.ict.springboot.repository.AtBatRepository;
+import com.ict.springboot.repository.SimulationGameStateRepository;
+import com.ict.springboot.repository.SimulationRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 서버 중단으로 밀린 게임 따라잡기
+ * - 시작 시 진행 중(PLAYING)이던 게임을 날짜와 상관없이 복구하고, 중단된 동안 진행됐어야 할 타석 수를 계산
+ *   (showAt 기준 예정 타석 수 - 기록된 타석 수, 단 마지막 상태 저장 이후 흐른 시간만큼까지)
+ * - 밀린 타석은 게임마다 actor로 연달아 진행하고(게임 간 동시 실행은 parallelism개까지), 끝나면 게임 루프 엔진에 넘겨 실시간 간격으로 돌아간다
+ * - 시작 Job이 사라져 showAt이 지났는데도 시작하지 못한 게임도 주기적으로 찾아 시작한 뒤 같은 방식으로 따라잡는다
+ * - 타석 기록은 AtBatWriter가 묶어서 저장하고, 따라잡기가 끝나면 남은 기록을 flush한다
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class GameCatchUp {
+
+    private final SimulationActors simulationActors;
+    private final GameLoopEngine gameLoopEngine;
+    private final LiveGameStateStore liveStateStore;
+    private final SimulationRepository simulationRepo;
+    private final SimulationGameStateRepository gameStateRepo;
+    private final AtBatRepository atBatRepo;
+    private final AtBatWriter atBatWriter;
+    private final GameAdmission gameAdmission;
+
+    @Value("${simulation.catch-up.enabled:false}")
+    private boolean enabled;
+
+    // 동시에 따라잡는 게임 수
+    @Value("${simulation.catch-up.parallelism:4}")
+    private int parallelism;
+
+    // 게임 하나에서 따라잡을 최대 타석 수
+    @Value("${simulation.catch-up.max-at-bats:200}")
+    private int maxAtBats;
+
+    // 시작하지 못한 게임을 찾을 범위 (showAt 기준 며칠 전까지)
+    @Value("${simulation.catch-up.lost-start-days:1}")
+    private int lostStartDays;
+
+    // showAt이 이만큼 지나도 시작되지 않았으면 시작 Job이 사라진 것으로 본다
+    @Value("${simulation.catch-up.lost-start-grace-ms:60000}")
+    private long lostStartGraceMs;
+
+    @Value("${simulation.batch.timeout-ms:60000}")
+    private long atBatTimeoutMs;
+
+    // 따라잡는 중인 게임 (끝나기 전까지 게임 루프에 등록하지 않음)
+    private final Set<Long> catchingUp = ConcurrentHashMap.newKeySet();
+    private ExecutorService workers;
+
+    // 지표
+    private final AtomicLong recoveredGames = new AtomicLong();
+    private final AtomicLong lostStarts = new AtomicLong();
+    private final AtomicLong caughtUpGames = new AtomicLong();
+    private final AtomicLong caughtUpAtBats = new AtomicLong();
+    private final AtomicLong finishedGames = new AtomicLong();
+    private final AtomicLong failedGames = new AtomicLong();
+    private final AtomicLong catchUpNanos = new AtomicLong();
+    private final AtomicLong maxBehind = new AtomicLong();
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger workerSeq = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(Math.max(1, parallelism), r -> {
+            Thread t = new Thread(r, "game-catch-up-" + workerSeq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * 서버 시작 시 진행 중이던 게임 복구 (날짜 무관)
+     * 마지막으로 flush된 게임 상태를 메모리에 다시 올리고, 밀린 타석을 따라잡은 뒤 게임 루프 엔진에 등록한다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverActiveGames() {
+        try {
+            List<SimulationGameStateEntity> activeGames = gameStateRepo.findByGameStatus("PLAYING");
+            for (SimulationGameStateEntity gameState : activeGames) {
+                SimulationEntity simulation = gameState.getSimulation();
+                liveStateStore.register(gameState);
+                recoveredGames.incrementAndGet();
+                if (!enabled) {
+                    gameLoopEngine.schedule(simulation.getId());
+                    continue;
+                }
+                LocalDateTime stoppedAt = gameState.getUpdatedAt() != null ? gameState.getUpdatedAt() : simulation.getShowAt();
+                submit(simulation.getId(), simulation.getShowAt(), stoppedAt);
+            }
+            log.info("진행 중인 게임 복구: {}건 (따라잡기 {})", activeGames.size(), enabled ? "사용" : "미사용");
+        } catch (Exception e) {
+            log.error("진행 중인 게임 복구 중 오류", e);
+        }
+        startLostGames();
+    }
+
+    /**
+     * 시작 Job이 사라진 게임 찾기 (showAt이 지났는데 게임 상태가 없는 시뮬레이션)
+     */
+    @Scheduled(fixedDelayString = "${simulation.catch-up.sweep-interval-ms:60000}",
+               initialDelayString = "${simulation.catch-up.sweep-interval-ms:60000}")
+    public synchronized void startLostGames() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            List<SimulationEntity> unstarted = simulationRepo.findUnstartedBetween(
+                now.minusDays(lostStartDays), now.minusNanos(TimeUnit.MILLISECONDS.toNanos(lostStartGraceMs)));
+            for (SimulationEntity simulation : unstarted) {
+                Long simulationId = simulation.getId();
+                if (catchingUp.contains(simulationId) || gameAdmission.isPending(simulationId)) {
+                    continue;
+                }
+                // 시작 Job과 같은 승인 경로 (예산이 없으면 대기열, 시작 알림), 시작되면 밀린 타석부터 따라잡는다
+                LocalDateTime showAt = simulation.getShowAt();
+                Map<String, Object> started = gameAdmission.requestStart(simulation, id -> submit(id, showAt, showAt));
+                if ("error".equals(started.get("status"))) {
+                    log.warn("시작하지 못한 게임 시작 실패: simulationId={}, {}", simulationId, started.get("message"));
+                    continue;
+                }
+                lostStarts.incrementAndGet();
+                log.info("시작 Job 없이 지난 게임 시작 요청: simulationId={}, showAt={}, {}", simulationId, showAt, started.get("status"));
+            }
+        } catch (Exception e) {
+            log.error("시작하지 못한 게임 확인 중 오류", e);
+        }
+    }
+
+    public Map<String, Object> metrics() {
+        long games = caughtUpGames.get();
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("enabled", enabled);
+        metrics.put("parallelism", parallelism);
+        metrics.put("recoveredGames", recoveredGames.get());
+        metrics.put("lostStarts", lostStarts.get());
+        metrics.put("catchingUp", catchingUp.size());
+        metrics.put("caughtUpGames", games);
+        metrics.put("caughtUpAtBats", caughtUpAtBats.get());
+        metrics.put("finishedDuringCatchUp", finishedGames.get());
+        metrics.put("failedGames", failedGames.get());
+        metrics.put("maxBehind", maxBehind.get());
+        metrics.put("avgCatchUpMs", games > 0 ? TimeUnit.NANOSECONDS.toMillis(catchUpNanos.get()) / (double) games : 0.0);
+        return metrics;
+    }
+
+    private void submit(Long simulationId, LocalDateTime showAt, LocalDateTime stoppedAt) {
+        if (!catchingUp.add(simulationId)) {
+            return;
+        }
+        try {
+            workers.execute(() -> catchUp(simulationId, showAt, stoppedAt));
+        } catch (RejectedExecutionException e) {
+            catchingUp.remove(simulationId);
+            gameLoopEngine.schedule(simulationId);
+        }
+    }
+
+    // 밀린 타석을 연달아 진행한 뒤 게임 루프 엔진에 넘김 (작업 스레드)
+    private void catchUp(Long simulationId, LocalDateTime showAt, LocalDateTime stoppedAt) {
+        long startNanos = System.nanoTime();
+        int played = 0;
+        boolean finished = false;
+        try {
+            int behind = behind(simulationId, showAt, stoppedAt);
+            maxBehind.accumulateAndGet(behind, Math::max);
+            while (played < behind) {
+                Map<String, Object> result = simulationActors.advance(simulationId).get(atBatTimeoutMs, TimeUnit.MILLISECONDS);
+                if (result == null || "error".equals(result.get("status"))) {
+                    // 남은 타석은 게임 루프가 실시간 간격으로 진행
+                    log.warn("따라잡기 중단: simulationId={}, {}", simulationId, result != null ? result.get("message") : "진행 중인 게임 아님");
+                    break;
+                }
+                if ("game_ended".equals(result.get("status"))) {
+                    finished = true;
+                    break;
+                }
+                played++;
+                if (isGameEnded(result)) {
+                    finished = true;
+                    break;
+                }
+            }
+            atBatWriter.flush(simulationId);
+            caughtUpGames.incrementAndGet();
+            if (finished) {
+                finishedGames.incrementAndGet();
+            }
+            log.info("게임 따라잡기 완료: simulationId={}, 밀린 타석={}, 진행={}, 경기 종료={}, {}ms",
+                simulationId, behind, played, finished, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            failedGames.incrementAndGet();
+            log.error("게임 따라잡기 오류: simulationId={}", simulationId, e);
+        } finally {
+            caughtUpAtBats.addAndGet(played);
+            catchUpNanos.addAndGet(System.nanoTime() - startNanos);
+            catchingUp.remove(simulationId);
+            if (!finished) {
+                // 실시간 진행으로 복귀
+                gameLoopEngine.schedule(simulationId);
+            }
+        }
+    }
+
+    /**
+     * 밀린 타석 수: showAt부터 지금까지 예정된 타석 수 - 기록된 타석 수
+     * 되감기 등으로 기록이 적은 게임을 앞당기지 않도록 마지막 상태 저장 이후 흐른 시간만큼으로 제한한다.
+     */
+    private int behind(Long simulationId, LocalDateTime showAt, LocalDateTime stoppedAt) {
+        long intervalMs = gameLoopEngine.getAtBatIntervalMs();
+        LocalDateTime now = LocalDateTime.now();
+        long scheduled = Duration.between(showAt, now).toMillis() / intervalMs;
+        long recorded = atBatRepo.countBySimulation_Id(simulationId);
+        long downtime = Duration.between(stoppedAt, now).toMillis() / intervalMs;
+        return (int) Math.max(0, Math.min(Math.min(scheduled - recorded, downtime), maxAtBats));
+    }
+
+    private static boolean isGameEnded(Map<String, Object> result) {
+        Object atBatResult = result.get("atBatResult");
+        return atBatResult instanceof Map && Boolean.TRUE.equals(((Map<?, ?>) atBatResult).get("game_ended"));
+    }
+}
@@ -0,0 +1,403 @@
+package com.ict.springboot.service;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 실시간 시뮬레이션 게임 루프 엔진
+ * - 진행 중인 모든 게임을 하나의 해시드 타이밍 휠(tick 스레드 1개)로 관리
+ * - 게임마다 simulationId로 정해지는 고정 위상(타석 간격 안의 오프셋)에 타석을 두고, 작은 지터를 더해 정각 몰림을 분산
+ *   (같은 시각에 시작한 게임들도 서로 다른 위상에서 FastAPI를 호출한다)
+ * - 실제 타석 처리는 게임별 actor(SimulationActors)에 보내고, 완료되면 다음 타석을 예약
+ * - 한 게임의 타석은 동시에 두 개 이상 실행되지 않는다
+ * - 관전자가 없는 게임은 실시간 간격으로 도래한 타석을 unwatched-burst개씩 모았다가 연달아 처리 (낮은 우선순위)
+ *   → 진행 속도는 실시간과 같고(앞서 나가지 않음), 관전자가 생기면 밀린 타석을 바로 처리한 뒤 실시간 간격으로 돌아온다
+ */
+@Service
+@Slf4j
+public class GameLoopEngine {
+
+    private final SimulationActors simulationActors;
+    private final LiveGameStateStore liveStateStore;
+    private final SpectatorPresence spectatorPresence;
+
+    @Value("${simulation.loop.tick-ms:100}")
+    private long tickMs;
+
+    @Value("${simulation.loop.wheel-size:512}")
+    private int wheelSize;
+
+    @Value("${simulation.loop.at-bat-interval-ms:8000}")
+    private long atBatIntervalMs;
+
+    @Value("${simulation.loop.jitter-ms:1000}")
+    private long jitterMs;
+
+    // 관전자 없는 게임에서 한 번에 몰아 처리할 타석 수 (1이면 관전 여부와 상관없이 실시간 간격)
+    @Value("${simulation.loop.unwatched-burst:1}")
+    private int unwatchedBurst;
+
+    // simulationId -> 휠에 올라간 게임
+    private final Map<Long, GameSlot> slots = new ConcurrentHashMap<>();
+    // 다른 스레드에서 등록한 게임 (tick 스레드가 휠에 옮긴다)
+    private final Queue<GameSlot> pending = new ConcurrentLinkedQueue<>();
+
+    private ArrayDeque<GameSlot>[] wheel;
+    private int mask;
+    private long currentTick;
+    private final long startNanos = System.nanoTime();
+
+    private Thread tickThread;
+    private volatile boolean running;
+
+    // 지표
+    private final AtomicLong dispatched = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong totalLagMs = new AtomicLong();
+    private final AtomicLong maxLagMs = new AtomicLong();
+    private volatile long lastLagMs;
+    private final AtomicLong watchedAtBats = new AtomicLong();
+    private final AtomicLong unwatchedAtBats = new AtomicLong();
+    private final AtomicLong deferredAtBats = new AtomicLong();
+    private final AtomicLong bursts = new AtomicLong();
+    private final AtomicLong burstAtBats = new AtomicLong();
+
+    public GameLoopEngine(SimulationActors simulationActors, LiveGameStateStore liveStateStore, SpectatorPresence spectatorPresence) {
+        this.simulationActors = simulationActors;
+        this.liveStateStore = liveStateStore;
+        this.spectatorPresence = spectatorPresence;
+    }
+
+    @PostConstruct
+    public void start() {
+        int size = Integer.highestOneBit(Math.max(wheelSize, 16) - 1) << 1;
+        wheel = newWheel(size);
+        mask = size - 1;
+
+        running = true;
+        tickThread = new Thread(this::runTicks, "game-loop-tick");
+        tickThread.setDaemon(true);
+        tickThread.start();
+        log.info("게임 루프 엔진 시작: tick={}ms, wheel={}", tickMs, size);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (tickThread != null) {
+            tickThread.interrupt();
+        }
+    }
+
+    /**
+     * 게임 진행 등록 (이미 등록된 게임이면 무시)
+     * 첫 타석은 지터만큼 늦춰서 같은 시각에 시작한 게임들이 한 tick에 몰리지 않게 한다.
+     */
+    public boolean schedule(Long simulationId) {
+        GameSlot slot = new GameSlot(simulationId);
+        if (slots.putIfAbsent(simulationId, slot) != null) {
+            return false;
+        }
+        // 첫 타석은 지금 이후 이 게임의 위상 시점
+        long now = nowMs();
+        slot.dueMs = now + Math.floorMod(phaseOf(simulationId) - now, atBatIntervalMs);
+        slot.deadlineMs = withJitter(slot.dueMs);
+        pending.add(slot);
+        return true;
+    }
+
+    /**
+     * 게임 진행 중지 (실행 중인 타석은 마저 끝낸다)
+     */
+    public void cancel(Long simulationId) {
+        GameSlot slot = slots.remove(simulationId);
+        if (slot != null) {
+            slot.cancelled = true;
+        }
+    }
+
+    public boolean isScheduled(Long simulationId) {
+        return slots.containsKey(simulationId);
+    }
+
+    public long getAtBatIntervalMs() {
+        return atBatIntervalMs;
+    }
+
+    public int scheduledCount() {
+        return slots.size();
+    }
+
+    public Set<Long> scheduledIds() {
+        return Collections.unmodifiableSet(slots.keySet());
+    }
+
+    /**
+     * 게임의 고정 위상 (타석 간격 안의 오프셋, ms)
+     * 연속으로 발급된 simulationId도 간격 안에 고르게 퍼지도록 황금비 곱셈 해시의 소수부를 쓴다.
+     */
+    public long phaseOf(Long simulationId) {
+        double fraction = ((simulationId * 0x9E3779B97F4A7C15L) >>> 11) * 0x1.0p-53;
+        return (long) (fraction * atBatIntervalMs);
+    }
+
+    /**
+     * 엔진 지표 (스케줄링 지연 포함)
+     */
+    public Map<String, Object> metrics() {
+        long count = dispatched.get();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("scheduledGames", slots.size());
+        metrics.put("liveGames", liveStateStore.size());
+        metrics.put("dispatched", count);
+        metrics.put("rejected", rejected.get());
+        metrics.put("failed", failed.get());
+        metrics.put("lastLagMs", lastLagMs);
+        metrics.put("maxLagMs", maxLagMs.get());
+        metrics.put("avgLagMs", count > 0 ? totalLagMs.get() / (double) count : 0.0);
+        metrics.put("inFlightAtBats", inFlight.get());
+        metrics.put("watchedAtBats", watchedAtBats.get());
+        metrics.put("unwatchedAtBats", unwatchedAtBats.get());
+        metrics.put("deferredAtBats", deferredAtBats.get());
+        metrics.put("bursts", bursts.get());
+        metrics.put("avgBurstSize", bursts.get() > 0 ? burstAtBats.get() / (double) bursts.get() : 0.0);
+        metrics.put("tickMs", tickMs);
+        metrics.put("atBatIntervalMs", atBatIntervalMs);
+        metrics.put("unwatchedBurst", unwatchedBurst);
+        metrics.put("maxGamesPerPhaseTick", maxGamesPerPhaseTick());
+        return metrics;
+    }
+
+    // 같은 tick 위상에 놓인 게임 수의 최댓값 (1에 가까울수록 호출이 고르게 퍼짐)
+    private int maxGamesPerPhaseTick() {
+        Map<Long, Integer> perTick = new HashMap<>();
+        int max = 0;
+        for (Long simulationId : slots.keySet()) {
+            max = Math.max(max, perTick.merge(phaseOf(simulationId) / tickMs, 1, Integer::sum));
+        }
+        return max;
+    }
+
+    // =============================================
+    // tick 스레드
+    // =============================================
+
+    private void runTicks() {
+        while (running) {
+            try {
+                waitForNextTick();
+                transferPending();
+                expireBucket(wheel[(int) (currentTick & mask)]);
+                currentTick++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("게임 루프 tick 처리 중 오류", e);
+            }
+        }
+    }
+
+    private void waitForNextTick() throws InterruptedException {
+        long deadlineMs = (currentTick + 1) * tickMs;
+        long sleepMs = deadlineMs - nowMs();
+        if (sleepMs > 0) {
+            Thread.sleep(sleepMs);
+        }
+    }
+
+    // 제네릭 배열은 직접 만들 수 없어 원시 타입 배열로 만든 뒤 변환 (모든 칸을 ArrayDeque<GameSlot>로 채우므로 안전)
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static ArrayDeque<GameSlot>[] newWheel(int size) {
+        ArrayDeque<GameSlot>[] buckets = new ArrayDeque[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new ArrayDeque<>();
+        }
+        return buckets;
+    }
+
+    private void transferPending() {
+        GameSlot slot;
+        while ((slot = pending.poll()) != null) {
+            if (slot.cancelled) continue;
+            // 이미 지난 시점이면 현재 tick에 넣는다
+            long targetTick = Math.max(slot.deadlineMs / tickMs, currentTick);
+            slot.remainingRounds = (targetTick - currentTick) / wheel.length;
+            wheel[(int) (targetTick & mask)].add(slot);
+        }
+    }
+
+    private void expireBucket(ArrayDeque<GameSlot> bucket) {
+        Iterator<GameSlot> it = bucket.iterator();
+        while (it.hasNext()) {
+            GameSlot slot = it.next();
+            if (slot.cancelled) {
+                it.remove();
+            } else if (slot.remainingRounds > 0) {
+                slot.remainingRounds--;
+            } else {
+                it.remove();
+                dispatch(slot);
+            }
+        }
+    }
+
+    private void dispatch(GameSlot slot) {
+        if (!slot.inFlight.compareAndSet(false, true)) {
+            // 이전 타석이 아직 처리 중이면 다음 tick에 다시 확인
+            reschedule(slot, nowMs() + tickMs);
+            return;
+        }
+        if (slot.burstRemaining == 0 && !takeDueAtBats(slot)) {
+            // 관전자 없는 게임: 몰아 처리할 만큼 쌓일 때까지 다음 실시간 시점으로 미룸
+            slot.inFlight.set(false);
+            deferredAtBats.incrementAndGet();
+            reschedule(slot, withJitter(slot.dueMs));
+            return;
+        }
+        long lag = Math.max(0, nowMs() - slot.deadlineMs);
+        CompletableFuture<Map<String, Object>> result;
+        try {
+            result = simulationActors.advance(slot.simulationId);
+        } catch (RejectedExecutionException e) {
+            // 게임 메일박스 포화: 다음 tick에 재시도
+            slot.inFlight.set(false);
+            rejected.incrementAndGet();
+            reschedule(slot, nowMs() + tickMs);
+            return;
+        }
+        inFlight.incrementAndGet();
+        (slot.watched ? watchedAtBats : unwatchedAtBats).incrementAndGet();
+        result.whenComplete((atBatResult, e) -> onAtBatComplete(slot, atBatResult, e));
+        dispatched.incrementAndGet();
+        lastLagMs = lag;
+        totalLagMs.addAndGet(lag);
+        maxLagMs.accumulateAndGet(lag, Math::max);
+    }
+
+    /**
+     * 실시간 기준으로 타석 하나가 도래 (tick 스레드)
+     * 관전 중이거나 밀린 타석이 unwatched-burst개 이상이면 밀린 타석 전부를 이번 실행 분량으로 잡는다.
+     * @return 지금 실행할지 여부
+     */
+    private boolean takeDueAtBats(GameSlot slot) {
+        slot.due++;
+        // 다음 위상 시점 (처리가 밀렸으면 지금 이후 첫 위상 시점, 위상은 유지)
+        long next = slot.dueMs + atBatIntervalMs;
+        long now = nowMs();
+        if (next < now) {
+            next += (now - next + atBatIntervalMs - 1) / atBatIntervalMs * atBatIntervalMs;
+        }
+        slot.dueMs = next;
+        slot.watched = unwatchedBurst <= 1 || spectatorPresence.isWatched(slot.simulationId);
+        if (!slot.watched && slot.due < unwatchedBurst) {
+            return false;
+        }
+        slot.burstRemaining = slot.due;
+        slot.due = 0;
+        if (slot.burstRemaining > 1) {
+            bursts.incrementAndGet();
+            burstAtBats.addAndGet(slot.burstRemaining);
+        }
+        return true;
+    }
+
+    // =============================================
+    // 타석 완료 (actor 스레드)
+    // =============================================
+
+    private void onAtBatComplete(GameSlot slot, Map<String, Object> atBatResult, Throwable error) {
+        Long simulationId = slot.simulationId;
+        boolean finished = false;
+        inFlight.decrementAndGet();
+        try {
+            if (error != null) {
+                failed.incrementAndGet();
+                log.error("게임 진행 처리 오류: simulationId={}", simulationId, error);
+            } else if (atBatResult == null) {
+                // 게임이 진행 중이 아닌 경우
+                log.debug("게임 진행 처리 건너뜀: simulationId={}", simulationId);
+            } else if ("game_ended".equals(atBatResult.get("status")) || Boolean.TRUE.equals(atBatResult.get("game_ended"))) {
+                // 이미 끝난 게임(status)이거나 이번 타석으로 끝난 게임(game_ended)
+                log.info("게임 완료로 인한 진행 중지: simulationId={}, winner={}", simulationId, atBatResult.get("winner"));
+                finished = true;
+            }
+        } finally {
+            slot.inFlight.set(false);
+        }
+
+        slot.burstRemaining = error != null ? 0 : Math.max(0, slot.burstRemaining - 1);
+        if (finished) {
+            slot.cancelled = true;
+            slots.remove(simulationId, slot);
+        } else if (!slot.cancelled) {
+            // 몰아 처리 중이면 바로 다음 타석, 아니면 다음 실시간 시점 (고정 간격 유지, 처리가 밀렸으면 지금부터 다시)
+            reschedule(slot, slot.burstRemaining > 0 ? nowMs() : withJitter(slot.dueMs));
+        }
+    }
+
+    private void reschedule(GameSlot slot, long deadlineMs) {
+        if (slot.cancelled || !running) {
+            return;
+        }
+        slot.deadlineMs = deadlineMs;
+        pending.add(slot);
+    }
+
+    private long nowMs() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    private long withJitter(long dueMs) {
+        return dueMs + randomJitter(jitterMs) - jitterMs / 2;
+    }
+
+    private static long randomJitter(long bound) {
+        return bound > 0 ? ThreadLocalRandom.current().nextLong(bound) : 0;
+    }
+
+    /**
+     * 휠에 올라간 게임 하나
+     */
+    private static final class GameSlot {
+        private final Long simulationId;
+        private final AtomicBoolean inFlight = new AtomicBoolean();
+        private volatile boolean cancelled;
+        private volatile long deadlineMs;
+        private long remainingRounds; // tick 스레드 전용
+        // 다음 타석의 실시간 기준 시점(위상 시점, 지터 제외)과, 도래했지만 아직 처리하지 않은 타석 수
+        private volatile long dueMs;
+        private volatile int due;
+        // 이번 실행 분량 중 남은 타석 수 (몰아 처리 중이면 2 이상)
+        private volatile int burstRemaining;
+        private volatile boolean watched = true;
+
+        private GameSlot(Long simulationId) {
+            this.simulationId = simulationId;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.ict.springboot.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * 파싱이 끝난 라인업 (불변)
+ * - homeLineup/awayLineup CLOB JSON({"pitcher":..,"batting1":..~"batting9":..})을 한 번만 해석해 둔다
+ * - 타순 조회는 배열 인덱스 한 번으로 끝난다 (선수 번호 0 = 비어 있음)
+ */
+public final class Lineup {
+
+    public static final int SIZE = 9;
+
+    private final long[] battingOrder;
+    private final long pitcherPNo;
+
+    public Lineup(long[] battingOrder, long pitcherPNo) {
+        if (battingOrder.length != SIZE) {
+            throw new IllegalArgumentException("타순은 9명이어야 합니다.");
+        }
+        this.battingOrder = battingOrder.clone();
+        this.pitcherPNo = pitcherPNo;
+    }
+
+    /**
+     * 라인업 JSON 파싱
+     */
+    public static Lineup parse(String json, ObjectMapper objectMapper) {
+        try {
+            JsonNode node = objectMapper.readTree(json == null ? "{}" : json);
+            long[] order = new long[SIZE];
+            for (int i = 0; i < SIZE; i++) {
+                order[i] = node.path("batting" + (i + 1)).asLong(0);
+            }
+            return new Lineup(order, node.path("pitcher").asLong(0));
+        } catch (Exception e) {
+            throw new IllegalArgumentException("라인업 파싱 실패: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 타자 순번(0부터, 9 이상이면 한 바퀴 돈 것으로 처리)의 타자 번호
+     */
+    public long batterAt(int batterIdx) {
+        return battingOrder[batterIdx % SIZE];
+    }
+
+    public long getPitcherPNo() {
+        return pitcherPNo;
+    }
+
+    /**
+     * 한 경기의 홈/원정 라인업 묶음
+     */
+    public static final class Pair {
+
+        private final Lineup home;
+        private final Lineup away;
+
+        public Pair(Lineup home, Lineup away) {
+            this.home = home;
+            this.away = away;
+        }
+
+        public Lineup getHome() {
+            return home;
+        }
+
+        public Lineup getAway() {
+            return away;
+        }
+
+        // 초 공격 = 원정팀, 말 공격 = 홈팀
+        public Lineup attacking(boolean top) {
+            return top ? away : home;
+        }
+
+        public Lineup defending(boolean top) {
+            return top ? home : away;
+        }
+    }
+}
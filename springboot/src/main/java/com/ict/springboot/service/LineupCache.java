@@ -0,0 +1,51 @@
+package com.ict.springboot.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ict.springboot.entity.SimulationEntity;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 시뮬레이션별 라인업 캐시
+ * 시뮬레이션 생성/로딩 시 한 번만 파싱하고, 수정 시 다시 파싱한다.
+ */
+@Service
+@RequiredArgsConstructor
+public class LineupCache {
+
+    private final ObjectMapper objectMapper;
+
+    // simulationId -> 홈/원정 라인업
+    private final Map<Long, Lineup.Pair> lineups = new ConcurrentHashMap<>();
+
+    /**
+     * 캐시된 라인업 조회 (없으면 파싱 후 캐시)
+     */
+    public Lineup.Pair get(SimulationEntity simulation) {
+        return lineups.computeIfAbsent(simulation.getId(), id -> decode(simulation));
+    }
+
+    /**
+     * 라인업이 바뀐 경우 다시 파싱해서 교체
+     */
+    public Lineup.Pair refresh(SimulationEntity simulation) {
+        Lineup.Pair pair = decode(simulation);
+        lineups.put(simulation.getId(), pair);
+        return pair;
+    }
+
+    public void invalidate(Long simulationId) {
+        lineups.remove(simulationId);
+    }
+
+    private Lineup.Pair decode(SimulationEntity simulation) {
+        return new Lineup.Pair(
+            Lineup.parse(simulation.getHomeLineup(), objectMapper),
+            Lineup.parse(simulation.getAwayLineup(), objectMapper));
+    }
+}
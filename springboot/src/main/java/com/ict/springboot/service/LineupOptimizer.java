@@ -0,0 +1,593 @@
+package com.ict.springboot.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.ict.springboot.dto.SimulationRequestDto;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 타순 최적화
+ * - 9명의 타자와 상대 투수로 타순(9! = 362,880가지)을 탐색해 경기당 기대 득점이 높은 타순을 찾는다
+ * - 1단계(가지치기): 마르코프 체인 득점 기대값(주자 8 x 아웃 3 상태, 이닝별 선두 타자 분포)으로 타순을 평가하며
+ *   임의의 시작 타순에서 두 타자 맞바꾸기로 더 나아지지 않을 때까지 개선, 시간 안에서 워커마다 반복하고 상위 후보만 남김
+ * - 2단계(정밀화): 상위 후보를 실제 시뮬레이션(AtBatRules로 9이닝 공격)으로 다시 평가해 순위 결정
+ * - 타석 결과는 Log5MatchupModel (맞대결 행렬에 있는 쌍은 행렬 값), 주자/아웃 전이는 AtBatRules에서 미리 뽑아 둔 표를 사용
+ * - 워커마다 평가용 배열을 한 번만 만들어 재사용하고, 전체 시간 예산을 넘기면 그때까지의 결과로 응답
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LineupOptimizer {
+
+    private static final int SLOTS = 9;
+    private static final int STATES = 8 * 3;
+    private static final int OUTCOMES = AtBatOutcome.values().length;
+    private static final int INNINGS = 9;
+    // 한 이닝에서 계산할 최대 타석 수 (남은 확률은 무시할 수준)
+    private static final int MAX_PA_PER_INNING = 24;
+    private static final double MIN_MASS = 1e-9;
+    // 정밀화 중 시간 확인 간격 (경기 수)
+    private static final int REFINE_CHUNK = 100;
+
+    // 상태(주자 비트마스크 * 3 + 아웃)별 결과 전이: 결과, 가중치, 다음 상태(STATES = 이닝 종료), 득점
+    private static final int[][] BRANCH_OUTCOME = new int[STATES][];
+    private static final double[][] BRANCH_WEIGHT = new double[STATES][];
+    private static final int[][] BRANCH_NEXT = new int[STATES][];
+    private static final int[][] BRANCH_RUNS = new int[STATES][];
+
+    static {
+        LiveGameState state = LiveGameState.detached();
+        AtBatRules.Transition transition = new AtBatRules.Transition();
+        AtBatOutcome[] outcomes = AtBatOutcome.values();
+        for (int s = 0; s < STATES; s++) {
+            int bases = s / 3;
+            int outs = s % 3;
+            boolean groundOutChoice = bases == 0b010;
+            int branches = OUTCOMES + (groundOutChoice ? 1 : 0);
+            BRANCH_OUTCOME[s] = new int[branches];
+            BRANCH_WEIGHT[s] = new double[branches];
+            BRANCH_NEXT[s] = new int[branches];
+            BRANCH_RUNS[s] = new int[branches];
+            int b = 0;
+            for (AtBatOutcome outcome : outcomes) {
+                boolean split = groundOutChoice && outcome == AtBatOutcome.GROUND_OUT;
+                for (int advance = 0; advance < (split ? 2 : 1); advance++) {
+                    boolean advancing = !split || advance == 0;
+                    state.setInning(1);
+                    state.setTop(true);
+                    state.setOuts(outs);
+                    state.placeRunners((bases & 1) != 0 ? 1 : 0, (bases & 2) != 0 ? 2 : 0, (bases & 4) != 0 ? 3 : 0);
+                    AtBatRules.resolve(state, outcome, SLOTS + 1, advancing, transition);
+                    BRANCH_OUTCOME[s][b] = outcome.ordinal();
+                    BRANCH_WEIGHT[s][b] = !split ? 1.0
+                        : advancing ? AtBatRules.GROUND_OUT_ADVANCE_PROBABILITY : 1.0 - AtBatRules.GROUND_OUT_ADVANCE_PROBABILITY;
+                    BRANCH_NEXT[s][b] = transition.isInningChanged() ? STATES : state.basesMask() * 3 + state.getOuts();
+                    BRANCH_RUNS[s][b] = transition.getRuns();
+                    b++;
+                }
+            }
+        }
+    }
+
+    private final PlayerStatsRegistry playerStats;
+    private final MatchupMatrix matchupMatrix;
+
+    @Value("${simulation.lineup-optimizer.parallelism:0}")
+    private int parallelism;
+
+    @Value("${simulation.lineup-optimizer.time-budget-ms:2000}")
+    private long defaultTimeBudgetMs;
+
+    @Value("${simulation.lineup-optimizer.max-time-budget-ms:5000}")
+    private long maxTimeBudgetMs;
+
+    // 시간 예산 중 마르코프 탐색에 쓰는 비율 (나머지는 정밀화)
+    @Value("${simulation.lineup-optimizer.search-share:0.6}")
+    private double searchShare;
+
+    // 정밀화할 상위 후보 수
+    @Value("${simulation.lineup-optimizer.candidates:16}")
+    private int candidates;
+
+    // 후보당 시뮬레이션 경기 수 (시간 예산 안에서)
+    @Value("${simulation.lineup-optimizer.refine-games:4000}")
+    private int refineGames;
+
+    @Value("${simulation.lineup-optimizer.max-results:10}")
+    private int maxResults;
+
+    private ForkJoinPool pool;
+    private int threads;
+
+    @PostConstruct
+    public void start() {
+        threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        pool = new ForkJoinPool(threads, p -> {
+            ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            t.setName("lineup-optimizer-" + t.getPoolIndex());
+            t.setDaemon(true);
+            return t;
+        }, null, false);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * 타순 최적화
+     * @param lineup 타자 9명(batting1~9, 현재 타순) + 상대 투수(pitcher, 없으면 리그 평균 투수)
+     * @param top 돌려줄 타순 수 (null이면 5)
+     * @param timeBudgetMs 시간 예산 (null이면 기본값)
+     * @param seed 난수 시드 (null이면 임의)
+     */
+    public Map<String, Object> optimize(SimulationRequestDto.LineupDto lineup, Integer top, Long timeBudgetMs, Long seed) {
+        if (lineup == null) {
+            throw new IllegalArgumentException("라인업이 없습니다.");
+        }
+        Long[] pNos = {
+            lineup.getBatting1(), lineup.getBatting2(), lineup.getBatting3(),
+            lineup.getBatting4(), lineup.getBatting5(), lineup.getBatting6(),
+            lineup.getBatting7(), lineup.getBatting8(), lineup.getBatting9()
+        };
+        for (int i = 0; i < SLOTS; i++) {
+            for (int j = 0; j < i; j++) {
+                if (pNos[i] != null && pNos[i].equals(pNos[j])) {
+                    throw new IllegalArgumentException("같은 타자가 두 번 들어 있습니다: " + pNos[i]);
+                }
+            }
+        }
+        int resultCount = Math.max(1, Math.min(top != null ? top : 5, maxResults));
+        long budgetMs = Math.max(100, Math.min(timeBudgetMs != null ? timeBudgetMs : defaultTimeBudgetMs, maxTimeBudgetMs));
+        long runSeed = seed != null ? seed : ThreadLocalRandom.current().nextLong();
+
+        // 타자별 상황별 결과 확률 [타자][상태 * OUTCOMES + 결과]
+        Log5MatchupModel.LeagueRates league = Log5MatchupModel.LeagueRates.from(playerStats.all());
+        PlayerStatsSnapshot pitcher = null;
+        if (lineup.getPitcher() != null) {
+            pitcher = playerStats.get(lineup.getPitcher());
+            if (pitcher == null) {
+                throw new IllegalArgumentException("투수 선수 정보를 찾을 수 없습니다: " + lineup.getPitcher());
+            }
+        }
+        PlayerStatsSnapshot[] batters = new PlayerStatsSnapshot[SLOTS];
+        Log5MatchupModel.MatchupTable[] tables = new Log5MatchupModel.MatchupTable[SLOTS];
+        double[][] probabilities = new double[SLOTS][STATES * OUTCOMES];
+        for (int i = 0; i < SLOTS; i++) {
+            batters[i] = playerStats.get(pNos[i]);
+            if (batters[i] == null) {
+                throw new IllegalArgumentException((i + 1) + "번 타자 선수 정보를 찾을 수 없습니다: " + pNos[i]);
+            }
+            tables[i] = matchupMatrix.table(batters[i], pitcher, league);
+            for (int s = 0; s < STATES; s++) {
+                System.arraycopy(tables[i].probabilities(s / 3, s % 3), 0, probabilities[i], s * OUTCOMES, OUTCOMES);
+            }
+        }
+
+        long started = System.nanoTime();
+        long deadline = started + TimeUnit.MILLISECONDS.toNanos(budgetMs);
+        long searchDeadline = started + (long) (TimeUnit.MILLISECONDS.toNanos(budgetMs) * Math.max(0.1, Math.min(searchShare, 0.9)));
+
+        // 1단계: 마르코프 득점 기대값으로 탐색 (워커마다 상위 후보 유지)
+        SplittableRandom random = new SplittableRandom(runSeed);
+        List<Future<Search>> searches = new ArrayList<>(threads);
+        for (int w = 0; w < threads; w++) {
+            SplittableRandom workerRandom = random.split();
+            searches.add(pool.submit(() -> new Search(probabilities, candidates, workerRandom).run(searchDeadline)));
+        }
+        TopOrders merged = new TopOrders(Math.max(candidates, resultCount));
+        long evaluated = 0;
+        long restarts = 0;
+        for (Future<Search> future : searches) {
+            Search search = await(future, budgetMs);
+            merged.mergeFrom(search.best);
+            evaluated += search.evaluated;
+            restarts += search.restarts;
+        }
+        // 현재 타순도 후보로 (탐색이 거의 못 돌았어도 결과가 있도록)
+        int[] inputOrder = { 0, 1, 2, 3, 4, 5, 6, 7, 8 };
+        double inputMarkov = new MarkovEvaluator(probabilities).runsPerGame(inputOrder);
+        merged.offer(inputOrder, inputMarkov);
+        long searchMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        // 2단계: 상위 후보 + 현재 타순을 시뮬레이션으로 정밀화
+        int candidateCount = merged.size();
+        int[][] orders = new int[candidateCount + 1][];
+        double[] markov = new double[candidateCount + 1];
+        for (int c = 0; c < candidateCount; c++) {
+            orders[c] = merged.order(c);
+            markov[c] = merged.score(c);
+        }
+        orders[candidateCount] = inputOrder;
+        markov[candidateCount] = inputMarkov;
+
+        List<Future<Refined>> refinements = new ArrayList<>(orders.length);
+        for (int[] order : orders) {
+            SplittableRandom refineRandom = random.split();
+            refinements.add(pool.submit(() -> refine(tables, order, refineRandom, deadline)));
+        }
+        Refined[] refined = new Refined[orders.length];
+        for (int c = 0; c < orders.length; c++) {
+            refined[c] = await(refinements.get(c), budgetMs);
+        }
+
+        // 시뮬레이션 결과(없으면 마르코프 값) 순으로 정렬
+        Integer[] ranking = new Integer[candidateCount];
+        for (int c = 0; c < candidateCount; c++) {
+            ranking[c] = c;
+        }
+        Arrays.sort(ranking, (a, b) -> Double.compare(expected(refined[b], markov[b]), expected(refined[a], markov[a])));
+
+        List<Map<String, Object>> results = new ArrayList<>(resultCount);
+        for (int r = 0; r < Math.min(resultCount, candidateCount); r++) {
+            int c = ranking[r];
+            results.add(orderResponse(r + 1, orders[c], pNos, batters, markov[c], refined[c]));
+        }
+
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("status", "success");
+        response.put("pitcher", lineup.getPitcher());
+        response.put("elapsedMs", elapsedMs);
+        response.put("searchMs", searchMs);
+        response.put("evaluatedOrders", evaluated);
+        response.put("searchRestarts", restarts);
+        response.put("refinedCandidates", candidateCount);
+        response.put("seed", runSeed);
+        response.put("current", orderResponse(0, inputOrder, pNos, batters, inputMarkov, refined[candidateCount]));
+        response.put("orders", results);
+        log.info("타순 최적화 완료: 평가 {}개 타순, 후보 {}개, {}ms", evaluated, candidateCount, elapsedMs);
+        return response;
+    }
+
+    private static double expected(Refined refined, double markov) {
+        return refined.games > 0 ? refined.runs / (double) refined.games : markov;
+    }
+
+    private Map<String, Object> orderResponse(int rank, int[] order, Long[] pNos, PlayerStatsSnapshot[] batters,
+                                              double markov, Refined refined) {
+        List<Map<String, Object>> battingOrder = new ArrayList<>(SLOTS);
+        for (int slot = 0; slot < SLOTS; slot++) {
+            Map<String, Object> batter = new LinkedHashMap<>();
+            batter.put("battingOrder", slot + 1);
+            batter.put("pNo", pNos[order[slot]]);
+            batter.put("playerName", batters[order[slot]].getPlayerName());
+            battingOrder.add(batter);
+        }
+        Map<String, Object> response = new LinkedHashMap<>();
+        if (rank > 0) {
+            response.put("rank", rank);
+        }
+        response.put("battingOrder", battingOrder);
+        response.put("markovRunsPerGame", round(markov));
+        if (refined.games > 0) {
+            double mean = refined.runs / (double) refined.games;
+            double variance = Math.max(0, refined.runsSquared / (double) refined.games - mean * mean);
+            response.put("expectedRunsPerGame", round(mean));
+            response.put("standardError", round(Math.sqrt(variance / refined.games)));
+        } else {
+            response.put("expectedRunsPerGame", round(markov));
+            response.put("standardError", null);
+        }
+        response.put("simulatedGames", refined.games);
+        return response;
+    }
+
+    private static <T> T await(Future<T> future, long budgetMs) {
+        try {
+            // 작업마다 마감 시각을 확인하므로 예산보다 조금 더 기다리면 끝난다
+            return future.get(budgetMs + 1000, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("타순 최적화 중단", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("타순 최적화 실패: " + e.getCause().getMessage(), e.getCause());
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new IllegalStateException("타순 최적화 시간 초과", e);
+        }
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10000) / 10000.0;
+    }
+
+    // =============================================
+    // 1단계: 마르코프 체인 탐색
+    // =============================================
+
+    /**
+     * 타순의 경기당 기대 득점 (9이닝)
+     * 선두 타자별로 한 이닝의 기대 득점과 다음 이닝 선두 타자 분포를 구한 뒤, 이닝마다 선두 타자 분포를 옮겨 가며 합산
+     * 평가용 배열은 생성 시 한 번만 만든다 (워커 전용)
+     */
+    static final class MarkovEvaluator {
+        private final double[][] probabilities;
+        private final double[] dist = new double[STATES];
+        private final double[] nextDist = new double[STATES];
+        private final double[] inningRuns = new double[SLOTS];
+        private final double[] leadoff = new double[SLOTS * SLOTS];
+        private final double[] lead = new double[SLOTS];
+        private final double[] nextLead = new double[SLOTS];
+
+        MarkovEvaluator(double[][] probabilities) {
+            this.probabilities = probabilities;
+        }
+
+        double runsPerGame(int[] order) {
+            for (int first = 0; first < SLOTS; first++) {
+                inning(order, first);
+            }
+            Arrays.fill(lead, 0);
+            lead[0] = 1;
+            double runs = 0;
+            for (int inning = 0; inning < INNINGS; inning++) {
+                Arrays.fill(nextLead, 0);
+                for (int s = 0; s < SLOTS; s++) {
+                    double p = lead[s];
+                    if (p == 0) {
+                        continue;
+                    }
+                    runs += p * inningRuns[s];
+                    int offset = s * SLOTS;
+                    for (int n = 0; n < SLOTS; n++) {
+                        nextLead[n] += p * leadoff[offset + n];
+                    }
+                }
+                System.arraycopy(nextLead, 0, lead, 0, SLOTS);
+            }
+            return runs;
+        }
+
+        // first번 타자부터 시작하는 이닝
+        private void inning(int[] order, int first) {
+            double[] current = dist;
+            double[] next = nextDist;
+            Arrays.fill(current, 0);
+            current[0] = 1;
+            int leadOffset = first * SLOTS;
+            Arrays.fill(leadoff, leadOffset, leadOffset + SLOTS, 0);
+            double runs = 0;
+            double remaining = 1;
+            for (int pa = 0; pa < MAX_PA_PER_INNING && remaining > MIN_MASS; pa++) {
+                int slot = (first + pa) % SLOTS;
+                double[] probs = probabilities[order[slot]];
+                Arrays.fill(next, 0);
+                double ended = 0;
+                for (int s = 0; s < STATES; s++) {
+                    double mass = current[s];
+                    if (mass < MIN_MASS) {
+                        continue;
+                    }
+                    int[] outcomes = BRANCH_OUTCOME[s];
+                    double[] weights = BRANCH_WEIGHT[s];
+                    int[] nexts = BRANCH_NEXT[s];
+                    int[] branchRuns = BRANCH_RUNS[s];
+                    int offset = s * OUTCOMES;
+                    for (int b = 0; b < outcomes.length; b++) {
+                        double p = mass * probs[offset + outcomes[b]] * weights[b];
+                        runs += p * branchRuns[b];
+                        if (nexts[b] == STATES) {
+                            ended += p;
+                        } else {
+                            next[nexts[b]] += p;
+                        }
+                    }
+                }
+                leadoff[leadOffset + (slot + 1) % SLOTS] += ended;
+                remaining -= ended;
+                double[] swap = current;
+                current = next;
+                next = swap;
+            }
+            // 계산을 멈춘 시점의 남은 확률은 다음 타자부터 시작하는 것으로
+            if (remaining > 0) {
+                leadoff[leadOffset + (first + MAX_PA_PER_INNING) % SLOTS] += remaining;
+            }
+            inningRuns[first] = runs;
+        }
+    }
+
+    /**
+     * 워커 하나의 탐색: 임의 타순에서 두 타자 맞바꾸기로 개선이 없을 때까지 반복, 마감까지 다시 시작
+     */
+    private static final class Search {
+        private final MarkovEvaluator evaluator;
+        private final TopOrders best;
+        private final SplittableRandom random;
+        private final int[] order = new int[SLOTS];
+        private long evaluated;
+        private long restarts;
+
+        private Search(double[][] probabilities, int keep, SplittableRandom random) {
+            this.evaluator = new MarkovEvaluator(probabilities);
+            this.best = new TopOrders(keep);
+            this.random = random;
+        }
+
+        private Search run(long deadlineNanos) {
+            while (System.nanoTime() - deadlineNanos < 0) {
+                shuffle();
+                double score = evaluate();
+                boolean improved = true;
+                while (improved && System.nanoTime() - deadlineNanos < 0) {
+                    improved = false;
+                    for (int i = 0; i < SLOTS - 1; i++) {
+                        for (int j = i + 1; j < SLOTS; j++) {
+                            swap(i, j);
+                            double candidate = evaluate();
+                            if (candidate > score + 1e-12) {
+                                score = candidate;
+                                improved = true;
+                            } else {
+                                swap(i, j);
+                            }
+                        }
+                    }
+                }
+                restarts++;
+            }
+            return this;
+        }
+
+        private double evaluate() {
+            double score = evaluator.runsPerGame(order);
+            evaluated++;
+            best.offer(order, score);
+            return score;
+        }
+
+        private void shuffle() {
+            for (int i = 0; i < SLOTS; i++) {
+                order[i] = i;
+            }
+            for (int i = SLOTS - 1; i > 0; i--) {
+                swap(i, random.nextInt(i + 1));
+            }
+        }
+
+        private void swap(int i, int j) {
+            int t = order[i];
+            order[i] = order[j];
+            order[j] = t;
+        }
+    }
+
+    /**
+     * 점수 상위 타순 (타순은 4bit x 9 = long 하나로 보관, 같은 타순은 한 번만)
+     */
+    static final class TopOrders {
+        private final long[] keys;
+        private final double[] scores;
+        private int size;
+
+        TopOrders(int capacity) {
+            keys = new long[Math.max(1, capacity)];
+            scores = new double[keys.length];
+        }
+
+        void offer(int[] order, double score) {
+            if (size == keys.length && score <= scores[size - 1]) {
+                return;
+            }
+            offer(encode(order), score);
+        }
+
+        private void offer(long key, double score) {
+            for (int i = 0; i < size; i++) {
+                if (keys[i] == key) {
+                    return;
+                }
+            }
+            int at = size < keys.length ? size++ : size - 1;
+            // 점수 내림차순 유지 (삽입 정렬)
+            while (at > 0 && scores[at - 1] < score) {
+                keys[at] = keys[at - 1];
+                scores[at] = scores[at - 1];
+                at--;
+            }
+            keys[at] = key;
+            scores[at] = score;
+        }
+
+        void mergeFrom(TopOrders other) {
+            for (int i = 0; i < other.size; i++) {
+                if (size < keys.length || other.scores[i] > scores[size - 1]) {
+                    offer(other.keys[i], other.scores[i]);
+                }
+            }
+        }
+
+        int size() {
+            return size;
+        }
+
+        double score(int i) {
+            return scores[i];
+        }
+
+        int[] order(int i) {
+            int[] order = new int[SLOTS];
+            for (int slot = 0; slot < SLOTS; slot++) {
+                order[slot] = (int) (keys[i] >>> (slot * 4)) & 15;
+            }
+            return order;
+        }
+
+        private static long encode(int[] order) {
+            long key = 0;
+            for (int slot = 0; slot < SLOTS; slot++) {
+                key |= (long) order[slot] << (slot * 4);
+            }
+            return key;
+        }
+    }
+
+    // =============================================
+    // 2단계: 시뮬레이션 정밀화
+    // =============================================
+
+    private static final class Refined {
+        private long games;
+        private long runs;
+        private long runsSquared;
+    }
+
+    /**
+     * 타순 하나로 9이닝 공격을 반복 시뮬레이션 (상대 공격/경기 종료 규칙 없이 득점만)
+     */
+    private Refined refine(Log5MatchupModel.MatchupTable[] tables, int[] order, SplittableRandom random, long deadlineNanos) {
+        Refined refined = new Refined();
+        LiveGameState state = LiveGameState.detached();
+        AtBatRules.Transition transition = new AtBatRules.Transition();
+        while (refined.games < refineGames) {
+            if (refined.games % REFINE_CHUNK == 0 && System.nanoTime() - deadlineNanos > 0) {
+                break;
+            }
+            int runs = 0;
+            int batter = 0;
+            for (int inning = 0; inning < INNINGS; inning++) {
+                state.setInning(1);
+                state.setTop(true);
+                state.setOuts(0);
+                state.placeRunners(0, 0, 0);
+                do {
+                    int slot = batter % SLOTS;
+                    int bases = state.basesMask();
+                    AtBatOutcome outcome = tables[order[slot]].sample(bases, state.getOuts(), random.nextDouble());
+                    boolean advance = outcome != AtBatOutcome.GROUND_OUT || bases != 0b010
+                        || AtBatRules.rollGroundOutAdvance(random);
+                    AtBatRules.resolve(state, outcome, slot + 1, advance, transition);
+                    runs += transition.getRuns();
+                    batter++;
+                } while (!transition.isInningChanged());
+            }
+            refined.games++;
+            refined.runs += runs;
+            refined.runsSquared += (long) runs * runs;
+        }
+        return refined;
+    }
+}
@@ -0,0 +1,321 @@
+package com.ict.springboot.service;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.ict.springboot.entity.SimulationEntity;
+import com.ict.springboot.entity.SimulationGameStateEntity;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * 진행 중인 게임의 메모리 상주 상태
+ * - SimulationGameStateEntity와 같은 값을 원시 타입으로 보관 (주자/선수 번호는 0 = 없음)
+ * - 변경 후 LiveGameStateStore.markDirty()를 호출하면 write-behind로 DB에 반영된다
+ * - 필드 변경/스냅샷은 상태 객체 자체를 모니터로 동기화한다
+ * - markDirty 때마다 버전이 1씩 올라가고, 최근 버전들의 값을 보관해 버전 간 델타/버전별 snapshot을 만든다
+ *   (epoch는 메모리 상태 인스턴스 구분용, 서버 재시작 후 다시 올라오면 바뀐다)
+ */
+@Getter
+@Setter
+public class LiveGameState {
+
+    private final Long simulationId;
+    private final Long stateId; // SIMULATION_GAME_STATE PK
+    private final SimulationEntity simulation; // 팀/라인업/사용자 정보 (게임 중 변하지 않음)
+
+    // 보관하는 최근 버전 수 (2의 거듭제곱)
+    private static final int HISTORY = 32;
+    private static final AtomicLong EPOCHS = new AtomicLong(System.currentTimeMillis());
+
+    private final long epoch = EPOCHS.incrementAndGet();
+    @Setter(AccessLevel.NONE)
+    private long version;
+    @Getter(AccessLevel.NONE)
+    private final Version[] history = new Version[HISTORY];
+
+    private int inning;
+    private boolean top; // true = 초, false = 말
+    private int outs;
+    private long base1;
+    private long base2;
+    private long base3;
+    private int homeScore;
+    private int awayScore;
+    private int homeBatterIdx;
+    private int awayBatterIdx;
+    private long currentPitcherPNo;
+    private long nextBatterPNo;
+    private String gameStatus;
+    private String winner;
+    private LocalDateTime updatedAt;
+
+    // 경기 중 갱신하는 박스스코어 (메모리에 다시 올라온 경우 타석 기록에서 한 번 재구성, null = 아직 없음)
+    private BoxScore boxScore;
+
+    // 마지막 flush 이후 변경 여부
+    private boolean dirty;
+
+    private LiveGameState(Long simulationId, Long stateId, SimulationEntity simulation) {
+        this.simulationId = simulationId;
+        this.stateId = stateId;
+        this.simulation = simulation;
+    }
+
+    /**
+     * DB에 저장된 게임 상태로부터 생성
+     */
+    public static LiveGameState from(SimulationGameStateEntity entity) {
+        SimulationEntity simulation = entity.getSimulation();
+        LiveGameState state = new LiveGameState(simulation.getId(), entity.getId(), simulation);
+        state.inning = entity.getInning() != null ? entity.getInning() : 1;
+        state.top = !"말".equals(entity.getHalf());
+        state.outs = entity.getOuts() != null ? entity.getOuts() : 0;
+        state.setBase1(entity.getBase1());
+        state.setBase2(entity.getBase2());
+        state.setBase3(entity.getBase3());
+        state.homeScore = entity.getHomeScore() != null ? entity.getHomeScore() : 0;
+        state.awayScore = entity.getAwayScore() != null ? entity.getAwayScore() : 0;
+        state.homeBatterIdx = entity.getHomeBatterIdx() != null ? entity.getHomeBatterIdx() : 0;
+        state.awayBatterIdx = entity.getAwayBatterIdx() != null ? entity.getAwayBatterIdx() : 0;
+        state.setCurrentPitcherPNo(entity.getCurrentPitcherPNo());
+        state.setNextBatterPNo(entity.getNextBatterPNo());
+        state.gameStatus = entity.getGameStatus();
+        state.winner = entity.getWinner();
+        state.updatedAt = entity.getUpdatedAt();
+        state.commitVersion();
+        return state;
+    }
+
+    /**
+     * DB와 연결되지 않은 상태 (몬테카를로 등 메모리 내 시뮬레이션용, 1회초 0:0)
+     */
+    public static LiveGameState detached() {
+        return detached(null);
+    }
+
+    /**
+     * 특정 시뮬레이션의 DB와 연결되지 않은 시작 상태 (경기 선계산용, 라인업 조회 가능)
+     */
+    public static LiveGameState detached(SimulationEntity simulation) {
+        LiveGameState state = new LiveGameState(simulation != null ? simulation.getId() : null, null, simulation);
+        state.inning = 1;
+        state.top = true;
+        state.gameStatus = "PLAYING";
+        return state;
+    }
+
+    /**
+     * flush용 스냅샷 (UPDATE 파라미터 전달용, 영속화하지 않음)
+     */
+    public SimulationGameStateEntity toEntity() {
+        return SimulationGameStateEntity.builder()
+            .id(stateId)
+            .simulation(simulation)
+            .inning(inning)
+            .half(getHalf())
+            .outs(outs)
+            .base1(getBase1())
+            .base2(getBase2())
+            .base3(getBase3())
+            .homeScore(homeScore)
+            .awayScore(awayScore)
+            .homeBatterIdx(homeBatterIdx)
+            .awayBatterIdx(awayBatterIdx)
+            .currentPitcherPNo(getCurrentPitcherPNo())
+            .nextBatterPNo(getNextBatterPNo())
+            .gameStatus(gameStatus)
+            .winner(winner)
+            .updatedAt(updatedAt)
+            .build();
+    }
+
+    /**
+     * 현재 값을 새 버전으로 확정 (상태 모니터 안에서 호출)
+     */
+    public synchronized Version commitVersion() {
+        version++;
+        Version committed = new Version(this);
+        history[(int) (version & (HISTORY - 1))] = committed;
+        return committed;
+    }
+
+    /**
+     * 마지막으로 확정된 버전 (확정된 적 없으면 지금 값으로 확정)
+     */
+    public synchronized Version currentVersion() {
+        return version > 0 ? history[(int) (version & (HISTORY - 1))] : commitVersion();
+    }
+
+    /**
+     * 특정 버전 (최근 HISTORY개 안에 없으면 null)
+     */
+    public synchronized Version versionAt(long target) {
+        if (target < 1 || target > version || target <= version - HISTORY) {
+            return null;
+        }
+        return history[(int) (target & (HISTORY - 1))];
+    }
+
+    public String getHalf() {
+        return top ? "초" : "말";
+    }
+
+    public void setHalf(String half) {
+        this.top = !"말".equals(half);
+    }
+
+    public Long getBase1() {
+        return toNullable(base1);
+    }
+
+    public void setBase1(Long pNo) {
+        this.base1 = toPrimitive(pNo);
+    }
+
+    public Long getBase2() {
+        return toNullable(base2);
+    }
+
+    public void setBase2(Long pNo) {
+        this.base2 = toPrimitive(pNo);
+    }
+
+    public Long getBase3() {
+        return toNullable(base3);
+    }
+
+    public void setBase3(Long pNo) {
+        this.base3 = toPrimitive(pNo);
+    }
+
+    public Long getCurrentPitcherPNo() {
+        return toNullable(currentPitcherPNo);
+    }
+
+    public void setCurrentPitcherPNo(Long pNo) {
+        this.currentPitcherPNo = toPrimitive(pNo);
+    }
+
+    public Long getNextBatterPNo() {
+        return toNullable(nextBatterPNo);
+    }
+
+    public void setNextBatterPNo(Long pNo) {
+        this.nextBatterPNo = toPrimitive(pNo);
+    }
+
+    /**
+     * 주자 상황 비트마스크 (1루 = 1, 2루 = 2, 3루 = 4)
+     */
+    public int basesMask() {
+        return (base1 != 0 ? 1 : 0) | (base2 != 0 ? 2 : 0) | (base3 != 0 ? 4 : 0);
+    }
+
+    /**
+     * 해당 루 주자 번호 (0 = 없음)
+     */
+    public long runnerOn(int base) {
+        switch (base) {
+            case 1: return base1;
+            case 2: return base2;
+            case 3: return base3;
+            default: return 0;
+        }
+    }
+
+    public void placeRunners(long runner1, long runner2, long runner3) {
+        this.base1 = runner1;
+        this.base2 = runner2;
+        this.base3 = runner3;
+    }
+
+    public boolean isPlaying() {
+        return "PLAYING".equals(gameStatus);
+    }
+
+    public boolean isFinished() {
+        return "FINISHED".equals(gameStatus);
+    }
+
+    private static Long toNullable(long pNo) {
+        return pNo == 0 ? null : pNo;
+    }
+
+    private static long toPrimitive(Long pNo) {
+        return pNo == null ? 0 : pNo;
+    }
+
+    /**
+     * 확정된 버전 하나의 값 (변경 불가)
+     */
+    @Getter
+    public static final class Version {
+        private final long version;
+        private final int inning;
+        private final boolean top;
+        private final int outs;
+        private final long base1;
+        private final long base2;
+        private final long base3;
+        private final int homeScore;
+        private final int awayScore;
+        private final int homeBatterIdx;
+        private final int awayBatterIdx;
+        private final long currentPitcherPNo;
+        private final long nextBatterPNo;
+        private final String gameStatus;
+        private final String winner;
+
+        private Version(LiveGameState state) {
+            this.version = state.version;
+            this.inning = state.inning;
+            this.top = state.top;
+            this.outs = state.outs;
+            this.base1 = state.base1;
+            this.base2 = state.base2;
+            this.base3 = state.base3;
+            this.homeScore = state.homeScore;
+            this.awayScore = state.awayScore;
+            this.homeBatterIdx = state.homeBatterIdx;
+            this.awayBatterIdx = state.awayBatterIdx;
+            this.currentPitcherPNo = state.currentPitcherPNo;
+            this.nextBatterPNo = state.nextBatterPNo;
+            this.gameStatus = state.gameStatus;
+            this.winner = state.winner;
+        }
+
+        public String getHalf() {
+            return top ? "초" : "말";
+        }
+
+        public Long getBase1() {
+            return toNullable(base1);
+        }
+
+        public Long getBase2() {
+            return toNullable(base2);
+        }
+
+        public Long getBase3() {
+            return toNullable(base3);
+        }
+
+        public Long getCurrentPitcherPNo() {
+            return toNullable(currentPitcherPNo);
+        }
+
+        public Long getNextBatterPNo() {
+            return toNullable(nextBatterPNo);
+        }
+
+        /**
+         * 주자 상황 비트마스크 (1루 = 1, 2루 = 2, 3루 = 4)
+         */
+        public int basesMask() {
+            return (base1 != 0 ? 1 : 0) | (base2 != 0 ? 2 : 0) | (base3 != 0 ? 4 : 0);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.ict.springboot.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ict.springboot.entity.SimulationGameStateEntity;
+import com.ict.springboot.repository.SimulationGameStateRepository;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 진행 중인 게임 상태 저장소 (메모리 상주 + write-behind)
+ * - 진행 중(PLAYING)인 게임 상태는 메모리에 두고 타석마다 DB를 다시 읽지 않는다
+ * - 변경분은 주기적으로 한 트랜잭션에 모아 SIMULATION_GAME_STATE에 반영
+ * - 게임 종료 및 서버 종료 시에는 즉시 동기 flush
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LiveGameStateStore {
+
+    private final SimulationGameStateRepository gameStateRepo;
+
+    // simulationId -> 진행 중인 게임 상태
+    private final Map<Long, LiveGameState> states = new ConcurrentHashMap<>();
+
+    /**
+     * DB에 저장된 게임 상태를 메모리에 등록 (게임 시작 / 서버 재시작 복구)
+     */
+    public LiveGameState register(SimulationGameStateEntity entity) {
+        LiveGameState state = LiveGameState.from(entity);
+        states.put(state.getSimulationId(), state);
+        return state;
+    }
+
+    /**
+     * 메모리에 있는 게임 상태만 조회
+     */
+    public Optional<LiveGameState> find(Long simulationId) {
+        return Optional.ofNullable(states.get(simulationId));
+    }
+
+    /**
+     * 게임 상태 조회 (메모리에 없으면 마지막으로 flush된 DB 상태에서 복원)
+     * 진행 중인 게임만 메모리에 올리고, 종료/대기 상태는 조회용으로만 변환한다.
+     */
+    public Optional<LiveGameState> get(Long simulationId) {
+        LiveGameState state = states.get(simulationId);
+        if (state != null) {
+            return Optional.of(state);
+        }
+        return gameStateRepo.findBySimulationId(simulationId).map(entity -> {
+            LiveGameState loaded = LiveGameState.from(entity);
+            if (!loaded.isPlaying()) {
+                return loaded;
+            }
+            LiveGameState existing = states.putIfAbsent(simulationId, loaded);
+            return existing != null ? existing : loaded;
+        });
+    }
+
+    /**
+     * 변경 표시 (새 버전 확정, 다음 flush 주기에 DB 반영)
+     */
+    public void markDirty(LiveGameState state) {
+        synchronized (state) {
+            state.setDirty(true);
+            state.commitVersion();
+        }
+    }
+
+    /**
+     * 변경된 게임 상태들을 한 번에 DB에 반영 (write-behind)
+     */
+    @Scheduled(fixedDelayString = "${simulation.state.flush-interval-ms:2000}")
+    @Transactional
+    public void flushDirty() {
+        int flushed = writeDirty(states.values());
+        if (flushed > 0) {
+            log.debug("게임 상태 write-behind flush: {}건", flushed);
+        }
+    }
+
+    /**
+     * 특정 게임 상태 즉시 반영 후 메모리에서 제거 (게임 종료 시)
+     */
+    @Transactional
+    public void flushAndEvict(Long simulationId) {
+        LiveGameState state = states.get(simulationId);
+        if (state == null) {
+            return;
+        }
+        writeDirty(List.of(state));
+        states.remove(simulationId);
+    }
+
+    /**
+     * 저장하지 않고 메모리에서 제거 (시뮬레이션 삭제 시)
+     */
+    public void evict(Long simulationId) {
+        states.remove(simulationId);
+    }
+
+    /**
+     * 서버 종료 시 남은 변경분 동기 flush
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        try {
+            int flushed = writeDirty(states.values());
+            log.info("서버 종료 전 게임 상태 flush 완료: {}건", flushed);
+        } catch (Exception e) {
+            log.error("서버 종료 전 게임 상태 flush 실패", e);
+        }
+    }
+
+    /**
+     * 메모리에 있는 진행 중 게임 수
+     */
+    public int size() {
+        return states.size();
+    }
+
+    private int writeDirty(Collection<LiveGameState> targets) {
+        List<LiveGameState> flushed = new ArrayList<>();
+        List<SimulationGameStateEntity> snapshots = new ArrayList<>();
+        for (LiveGameState state : targets) {
+            synchronized (state) {
+                if (!state.isDirty()) continue;
+                snapshots.add(state.toEntity());
+                state.setDirty(false);
+            }
+            flushed.add(state);
+        }
+        try {
+            for (SimulationGameStateEntity snapshot : snapshots) {
+                gameStateRepo.updateLiveState(snapshot);
+            }
+        } catch (RuntimeException e) {
+            // 반영 실패 시 다음 주기에 다시 시도 (값은 그대로이므로 버전은 올리지 않음)
+            for (LiveGameState state : flushed) {
+                synchronized (state) {
+                    state.setDirty(true);
+                }
+            }
+            throw e;
+        }
+        return snapshots.size();
+    }
+}
@@ -0,0 +1,317 @@
+package com.ict.springboot.service;
+
+import java.util.Collection;
+
+/**
+ * 타자-투수 맞대결 확률 모델 (log5)
+ * - 이벤트(1루타/2루타/3루타/홈런/볼넷/사구/삼진)별로 타자 비율(타석당), 투수 비율(상대 타자당), 리그 평균을
+ *   odds ratio 방식으로 결합: odds = odds(타자) x odds(투수) / odds(리그)
+ * - 나머지 인플레이는 고정 비율로 땅볼/플라이/직선타/선행주자아웃으로 나누고
+ *   병살/희생플라이는 주자·아웃 상황이 될 때만 타자 병살/희플 비율로 땅볼/플라이 일부를 바꾼다
+ * - 결과는 주자(8) x 아웃(3) 상황별 누적 확률표(AtBatOutcome 순서)로 미리 계산해 둔다
+ */
+public final class Log5MatchupModel {
+
+    // log5 적용 이벤트
+    private static final int SINGLE = 0;
+    private static final int DOUBLE = 1;
+    private static final int TRIPLE = 2;
+    private static final int HOME_RUN = 3;
+    private static final int WALK = 4;
+    private static final int HIT_BY_PITCH = 5;
+    private static final int STRIKEOUT = 6;
+    private static final int EVENTS = 7;
+
+    // 선수 데이터가 없을 때 리그 평균 (KBO 최근 시즌 수준, 타석당)
+    private static final double[] DEFAULT_LEAGUE = { 0.160, 0.045, 0.004, 0.025, 0.090, 0.012, 0.190 };
+    private static final double DEFAULT_GDP_RATE = 0.018;
+    private static final double DEFAULT_SF_RATE = 0.007;
+    private static final double DEFAULT_ERROR_RATE = 0.012;
+
+    // 안타 중 내야 안타 비율
+    private static final double INFIELD_SINGLE_SHARE = 0.10;
+    // 인플레이 아웃 분배 (땅볼/플라이/직선타/선행주자아웃)
+    private static final double GROUND_SHARE = 0.44;
+    private static final double FLY_SHARE = 0.36;
+    private static final double LINE_SHARE = 0.15;
+    private static final double FIELDERS_CHOICE_SHARE = 0.05;
+    // 병살(1루 주자, 2아웃 전)/희생플라이(3루 주자, 2아웃 전) 가능 상황 비율 (타석 대비)
+    private static final double DP_OPPORTUNITY_SHARE = 0.25;
+    private static final double SF_OPPORTUNITY_SHARE = 0.08;
+    private static final double MAX_CONVERSION = 0.60;
+    // 이벤트 확률 합 상한 (인플레이 최소 비율 보장)
+    private static final double MAX_EVENT_SHARE = 0.90;
+
+    private static final int OUTCOMES = AtBatOutcome.values().length;
+    private static final int SITUATIONS = 8 * 3;
+
+    private Log5MatchupModel() {
+    }
+
+    /**
+     * 리그 평균 비율 (타자 합계 기준)
+     */
+    public static final class LeagueRates {
+        private final double[] events = new double[EVENTS];
+        private double gdpRate;
+        private double sfRate;
+        private double errorRate;
+
+        public static LeagueRates from(Collection<PlayerStatsSnapshot> players) {
+            double[] sums = new double[EVENTS];
+            double pa = 0, gdp = 0, sf = 0, roe = 0, bf = 0;
+            for (PlayerStatsSnapshot player : players) {
+                if (player.isBatter() && player.getBEpa() > 0 && Double.isFinite(player.getBH())) {
+                    pa += player.getBEpa();
+                    sums[SINGLE] += singles(player.getBH(), player.getB2B(), player.getB3B(), player.getBHr());
+                    sums[DOUBLE] += zero(player.getB2B());
+                    sums[TRIPLE] += zero(player.getB3B());
+                    sums[HOME_RUN] += zero(player.getBHr());
+                    sums[WALK] += zero(player.getBBb());
+                    sums[HIT_BY_PITCH] += zero(player.getBHp());
+                    sums[STRIKEOUT] += zero(player.getBSo());
+                    gdp += zero(player.getBGdp());
+                    sf += zero(player.getBSf());
+                }
+                double faced = battersFaced(player);
+                if (faced > 0) {
+                    bf += faced;
+                    roe += zero(player.getPRoe());
+                }
+            }
+            LeagueRates league = new LeagueRates();
+            for (int e = 0; e < EVENTS; e++) {
+                league.events[e] = pa > 0 ? sums[e] / pa : DEFAULT_LEAGUE[e];
+            }
+            league.gdpRate = pa > 0 ? gdp / pa : DEFAULT_GDP_RATE;
+            league.sfRate = pa > 0 ? sf / pa : DEFAULT_SF_RATE;
+            league.errorRate = bf > 0 ? roe / bf : DEFAULT_ERROR_RATE;
+            return league;
+        }
+    }
+
+    /**
+     * 타자-투수 맞대결의 상황별 누적 확률표
+     */
+    public static final class MatchupTable {
+        private static final AtBatOutcome[] VALUES = AtBatOutcome.values();
+
+        // 표 하나의 값 개수 (상황 24개 x 결과)
+        static final int CELLS = SITUATIONS * OUTCOMES;
+
+        // [주자 비트마스크 * 3 + 아웃][결과] 누적 확률 (마지막 값 = 1)
+        private final double[] cumulative;
+
+        private MatchupTable() {
+            this(new double[CELLS]);
+        }
+
+        // 이미 계산된 누적 확률로 만들기 (맞대결 행렬에서 복원)
+        MatchupTable(double[] cumulative) {
+            this.cumulative = cumulative;
+        }
+
+        // 누적 확률 (복사하지 않음, 읽기 전용)
+        double[] cumulative() {
+            return cumulative;
+        }
+
+        /**
+         * 균등 난수(0~1)로 결과 추첨
+         */
+        public AtBatOutcome sample(int bases, int outs, double u) {
+            int offset = (bases * 3 + Math.min(outs, 2)) * OUTCOMES;
+            for (int i = 0; i < OUTCOMES - 1; i++) {
+                if (u < cumulative[offset + i]) {
+                    return VALUES[i];
+                }
+            }
+            return VALUES[OUTCOMES - 1];
+        }
+
+        /**
+         * 상황별 결과 확률 (AtBatOutcome 순서)
+         */
+        public double[] probabilities(int bases, int outs) {
+            int offset = (bases * 3 + Math.min(outs, 2)) * OUTCOMES;
+            double[] probabilities = new double[OUTCOMES];
+            double previous = 0;
+            for (int i = 0; i < OUTCOMES; i++) {
+                probabilities[i] = cumulative[offset + i] - previous;
+                previous = cumulative[offset + i];
+            }
+            return probabilities;
+        }
+    }
+
+    /**
+     * 맞대결 확률표 생성 (선수 스탯이 없으면 해당 쪽은 리그 평균)
+     */
+    public static MatchupTable matchup(PlayerStatsSnapshot batter, PlayerStatsSnapshot pitcher, LeagueRates league) {
+        double[] batterRates = batterRates(batter, league);
+        double[] pitcherRates = pitcherRates(pitcher, league);
+
+        // 이벤트별 log5
+        double[] events = new double[EVENTS];
+        double eventSum = 0;
+        for (int e = 0; e < EVENTS; e++) {
+            events[e] = log5(batterRates[e], pitcherRates[e], league.events[e]);
+            eventSum += events[e];
+        }
+        if (eventSum > MAX_EVENT_SHARE) {
+            for (int e = 0; e < EVENTS; e++) {
+                events[e] *= MAX_EVENT_SHARE / eventSum;
+            }
+            eventSum = MAX_EVENT_SHARE;
+        }
+
+        // 인플레이: 실책 출루 + 아웃 분배
+        double inPlay = 1 - eventSum;
+        double error = Math.min(pitcherErrorRate(pitcher, league), inPlay * 0.1);
+        double outs = inPlay - error;
+        double ground = outs * GROUND_SHARE;
+        double fly = outs * FLY_SHARE;
+
+        double[] base = new double[OUTCOMES];
+        base[AtBatOutcome.SINGLE.ordinal()] = events[SINGLE] * (1 - INFIELD_SINGLE_SHARE);
+        base[AtBatOutcome.INFIELD_SINGLE.ordinal()] = events[SINGLE] * INFIELD_SINGLE_SHARE;
+        base[AtBatOutcome.DOUBLE.ordinal()] = events[DOUBLE];
+        base[AtBatOutcome.TRIPLE.ordinal()] = events[TRIPLE];
+        base[AtBatOutcome.HOME_RUN.ordinal()] = events[HOME_RUN];
+        base[AtBatOutcome.WALK.ordinal()] = events[WALK];
+        base[AtBatOutcome.HIT_BY_PITCH.ordinal()] = events[HIT_BY_PITCH];
+        base[AtBatOutcome.STRIKEOUT.ordinal()] = events[STRIKEOUT];
+        base[AtBatOutcome.ERROR.ordinal()] = error;
+        base[AtBatOutcome.GROUND_OUT.ordinal()] = ground;
+        base[AtBatOutcome.FLY_OUT.ordinal()] = fly;
+        base[AtBatOutcome.LINE_OUT.ordinal()] = outs * LINE_SHARE;
+        base[AtBatOutcome.FIELDERS_CHOICE.ordinal()] = outs * FIELDERS_CHOICE_SHARE;
+
+        // 병살/희생플라이 전환 비율 (가능 상황에서 땅볼/플라이 중 일부)
+        double dpConversion = conversion(batterRate(batter, batter != null ? batter.getBGdp() : Double.NaN, league.gdpRate),
+            DP_OPPORTUNITY_SHARE * ground);
+        double sfConversion = conversion(batterRate(batter, batter != null ? batter.getBSf() : Double.NaN, league.sfRate),
+            SF_OPPORTUNITY_SHARE * fly);
+
+        MatchupTable table = new MatchupTable();
+        double[] situation = new double[OUTCOMES];
+        for (int bases = 0; bases < 8; bases++) {
+            for (int out = 0; out < 3; out++) {
+                System.arraycopy(base, 0, situation, 0, OUTCOMES);
+                if (bases == 0) {
+                    // 주자가 없으면 선행주자아웃 대신 땅볼
+                    situation[AtBatOutcome.GROUND_OUT.ordinal()] += situation[AtBatOutcome.FIELDERS_CHOICE.ordinal()];
+                    situation[AtBatOutcome.FIELDERS_CHOICE.ordinal()] = 0;
+                }
+                if ((bases & 1) != 0 && out < 2) {
+                    double dp = situation[AtBatOutcome.GROUND_OUT.ordinal()] * dpConversion;
+                    situation[AtBatOutcome.GROUND_OUT.ordinal()] -= dp;
+                    situation[AtBatOutcome.DOUBLE_PLAY.ordinal()] = dp;
+                }
+                if ((bases & 4) != 0 && out < 2) {
+                    double sf = situation[AtBatOutcome.FLY_OUT.ordinal()] * sfConversion;
+                    situation[AtBatOutcome.FLY_OUT.ordinal()] -= sf;
+                    situation[AtBatOutcome.SACRIFICE_FLY.ordinal()] = sf;
+                }
+                int offset = (bases * 3 + out) * OUTCOMES;
+                double total = 0;
+                for (double p : situation) {
+                    total += p;
+                }
+                double cumulative = 0;
+                for (int i = 0; i < OUTCOMES; i++) {
+                    cumulative += situation[i] / total;
+                    table.cumulative[offset + i] = cumulative;
+                }
+                table.cumulative[offset + OUTCOMES - 1] = 1.0;
+            }
+        }
+        return table;
+    }
+
+    // log5 (odds ratio): 극단값은 리그 평균 쪽으로 제한
+    static double log5(double batter, double pitcher, double league) {
+        double b = clamp(batter);
+        double p = clamp(pitcher);
+        double l = clamp(league);
+        double odds = (b / (1 - b)) * (p / (1 - p)) / (l / (1 - l));
+        return odds / (1 + odds);
+    }
+
+    // 타자 이벤트 비율 (타석당, 타자가 아니거나 타석이 없으면 리그 평균)
+    private static double[] batterRates(PlayerStatsSnapshot batter, LeagueRates league) {
+        if (batter == null || !batter.isBatter() || !(batter.getBEpa() > 0) || !Double.isFinite(batter.getBH())) {
+            return league.events;
+        }
+        double pa = batter.getBEpa();
+        double[] rates = new double[EVENTS];
+        rates[SINGLE] = singles(batter.getBH(), batter.getB2B(), batter.getB3B(), batter.getBHr()) / pa;
+        rates[DOUBLE] = or(batter.getB2B() / pa, league.events[DOUBLE]);
+        rates[TRIPLE] = or(batter.getB3B() / pa, league.events[TRIPLE]);
+        rates[HOME_RUN] = or(batter.getBHr() / pa, league.events[HOME_RUN]);
+        rates[WALK] = or(batter.getBBb() / pa, league.events[WALK]);
+        rates[HIT_BY_PITCH] = or(batter.getBHp() / pa, league.events[HIT_BY_PITCH]);
+        rates[STRIKEOUT] = or(batter.getBSo() / pa, league.events[STRIKEOUT]);
+        return rates;
+    }
+
+    // 투수 이벤트 비율 (상대 타자당, 투수가 아니거나 이닝이 없으면 리그 평균)
+    private static double[] pitcherRates(PlayerStatsSnapshot pitcher, LeagueRates league) {
+        double bf = battersFaced(pitcher);
+        if (!(bf > 0) || !Double.isFinite(pitcher.getPH())) {
+            return league.events;
+        }
+        double[] rates = new double[EVENTS];
+        rates[SINGLE] = singles(pitcher.getPH(), pitcher.getP2B(), pitcher.getP3B(), pitcher.getPHr()) / bf;
+        rates[DOUBLE] = or(pitcher.getP2B() / bf, league.events[DOUBLE]);
+        rates[TRIPLE] = or(pitcher.getP3B() / bf, league.events[TRIPLE]);
+        rates[HOME_RUN] = or(pitcher.getPHr() / bf, league.events[HOME_RUN]);
+        rates[WALK] = or(pitcher.getPBb() / bf, league.events[WALK]);
+        rates[HIT_BY_PITCH] = or(pitcher.getPHp() / bf, league.events[HIT_BY_PITCH]);
+        rates[STRIKEOUT] = or(pitcher.getPSo() / bf, league.events[STRIKEOUT]);
+        return rates;
+    }
+
+    private static double pitcherErrorRate(PlayerStatsSnapshot pitcher, LeagueRates league) {
+        double bf = battersFaced(pitcher);
+        return bf > 0 ? or(pitcher.getPRoe() / bf, league.errorRate) : league.errorRate;
+    }
+
+    private static double batterRate(PlayerStatsSnapshot batter, double count, double leagueRate) {
+        if (batter == null || !batter.isBatter() || !(batter.getBEpa() > 0)) {
+            return leagueRate;
+        }
+        return or(count / batter.getBEpa(), leagueRate);
+    }
+
+    // 상대 타자 수 추정 (이닝 x 3 + 피안타 + 피볼넷 + 피사구)
+    private static double battersFaced(PlayerStatsSnapshot pitcher) {
+        if (pitcher == null || !pitcher.isPitcher() || !(pitcher.getPIp() > 0)) {
+            return 0;
+        }
+        return pitcher.getPIp() * 3 + zero(pitcher.getPH()) + zero(pitcher.getPBb()) + zero(pitcher.getPHp());
+    }
+
+    private static double conversion(double ratePerPa, double opportunityPerPa) {
+        if (!(opportunityPerPa > 0)) {
+            return 0;
+        }
+        return Math.min(MAX_CONVERSION, ratePerPa / opportunityPerPa);
+    }
+
+    private static double singles(double hits, double doubles, double triples, double homeRuns) {
+        return Math.max(0, zero(hits) - zero(doubles) - zero(triples) - zero(homeRuns));
+    }
+
+    private static double clamp(double rate) {
+        return Math.min(0.95, Math.max(0.0005, rate));
+    }
+
+    private static double or(double value, double fallback) {
+        return Double.isFinite(value) ? value : fallback;
+    }
+
+    private static double zero(double value) {
+        return Double.isFinite(value) ? value : 0;
+    }
+}
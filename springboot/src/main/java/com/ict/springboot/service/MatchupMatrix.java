@@ -0,0 +1,210 @@
+package com.ict.springboot.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 타자 x 투수 맞대결 행렬 (메모리 상주)
+ * - 로딩된 모든 타자/투수 쌍의 log5 상황별 누적 확률을 16비트 고정소수점(0~65535)으로 양자화해 char 배열 하나에 보관
+ * - 0번 행/열은 리그 평균 타자/투수 (선수 정보가 없을 때)
+ * - 선수 스탯 재로딩(PlayerStatsRegistry.reload) 때 타자 행 단위로 병렬로 다시 만든 뒤 참조만 교체
+ * - 몬테카를로/타순 최적화는 맞대결 확률표를, 실시간 타석은 FastAPI 대신(live-at-bats) 또는 FastAPI 장애 시 상황별 확률을 여기서 꺼낸다
+ */
+@Service
+@Slf4j
+public class MatchupMatrix {
+
+    private static final int CELLS = Log5MatchupModel.MatchupTable.CELLS;
+    private static final int OUTCOMES = AtBatOutcome.values().length;
+    private static final double QUANT = 65535.0;
+
+    @Value("${simulation.matchup-matrix.enabled:false}")
+    private boolean enabled;
+
+    // 실시간 타석을 FastAPI 대신 행렬로 진행 (편파 해설/기사는 결과 확정 후 FastAPI에 따로 요청)
+    @Value("${simulation.matchup-matrix.live-at-bats:false}")
+    private boolean liveAtBats;
+
+    private volatile Matrix matrix;
+    private volatile long buildMs;
+    private volatile long builds;
+
+    /**
+     * 행렬 다시 만들기 (선수 스탯 재로딩 후)
+     */
+    public void rebuild(Collection<PlayerStatsSnapshot> players) {
+        if (!enabled) {
+            return;
+        }
+        long startNanos = System.nanoTime();
+        List<PlayerStatsSnapshot> batters = new ArrayList<>();
+        List<PlayerStatsSnapshot> pitchers = new ArrayList<>();
+        batters.add(null);
+        pitchers.add(null);
+        for (PlayerStatsSnapshot player : players) {
+            if (player.isBatter()) {
+                batters.add(player);
+            } else if (player.isPitcher()) {
+                pitchers.add(player);
+            }
+        }
+        Log5MatchupModel.LeagueRates league = Log5MatchupModel.LeagueRates.from(players);
+        int pitcherCount = pitchers.size();
+        char[] values = new char[batters.size() * pitcherCount * CELLS];
+        IntStream.range(0, batters.size()).parallel().forEach(b -> {
+            for (int p = 0; p < pitcherCount; p++) {
+                double[] cumulative = Log5MatchupModel.matchup(batters.get(b), pitchers.get(p), league).cumulative();
+                int offset = (b * pitcherCount + p) * CELLS;
+                for (int i = 0; i < CELLS; i++) {
+                    values[offset + i] = (char) Math.round(Math.max(0, Math.min(cumulative[i], 1)) * QUANT);
+                }
+            }
+        });
+        matrix = new Matrix(values, index(batters), index(pitchers), pitcherCount);
+        buildMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        builds++;
+        log.info("맞대결 행렬 생성: 타자 {}명 x 투수 {}명, {}KB, {}ms",
+            batters.size() - 1, pitcherCount - 1, values.length * 2L / 1024, buildMs);
+    }
+
+    public boolean isReady() {
+        return matrix != null;
+    }
+
+    public boolean servesLiveAtBats() {
+        return liveAtBats && matrix != null;
+    }
+
+    /**
+     * 맞대결 확률표 (행렬에 있으면 복원, 없으면 log5로 계산)
+     */
+    public Log5MatchupModel.MatchupTable table(PlayerStatsSnapshot batter, PlayerStatsSnapshot pitcher,
+                                               Log5MatchupModel.LeagueRates league) {
+        Matrix current = matrix;
+        int offset = current != null ? current.offset(batter != null ? batter.getPNo() : 0, pitcher != null ? pitcher.getPNo() : 0) : -1;
+        if (offset < 0) {
+            return Log5MatchupModel.matchup(batter, pitcher, league);
+        }
+        double[] cumulative = new double[CELLS];
+        for (int i = 0; i < CELLS; i++) {
+            cumulative[i] = current.values[offset + i] / QUANT;
+        }
+        for (int end = OUTCOMES - 1; end < CELLS; end += OUTCOMES) {
+            cumulative[end] = 1.0;
+        }
+        return new Log5MatchupModel.MatchupTable(cumulative);
+    }
+
+    /**
+     * 상황별 결과 확률 (AtBatOutcome 순서, 행렬에 없는 선수면 null)
+     * @param batterPNo 타자 (0 = 리그 평균)
+     * @param pitcherPNo 투수 (0 = 리그 평균)
+     * @param bases 주자 비트마스크 (1루 = 1, 2루 = 2, 3루 = 4)
+     */
+    public double[] probabilities(long batterPNo, long pitcherPNo, int bases, int outs) {
+        Matrix current = matrix;
+        int offset = current != null ? current.offset(batterPNo, pitcherPNo) : -1;
+        if (offset < 0) {
+            return null;
+        }
+        offset += ((bases & 7) * 3 + Math.max(0, Math.min(outs, 2))) * OUTCOMES;
+        double[] probabilities = new double[OUTCOMES];
+        int previous = 0;
+        for (int i = 0; i < OUTCOMES; i++) {
+            int value = i == OUTCOMES - 1 ? (int) QUANT : current.values[offset + i];
+            probabilities[i] = (value - previous) / QUANT;
+            previous = value;
+        }
+        return probabilities;
+    }
+
+    /**
+     * 조회 API용 맞대결 확률
+     */
+    public Map<String, Object> lookup(Long batterPNo, Long pitcherPNo, Integer bases, Integer outs) {
+        if (matrix == null) {
+            throw new IllegalArgumentException("맞대결 행렬이 아직 준비되지 않았습니다.");
+        }
+        int b = bases != null ? bases : 0;
+        int o = outs != null ? outs : 0;
+        if (b < 0 || b > 7 || o < 0 || o > 2) {
+            throw new IllegalArgumentException("주자는 0~7(비트마스크), 아웃은 0~2 사이여야 합니다.");
+        }
+        double[] probabilities = probabilities(batterPNo != null ? batterPNo : 0, pitcherPNo != null ? pitcherPNo : 0, b, o);
+        if (probabilities == null) {
+            throw new IllegalArgumentException("맞대결 행렬에 없는 선수입니다: 타자 " + batterPNo + ", 투수 " + pitcherPNo);
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("batterPNo", batterPNo);
+        result.put("pitcherPNo", pitcherPNo);
+        result.put("bases", b);
+        result.put("outs", o);
+        result.put("probabilities", AtBatOutcome.probabilityMap(probabilities));
+        return result;
+    }
+
+    public Map<String, Object> metrics() {
+        Matrix current = matrix;
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("enabled", enabled);
+        metrics.put("ready", current != null);
+        metrics.put("liveAtBats", liveAtBats);
+        metrics.put("batters", current != null ? current.batters.size() - 1 : 0);
+        metrics.put("pitchers", current != null ? current.pitchers.size() - 1 : 0);
+        metrics.put("pairs", current != null ? (long) current.batters.size() * current.pitcherCount : 0);
+        metrics.put("cells", current != null ? current.values.length : 0);
+        metrics.put("matrixBytes", current != null ? current.values.length * 2L : 0);
+        metrics.put("builtAt", current != null ? current.builtAt : null);
+        metrics.put("buildMs", buildMs);
+        metrics.put("builds", builds);
+        return metrics;
+    }
+
+    // pNo → 행/열 번호 (0번 = 리그 평균)
+    private static Map<Long, Integer> index(List<PlayerStatsSnapshot> players) {
+        Map<Long, Integer> index = new HashMap<>(players.size() * 2);
+        index.put(0L, 0);
+        for (int i = 1; i < players.size(); i++) {
+            index.put(players.get(i).getPNo(), i);
+        }
+        return index;
+    }
+
+    /**
+     * 한 번 만든 행렬 (불변)
+     */
+    private static final class Matrix {
+        // [(타자 * 투수 수 + 투수) * CELLS + 상황 * 결과 수 + 결과] 양자화한 누적 확률
+        private final char[] values;
+        private final Map<Long, Integer> batters;
+        private final Map<Long, Integer> pitchers;
+        private final int pitcherCount;
+        private final LocalDateTime builtAt = LocalDateTime.now();
+
+        private Matrix(char[] values, Map<Long, Integer> batters, Map<Long, Integer> pitchers, int pitcherCount) {
+            this.values = values;
+            this.batters = batters;
+            this.pitchers = pitchers;
+            this.pitcherCount = pitcherCount;
+        }
+
+        // 쌍의 시작 위치 (없는 선수면 -1)
+        private int offset(long batterPNo, long pitcherPNo) {
+            Integer b = batters.get(batterPNo);
+            Integer p = pitchers.get(pitcherPNo);
+            return b == null || p == null ? -1 : (b * pitcherCount + p) * CELLS;
+        }
+    }
+}
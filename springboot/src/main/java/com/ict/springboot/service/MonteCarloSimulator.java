@@ -0,0 +1,431 @@
+package com.ict.springboot.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.ict.springboot.dto.SimulationRequestDto;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 몬테카를로 맞대결 시뮬레이션
+ * - 같은 라인업으로 N경기를 메모리 안에서 끝까지 진행 (FastAPI/DB 호출 없음)
+ * - 타석 결과는 Log5MatchupModel (맞대결 행렬에 있는 쌍은 행렬 값), 주루/아웃/경기 종료는 실시간 게임과 같은 AtBatRules
+ * - fork/join으로 경기 구간을 나눠 병렬 실행, 구간마다 자체 난수(SplittableRandom.split)와 원시 배열 집계를 사용
+ * - 시간 예산을 넘기면 남은 경기는 중단하고 완료된 경기까지만 집계
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MonteCarloSimulator {
+
+    // 집계 대상 타자 기록
+    private static final int PA = 0;
+    private static final int H = 1;
+    private static final int DOUBLES = 2;
+    private static final int TRIPLES = 3;
+    private static final int HR = 4;
+    private static final int BB = 5;
+    private static final int HBP = 6;
+    private static final int SO = 7;
+    private static final int RBI = 8;
+    private static final int LINE_STATS = 9;
+    private static final String[] LINE_KEYS = { "pa", "h", "double", "triple", "hr", "bb", "hbp", "so", "rbi" };
+
+    private static final int HOME = 0;
+    private static final int AWAY = 1;
+    // 팀 득점 분포 구간 (마지막 구간 = 그 이상)
+    private static final int RUN_BUCKETS = 21;
+
+    private final PlayerStatsRegistry playerStats;
+    private final MatchupMatrix matchupMatrix;
+
+    @Value("${simulation.monte-carlo.parallelism:0}")
+    private int parallelism;
+
+    @Value("${simulation.monte-carlo.default-games:10000}")
+    private int defaultGames;
+
+    @Value("${simulation.monte-carlo.max-games:100000}")
+    private int maxGames;
+
+    @Value("${simulation.monte-carlo.time-budget-ms:5000}")
+    private long defaultTimeBudgetMs;
+
+    @Value("${simulation.monte-carlo.max-time-budget-ms:30000}")
+    private long maxTimeBudgetMs;
+
+    @Value("${simulation.monte-carlo.leaf-games:250}")
+    private int leafGames;
+
+    private ForkJoinPool pool;
+
+    @PostConstruct
+    public void start() {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        pool = new ForkJoinPool(threads, p -> {
+            ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            t.setName("monte-carlo-" + t.getPoolIndex());
+            t.setDaemon(true);
+            return t;
+        }, null, false);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * 라인업으로 N경기 시뮬레이션
+     * @param games 경기 수 (null이면 기본값)
+     * @param timeBudgetMs 시간 예산 (null이면 기본값, 넘기면 완료된 경기까지만 집계)
+     * @param seed 난수 시드 (null이면 임의, 같은 시드 + 시간 내 완료면 같은 결과)
+     */
+    public Map<String, Object> run(SimulationRequestDto request, Integer games, Long timeBudgetMs, Long seed) {
+        int gameCount = games != null ? games : defaultGames;
+        if (gameCount < 1 || gameCount > maxGames) {
+            throw new IllegalArgumentException("경기 수는 1~" + maxGames + " 사이여야 합니다.");
+        }
+        long budgetMs = Math.max(50, Math.min(timeBudgetMs != null ? timeBudgetMs : defaultTimeBudgetMs, maxTimeBudgetMs));
+        long runSeed = seed != null ? seed : ThreadLocalRandom.current().nextLong();
+
+        // 라인업/맞대결 확률표 (경기마다 재계산하지 않음)
+        Log5MatchupModel.LeagueRates league = Log5MatchupModel.LeagueRates.from(playerStats.all());
+        Team home = team(request.getHomeLineup(), "홈");
+        Team away = team(request.getAwayLineup(), "원정");
+        home.matchups(away.pitcher, league, matchupMatrix);
+        away.matchups(home.pitcher, league, matchupMatrix);
+
+        long started = System.nanoTime();
+        Run run = new Run(home, away, started + TimeUnit.MILLISECONDS.toNanos(budgetMs));
+        ForkJoinTask<Tally> task = pool.submit(new GameBatch(run, 0, gameCount, new SplittableRandom(runSeed)));
+        Tally tally;
+        try {
+            try {
+                tally = task.get(budgetMs + 1000, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // 구간별로 시간 예산을 확인하므로 중단 신호 후 곧 끝난다
+                run.cancelled.set(true);
+                tally = task.get();
+            }
+        } catch (InterruptedException e) {
+            run.cancelled.set(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("몬테카를로 시뮬레이션 중단", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("몬테카를로 시뮬레이션 실패: " + e.getCause().getMessage(), e.getCause());
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        if (tally.games == 0) {
+            throw new IllegalArgumentException("시간 예산 안에 완료된 경기가 없습니다.");
+        }
+        log.info("몬테카를로 시뮬레이션 완료: {}/{}경기, {}ms", tally.games, gameCount, elapsedMs);
+        return toResponse(request, tally, gameCount, elapsedMs, runSeed);
+    }
+
+    private Team team(SimulationRequestDto.LineupDto lineup, String side) {
+        if (lineup == null) {
+            throw new IllegalArgumentException(side + " 라인업이 없습니다.");
+        }
+        Long[] order = {
+            lineup.getBatting1(), lineup.getBatting2(), lineup.getBatting3(),
+            lineup.getBatting4(), lineup.getBatting5(), lineup.getBatting6(),
+            lineup.getBatting7(), lineup.getBatting8(), lineup.getBatting9()
+        };
+        Team team = new Team();
+        for (int i = 0; i < 9; i++) {
+            team.batters[i] = player(order[i], side + " " + (i + 1) + "번 타자");
+        }
+        team.pitcher = player(lineup.getPitcher(), side + " 투수");
+        return team;
+    }
+
+    private PlayerStatsSnapshot player(Long pNo, String role) {
+        PlayerStatsSnapshot snapshot = playerStats.get(pNo);
+        if (snapshot == null) {
+            throw new IllegalArgumentException(role + " 선수 정보를 찾을 수 없습니다: " + pNo);
+        }
+        return snapshot;
+    }
+
+    private Map<String, Object> toResponse(SimulationRequestDto request, Tally tally, int requested,
+                                           long elapsedMs, long seed) {
+        double games = tally.games;
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("status", "success");
+        response.put("homeTeam", request.getHomeTeam());
+        response.put("awayTeam", request.getAwayTeam());
+        response.put("requestedGames", requested);
+        response.put("completedGames", tally.games);
+        response.put("truncated", tally.games < requested);
+        response.put("elapsedMs", elapsedMs);
+        response.put("seed", seed);
+        response.put("homeWinProbability", round(tally.homeWins / games));
+        response.put("awayWinProbability", round(tally.awayWins / games));
+        response.put("tieProbability", round(tally.ties / games));
+        response.put("extraInningsRate", round(tally.extraInnings / games));
+
+        Map<String, Object> runs = new LinkedHashMap<>();
+        runs.put("homeMean", round(tally.runSum[HOME] / games));
+        runs.put("awayMean", round(tally.runSum[AWAY] / games));
+        runs.put("homeDistribution", distribution(tally.runs[HOME], games));
+        runs.put("awayDistribution", distribution(tally.runs[AWAY], games));
+        response.put("runs", runs);
+
+        Map<String, Object> players = new LinkedHashMap<>();
+        players.put("home", expectedLines(request.getHomeLineup(), tally, HOME, games));
+        players.put("away", expectedLines(request.getAwayLineup(), tally, AWAY, games));
+        response.put("players", players);
+        return response;
+    }
+
+    // 타순별 경기당 기대 기록
+    private List<Map<String, Object>> expectedLines(SimulationRequestDto.LineupDto lineup, Tally tally, int side, double games) {
+        Long[] order = {
+            lineup.getBatting1(), lineup.getBatting2(), lineup.getBatting3(),
+            lineup.getBatting4(), lineup.getBatting5(), lineup.getBatting6(),
+            lineup.getBatting7(), lineup.getBatting8(), lineup.getBatting9()
+        };
+        List<Map<String, Object>> lines = new ArrayList<>(9);
+        for (int slot = 0; slot < 9; slot++) {
+            int offset = (side * 9 + slot) * LINE_STATS;
+            PlayerStatsSnapshot player = playerStats.get(order[slot]);
+            Map<String, Object> line = new LinkedHashMap<>();
+            line.put("battingOrder", slot + 1);
+            line.put("pNo", order[slot]);
+            line.put("playerName", player != null ? player.getPlayerName() : null);
+            for (int stat = 0; stat < LINE_STATS; stat++) {
+                line.put(LINE_KEYS[stat], round(tally.lines[offset + stat] / games));
+            }
+            long atBats = tally.lines[offset + PA] - tally.lines[offset + BB] - tally.lines[offset + HBP];
+            line.put("avg", atBats > 0 ? round(tally.lines[offset + H] / (double) atBats) : null);
+            lines.add(line);
+        }
+        return lines;
+    }
+
+    private static List<Double> distribution(long[] counts, double games) {
+        List<Double> distribution = new ArrayList<>(counts.length);
+        for (long count : counts) {
+            distribution.add(round(count / games));
+        }
+        return distribution;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10000) / 10000.0;
+    }
+
+    // =============================================
+    // 병렬 실행
+    // =============================================
+
+    private static final class Team {
+        private final PlayerStatsSnapshot[] batters = new PlayerStatsSnapshot[9];
+        private final Log5MatchupModel.MatchupTable[] tables = new Log5MatchupModel.MatchupTable[9];
+        private PlayerStatsSnapshot pitcher;
+
+        private void matchups(PlayerStatsSnapshot opposingPitcher, Log5MatchupModel.LeagueRates league, MatchupMatrix matrix) {
+            for (int i = 0; i < 9; i++) {
+                tables[i] = matrix.table(batters[i], opposingPitcher, league);
+            }
+        }
+    }
+
+    private static final class Run {
+        private final Team home;
+        private final Team away;
+        private final long deadlineNanos;
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+
+        private Run(Team home, Team away, long deadlineNanos) {
+            this.home = home;
+            this.away = away;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        private boolean expired() {
+            if (cancelled.get()) {
+                return true;
+            }
+            if (System.nanoTime() - deadlineNanos > 0) {
+                cancelled.set(true);
+                return true;
+            }
+            return false;
+        }
+    }
+
+    // 구간별 집계 (원시 배열, 합칠 때만 더함)
+    private static final class Tally {
+        private long games;
+        private long homeWins;
+        private long awayWins;
+        private long ties;
+        private long extraInnings;
+        private final long[] runSum = new long[2];
+        private final long[][] runs = new long[2][RUN_BUCKETS];
+        private final long[] lines = new long[2 * 9 * LINE_STATS];
+
+        private Tally merge(Tally other) {
+            games += other.games;
+            homeWins += other.homeWins;
+            awayWins += other.awayWins;
+            ties += other.ties;
+            extraInnings += other.extraInnings;
+            for (int side = 0; side < 2; side++) {
+                runSum[side] += other.runSum[side];
+                for (int i = 0; i < RUN_BUCKETS; i++) {
+                    runs[side][i] += other.runs[side][i];
+                }
+            }
+            for (int i = 0; i < lines.length; i++) {
+                lines[i] += other.lines[i];
+            }
+            return this;
+        }
+    }
+
+    private final class GameBatch extends RecursiveTask<Tally> {
+        private final Run run;
+        private final int from;
+        private final int to;
+        private final SplittableRandom random;
+
+        private GameBatch(Run run, int from, int to, SplittableRandom random) {
+            this.run = run;
+            this.from = from;
+            this.to = to;
+            this.random = random;
+        }
+
+        @Override
+        protected Tally compute() {
+            if (to - from <= leafGames) {
+                return simulate();
+            }
+            int mid = (from + to) >>> 1;
+            GameBatch left = new GameBatch(run, from, mid, random.split());
+            left.fork();
+            Tally right = new GameBatch(run, mid, to, random).compute();
+            return left.join().merge(right);
+        }
+
+        private Tally simulate() {
+            Tally tally = new Tally();
+            LiveGameState state = LiveGameState.detached();
+            AtBatRules.Transition transition = new AtBatRules.Transition();
+            int[] batterIdx = new int[2];
+            for (int game = from; game < to; game++) {
+                if (run.expired()) {
+                    break;
+                }
+                playGame(state, transition, batterIdx, tally);
+            }
+            return tally;
+        }
+
+        private void playGame(LiveGameState state, AtBatRules.Transition transition, int[] batterIdx, Tally tally) {
+            state.setInning(1);
+            state.setTop(true);
+            state.setOuts(0);
+            state.placeRunners(0, 0, 0);
+            state.setHomeScore(0);
+            state.setAwayScore(0);
+            batterIdx[HOME] = 0;
+            batterIdx[AWAY] = 0;
+
+            while (true) {
+                int side = state.isTop() ? AWAY : HOME;
+                Team batting = side == AWAY ? run.away : run.home;
+                int slot = batterIdx[side] % 9;
+                int bases = state.basesMask();
+
+                AtBatOutcome outcome = batting.tables[slot].sample(bases, state.getOuts(), random.nextDouble());
+                boolean advance = outcome != AtBatOutcome.GROUND_OUT || bases != 0b010
+                    || AtBatRules.rollGroundOutAdvance(random);
+                // 주자 식별용 번호 (타순 1~9)
+                AtBatRules.resolve(state, outcome, slot + 1, advance, transition);
+
+                record(tally.lines, (side * 9 + slot) * LINE_STATS, outcome, transition.getRuns());
+                batterIdx[side]++;
+
+                if (transition.isGameEnded()) {
+                    tally.games++;
+                    String winner = transition.getWinner();
+                    if (AtBatRules.HOME.equals(winner)) {
+                        tally.homeWins++;
+                    } else if (AtBatRules.AWAY.equals(winner)) {
+                        tally.awayWins++;
+                    } else {
+                        tally.ties++;
+                    }
+                    if (state.getInning() > 9) {
+                        tally.extraInnings++;
+                    }
+                    tally.runSum[HOME] += state.getHomeScore();
+                    tally.runSum[AWAY] += state.getAwayScore();
+                    tally.runs[HOME][Math.min(state.getHomeScore(), RUN_BUCKETS - 1)]++;
+                    tally.runs[AWAY][Math.min(state.getAwayScore(), RUN_BUCKETS - 1)]++;
+                    return;
+                }
+            }
+        }
+    }
+
+    private static void record(long[] lines, int offset, AtBatOutcome outcome, int runs) {
+        lines[offset + PA]++;
+        lines[offset + RBI] += runs;
+        switch (outcome) {
+            case HOME_RUN:
+                lines[offset + HR]++;
+                lines[offset + H]++;
+                break;
+            case TRIPLE:
+                lines[offset + TRIPLES]++;
+                lines[offset + H]++;
+                break;
+            case DOUBLE:
+                lines[offset + DOUBLES]++;
+                lines[offset + H]++;
+                break;
+            case SINGLE:
+            case INFIELD_SINGLE:
+                lines[offset + H]++;
+                break;
+            case WALK:
+                lines[offset + BB]++;
+                break;
+            case HIT_BY_PITCH:
+                lines[offset + HBP]++;
+                break;
+            case STRIKEOUT:
+                lines[offset + SO]++;
+                break;
+            default:
+                break;
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.ict.springboot.service;
+
+import java.io.File;
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ai.onnxruntime.OnnxTensor;
+import ai.onnxruntime.OnnxValue;
+import ai.onnxruntime.OrtEnvironment;
+import ai.onnxruntime.OrtException;
+import ai.onnxruntime.OrtSession;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * JVM 내 타석 결과 예측 (ONNX Runtime, CPU)
+ * - python/model/export_onnx_model.py로 내보낸 모델(.onnx)과 메타데이터(.json)를 로드
+ * - simulation.inference.mode=local 일 때만 활성화, 로드에 실패하면 FastAPI 예측을 그대로 사용
+ * - 입력 벡터는 AtBatFeatureEncoder가 선수 스냅샷에서 바로 채운다
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OnnxAtBatModel {
+
+    public static final String MODE_REMOTE = "remote";
+    public static final String MODE_LOCAL = "local";
+
+    private static final AtBatOutcome[] OUTCOMES = AtBatOutcome.values();
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${simulation.inference.mode:remote}")
+    private String mode;
+
+    @Value("${simulation.inference.model-path:../python/model/at_bat_model.onnx}")
+    private String modelPath;
+
+    @Value("${simulation.inference.metadata-path:../python/model/at_bat_model.json}")
+    private String metadataPath;
+
+    @Value("${simulation.inference.intra-op-threads:1}")
+    private int intraOpThreads;
+
+    private OrtEnvironment env;
+    private OrtSession session;
+    private AtBatFeatureEncoder encoder;
+    private String inputName;
+    private String outputName;
+    // 모델 클래스 인덱스 → AtBatOutcome
+    private AtBatOutcome[] classOutcomes;
+    private volatile boolean enabled;
+
+    // 지표
+    private final AtomicLong predictions = new AtomicLong();
+    private final AtomicLong predictNanos = new AtomicLong();
+
+    // 요청 스레드별 입력 버퍼 (타석마다 배열을 새로 만들지 않음)
+    private final ThreadLocal<float[]> featureBuffer =
+        ThreadLocal.withInitial(() -> new float[AtBatFeatureEncoder.FEATURE_COUNT]);
+
+    @PostConstruct
+    public void start() {
+        if (!MODE_LOCAL.equalsIgnoreCase(mode)) {
+            return;
+        }
+        try {
+            load(new File(modelPath), new File(metadataPath));
+            enabled = true;
+            log.info("ONNX 타석 예측 모델 로드 완료: {} (클래스 {}개)", modelPath, classOutcomes.length);
+        } catch (Exception e) {
+            log.error("ONNX 타석 예측 모델 로드 실패, FastAPI 예측 사용: {}", e.getMessage());
+            stop();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        enabled = false;
+        if (session != null) {
+            try {
+                session.close();
+            } catch (OrtException e) {
+                log.warn("ONNX 세션 종료 실패: {}", e.getMessage());
+            }
+            session = null;
+        }
+    }
+
+    /**
+     * JVM 내 예측 사용 여부 (배포별 설정 + 모델 로드 성공)
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String getMode() {
+        return enabled ? MODE_LOCAL : MODE_REMOTE;
+    }
+
+    /**
+     * 현재 상황의 결과별 확률 (AtBatOutcome 순서)
+     */
+    public double[] probabilities(LiveGameState state, PlayerStatsSnapshot batter, PlayerStatsSnapshot pitcher) throws OrtException {
+        float[] features = featureBuffer.get();
+        encoder.encode(state, batter, pitcher, features);
+        return probabilities(features);
+    }
+
+    /**
+     * 인코딩된 입력 벡터의 결과별 확률 (AtBatOutcome 순서)
+     */
+    public double[] probabilities(float[] features) throws OrtException {
+        float[] row = run(features);
+        double[] probabilities = new double[OUTCOMES.length];
+        for (int i = 0; i < row.length; i++) {
+            probabilities[classOutcomes[i].ordinal()] = row[i];
+        }
+        return probabilities;
+    }
+
+    public AtBatFeatureEncoder getEncoder() {
+        return encoder;
+    }
+
+    public Map<String, Object> metrics() {
+        long count = predictions.get();
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("mode", getMode());
+        metrics.put("modelPath", modelPath);
+        metrics.put("predictions", count);
+        metrics.put("avgPredictMicros", count > 0 ? predictNanos.get() / 1000.0 / count : 0.0);
+        return metrics;
+    }
+
+    // 모델/메타데이터 로드 (테스트에서 직접 호출)
+    void load(File model, File metadata) throws Exception {
+        JsonNode meta = objectMapper.readTree(metadata);
+
+        List<String> features = strings(meta.path("features"));
+        if (!AtBatFeatureEncoder.FEATURE_NAMES.equals(features)) {
+            throw new IllegalStateException("모델 피처 순서가 다릅니다: " + features);
+        }
+
+        Map<String, List<String>> vocabulary = new HashMap<>();
+        for (Map.Entry<String, JsonNode> entry : meta.path("categorical_features").properties()) {
+            vocabulary.put(entry.getKey(), strings(entry.getValue()));
+        }
+
+        List<String> classes = strings(meta.path("classes"));
+        AtBatOutcome[] outcomes = new AtBatOutcome[classes.size()];
+        for (int i = 0; i < outcomes.length; i++) {
+            outcomes[i] = AtBatOutcome.fromKorean(classes.get(i));
+            if (outcomes[i] == null) {
+                throw new IllegalStateException("알 수 없는 모델 클래스: " + classes.get(i));
+            }
+        }
+
+        encoder = new AtBatFeatureEncoder(vocabulary);
+        classOutcomes = outcomes;
+        inputName = meta.path("input").asText("features");
+        outputName = meta.path("output").asText("probabilities");
+
+        env = OrtEnvironment.getEnvironment();
+        try (OrtSession.SessionOptions options = new OrtSession.SessionOptions()) {
+            options.setIntraOpNumThreads(intraOpThreads);
+            session = env.createSession(model.getPath(), options);
+        }
+    }
+
+    private float[] run(float[] features) throws OrtException {
+        long started = System.nanoTime();
+        long[] shape = { 1, AtBatFeatureEncoder.FEATURE_COUNT };
+        try (OnnxTensor input = OnnxTensor.createTensor(env, FloatBuffer.wrap(features, 0, AtBatFeatureEncoder.FEATURE_COUNT), shape);
+             OrtSession.Result result = session.run(Map.of(inputName, input))) {
+            Optional<OnnxValue> output = result.get(outputName);
+            if (output.isEmpty() || !(output.get().getValue() instanceof float[][])) {
+                throw new IllegalStateException("모델 출력 형식이 다릅니다: " + outputName);
+            }
+            float[] row = ((float[][]) output.get().getValue())[0];
+            if (row.length != classOutcomes.length) {
+                throw new IllegalStateException("모델 출력 클래스 수가 다릅니다: " + row.length);
+            }
+            predictions.incrementAndGet();
+            predictNanos.addAndGet(System.nanoTime() - started);
+            return row;
+        }
+    }
+
+    private static List<String> strings(JsonNode array) {
+        List<String> values = new ArrayList<>();
+        array.forEach(node -> values.add(node.asText()));
+        return values;
+    }
+}
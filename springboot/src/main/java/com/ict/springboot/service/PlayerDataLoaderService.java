@@ -25,6 +25,9 @@ public class PlayerDataLoaderService {
     @Autowired
     private TeamRepository teamRepository;
     
+    @Autowired
+    private PlayerStatsRegistry playerStatsRegistry;
+    
     /**
      * 애플리케이션 시작 시 자동으로 선수 데이터 로딩
      */
@@ -33,6 +36,7 @@ public class PlayerDataLoaderService {
         // 이미 데이터가 있으면 실행하지 않음
         if (playerRepository.count() > 0) {
             System.out.println("선수 데이터가 이미 존재합니다. 로딩을 건너뜁니다.");
+            playerStatsRegistry.reload();
             return;
         }
         
@@ -49,6 +53,9 @@ public class PlayerDataLoaderService {
             System.out.println("선수 데이터 로딩이 완료되었습니다!");
         } catch (Exception e) {
             System.err.println("선수 데이터 로딩 실패: " + e.getMessage());
+        } finally {
+            // 타석 진행용 선수 스탯 스냅샷 갱신
+            playerStatsRegistry.reload();
         }
     }
     
@@ -0,0 +1,172 @@
+package com.ict.springboot.service;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ict.springboot.entity.PlayerEntity;
+import com.ict.springboot.repository.PlayerRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 선수 스탯 스냅샷 저장소 (메모리 상주)
+ * - PLAYERS 테이블을 한 번에 읽어 pNo별 스냅샷으로 보관 (타석마다 DB 조회 없음)
+ * - 선수 데이터 재로딩 시 새 맵을 만든 뒤 참조만 교체 (조회 중인 타석은 이전 맵을 그대로 사용)
+ * - 스냅샷에 없는 선수는 DB에서 한 번 조회 후 추가
+ * - 재로딩하면 타석 예측 캐시도 무효화하고 맞대결 행렬을 다시 만든다
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PlayerStatsRegistry {
+
+    private final PlayerRepository playerRepo;
+    private final ObjectMapper objectMapper;
+    private final AtBatPredictionCache predictionCache;
+    private final MatchupMatrix matchupMatrix;
+
+    private volatile Map<Long, PlayerStatsSnapshot> snapshots = new ConcurrentHashMap<>();
+
+    /**
+     * 전체 선수 스냅샷 재구성 (시작 시 / 선수 데이터 재로딩 후)
+     */
+    @Transactional(readOnly = true)
+    public void reload() {
+        List<PlayerEntity> players = playerRepo.findAll();
+        Map<Long, PlayerStatsSnapshot> loaded = new ConcurrentHashMap<>(players.size() * 2);
+        for (PlayerEntity player : players) {
+            if (player.getPNo() == null) continue;
+            loaded.put(player.getPNo(), toSnapshot(player));
+        }
+        snapshots = loaded;
+        // 스탯이 바뀌었으므로 이전 스탯으로 받은 예측 확률은 버린다
+        predictionCache.invalidateAll();
+        log.info("선수 스탯 스냅샷 로딩 완료: {}명", loaded.size());
+        matchupMatrix.rebuild(loaded.values());
+    }
+
+    /**
+     * pNo로 스냅샷 조회 (없는 선수면 null)
+     */
+    public PlayerStatsSnapshot get(Long pNo) {
+        if (pNo == null) {
+            return null;
+        }
+        Map<Long, PlayerStatsSnapshot> current = snapshots;
+        PlayerStatsSnapshot snapshot = current.get(pNo);
+        if (snapshot != null) {
+            return snapshot;
+        }
+        PlayerEntity player = playerRepo.findBypNo(pNo);
+        if (player == null) {
+            return null;
+        }
+        snapshot = toSnapshot(player);
+        current.putIfAbsent(pNo, snapshot);
+        return snapshot;
+    }
+
+    /**
+     * 현재 스냅샷 전체 (읽기 전용, 리그 평균 계산용)
+     */
+    public Collection<PlayerStatsSnapshot> all() {
+        return Collections.unmodifiableCollection(snapshots.values());
+    }
+
+    public int size() {
+        return snapshots.size();
+    }
+
+    private PlayerStatsSnapshot toSnapshot(PlayerEntity player) {
+        try {
+            return new PlayerStatsSnapshot(player, objectMapper.writeValueAsString(toRequestMap(player)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("선수 스탯 직렬화 실패: " + player.getPNo(), e);
+        }
+    }
+
+    // FastAPI 요청용 선수 정보 (기존 요청 형식 그대로)
+    private Map<String, Object> toRequestMap(PlayerEntity player) {
+        Map<String, Object> playerStats = new HashMap<>();
+        playerStats.put("p_no", player.getPNo());
+        playerStats.put("player_name", player.getPlayerName());
+        playerStats.put("player_type", player.getPlayerType());
+        playerStats.put("hand", player.getHand());
+
+        if ("batter".equals(player.getPlayerType())) {
+            playerStats.put("batting_stats", mapBattingStats(player));
+        }
+
+        if ("pitcher".equals(player.getPlayerType())) {
+            playerStats.put("pitching_stats", mapPitchingStats(player));
+        }
+
+        return playerStats;
+    }
+
+    // 타자 통계 매핑
+    private Map<String, Object> mapBattingStats(PlayerEntity player) {
+        Map<String, Object> battingStats = new HashMap<>();
+
+        // 기본 타격 통계
+        battingStats.put("b_AVG", player.getBAvg());
+        battingStats.put("b_OBP", player.getBObp());
+        battingStats.put("b_SLG", player.getBSlg());
+        battingStats.put("b_OPS", player.getBOps());
+        battingStats.put("b_HR", player.getBHr());
+        battingStats.put("b_RBI", player.getBRbi());
+        battingStats.put("b_SB", player.getBSb());
+
+        // 추가 타격 통계
+        battingStats.put("b_2B", player.getB2B());
+        battingStats.put("b_3B", player.getB3B());
+        battingStats.put("b_HP", player.getBHp());
+        battingStats.put("b_GDP", player.getBGdp());
+        battingStats.put("b_SF", player.getBSf());
+        battingStats.put("b_SO", player.getBSo());
+        battingStats.put("b_ePA", player.getBEpa());
+        battingStats.put("b_BB", player.getBBb());
+        battingStats.put("b_H", player.getBH());
+        battingStats.put("b_IB", player.getBIb());
+        battingStats.put("b_R", player.getBR());
+
+        return battingStats;
+    }
+
+    // 투수 통계 매핑
+    private Map<String, Object> mapPitchingStats(PlayerEntity player) {
+        Map<String, Object> pitchingStats = new HashMap<>();
+
+        // 기본 투구 통계
+        pitchingStats.put("p_ERA", player.getPEra());
+        pitchingStats.put("p_FIP", player.getPFip());
+        pitchingStats.put("p_WHIP", player.getPWhip());
+        pitchingStats.put("p_W", player.getPW());
+        pitchingStats.put("p_L", player.getPL());
+        pitchingStats.put("p_IP", player.getPIp());
+        pitchingStats.put("p_SO", player.getPSo());
+
+        // 추가 투구 통계
+        pitchingStats.put("p_2B", player.getP2B());
+        pitchingStats.put("p_3B", player.getP3B());
+        pitchingStats.put("p_HR", player.getPHr());
+        pitchingStats.put("p_HP", player.getPHp());
+        pitchingStats.put("p_ROE", player.getPRoe());
+        pitchingStats.put("p_BB", player.getPBb());
+        pitchingStats.put("p_H", player.getPH());
+        pitchingStats.put("p_IB", player.getPIb());
+        pitchingStats.put("p_R", player.getPR());
+
+        return pitchingStats;
+    }
+}
@@ -0,0 +1,140 @@
+package com.ict.springboot.service;
+
+import com.fasterxml.jackson.databind.util.RawValue;
+import com.ict.springboot.entity.PlayerEntity;
+
+import lombok.Getter;
+
+/**
+ * 선수 스탯 스냅샷 (불변)
+ * - 타석 진행에 필요한 타격/투구 스탯을 원시 타입으로 보관 (값 없음 = NaN)
+ * - FastAPI 요청에 들어가는 선수 JSON 조각을 미리 만들어 둔다
+ */
+@Getter
+public final class PlayerStatsSnapshot {
+
+    private final long pNo;
+    private final String playerName;
+    private final String playerType;
+    private final String hand;
+    // 소속 팀 약칭 (일정 표기와 같은 팀 이름 첫 단어, 예: "LG", 소속 없으면 null)
+    private final String teamName;
+
+    // 타격 통계
+    private final double bAvg;
+    private final double bObp;
+    private final double bSlg;
+    private final double bOps;
+    private final double bHr;
+    private final double bRbi;
+    private final double bSb;
+    private final double b2B;
+    private final double b3B;
+    private final double bHp;
+    private final double bGdp;
+    private final double bSf;
+    private final double bSo;
+    private final double bEpa;
+    private final double bBb;
+    private final double bH;
+    private final double bIb;
+    private final double bR;
+
+    // 투구 통계
+    private final double pEra;
+    private final double pFip;
+    private final double pWhip;
+    private final double pW;
+    private final double pL;
+    private final double pIp;
+    private final double pSo;
+    private final double p2B;
+    private final double p3B;
+    private final double pHr;
+    private final double pHp;
+    private final double pRoe;
+    private final double pBb;
+    private final double pH;
+    private final double pIb;
+    private final double pR;
+
+    // FastAPI 요청용 JSON 조각 ({"p_no":..,"player_name":..,"batting_stats":{..}} 형태)
+    private final RawValue requestJson;
+
+    PlayerStatsSnapshot(PlayerEntity player, String requestJson) {
+        this.pNo = player.getPNo();
+        this.playerName = player.getPlayerName();
+        this.playerType = player.getPlayerType();
+        this.hand = player.getHand();
+        this.teamName = player.getTeam() != null && player.getTeam().getName() != null
+            ? player.getTeam().getName().split(" ")[0] : null;
+
+        this.bAvg = value(player.getBAvg());
+        this.bObp = value(player.getBObp());
+        this.bSlg = value(player.getBSlg());
+        this.bOps = value(player.getBOps());
+        this.bHr = value(player.getBHr());
+        this.bRbi = value(player.getBRbi());
+        this.bSb = value(player.getBSb());
+        this.b2B = value(player.getB2B());
+        this.b3B = value(player.getB3B());
+        this.bHp = value(player.getBHp());
+        this.bGdp = value(player.getBGdp());
+        this.bSf = value(player.getBSf());
+        this.bSo = value(player.getBSo());
+        this.bEpa = value(player.getBEpa());
+        this.bBb = value(player.getBBb());
+        this.bH = value(player.getBH());
+        this.bIb = value(player.getBIb());
+        this.bR = value(player.getBR());
+
+        this.pEra = value(player.getPEra());
+        this.pFip = value(player.getPFip());
+        this.pWhip = value(player.getPWhip());
+        this.pW = value(player.getPW());
+        this.pL = value(player.getPL());
+        this.pIp = value(player.getPIp());
+        this.pSo = value(player.getPSo());
+        this.p2B = value(player.getP2B());
+        this.p3B = value(player.getP3B());
+        this.pHr = value(player.getPHr());
+        this.pHp = value(player.getPHp());
+        this.pRoe = value(player.getPRoe());
+        this.pBb = value(player.getPBb());
+        this.pH = value(player.getPH());
+        this.pIb = value(player.getPIb());
+        this.pR = value(player.getPR());
+
+        this.requestJson = new RawValue(requestJson);
+    }
+
+    public boolean isBatter() {
+        return "batter".equals(playerType);
+    }
+
+    public boolean isPitcher() {
+        return "pitcher".equals(playerType);
+    }
+
+    /**
+     * 화면 표시용 타율 (타자가 아니면 0.0, 값이 없으면 null)
+     */
+    public Double displayAvg() {
+        return isBatter() ? nullable(bAvg) : Double.valueOf(0.0);
+    }
+
+    /**
+     * 화면 표시용 평균자책점 (투수가 아니면 null)
+     */
+    public Double displayEra() {
+        return isPitcher() ? nullable(pEra) : null;
+    }
+
+    private static double value(Number number) {
+        return number != null ? number.doubleValue() : Double.NaN;
+    }
+
+    private static Double nullable(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+}
@@ -1,10 +1,8 @@
 package com.ict.springboot.service;
 
 import com.ict.springboot.entity.SimulationEntity;
-import com.ict.springboot.entity.SimulationGameStateEntity;
 import com.ict.springboot.job.*;
 import com.ict.springboot.repository.SimulationRepository;
-import com.ict.springboot.repository.SimulationGameStateRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.quartz.*;
@@ -22,6 +20,8 @@ import java.util.stream.Collectors;
 /**
  * Quartz 기반 시뮬레이션 스케줄러
  * @Scheduled를 대체하여 더 정확하고 유연한 스케줄링 제공
+ * Quartz는 게임 시작/알림 같은 1회성 이벤트만 담당하고, 진행 중인 게임의 타석은 GameLoopEngine이 진행한다.
+ * 서버 재시작 시 진행 중이던 게임 복구와 시작 Job이 사라진 게임 처리는 GameCatchUp이 맡는다.
  */
 @Service
 @RequiredArgsConstructor
@@ -30,7 +30,8 @@ public class QuartzSimulationScheduler {
     
     private final SchedulerFactoryBean schedulerFactoryBean;
     private final SimulationRepository simulationRepo;
-    private final SimulationGameStateRepository gameStateRepo;
+    private final GameLoopEngine gameLoopEngine;
+    private final TimelinePrecomputer timelinePrecomputer;
     
     /**
      * 서버 시작 시 오늘 날짜의 시뮬레이션들을 스케줄링
@@ -39,9 +40,6 @@ public class QuartzSimulationScheduler {
     @Transactional
     public void initializeScheduledSimulations() {
         try {
-            // 진행 중인 게임들 복구
-            recoverActiveGames();
-            
             // 오늘 날짜의 아직 실행되지 않은 시뮬레이션들만 스케줄링
             scheduleTodayRemainingSimulations();
             
@@ -106,6 +104,9 @@ public class QuartzSimulationScheduler {
             // 2. 알림 Job들 스케줄링
             scheduleNotificationJobs(scheduler, simulationId, showAt, jobName, groupName);
             
+            // 3. 경기 선계산 Job 스케줄링
+            schedulePrecomputeJob(scheduler, simulationId, showAt, jobName, groupName);
+            
             
         } catch (Exception e) {
             log.error("초기화 시뮬레이션 스케줄링 중 오류: simulationId={}", simulation.getId(), e);
@@ -137,6 +138,9 @@ public class QuartzSimulationScheduler {
             // 2. 알림 Job들 스케줄링
             scheduleNotificationJobs(scheduler, simulationId, showAt, jobName, groupName);
             
+            // 3. 경기 선계산 Job 스케줄링
+            schedulePrecomputeJob(scheduler, simulationId, showAt, jobName, groupName);
+            
         } catch (Exception e) {
             log.error("시뮬레이션 스케줄링 중 오류: simulationId={}", simulation.getId(), e);
         }
@@ -194,6 +198,27 @@ public class QuartzSimulationScheduler {
         }
     }
     
+    /**
+     * 경기 선계산 Job 스케줄링 (시작 lead-minutes 전, 이미 지났으면 즉시)
+     */
+    private void schedulePrecomputeJob(Scheduler scheduler, Long simulationId, 
+                                     LocalDateTime showAt, String jobName, String groupName) throws Exception {
+        if (!timelinePrecomputer.isEnabled()) {
+            return;
+        }
+        
+        String precomputeJobName = jobName + "_precompute";
+        JobKey precomputeJobKey = JobKey.jobKey(precomputeJobName, groupName);
+        if (scheduler.checkExists(precomputeJobKey)) {
+            return;
+        }
+        
+        LocalDateTime precomputeTime = showAt.minusMinutes(timelinePrecomputer.getLeadMinutes());
+        LocalDateTime now = LocalDateTime.now();
+        scheduleNotificationJob(scheduler, simulationId, precomputeTime.isAfter(now) ? precomputeTime : now, 
+                precomputeJobName, groupName, SimulationPrecomputeJob.class);
+    }
+    
     /**
      * 개별 알림 Job 스케줄링
      */
@@ -216,94 +241,17 @@ public class QuartzSimulationScheduler {
     }
     
     /**
-     * 게임 진행 Job 스케줄링 (10초마다 반복)
+     * 게임 진행 등록 (게임 루프 엔진이 타석 간격마다 진행)
      */
     public void scheduleGameProgress(Long simulationId) {
-        try {
-            Scheduler scheduler = schedulerFactoryBean.getScheduler();
-            
-            String jobName = "game_progress_" + simulationId;
-            String groupName = "game_progress";
-            JobKey jobKey = JobKey.jobKey(jobName, groupName);
-            TriggerKey triggerKey = TriggerKey.triggerKey(jobName + "_trigger", groupName);
-
-            // 중복 방지: 이미 등록되어 있으면 스킵
-            if (scheduler.checkExists(jobKey) || scheduler.checkExists(triggerKey)) {
-                return;
-            }
-
-            // Job 생성
-            JobDetail job = JobBuilder.newJob(GameProgressJob.class)
-                    .withIdentity(jobKey)
-                    .usingJobData("simulationId", simulationId)
-                    .build();
-            
-            // Trigger 생성 (10초마다 반복, 미스파이어 전략 포함)
-            Trigger trigger = TriggerBuilder.newTrigger()
-                    .withIdentity(triggerKey)
-                    .startNow()
-                    .withSchedule(SimpleScheduleBuilder.simpleSchedule()
-                            .withIntervalInSeconds(8)
-                            .repeatForever()
-                            .withMisfireHandlingInstructionNextWithExistingCount())
-                    .build();
-            
-            // Job 등록
-            scheduler.scheduleJob(job, trigger);
-            
-        } catch (Exception e) {
-            log.error("게임 진행 Job 스케줄링 중 오류: simulationId={}", simulationId, e);
-        }
+        gameLoopEngine.schedule(simulationId);
     }
     
     /**
-     * 게임 진행 Job 중지
+     * 게임 진행 중지
      */
     public void stopGameProgress(Long simulationId) {
-        try {
-            Scheduler scheduler = schedulerFactoryBean.getScheduler();
-            
-            String jobName = "game_progress_" + simulationId;
-            String groupName = "game_progress";
-            
-            JobKey jobKey = JobKey.jobKey(jobName, groupName);
-            if (scheduler.checkExists(jobKey)) {
-                scheduler.deleteJob(jobKey);
-            }
-            
-        } catch (Exception e) {
-            log.error("게임 진행 Job 중지 중 오류: simulationId={}", simulationId, e);
-        }
-    }
-    
-    /**
-     * 서버 재시작 시 진행 중인 게임들 복구 (오늘 날짜만)
-     */
-    private void recoverActiveGames() {
-        try {
-            // 오늘 날짜 범위 계산
-            LocalDateTime startOfDay = LocalDateTime.now().withHour(0).withMinute(0).withSecond(0).withNano(0);
-            LocalDateTime endOfDay = startOfDay.plusDays(1);
-            
-            // 오늘 날짜의 진행 중인 게임들만 조회
-            List<SimulationGameStateEntity> activeGames = 
-                gameStateRepo.findByGameStatusAndSimulationShowAtBetween("PLAYING", startOfDay, endOfDay);
-            
-            for (SimulationGameStateEntity gameState : activeGames) {
-                Long simulationId = gameState.getSimulation().getId();
-                // 이미 존재하면 스킵, 없으면 등록
-                Scheduler scheduler = schedulerFactoryBean.getScheduler();
-                String jobName = "game_progress_" + simulationId;
-                String groupName = "game_progress";
-                JobKey jobKey = JobKey.jobKey(jobName, groupName);
-                if (!scheduler.checkExists(jobKey)) {
-                    scheduleGameProgress(simulationId);
-                }
-            }
-            
-        } catch (Exception e) {
-            log.error("진행 중인 게임 복구 중 오류", e);
-        }
+        gameLoopEngine.cancel(simulationId);
     }
     
     
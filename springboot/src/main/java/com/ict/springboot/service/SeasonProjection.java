@@ -0,0 +1,510 @@
+package com.ict.springboot.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.MonthDay;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.ict.springboot.entity.ScheduleEntity;
+import com.ict.springboot.entity.TeamEntity;
+import com.ict.springboot.repository.ScheduleRepository;
+import com.ict.springboot.repository.TeamRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 시즌 전망 (남은 정규시즌 일정 몬테카를로 시뮬레이션)
+ * - 팀 전력: 소속 선수 스탯(타자 득점 합 / 투수 실점 합)의 피타고리안 승률, 경기별 승률은 log5 + 홈 이점
+ * - 일정/현재 성적: KBO_SCHEDULE(일정 CSV 적재 데이터)의 시즌 개막일 이후 경기, 팀당 정규시즌 경기 수까지
+ * - 결과: 팀별 가을야구 진출 확률, 기대 승/패/무, 순위 분포
+ * - 실제 경기 결과가 나오면 그 경기만 반영해 다시 집계 (일정 변경/선수 스탯 재로딩 때만 처음부터 다시 시뮬레이션)
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SeasonProjection {
+
+    private static final double SCALE = 10000.0;
+
+    private final ScheduleRepository scheduleRepo;
+    private final TeamRepository teamRepo;
+    private final PlayerStatsRegistry playerStats;
+    private final AtBatPredictionCache predictionCache;
+
+    @Value("${simulation.season-projection.enabled:false}")
+    private boolean enabled;
+
+    // 0 = 올해
+    @Value("${simulation.season-projection.year:0}")
+    private int defaultYear;
+
+    // 정규시즌 개막일 (MM-dd, 이전 경기는 시범경기로 제외)
+    @Value("${simulation.season-projection.season-start:03-22}")
+    private String seasonStart;
+
+    @Value("${simulation.season-projection.games-per-team:144}")
+    private int gamesPerTeam;
+
+    @Value("${simulation.season-projection.playoff-spots:5}")
+    private int playoffSpots;
+
+    @Value("${simulation.season-projection.simulations:10000}")
+    private int defaultSims;
+
+    @Value("${simulation.season-projection.max-simulations:50000}")
+    private int maxSims;
+
+    @Value("${simulation.season-projection.seed:1}")
+    private long defaultSeed;
+
+    @Value("${simulation.season-projection.parallelism:0}")
+    private int parallelism;
+
+    // 홈팀 승률 가산 (리그 평균끼리 홈 경기 승률 = 0.5 + 값)
+    @Value("${simulation.season-projection.home-advantage:0.03}")
+    private double homeAdvantage;
+
+    @Value("${simulation.season-projection.tie-rate:0.01}")
+    private double tieRate;
+
+    @Value("${simulation.season-projection.pythagorean-exponent:1.83}")
+    private double exponent;
+
+    private ForkJoinPool pool;
+
+    private volatile Season season;
+    private volatile Map<String, Object> latest;
+    private volatile long rebuilds;
+    private volatile long appliedResults;
+    private volatile long buildMs;
+    private volatile long updateMs;
+
+    @PostConstruct
+    public void start() {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        pool = new ForkJoinPool(threads, p -> {
+            ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            t.setName("season-projection-" + t.getPoolIndex());
+            t.setDaemon(true);
+            return t;
+        }, null, false);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * 시작 시 전망 만들기 (팀 전력은 선수 스탯 스냅샷으로 계산하므로 로딩될 때까지 백그라운드에서 기다린다)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        Thread builder = new Thread(() -> {
+            try {
+                for (int i = 0; i < 60 && playerStats.size() == 0; i++) {
+                    Thread.sleep(1000);
+                }
+                rebuild(null, null, null);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                log.error("시즌 전망 만들기 실패", e);
+            }
+        }, "season-projection-builder");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    /**
+     * 실제 경기 결과 확인 (새로 끝난 경기만 반영)
+     */
+    @Scheduled(fixedDelayString = "${simulation.season-projection.poll-ms:300000}",
+               initialDelayString = "${simulation.season-projection.poll-ms:300000}")
+    public void poll() {
+        if (!enabled || season == null) {
+            return;
+        }
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.error("시즌 전망 갱신 중 오류", e);
+        }
+    }
+
+    /**
+     * 시즌 전망 조회 (다른 시즌이거나 아직 없으면 만든다)
+     * @param year 시즌 (null이면 설정값/올해)
+     */
+    public synchronized Map<String, Object> projection(Integer year) {
+        int targetYear = year != null ? year : resolveYear();
+        if (season == null || season.year != targetYear) {
+            return rebuild(targetYear, null, null);
+        }
+        return latest;
+    }
+
+    /**
+     * 처음부터 다시 시뮬레이션
+     * @param year 시즌 (null이면 현재 시즌 또는 설정값)
+     * @param seed 난수 시드 (null이면 설정값)
+     * @param sims 시뮬레이션할 시즌 수 (null이면 설정값)
+     */
+    public synchronized Map<String, Object> rebuild(Integer year, Long seed, Integer sims) {
+        int targetYear = year != null ? year : season != null ? season.year : resolveYear();
+        long runSeed = seed != null ? seed : season != null && year == null ? season.simulation.getSeed() : defaultSeed;
+        int runSims = sims != null ? sims : season != null && year == null ? season.simulation.getSims() : defaultSims;
+        if (runSims < 100 || runSims > maxSims) {
+            throw new IllegalArgumentException("시뮬레이션 수는 100~" + maxSims + " 사이여야 합니다.");
+        }
+        Fixtures fixtures = loadFixtures(targetYear);
+        if (fixtures.remaining.isEmpty() && fixtures.completed.isEmpty()) {
+            throw new IllegalArgumentException(targetYear + " 시즌 일정이 없습니다.");
+        }
+
+        long startNanos = System.nanoTime();
+        long generation = predictionCache.generation();
+        double[] strength = teamStrength(fixtures.teams);
+        int games = fixtures.remaining.size();
+        long[] gameIds = new long[games];
+        int[] homeOf = new int[games];
+        int[] awayOf = new int[games];
+        double[] homeWin = new double[games];
+        double[] tie = new double[games];
+        for (int g = 0; g < games; g++) {
+            Fixture fixture = fixtures.remaining.get(g);
+            gameIds[g] = fixture.id;
+            homeOf[g] = fixture.home;
+            awayOf[g] = fixture.away;
+            tie[g] = tieRate;
+            homeWin[g] = homeWinProbability(strength[fixture.home], strength[fixture.away]) * (1 - tieRate);
+        }
+        SeasonSimulation simulation;
+        try {
+            simulation = pool.submit(() -> SeasonSimulation.run(fixtures.teams, fixtures.wins, fixtures.losses, fixtures.ties,
+                gameIds, homeOf, awayOf, homeWin, tie, runSims, runSeed)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("시즌 전망 시뮬레이션이 중단되었습니다.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("시즌 전망 시뮬레이션 실패", e.getCause());
+        }
+        season = new Season(targetYear, simulation, strength, fixtures.completed.size(), generation);
+        rebuilds++;
+        buildMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        summarize();
+        log.info("시즌 전망 생성: {}시즌 남은 경기 {}, 시뮬레이션 {}회, {}ms", targetYear, games, runSims, buildMs);
+        return latest;
+    }
+
+    /**
+     * 일정 다시 읽기: 새로 끝난 경기는 결과만 반영, 일정이 바뀌었거나 선수 스탯이 다시 로딩되었으면 처음부터
+     */
+    public synchronized Map<String, Object> refresh() {
+        Season current = season;
+        if (current == null) {
+            return rebuild(null, null, null);
+        }
+        if (current.generation != predictionCache.generation()) {
+            log.info("선수 스탯이 바뀌어 시즌 전망을 다시 만듭니다.");
+            return rebuild(null, null, null);
+        }
+        Fixtures fixtures = loadFixtures(current.year);
+        SeasonSimulation simulation = current.simulation;
+
+        // 남은 경기 목록이 시뮬레이션 때와 같아야 결과만 반영할 수 있다
+        for (Fixture fixture : fixtures.remaining) {
+            if (!simulation.contains(fixture.id) || simulation.isDecided(fixture.id)) {
+                log.info("시즌 일정이 바뀌어 시즌 전망을 다시 만듭니다. (경기 {})", fixture.id);
+                return rebuild(null, null, null);
+            }
+        }
+        Map<Long, Byte> finished = new HashMap<>();
+        for (Fixture fixture : fixtures.completed) {
+            finished.put(fixture.id, fixture.result);
+        }
+        int known = current.baseCompleted + simulation.getDecidedCount();
+        List<Long> newlyFinished = new ArrayList<>();
+        for (long gameId : simulation.getGameIds()) {
+            if (simulation.isDecided(gameId)) {
+                continue;
+            }
+            if (finished.containsKey(gameId)) {
+                newlyFinished.add(gameId);
+            } else if (!fixtures.containsRemaining(gameId)) {
+                log.info("남은 경기가 취소되어 시즌 전망을 다시 만듭니다. (경기 {})", gameId);
+                return rebuild(null, null, null);
+            }
+        }
+        if (known + newlyFinished.size() != fixtures.completed.size()) {
+            log.info("끝난 경기 수가 맞지 않아 시즌 전망을 다시 만듭니다.");
+            return rebuild(null, null, null);
+        }
+        if (newlyFinished.isEmpty()) {
+            return latest;
+        }
+
+        long startNanos = System.nanoTime();
+        for (long gameId : newlyFinished) {
+            simulation.apply(gameId, finished.get(gameId));
+        }
+        appliedResults += newlyFinished.size();
+        updateMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        summarize();
+        log.info("시즌 전망에 경기 결과 {}건 반영 ({}ms)", newlyFinished.size(), updateMs);
+        return latest;
+    }
+
+    private int resolveYear() {
+        return defaultYear > 0 ? defaultYear : LocalDate.now().getYear();
+    }
+
+    private void summarize() {
+        Season current = season;
+        SeasonSimulation simulation = current.simulation;
+        SeasonSimulation.Summary summary;
+        try {
+            summary = pool.submit(simulation::summarize).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("시즌 전망 집계가 중단되었습니다.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("시즌 전망 집계 실패", e.getCause());
+        }
+
+        String[] teams = simulation.getTeams();
+        List<Map<String, Object>> standings = new ArrayList<>();
+        for (int t = 0; t < teams.length; t++) {
+            List<Double> ranks = new ArrayList<>(teams.length);
+            for (int rank = 0; rank < teams.length; rank++) {
+                ranks.add(round(summary.rankProbability(t, rank)));
+            }
+            Map<String, Object> team = new LinkedHashMap<>();
+            team.put("team", teams[t]);
+            team.put("strength", round(current.strength[t]));
+            team.put("wins", simulation.currentWins(t));
+            team.put("losses", simulation.currentLosses(t));
+            team.put("ties", simulation.currentTies(t));
+            team.put("remaining", summary.remaining(t));
+            team.put("expectedWins", round(summary.expectedWins(t)));
+            team.put("expectedLosses", round(summary.expectedLosses(t)));
+            team.put("expectedTies", round(summary.expectedTies(t)));
+            team.put("playoffProbability", round(summary.topProbability(t, playoffSpots)));
+            team.put("firstProbability", round(summary.rankProbability(t, 0)));
+            team.put("rankDistribution", ranks);
+            standings.add(team);
+        }
+        standings.sort(Comparator.comparingDouble((Map<String, Object> team) -> (Double) team.get("expectedWins")).reversed());
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("year", current.year);
+        result.put("seed", simulation.getSeed());
+        result.put("simulations", simulation.getSims());
+        result.put("gamesPerTeam", gamesPerTeam);
+        result.put("playoffSpots", playoffSpots);
+        result.put("remainingGames", simulation.getGames() - simulation.getDecidedCount());
+        result.put("appliedResults", simulation.getDecidedCount());
+        result.put("teams", standings);
+        result.put("builtAt", current.builtAt);
+        result.put("updatedAt", LocalDateTime.now());
+        result.put("metrics", metrics());
+        latest = result;
+    }
+
+    public Map<String, Object> metrics() {
+        Season current = season;
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("enabled", enabled);
+        metrics.put("ready", current != null);
+        metrics.put("parallelism", pool.getParallelism());
+        metrics.put("rebuilds", rebuilds);
+        metrics.put("appliedResults", appliedResults);
+        metrics.put("buildMs", buildMs);
+        metrics.put("lastUpdateMs", updateMs);
+        metrics.put("memoryBytes", current != null ? current.simulation.memoryBytes() : 0);
+        return metrics;
+    }
+
+    // =============================================
+    // 팀 전력 / 경기 승률
+    // =============================================
+
+    // 팀별 피타고리안 승률 (득점/실점이 없으면 0.5)
+    private double[] teamStrength(String[] teams) {
+        Map<String, Integer> index = new HashMap<>();
+        for (int t = 0; t < teams.length; t++) {
+            index.put(teams[t], t);
+        }
+        double[] runsScored = new double[teams.length];
+        double[] runsAllowed = new double[teams.length];
+        for (PlayerStatsSnapshot player : playerStats.all()) {
+            Integer t = player.getTeamName() != null ? index.get(player.getTeamName()) : null;
+            if (t == null) {
+                continue;
+            }
+            if (player.isBatter() && !Double.isNaN(player.getBR())) {
+                runsScored[t] += player.getBR();
+            } else if (player.isPitcher() && !Double.isNaN(player.getPR())) {
+                runsAllowed[t] += player.getPR();
+            }
+        }
+        double[] strength = new double[teams.length];
+        for (int t = 0; t < teams.length; t++) {
+            if (runsScored[t] <= 0 || runsAllowed[t] <= 0) {
+                strength[t] = 0.5;
+                continue;
+            }
+            double scored = Math.pow(runsScored[t], exponent);
+            strength[t] = scored / (scored + Math.pow(runsAllowed[t], exponent));
+        }
+        return strength;
+    }
+
+    // log5 맞대결 승률에 홈 이점을 배당률로 곱한 홈팀 승리 확률 (무승부 제외)
+    private double homeWinProbability(double home, double away) {
+        double neutral = home * (1 - away) / (home * (1 - away) + away * (1 - home));
+        double odds = neutral / (1 - neutral) * (0.5 + homeAdvantage) / (0.5 - homeAdvantage);
+        return odds / (1 + odds);
+    }
+
+    // =============================================
+    // 일정
+    // =============================================
+
+    private Fixtures loadFixtures(int year) {
+        TreeSet<String> names = new TreeSet<>();
+        for (TeamEntity team : teamRepo.findAll()) {
+            if (team.getName() != null) {
+                names.add(team.getName().split(" ")[0]);
+            }
+        }
+        String[] teams = names.toArray(new String[0]);
+        Map<String, Integer> index = new HashMap<>();
+        for (int t = 0; t < teams.length; t++) {
+            index.put(teams[t], t);
+        }
+        Fixtures fixtures = new Fixtures(teams);
+        LocalDate opening = MonthDay.parse("--" + seasonStart).atYear(year);
+        int[] scheduled = new int[teams.length];
+        for (ScheduleEntity game : scheduleRepo.findByYearOrderByGameDateAscGameTimeAscIdAsc(year)) {
+            Integer home = index.get(game.getHomeTeam());
+            Integer away = index.get(game.getAwayTeam());
+            // 시범경기, 미정 팀(포스트시즌), 취소 경기 제외
+            if (home == null || away == null || home.equals(away) || game.getGameDate() == null
+                || game.getGameDate().isBefore(opening)) {
+                continue;
+            }
+            boolean finished = game.getHomeTeamScore() != null && game.getAwayTeamScore() != null;
+            String remarks = game.getRemarks();
+            if (!finished && remarks != null && !remarks.isBlank() && !"-".equals(remarks.trim())) {
+                continue;
+            }
+            // 팀당 정규시즌 경기 수를 넘는 경기는 포스트시즌
+            if (scheduled[home] >= gamesPerTeam || scheduled[away] >= gamesPerTeam) {
+                continue;
+            }
+            scheduled[home]++;
+            scheduled[away]++;
+            if (!finished) {
+                fixtures.remaining.add(new Fixture(game.getId(), home, away, (byte) -1));
+                continue;
+            }
+            int diff = game.getHomeTeamScore() - game.getAwayTeamScore();
+            byte result = diff > 0 ? SeasonSimulation.HOME_WIN : diff < 0 ? SeasonSimulation.AWAY_WIN : SeasonSimulation.TIE;
+            fixtures.completed.add(new Fixture(game.getId(), home, away, result));
+            if (result == SeasonSimulation.HOME_WIN) {
+                fixtures.wins[home]++;
+                fixtures.losses[away]++;
+            } else if (result == SeasonSimulation.AWAY_WIN) {
+                fixtures.wins[away]++;
+                fixtures.losses[home]++;
+            } else {
+                fixtures.ties[home]++;
+                fixtures.ties[away]++;
+            }
+        }
+        return fixtures;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * SCALE) / SCALE;
+    }
+
+    private record Fixture(long id, int home, int away, byte result) {
+    }
+
+    private static final class Fixtures {
+        private final String[] teams;
+        private final int[] wins;
+        private final int[] losses;
+        private final int[] ties;
+        private final List<Fixture> remaining = new ArrayList<>();
+        private final List<Fixture> completed = new ArrayList<>();
+        private Set<Long> remainingIds;
+
+        private Fixtures(String[] teams) {
+            this.teams = teams;
+            this.wins = new int[teams.length];
+            this.losses = new int[teams.length];
+            this.ties = new int[teams.length];
+        }
+
+        private boolean containsRemaining(long gameId) {
+            if (remainingIds == null) {
+                remainingIds = new HashSet<>();
+                for (Fixture fixture : remaining) {
+                    remainingIds.add(fixture.id);
+                }
+            }
+            return remainingIds.contains(gameId);
+        }
+    }
+
+    /**
+     * 현재 시즌 시뮬레이션과 만들 때의 입력
+     */
+    private static final class Season {
+        private final int year;
+        private final SeasonSimulation simulation;
+        private final double[] strength;
+        // 시뮬레이션 전에 이미 끝나 있던 경기 수
+        private final int baseCompleted;
+        // 만들 때의 선수 스탯 세대 (바뀌면 처음부터)
+        private final long generation;
+        private final LocalDateTime builtAt = LocalDateTime.now();
+
+        private Season(int year, SeasonSimulation simulation, double[] strength, int baseCompleted, long generation) {
+            this.year = year;
+            this.simulation = simulation;
+            this.strength = strength;
+            this.baseCompleted = baseCompleted;
+            this.generation = generation;
+        }
+    }
+}
@@ -0,0 +1,337 @@
+package com.ict.springboot.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * 남은 정규시즌 시뮬레이션 결과 (시즌 N번의 경기별 결과와 팀별 최종 성적)
+ * - 경기 결과는 경기 x 시즌 순서의 byte 배열 하나, 최종 승/패/무는 시즌 x 팀 순서의 int 배열에 보관
+ * - 시즌 구간(SHARDS개)마다 시드에서 나눈 난수를 쓰므로 같은 시드/입력이면 스레드 수와 상관없이 같은 결과
+ * - 실제 경기 결과가 나오면 그 경기만 모든 시즌에서 실제 결과로 바꾼다 (경기끼리 독립이므로 다시 뽑지 않아도 조건부 표본이 됨)
+ * - 시뮬레이션/반영/집계 모두 시즌마다 새 객체를 만들지 않는다
+ */
+public final class SeasonSimulation {
+
+    public static final byte HOME_WIN = 0;
+    public static final byte AWAY_WIN = 1;
+    public static final byte TIE = 2;
+
+    // 시즌 구간 수 (병렬 단위, 결과 재현을 위해 스레드 수와 무관하게 고정)
+    private static final int SHARDS = 64;
+    // 승률이 같을 때 순위를 가르는 흔들림 크기 (승률 최소 차이 1/144^2보다 충분히 작게)
+    private static final double TIE_BREAK = 1e-7;
+
+    private final String[] teams;
+    private final long[] gameIds;
+    private final int[] homeOf;
+    private final int[] awayOf;
+    private final Map<Long, Integer> gameIndex;
+    private final boolean[] decided;
+    private final int sims;
+    private final long seed;
+
+    // [경기 * sims + 시즌]
+    private final byte[] outcomes;
+    // [시즌 * 팀 수 + 팀]
+    private final int[] wins;
+    private final int[] losses;
+    private final int[] ties;
+
+    // 현재까지 실제 성적 (반영한 경기 포함)
+    private final int[] currentWins;
+    private final int[] currentLosses;
+    private final int[] currentTies;
+
+    private int decidedCount;
+
+    private SeasonSimulation(String[] teams, long[] gameIds, int[] homeOf, int[] awayOf,
+                             int[] currentWins, int[] currentLosses, int[] currentTies, int sims, long seed) {
+        this.teams = teams;
+        this.gameIds = gameIds;
+        this.homeOf = homeOf;
+        this.awayOf = awayOf;
+        this.gameIndex = new HashMap<>(gameIds.length * 2);
+        for (int g = 0; g < gameIds.length; g++) {
+            gameIndex.put(gameIds[g], g);
+        }
+        this.decided = new boolean[gameIds.length];
+        this.sims = sims;
+        this.seed = seed;
+        this.outcomes = new byte[gameIds.length * sims];
+        this.wins = new int[sims * teams.length];
+        this.losses = new int[sims * teams.length];
+        this.ties = new int[sims * teams.length];
+        this.currentWins = currentWins.clone();
+        this.currentLosses = currentLosses.clone();
+        this.currentTies = currentTies.clone();
+    }
+
+    /**
+     * 남은 경기를 sims번 시뮬레이션
+     * @param teams 팀 이름 (인덱스 = 팀 번호)
+     * @param currentWins 팀별 현재 승 (currentLosses/currentTies도 같은 순서)
+     * @param gameIds 남은 경기 일정 ID (homeOf/awayOf/homeWin/tie도 같은 순서)
+     * @param homeWin 경기별 홈팀 승리 확률
+     * @param tie 경기별 무승부 확률
+     */
+    public static SeasonSimulation run(String[] teams, int[] currentWins, int[] currentLosses, int[] currentTies,
+                                       long[] gameIds, int[] homeOf, int[] awayOf, double[] homeWin, double[] tie,
+                                       int sims, long seed) {
+        SeasonSimulation season = new SeasonSimulation(teams, gameIds, homeOf, awayOf,
+            currentWins, currentLosses, currentTies, sims, seed);
+        double[] homeWinOrTie = new double[gameIds.length];
+        for (int g = 0; g < gameIds.length; g++) {
+            homeWinOrTie[g] = homeWin[g] + tie[g];
+        }
+        int shards = Math.min(SHARDS, sims);
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] randoms = new SplittableRandom[shards];
+        for (int i = 0; i < shards; i++) {
+            randoms[i] = root.split();
+        }
+        IntStream.range(0, shards).parallel().forEach(i ->
+            season.simulate(from(i, shards, sims), from(i + 1, shards, sims), homeWin, homeWinOrTie, randoms[i]));
+        return season;
+    }
+
+    private void simulate(int fromSim, int toSim, double[] homeWin, double[] homeWinOrTie, SplittableRandom random) {
+        int teamCount = teams.length;
+        int games = gameIds.length;
+        for (int s = fromSim; s < toSim; s++) {
+            int base = s * teamCount;
+            System.arraycopy(currentWins, 0, wins, base, teamCount);
+            System.arraycopy(currentLosses, 0, losses, base, teamCount);
+            System.arraycopy(currentTies, 0, ties, base, teamCount);
+            for (int g = 0; g < games; g++) {
+                double u = random.nextDouble();
+                byte outcome = u < homeWin[g] ? HOME_WIN : u < homeWinOrTie[g] ? TIE : AWAY_WIN;
+                outcomes[g * sims + s] = outcome;
+                count(base, g, outcome, 1);
+            }
+        }
+    }
+
+    /**
+     * 실제 경기 결과 반영 (결과가 다르게 나온 시즌만 그 경기의 승/패/무를 고친다)
+     * @return 남은 경기였으면 true (모르는 경기이거나 이미 반영했으면 false)
+     */
+    public boolean apply(long gameId, byte result) {
+        Integer found = gameIndex.get(gameId);
+        if (found == null || decided[found]) {
+            return false;
+        }
+        int g = found;
+        int teamCount = teams.length;
+        int offset = g * sims;
+        for (int s = 0; s < sims; s++) {
+            byte outcome = outcomes[offset + s];
+            if (outcome != result) {
+                int base = s * teamCount;
+                count(base, g, outcome, -1);
+                count(base, g, result, 1);
+                outcomes[offset + s] = result;
+            }
+        }
+        decided[g] = true;
+        decidedCount++;
+        if (result == HOME_WIN) {
+            currentWins[homeOf[g]]++;
+            currentLosses[awayOf[g]]++;
+        } else if (result == AWAY_WIN) {
+            currentWins[awayOf[g]]++;
+            currentLosses[homeOf[g]]++;
+        } else {
+            currentTies[homeOf[g]]++;
+            currentTies[awayOf[g]]++;
+        }
+        return true;
+    }
+
+    private void count(int base, int g, byte outcome, int delta) {
+        int home = base + homeOf[g];
+        int away = base + awayOf[g];
+        if (outcome == HOME_WIN) {
+            wins[home] += delta;
+            losses[away] += delta;
+        } else if (outcome == AWAY_WIN) {
+            wins[away] += delta;
+            losses[home] += delta;
+        } else {
+            ties[home] += delta;
+            ties[away] += delta;
+        }
+    }
+
+    /**
+     * 시즌별 최종 순위 집계 (승률 = 승 / (승 + 패), 같으면 시즌/팀마다 고정된 난수로 결정)
+     */
+    public Summary summarize() {
+        int teamCount = teams.length;
+        int shards = Math.min(SHARDS, sims);
+        long[][] rankCounts = new long[shards][];
+        long[][] totals = new long[shards][];
+        IntStream.range(0, shards).parallel().forEach(i -> {
+            long[] ranks = new long[teamCount * teamCount];
+            long[] sums = new long[teamCount * 3];
+            int[] order = new int[teamCount];
+            double[] keys = new double[teamCount];
+            for (int s = from(i, shards, sims), end = from(i + 1, shards, sims); s < end; s++) {
+                int base = s * teamCount;
+                for (int t = 0; t < teamCount; t++) {
+                    int w = wins[base + t];
+                    int decisions = w + losses[base + t];
+                    keys[t] = (decisions > 0 ? w / (double) decisions : 0) + tieBreak(s, t);
+                    sums[t] += w;
+                    sums[teamCount + t] += losses[base + t];
+                    sums[teamCount * 2 + t] += ties[base + t];
+                    // 승률 내림차순 삽입 정렬 (팀 10개)
+                    int j = t;
+                    while (j > 0 && keys[order[j - 1]] < keys[t]) {
+                        order[j] = order[j - 1];
+                        j--;
+                    }
+                    order[j] = t;
+                }
+                for (int rank = 0; rank < teamCount; rank++) {
+                    ranks[order[rank] * teamCount + rank]++;
+                }
+            }
+            rankCounts[i] = ranks;
+            totals[i] = sums;
+        });
+
+        long[] ranks = new long[teamCount * teamCount];
+        long[] sums = new long[teamCount * 3];
+        for (int i = 0; i < shards; i++) {
+            for (int k = 0; k < ranks.length; k++) {
+                ranks[k] += rankCounts[i][k];
+            }
+            for (int k = 0; k < sums.length; k++) {
+                sums[k] += totals[i][k];
+            }
+        }
+        int[] remaining = new int[teamCount];
+        for (int g = 0; g < gameIds.length; g++) {
+            if (!decided[g]) {
+                remaining[homeOf[g]]++;
+                remaining[awayOf[g]]++;
+            }
+        }
+        return new Summary(ranks, sums, remaining);
+    }
+
+    // 시즌/팀마다 고정된 [0, TIE_BREAK) 값 (SplittableRandom과 같은 64비트 섞기)
+    private double tieBreak(int s, int t) {
+        long z = seed + (s * (long) teams.length + t) * 0x9e3779b97f4a7c15L;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        z = z ^ (z >>> 31);
+        return (z >>> 11) * 0x1.0p-53 * TIE_BREAK;
+    }
+
+    private static int from(int shard, int shards, int sims) {
+        return (int) ((long) shard * sims / shards);
+    }
+
+    public String[] getTeams() {
+        return teams;
+    }
+
+    public int getSims() {
+        return sims;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getGames() {
+        return gameIds.length;
+    }
+
+    public int getDecidedCount() {
+        return decidedCount;
+    }
+
+    public boolean contains(long gameId) {
+        return gameIndex.containsKey(gameId);
+    }
+
+    public boolean isDecided(long gameId) {
+        Integer found = gameIndex.get(gameId);
+        return found != null && decided[found];
+    }
+
+    public long[] getGameIds() {
+        return gameIds;
+    }
+
+    public int currentWins(int team) {
+        return currentWins[team];
+    }
+
+    public int currentLosses(int team) {
+        return currentLosses[team];
+    }
+
+    public int currentTies(int team) {
+        return currentTies[team];
+    }
+
+    /**
+     * 결과 배열 메모리 (bytes)
+     */
+    public long memoryBytes() {
+        return outcomes.length + (wins.length + losses.length + ties.length) * 4L;
+    }
+
+    /**
+     * 집계 결과 (팀별 순위 횟수와 승/패/무 합계)
+     */
+    public final class Summary {
+        // [팀 * 팀 수 + 순위(0부터)]
+        private final long[] rankCounts;
+        // [승 합계(팀 수), 패 합계(팀 수), 무 합계(팀 수)]
+        private final long[] sums;
+        private final int[] remaining;
+
+        private Summary(long[] rankCounts, long[] sums, int[] remaining) {
+            this.rankCounts = rankCounts;
+            this.sums = sums;
+            this.remaining = remaining;
+        }
+
+        public double rankProbability(int team, int rank) {
+            return rankCounts[team * teams.length + rank] / (double) sims;
+        }
+
+        /**
+         * 상위 spots위 안에 들 확률
+         */
+        public double topProbability(int team, int spots) {
+            long count = 0;
+            for (int rank = 0; rank < Math.min(spots, teams.length); rank++) {
+                count += rankCounts[team * teams.length + rank];
+            }
+            return count / (double) sims;
+        }
+
+        public double expectedWins(int team) {
+            return sums[team] / (double) sims;
+        }
+
+        public double expectedLosses(int team) {
+            return sums[teams.length + team] / (double) sims;
+        }
+
+        public double expectedTies(int team) {
+            return sums[teams.length * 2 + team] / (double) sims;
+        }
+
+        public int remaining(int team) {
+            return remaining[team];
+        }
+    }
+}
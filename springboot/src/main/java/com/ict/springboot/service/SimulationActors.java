@@ -0,0 +1,396 @@
+package com.ict.springboot.service;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 진행 중인 게임별 actor (단일 writer)
+ * - 게임마다 크기 제한이 있는 메일박스를 두고 타석 진행/관리자 중지/되감기 명령을 순서대로 하나씩 처리
+ * - 처리 스레드는 작은 공용 풀(ForkJoinPool)을 공유하고, 게임이 락을 잡은 채 스레드를 점유하지 않는다
+ * - 타석 진행은 예측 요청 후 바로 스레드를 반납하고, 예측이 끝나면 이어서 처리할 작업을 메일박스 맨 앞에 넣는다
+ *   (예측 대기 중에는 다음 명령을 처리하지 않고 기다린다)
+ * - 상태 조회는 메일박스를 거치지 않고 마지막으로 확정된 불변 버전(LiveGameState.currentVersion)을 읽는다
+ *   (조회가 많아도 메일박스가 차서 타석 진행이 거부되지 않도록)
+ * - 게임 시작 시 생성, 종료/중지 시 제거 (서버 재시작으로 복구된 게임은 첫 명령 때 생성)
+ */
+@Service
+@Slf4j
+public class SimulationActors {
+
+    // 한 번 실행될 때 처리할 최대 메시지 수 (다른 게임에 스레드 양보)
+    private static final int THROUGHPUT = 8;
+
+    // SimulationService -> SimulationActors -> SimulationService 순환 참조 방지
+    @Autowired
+    @Lazy
+    private SimulationService simulationService;
+
+    private final LiveGameStateStore liveStateStore;
+
+    @Value("${simulation.actor.threads:0}")
+    private int threads;
+
+    @Value("${simulation.actor.mailbox-capacity:16}")
+    private int mailboxCapacity;
+
+    @Value("${simulation.actor.blocking-threads:8}")
+    private int blockingThreads;
+
+    // simulationId -> 게임 actor
+    private final Map<Long, Actor> actors = new ConcurrentHashMap<>();
+
+    private ForkJoinPool executor;
+    private ExecutorService blockingExecutor;
+
+    // 지표
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong totalLatencyNanos = new AtomicLong();
+    private final AtomicLong maxLatencyMs = new AtomicLong();
+    private final AtomicLong totalProcessingNanos = new AtomicLong();
+    private final AtomicInteger maxMailboxDepth = new AtomicInteger();
+
+    public SimulationActors(LiveGameStateStore liveStateStore) {
+        this.liveStateStore = liveStateStore;
+    }
+
+    @PostConstruct
+    public void start() {
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        executor = new ForkJoinPool(size, p -> {
+            ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            t.setName("game-actor-" + t.getPoolIndex());
+            t.setDaemon(true);
+            return t;
+        }, null, true);
+
+        AtomicInteger blockingSeq = new AtomicInteger();
+        blockingExecutor = Executors.newFixedThreadPool(blockingThreads, r -> {
+            Thread t = new Thread(r, "fastapi-call-" + blockingSeq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        log.info("게임 actor 시작: threads={}, mailbox={}, blocking={}", size, mailboxCapacity, blockingThreads);
+    }
+
+    @PreDestroy
+    public void stop() {
+        blockingExecutor.shutdown();
+        executor.shutdown();
+        try {
+            // 처리 중인 명령은 마저 끝낸다 (이후 게임 상태 flush)
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 블로킹 호출용 실행기 (FastAPI 단건 호출, 동시 호출 수 = blocking-threads)
+     */
+    public Executor blockingExecutor() {
+        return blockingExecutor;
+    }
+
+    /**
+     * 게임 actor 생성 (이미 있으면 그대로)
+     */
+    public void create(Long simulationId) {
+        actors.computeIfAbsent(simulationId, Actor::new);
+    }
+
+    /**
+     * 게임 actor 제거 (남은 명령은 오류로 완료)
+     */
+    public void discard(Long simulationId) {
+        Actor actor = actors.remove(simulationId);
+        if (actor != null) {
+            actor.close();
+        }
+    }
+
+    public boolean isActive(Long simulationId) {
+        return actors.containsKey(simulationId);
+    }
+
+    /**
+     * 다음 타석 진행
+     * @throws RejectedExecutionException 메일박스가 가득 찬 경우
+     */
+    public CompletableFuture<Map<String, Object>> advance(Long simulationId) {
+        return actors.computeIfAbsent(simulationId, Actor::new).send(Command.ADVANCE, 0, null);
+    }
+
+    /**
+     * 게임 상태 조회 (읽기 전용, 메일박스를 거치지 않고 확정된 버전에서 바로 조회)
+     */
+    public CompletableFuture<Map<String, Object>> query(Long simulationId) {
+        return CompletableFuture.completedFuture(simulationService.getCurrentGameState(simulationId));
+    }
+
+    /**
+     * 관리자 게임 중지
+     */
+    public CompletableFuture<Map<String, Object>> stop(Long simulationId) {
+        Actor actor = liveActor(simulationId);
+        return actor != null ? actor.send(Command.STOP, 0, null) : CompletableFuture.completedFuture(closedResponse());
+    }
+
+    /**
+     * 특정 이닝 초/말 시작 시점으로 되감기
+     */
+    public CompletableFuture<Map<String, Object>> rewind(Long simulationId, int inning, String half) {
+        Actor actor = liveActor(simulationId);
+        return actor != null ? actor.send(Command.REWIND, inning, half) : CompletableFuture.completedFuture(closedResponse());
+    }
+
+    public Map<String, Object> metrics() {
+        int depth = 0;
+        int inFlight = 0;
+        for (Actor actor : actors.values()) {
+            synchronized (actor) {
+                depth += actor.mailbox.size();
+                if (actor.inFlight) inFlight++;
+            }
+        }
+        long count = processed.get();
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("actors", actors.size());
+        metrics.put("mailboxDepth", depth);
+        metrics.put("maxMailboxDepth", maxMailboxDepth.get());
+        metrics.put("mailboxCapacity", mailboxCapacity);
+        metrics.put("awaitingPrediction", inFlight);
+        metrics.put("processed", count);
+        metrics.put("rejected", rejected.get());
+        // 대기 시간: 메일박스에 들어온 뒤 완료까지 (예측 대기 포함), 처리 시간: actor 스레드 점유 시간
+        metrics.put("avgLatencyMs", count > 0 ? totalLatencyNanos.get() / 1_000_000.0 / count : 0.0);
+        metrics.put("maxLatencyMs", maxLatencyMs.get());
+        metrics.put("avgProcessingMs", count > 0 ? totalProcessingNanos.get() / 1_000_000.0 / count : 0.0);
+        metrics.put("threads", executor.getParallelism());
+        metrics.put("activeThreads", executor.getActiveThreadCount());
+        return metrics;
+    }
+
+    // 메모리에 올라간 진행 중 게임의 actor (서버 재시작으로 복구된 게임은 여기서 생성)
+    private Actor liveActor(Long simulationId) {
+        Actor actor = actors.get(simulationId);
+        if (actor == null && liveStateStore.find(simulationId).isPresent()) {
+            actor = actors.computeIfAbsent(simulationId, Actor::new);
+        }
+        return actor;
+    }
+
+    private static Map<String, Object> closedResponse() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "error");
+        response.put("message", "진행 중인 게임이 아닙니다.");
+        return response;
+    }
+
+    // 모두 게임 상태를 바꾸는 명령 (예측 대기 중에는 처리하지 않음)
+    private enum Command {
+        ADVANCE, STOP, REWIND
+    }
+
+    /**
+     * 메일박스 메시지
+     */
+    private static final class Message {
+        private final Command command;
+        private final int inning;
+        private final String half;
+        private final long enqueuedNanos = System.nanoTime();
+        private final CompletableFuture<Map<String, Object>> result = new CompletableFuture<>();
+
+        private Message(Command command, int inning, String half) {
+            this.command = command;
+            this.inning = inning;
+            this.half = half;
+        }
+    }
+
+    /**
+     * 게임 하나의 actor (메일박스/상태는 actor 모니터로 동기화, 처리는 한 번에 한 스레드)
+     */
+    private final class Actor implements Runnable {
+        private final Long simulationId;
+        private final ArrayDeque<Message> mailbox = new ArrayDeque<>();
+        // 예측이 끝난 타석의 이어서 처리할 작업 (메일박스보다 먼저 실행)
+        private Runnable continuation;
+        private boolean inFlight;
+        private boolean scheduled;
+        private boolean closed;
+
+        private Actor(Long simulationId) {
+            this.simulationId = simulationId;
+        }
+
+        private CompletableFuture<Map<String, Object>> send(Command command, int inning, String half) {
+            Message message = new Message(command, inning, half);
+            synchronized (this) {
+                if (closed) {
+                    message.result.complete(closedResponse());
+                    return message.result;
+                }
+                if (mailbox.size() >= mailboxCapacity) {
+                    rejected.incrementAndGet();
+                    throw new RejectedExecutionException("게임 메일박스가 가득 찼습니다: simulationId=" + simulationId);
+                }
+                mailbox.add(message);
+                maxMailboxDepth.accumulateAndGet(mailbox.size(), Math::max);
+                scheduleLocked();
+            }
+            return message.result;
+        }
+
+        private void resume(Runnable work) {
+            synchronized (this) {
+                continuation = work;
+                scheduleLocked();
+            }
+        }
+
+        private void close() {
+            synchronized (this) {
+                closed = true;
+                scheduleLocked();
+            }
+        }
+
+        private void scheduleLocked() {
+            if (!scheduled) {
+                scheduled = true;
+                executor.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            for (int i = 0; i < THROUGHPUT; i++) {
+                Runnable work;
+                synchronized (this) {
+                    work = next();
+                    if (work == null) {
+                        scheduled = false;
+                        return;
+                    }
+                }
+                work.run();
+            }
+            synchronized (this) {
+                scheduled = false;
+                scheduleLocked();
+            }
+        }
+
+        // 다음 작업 (없거나 예측 대기 중이라 처리할 수 없으면 null)
+        private Runnable next() {
+            if (continuation != null) {
+                Runnable work = continuation;
+                continuation = null;
+                return work;
+            }
+            if (closed) {
+                // 종료 후 남은 명령은 처리하지 않음 (예측 대기 중인 타석은 이어서 완료)
+                Message message;
+                while ((message = mailbox.poll()) != null) {
+                    message.result.complete(closedResponse());
+                }
+                return null;
+            }
+            Message head = mailbox.peek();
+            if (head == null || inFlight) {
+                return null;
+            }
+            mailbox.poll();
+            return () -> handle(head);
+        }
+
+        private void handle(Message message) {
+            long start = System.nanoTime();
+            try {
+                switch (message.command) {
+                    case ADVANCE:
+                        advance(message);
+                        break;
+                    case STOP:
+                        complete(message, simulationService.stopRealtimeGame(simulationId));
+                        break;
+                    case REWIND:
+                        complete(message, simulationService.rewindToHalfInning(simulationId, message.inning, message.half));
+                        break;
+                    default:
+                        break;
+                }
+            } catch (Exception e) {
+                log.error("게임 actor 명령 처리 오류: simulationId={}, command={}", simulationId, message.command, e);
+                message.result.completeExceptionally(e);
+            } finally {
+                totalProcessingNanos.addAndGet(System.nanoTime() - start);
+            }
+        }
+
+        // 1단계(예측 요청)는 지금, 2단계(결과 반영)는 예측이 끝난 뒤 이 actor에서 이어서 실행
+        private void advance(Message message) {
+            SimulationService.AtBatStep step = simulationService.beginAtBat(simulationId);
+            if (step.isDone()) {
+                complete(message, step.getResponse());
+                // 진행 중이 아니거나 이미 끝난 게임이면 actor 제거
+                Map<String, Object> response = step.getResponse();
+                if (response == null || "game_ended".equals(response.get("status"))) {
+                    discard(simulationId);
+                }
+                return;
+            }
+            synchronized (this) {
+                inFlight = true;
+            }
+            step.getPrediction().whenComplete((prediction, e) -> resume(() -> {
+                synchronized (this) {
+                    inFlight = false;
+                }
+                long start = System.nanoTime();
+                try {
+                    complete(message, simulationService.finishAtBat(step, prediction, e));
+                } catch (Exception ex) {
+                    log.error("타석 결과 반영 오류: simulationId={}", simulationId, ex);
+                    message.result.completeExceptionally(ex);
+                } finally {
+                    totalProcessingNanos.addAndGet(System.nanoTime() - start);
+                }
+            }));
+        }
+
+        private void complete(Message message, Map<String, Object> response) {
+            long latencyNanos = System.nanoTime() - message.enqueuedNanos;
+            processed.incrementAndGet();
+            totalLatencyNanos.addAndGet(latencyNanos);
+            maxLatencyMs.accumulateAndGet(TimeUnit.NANOSECONDS.toMillis(latencyNanos), Math::max);
+            message.result.complete(response);
+        }
+    }
+}
@@ -0,0 +1,517 @@
+package com.ict.springboot.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 실시간 경기 중계 채널 (시청자 SSE push)
+ * - 게임 actor가 타석 결과/상태 변경을 한 번만 publish하면, JSON 직렬화/SSE 인코딩도 한 번만 해서 모든 구독자에게 같은 프레임을 보낸다
+ *   (타석 프레임은 전체 상태 대신 직전 버전과의 델타만 담고, 전체 상태는 snapshot이 필요할 때만 직렬화)
+ * - 게임마다 최근 프레임을 링 버퍼에 보관하고, 재연결 시 Last-Event-ID 이후 프레임을 채워 보낸다
+ *   (이벤트 ID = 채널 epoch:순번, 버퍼에서 밀려났거나 서버 재시작 등으로 이어 받을 수 없으면 현재 상태 snapshot부터)
+ * - 전송은 별도 sender 스레드에서 구독자별로 한 번에 하나씩 (publish하는 actor 스레드는 소켓 쓰기를 기다리지 않음)
+ *   느린 구독자는 자기 전송만 밀리고, 밀린 동안 버퍼에서 밀려난 구간은 다음 전송에서 snapshot으로 대체
+ *   한 번의 전송이 send-timeout-ms를 넘기면 구독을 끊는다 (sender 스레드를 붙잡지 않도록, 재연결하면 Last-Event-ID/snapshot으로 이어 받음)
+ * - 시청자는 /game-state, /at-bats 폴링 대신 구독만 하면 되므로 시청자 조회로 인한 DB 조회가 없다
+ */
+@Service
+@Slf4j
+public class SimulationLiveFeed {
+
+    private final SimulationActors simulationActors;
+    private final LiveGameStateStore liveStateStore;
+    private final ObjectMapper objectMapper;
+
+    @Value("${simulation.live-feed.buffer-size:256}")
+    private int bufferSize;
+
+    @Value("${simulation.live-feed.senders:2}")
+    private int senders;
+
+    @Value("${simulation.live-feed.timeout-ms:3600000}")
+    private long timeoutMs;
+
+    @Value("${simulation.live-feed.send-timeout-ms:5000}")
+    private long sendTimeoutMs;
+
+    // simulationId -> 중계 채널
+    private final Map<Long, Channel> channels = new ConcurrentHashMap<>();
+
+    // 서버 재시작 후 이전 이벤트 ID로 재연결하면 snapshot부터 보내도록 시작 시각에서 시작
+    private final AtomicLong epochSeq = new AtomicLong(System.currentTimeMillis());
+
+    private ExecutorService sendPool;
+
+    // 지표
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong encodedBytes = new AtomicLong();
+    private final AtomicLong sentFrames = new AtomicLong();
+    private final AtomicLong resumed = new AtomicLong();
+    private final AtomicLong snapshots = new AtomicLong();
+    private final AtomicLong failedSends = new AtomicLong();
+    private final AtomicLong stalledSubscribers = new AtomicLong();
+    private final AtomicLong totalEncodeNanos = new AtomicLong();
+
+    public SimulationLiveFeed(SimulationActors simulationActors, LiveGameStateStore liveStateStore, ObjectMapper objectMapper) {
+        this.simulationActors = simulationActors;
+        this.liveStateStore = liveStateStore;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    public void start() {
+        bufferSize = Integer.highestOneBit(Math.max(16, bufferSize));
+        AtomicInteger senderSeq = new AtomicInteger();
+        sendPool = Executors.newFixedThreadPool(Math.max(1, senders), r -> {
+            Thread t = new Thread(r, "live-feed-sender-" + senderSeq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        sendPool.shutdownNow();
+        channels.values().forEach(channel -> channel.subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+        channels.clear();
+    }
+
+    // ===========================================
+    // 구독
+    // ===========================================
+
+    /**
+     * 경기 중계 구독
+     * @param lastEventId 마지막으로 받은 이벤트 ID (재연결 시, 없으면 현재 상태 snapshot부터)
+     */
+    public SseEmitter subscribe(Long simulationId, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+
+        Channel channel = channels.get(simulationId);
+        if (channel == null) {
+            if (!simulationActors.isActive(simulationId) && liveStateStore.find(simulationId).isEmpty()) {
+                // 진행 중인 게임이 아니면 현재 상태만 보내고 종료
+                sendFinalSnapshot(simulationId, emitter);
+                return emitter;
+            }
+            channel = channels.computeIfAbsent(simulationId, Channel::new);
+        }
+        if (channel.needsState()) {
+            // 채널이 막 만들어졌으면(서버 재시작 등) actor에서 현재 상태를 한 번 가져온다
+            Map<String, Object> gameState = gameStateOf(simulationActors.query(simulationId).join());
+            if (gameState != null) {
+                channel.initState(gameState);
+            }
+        }
+
+        Subscriber subscriber = new Subscriber(emitter);
+        Channel subscribed = channel;
+        emitter.onCompletion(() -> drop(subscribed, subscriber));
+        emitter.onTimeout(() -> drop(subscribed, subscriber));
+        emitter.onError(e -> drop(subscribed, subscriber));
+
+        synchronized (channel) {
+            long cursor = channel.resumeCursor(lastEventId);
+            if (cursor >= 0) {
+                subscriber.cursor = cursor;
+                resumed.incrementAndGet();
+            } else {
+                subscriber.needsSnapshot = true;
+            }
+            channel.subscribers.add(subscriber);
+        }
+        schedule(channel, subscriber);
+
+        log.info("경기 중계 구독: simulationId={}, lastEventId={}, 구독자={}", simulationId, lastEventId, channel.subscribers.size());
+        return emitter;
+    }
+
+    // ===========================================
+    // 발행 (게임 actor에서 호출)
+    // ===========================================
+
+    /**
+     * 타석 결과 발행
+     * @param frame 구독자에게 보낼 내용 (타석 결과 + 상태 델타)
+     * @param gameState 발행 후 전체 게임 상태 (이후 snapshot으로 사용, 필요할 때만 직렬화)
+     */
+    public void publishAtBat(Long simulationId, Map<String, Object> frame, Map<String, Object> gameState) {
+        publish(simulationId, "atBat", frame, gameState);
+    }
+
+    /**
+     * 게임 상태 변경 발행 (start/stop/rewind 등, 응답의 gameState는 이후 snapshot으로 사용)
+     */
+    public void publishState(Long simulationId, String event, Map<String, Object> response) {
+        publish(simulationId, event, response, gameStateOf(response));
+    }
+
+    /**
+     * 경기 종료: 구독자마다 남은 프레임을 모두 보낸 뒤 구독을 끝내고, 마지막 구독자가 끝나면 채널 제거
+     */
+    public void end(Long simulationId) {
+        Channel channel = channels.get(simulationId);
+        if (channel == null) {
+            return;
+        }
+        synchronized (channel) {
+            channel.ended = true;
+        }
+        removeIfDone(channel);
+        schedule(channel);
+    }
+
+    private void publish(Long simulationId, String event, Map<String, Object> payload, Map<String, Object> gameState) {
+        long start = System.nanoTime();
+        String json = toJson(payload);
+        if (json == null) {
+            return;
+        }
+        Channel channel = channels.computeIfAbsent(simulationId, Channel::new);
+        synchronized (channel) {
+            if (channel.ended) {
+                return;
+            }
+            long seq = channel.nextSeq++;
+            channel.ring[(int) (seq & (bufferSize - 1))] = encode(channel, seq, event, json);
+            if (gameState != null) {
+                channel.latestState = gameState;
+                channel.snapshot = null;
+            }
+        }
+        published.incrementAndGet();
+        encodedBytes.addAndGet(json.length());
+        totalEncodeNanos.addAndGet(System.nanoTime() - start);
+        schedule(channel);
+    }
+
+    /**
+     * 게임의 SSE 구독자 수
+     */
+    public int subscriberCount(Long simulationId) {
+        Channel channel = channels.get(simulationId);
+        return channel != null ? channel.subscribers.size() : 0;
+    }
+
+    /**
+     * 구독자가 있는 모든 게임의 SSE 구독자 수
+     */
+    public Map<Long, Integer> subscriberCounts() {
+        Map<Long, Integer> counts = new HashMap<>();
+        for (Channel channel : channels.values()) {
+            int count = channel.subscribers.size();
+            if (count > 0) {
+                counts.put(channel.simulationId, count);
+            }
+        }
+        return counts;
+    }
+
+    public Map<String, Object> metrics() {
+        int subscribers = 0;
+        for (Channel channel : channels.values()) {
+            subscribers += channel.subscribers.size();
+        }
+        long count = published.get();
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("channels", channels.size());
+        metrics.put("subscribers", subscribers);
+        metrics.put("bufferSize", bufferSize);
+        metrics.put("published", count);
+        metrics.put("sentFrames", sentFrames.get());
+        // 발행 1건당 전송 수 (= 직렬화 1회로 보낸 구독자 수)
+        metrics.put("fanOut", count > 0 ? sentFrames.get() / (double) count : 0.0);
+        metrics.put("avgFrameBytes", count > 0 ? encodedBytes.get() / (double) count : 0.0);
+        metrics.put("avgEncodeMicros", count > 0 ? totalEncodeNanos.get() / 1000.0 / count : 0.0);
+        metrics.put("resumed", resumed.get());
+        metrics.put("snapshots", snapshots.get());
+        metrics.put("failedSends", failedSends.get());
+        metrics.put("stalledSubscribers", stalledSubscribers.get());
+        return metrics;
+    }
+
+    /**
+     * 한 번의 전송이 send-timeout-ms를 넘긴 구독자 끊기 (소켓 쓰기에 막힌 sender 스레드를 풀어준다)
+     */
+    @Scheduled(fixedDelayString = "${simulation.live-feed.send-check-ms:1000}")
+    public void dropStalledSubscribers() {
+        long now = System.nanoTime();
+        long limit = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        for (Channel channel : channels.values()) {
+            for (Subscriber subscriber : channel.subscribers) {
+                long since = subscriber.sendingSince;
+                if (since != 0 && now - since > limit) {
+                    stalledSubscribers.incrementAndGet();
+                    log.info("경기 중계 전송 지연으로 구독 해제: simulationId={}, {}ms", channel.simulationId,
+                        TimeUnit.NANOSECONDS.toMillis(now - since));
+                    drop(channel, subscriber);
+                    subscriber.emitter.completeWithError(new IOException("SSE 전송 시간 초과"));
+                }
+            }
+        }
+    }
+
+    // ===========================================
+    // 전송 (sender 스레드)
+    // ===========================================
+
+    private void schedule(Channel channel) {
+        for (Subscriber subscriber : channel.subscribers) {
+            schedule(channel, subscriber);
+        }
+    }
+
+    // 구독자마다 따로 전송 (느린 구독자가 같은 게임의 다른 구독자나 다른 게임의 전송을 막지 않도록)
+    private void schedule(Channel channel, Subscriber subscriber) {
+        synchronized (channel) {
+            subscriber.dirty = true;
+            if (subscriber.draining) {
+                return;
+            }
+            subscriber.draining = true;
+        }
+        try {
+            sendPool.execute(() -> drain(channel, subscriber));
+        } catch (RejectedExecutionException e) {
+            // 서버 종료 중
+            synchronized (channel) {
+                subscriber.draining = false;
+            }
+        }
+    }
+
+    private void drain(Channel channel, Subscriber subscriber) {
+        while (true) {
+            boolean ended;
+            synchronized (channel) {
+                if (subscriber.dirty) {
+                    subscriber.dirty = false;
+                    ended = false;
+                } else {
+                    subscriber.draining = false;
+                    ended = channel.ended;
+                    if (!ended) {
+                        return;
+                    }
+                }
+            }
+            if (ended) {
+                // 종료된 경기는 더 발행되지 않으므로 여기까지 보냈으면 구독 종료
+                if (drop(channel, subscriber)) {
+                    subscriber.emitter.complete();
+                }
+                return;
+            }
+            if (!deliver(channel, subscriber)) {
+                return;
+            }
+        }
+    }
+
+    // 구독자가 아직 받지 못한 프레임 전송 (버퍼에서 밀려난 구간이 있으면 snapshot으로 대체)
+    // @return 계속 구독 중인지 (전송 실패/지연으로 끊겼으면 false)
+    private boolean deliver(Channel channel, Subscriber subscriber) {
+        if (!channel.subscribers.contains(subscriber)) {
+            return false;
+        }
+        List<Set<ResponseBodyEmitter.DataWithMediaType>> frames = new ArrayList<>();
+        synchronized (channel) {
+            long head = channel.nextSeq - 1;
+            long oldest = Math.max(1, channel.nextSeq - bufferSize);
+            if (subscriber.needsSnapshot || subscriber.cursor < oldest - 1) {
+                Set<ResponseBodyEmitter.DataWithMediaType> snapshot = channel.snapshot();
+                if (snapshot != null) {
+                    frames.add(snapshot);
+                    snapshots.incrementAndGet();
+                }
+                subscriber.needsSnapshot = false;
+            } else {
+                for (long seq = subscriber.cursor + 1; seq <= head; seq++) {
+                    frames.add(channel.ring[(int) (seq & (bufferSize - 1))]);
+                }
+            }
+            subscriber.cursor = head;
+        }
+        subscriber.sendingSince = System.nanoTime();
+        try {
+            for (Set<ResponseBodyEmitter.DataWithMediaType> frame : frames) {
+                subscriber.emitter.send(frame);
+                sentFrames.incrementAndGet();
+            }
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // 연결이 끊긴 구독자 (재연결하면 Last-Event-ID로 이어 받는다)
+            failedSends.incrementAndGet();
+            drop(channel, subscriber);
+            log.debug("경기 중계 전송 실패: simulationId={}, {}", channel.simulationId, e.getMessage());
+            return false;
+        } finally {
+            subscriber.sendingSince = 0;
+        }
+    }
+
+    // 구독 목록에서 제거 (이미 제거되었으면 false)
+    private boolean drop(Channel channel, Subscriber subscriber) {
+        boolean removed = channel.subscribers.remove(subscriber);
+        removeIfDone(channel);
+        return removed;
+    }
+
+    // 종료된 경기의 마지막 구독자까지 끝났으면 채널 제거
+    private void removeIfDone(Channel channel) {
+        synchronized (channel) {
+            if (!channel.ended || !channel.subscribers.isEmpty()) {
+                return;
+            }
+        }
+        if (channels.remove(channel.simulationId, channel)) {
+            log.info("경기 중계 종료: simulationId={}", channel.simulationId);
+        }
+    }
+
+    private void sendFinalSnapshot(Long simulationId, SseEmitter emitter) {
+        try {
+            Map<String, Object> gameState = gameStateOf(simulationActors.query(simulationId).join());
+            if (gameState != null) {
+                emitter.send(SseEmitter.event().name("snapshot").data(gameState));
+                snapshots.incrementAndGet();
+            }
+            emitter.complete();
+        } catch (Exception e) {
+            emitter.completeWithError(e);
+        }
+    }
+
+    // ===========================================
+    // 인코딩
+    // ===========================================
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            log.error("경기 중계 직렬화 실패", e);
+            return null;
+        }
+    }
+
+    // SSE 프레임 한 번 인코딩 (모든 구독자가 같은 Set을 재사용)
+    private static Set<ResponseBodyEmitter.DataWithMediaType> encode(Channel channel, long seq, String event, String json) {
+        return SseEmitter.event()
+            .id(channel.epoch + ":" + seq)
+            .name(event)
+            .data(json)
+            .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> gameStateOf(Map<String, Object> response) {
+        if (response == null || !(response.get("gameState") instanceof Map)) {
+            return null;
+        }
+        return (Map<String, Object>) response.get("gameState");
+    }
+
+    /**
+     * 구독자 하나 (cursor = 마지막으로 보낸 프레임 순번, 전송 상태와 함께 채널 모니터로 동기화)
+     */
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private long cursor;
+        private boolean needsSnapshot;
+        private boolean dirty;
+        private boolean draining;
+        // 진행 중인 전송의 시작 시각 (nanoTime, 전송 중이 아니면 0)
+        private volatile long sendingSince;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+
+    /**
+     * 게임 하나의 중계 채널 (링 버퍼/상태는 채널 모니터로 동기화)
+     */
+    private final class Channel {
+        private final Long simulationId;
+        private final long epoch = epochSeq.incrementAndGet();
+        // 최근 프레임 (SSE 인코딩 완료, 순번 & (bufferSize - 1) 위치)
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private final Set<ResponseBodyEmitter.DataWithMediaType>[] ring = new Set[bufferSize];
+        private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+        private long nextSeq = 1;
+        // 마지막 발행 시점의 게임 상태 (snapshot 용)
+        private Map<String, Object> latestState;
+        private Set<ResponseBodyEmitter.DataWithMediaType> snapshot;
+        private boolean ended;
+
+        private Channel(Long simulationId) {
+            this.simulationId = simulationId;
+        }
+
+        private synchronized boolean needsState() {
+            return latestState == null;
+        }
+
+        private synchronized void initState(Map<String, Object> gameState) {
+            if (latestState == null) {
+                latestState = gameState;
+            }
+        }
+
+        // 이어 받을 순번 (같은 epoch이고 버퍼에 남아 있는 구간이면 그 순번, 아니면 -1)
+        private long resumeCursor(String lastEventId) {
+            if (lastEventId == null || lastEventId.isBlank()) {
+                return -1;
+            }
+            int sep = lastEventId.indexOf(':');
+            try {
+                long idEpoch = Long.parseLong(lastEventId.substring(0, Math.max(sep, 0)));
+                long seq = Long.parseLong(lastEventId.substring(sep + 1));
+                long oldest = Math.max(1, nextSeq - bufferSize);
+                if (idEpoch != epoch || seq < oldest - 1 || seq >= nextSeq) {
+                    return -1;
+                }
+                return seq;
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+
+        // 현재 상태 snapshot 프레임 (마지막 발행 순번을 ID로, 발행이 없었던 동안 재사용)
+        private Set<ResponseBodyEmitter.DataWithMediaType> snapshot() {
+            if (snapshot == null && latestState != null) {
+                String json = toJson(latestState);
+                if (json != null) {
+                    snapshot = encode(this, nextSeq - 1, "snapshot", json);
+                }
+            }
+            return snapshot;
+        }
+    }
+}
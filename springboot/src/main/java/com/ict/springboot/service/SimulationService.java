@@ -4,24 +4,21 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.core.type.TypeReference;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -31,16 +28,16 @@ import org.springframework.stereotype.Service;
 import com.ict.springboot.dto.SimulationDto;
 import com.ict.springboot.dto.SimulationRequestDto;
 import com.ict.springboot.dto.UsersDto;
-import com.ict.springboot.entity.PlayerEntity;
 import com.ict.springboot.entity.SimulationEntity;
 import com.ict.springboot.entity.UsersEntity;
 import com.ict.springboot.entity.AtBatEntity;
 import com.ict.springboot.entity.SimulationGameStateEntity;
-import com.ict.springboot.repository.PlayerRepository;
+import com.ict.springboot.entity.SimulationSnapshotEntity;
 import com.ict.springboot.repository.AtBatRepository;
 import com.ict.springboot.repository.SimulationRepository;
 import com.ict.springboot.repository.UsersRepository;
 import com.ict.springboot.repository.SimulationGameStateRepository;
+import com.ict.springboot.repository.SimulationSnapshotRepository;
 import com.ict.springboot.service.QuartzSimulationScheduler;
 
 import lombok.RequiredArgsConstructor;
@@ -51,17 +48,37 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class SimulationService {
 
+    // 선계산 타석 응답에 담는 해설 요청 (TimelinePrecomputer가 꺼내 타석 공개 시 전송)
+    public static final String NARRATION = "narration";
+    // FastAPI를 거치지 않고 JVM에서 추첨한 예측 (결과 확정 후 해설/기사를 따로 요청)
+    private static final String LOCAL_PREDICTION = "local_prediction";
+
     private final SimulationRepository simulationRepo;
     private final UsersRepository usersRepo;
-    private final PlayerRepository playerRepo;
+    private final PlayerStatsRegistry playerStats;
     private final AtBatRepository atBatRepo;
+    private final AtBatWriter atBatWriter;
+    private final AtBatArchiver atBatArchiver;
     private final SimulationGameStateRepository gameStateRepo;
-    private final RestTemplate restTemplate;
+    private final SimulationSnapshotRepository snapshotRepo;
     private final NotificationService notificationService;
     private final QuartzSimulationScheduler quartzScheduler;
-
-    @Value("${fastapi.server-url}")
-    private String fastapiServerUrl;
+    private final LiveGameStateStore liveStateStore;
+    private final LineupCache lineupCache;
+    private final AtBatBatcher atBatBatcher;
+    private final OnnxAtBatModel onnxAtBatModel;
+    private final AtBatPredictionCache predictionCache;
+    private final TimelinePrecomputer timelinePrecomputer;
+    private final SimulationActors simulationActors;
+    private final SimulationLiveFeed liveFeed;
+    private final SpectatorPresence spectatorPresence;
+    private final AtBatInferenceGuard inferenceGuard;
+    private final WinExpectancy winExpectancy;
+    private final MatchupMatrix matchupMatrix;
+    private final ObjectMapper objectMapper;
+
+    @Value("${simulation.batch.timeout-ms:60000}")
+    private long atBatTimeoutMs;
     
     // 전체 조회
     public List<SimulationDto> getAll(UsersDto user, Map<String, String> params) {
@@ -177,6 +194,10 @@ public class SimulationService {
         simulation.setUpdatedAt(LocalDateTime.now());
         
         SimulationEntity simulationEntity = simulationRepo.save(simulation.toEntity());
+        // 라인업이 바뀌었을 수 있으므로 캐시 재파싱
+        lineupCache.refresh(simulationEntity);
+        // 선계산된 경기 결과도 이전 라인업 기준이므로 폐기
+        timelinePrecomputer.discard(id);
         return SimulationDto.toDto(simulationEntity);
     }
     
@@ -190,8 +211,22 @@ public class SimulationService {
             throw new RuntimeException("삭제할 수 없는 시뮬레이션입니다.");
         }
         if (simulation != null) {
+            // 다른 시뮬레이션이 타석 기록을 공유하고 있으면 삭제 불가
+            if (simulationRepo.existsByParentSimulationIdAndForkAtBatIdIsNotNull(id)) {
+                throw new RuntimeException("분기된 시뮬레이션이 타석 기록을 공유하고 있어 삭제할 수 없습니다.");
+            }
             try {
+                // 진행 중인 게임이면 먼저 멈춘다 (루프에서 빼고, actor/메모리 상태/저장 대기 타석을 버림)
+                quartzScheduler.stopGameProgress(id);
+                simulationActors.discard(id);
+                liveStateStore.evict(id);
+                atBatWriter.discard(id);
+                snapshotRepo.deleteBySimulationId(id);
+                atBatArchiver.discard(id);
                 simulationRepo.deleteById(id);
+                lineupCache.invalidate(id);
+                timelinePrecomputer.discard(id);
+                liveFeed.end(id);
                 return SimulationDto.toDto(simulation);
             } catch (Exception e) {
                 throw new Exception("데이터 삭제에 문제가 생겼습니다.");
@@ -269,89 +304,11 @@ public class SimulationService {
     // =============================================
 
     /**
-     * p_no로 선수 정보 조회 및 스탯 매핑
+     * FastAPI 요청용 선수 정보 (미리 만들어 둔 JSON 조각, 없는 선수면 null)
      */
-    private Map<String, Object> getPlayerStatsByPNo(Long pNo) {
-        if (pNo == null) {
-            return null;
-        }
-
-        PlayerEntity player = playerRepo.findBypNo(pNo);
-        if (player == null) {
-            return null;
-        }
-
-        Map<String, Object> playerStats = new HashMap<>();
-        playerStats.put("p_no", pNo);
-        playerStats.put("player_name", player.getPlayerName());
-        playerStats.put("player_type", player.getPlayerType());
-        playerStats.put("hand", player.getHand());
-
-        if ("batter".equals(player.getPlayerType())) {
-            playerStats.put("batting_stats", mapBattingStats(player));
-        }
-
-        if ("pitcher".equals(player.getPlayerType())) {
-            playerStats.put("pitching_stats", mapPitchingStats(player));
-        }
-
-        return playerStats;
-    }
-    
-    // 타자 통계 매핑
-    private Map<String, Object> mapBattingStats(PlayerEntity player) {
-        Map<String, Object> battingStats = new HashMap<>();
-        
-        // 기본 타격 통계
-        battingStats.put("b_AVG", player.getBAvg());
-        battingStats.put("b_OBP", player.getBObp());
-        battingStats.put("b_SLG", player.getBSlg());
-        battingStats.put("b_OPS", player.getBOps());
-        battingStats.put("b_HR", player.getBHr());
-        battingStats.put("b_RBI", player.getBRbi());
-        battingStats.put("b_SB", player.getBSb());
-        
-        // 추가 타격 통계
-        battingStats.put("b_2B", player.getB2B());
-        battingStats.put("b_3B", player.getB3B());
-        battingStats.put("b_HP", player.getBHp());
-        battingStats.put("b_GDP", player.getBGdp());
-        battingStats.put("b_SF", player.getBSf());
-        battingStats.put("b_SO", player.getBSo());
-        battingStats.put("b_ePA", player.getBEpa());
-        battingStats.put("b_BB", player.getBBb());
-        battingStats.put("b_H", player.getBH());
-        battingStats.put("b_IB", player.getBIb());
-        battingStats.put("b_R", player.getBR());
-        
-        return battingStats;
-    }
-    
-    // 투수 통계 매핑
-    private Map<String, Object> mapPitchingStats(PlayerEntity player) {
-        Map<String, Object> pitchingStats = new HashMap<>();
-        
-        // 기본 투구 통계
-        pitchingStats.put("p_ERA", player.getPEra());
-        pitchingStats.put("p_FIP", player.getPFip());
-        pitchingStats.put("p_WHIP", player.getPWhip());
-        pitchingStats.put("p_W", player.getPW());
-        pitchingStats.put("p_L", player.getPL());
-        pitchingStats.put("p_IP", player.getPIp());
-        pitchingStats.put("p_SO", player.getPSo());
-        
-        // 추가 투구 통계
-        pitchingStats.put("p_2B", player.getP2B());
-        pitchingStats.put("p_3B", player.getP3B());
-        pitchingStats.put("p_HR", player.getPHr());
-        pitchingStats.put("p_HP", player.getPHp());
-        pitchingStats.put("p_ROE", player.getPRoe());
-        pitchingStats.put("p_BB", player.getPBb());
-        pitchingStats.put("p_H", player.getPH());
-        pitchingStats.put("p_IB", player.getPIb());
-        pitchingStats.put("p_R", player.getPR());
-        
-        return pitchingStats;
+    private Object playerRequestFragment(Long pNo) {
+        PlayerStatsSnapshot snapshot = playerStats.get(pNo);
+        return snapshot != null ? snapshot.getRequestJson() : null;
     }
     
     
@@ -359,6 +316,13 @@ public class SimulationService {
     // 유틸리티 메서드
     // =============================================
 
+    /**
+     * 에러 응답 여부 (createErrorResponse 결과 또는 Python 서버의 error 응답)
+     */
+    private static boolean isErrorResponse(Map<String, Object> response) {
+        return response == null || response.containsKey("error") || "error".equals(response.get("status"));
+    }
+
     /**
      * 에러 응답 생성
      */
@@ -434,27 +398,6 @@ public class SimulationService {
         }
     }
 
-    /**
-     * Object를 Long으로 안전하게 변환 (null, Integer, Long 모두 처리)
-     */
-    private Long convertToLong(Object value) {
-        if (value == null) {
-            return null;
-        }
-        if (value instanceof Long) {
-            return (Long) value;
-        }
-        if (value instanceof Integer) {
-            return ((Integer) value).longValue();
-        }
-        try {
-            return Long.valueOf(value.toString());
-        } catch (NumberFormatException e) {
-            System.err.println("⚠️  Long 변환 실패: " + value);
-            return null;
-        }
-    }
-
     // =============================================
     // 🗄️ 데이터베이스 저장/조회 (타석 기록)
     // =============================================
@@ -468,6 +411,7 @@ public class SimulationService {
             SimulationEntity simulation = simulationRepo.findById(simulationId)
                 .orElseThrow(() -> new RuntimeException("시뮬레이션을 찾을 수 없습니다."));
 
+            List<AtBatEntity> atBatEntities = new ArrayList<>(atBats.size());
             for (Map<String, Object> atBatData : atBats) {
                 AtBatEntity atBatEntity = AtBatEntity.builder()
                     .simulation(simulation)
@@ -484,8 +428,12 @@ public class SimulationService {
                     .rbi((Integer) atBatData.get("rbi"))
                     .build();
                 
-                atBatRepo.save(atBatEntity);
+                atBatEntities.add(atBatEntity);
             }
+
+            // 한 번에 배치 INSERT
+            atBatWriter.writeAll(atBatEntities);
+            atBatWriter.flush(simulationId);
             
             System.out.println("타석별 데이터 저장 완료: " + atBats.size() + "개 타석");
             
@@ -499,9 +447,15 @@ public class SimulationService {
      */
     public List<Map<String, Object>> getSimulationAtBats(Long simulationId) {
         try {
-            // ID 순으로 정렬 (타석이 발생한 순서대로)
-            List<AtBatEntity> atBats = atBatRepo.findBySimulation_Id(simulationId);
-            atBats.sort((a, b) -> a.getId().compareTo(b.getId()));
+            // 아직 저장 대기 중인 타석이 있으면 먼저 반영
+            atBatWriter.flush(simulationId);
+
+            SimulationEntity simulation = simulationRepo.findById(simulationId).orElse(null);
+            if (simulation == null) {
+                return new ArrayList<>();
+            }
+            // 타석이 발생한 순서대로 (분기 시뮬레이션은 원본과 공유하는 타석부터)
+            List<AtBatEntity> atBats = loadAtBatLog(simulation);
 
             return atBats.stream().map(atBat -> {
                 Map<String, Object> atBatMap = new HashMap<>();
@@ -512,19 +466,13 @@ public class SimulationService {
                 atBatMap.put("batterPNo", atBat.getBatterPNo());
                 atBatMap.put("batting_order", atBat.getBattingOrder());
 
-                // 선수 정보는 Player 테이블에서 실시간 조회
-                Map<String, Object> batterInfo = getPlayerStatsByPNo(atBat.getBatterPNo());
-                Map<String, Object> pitcherInfo = getPlayerStatsByPNo(atBat.getPitcherPNo());
-
-                String batterName = batterInfo != null ? (String) batterInfo.getOrDefault("player_name", "알 수 없음") : "알 수 없음";
-                String pitcherName = pitcherInfo != null ? (String) pitcherInfo.getOrDefault("player_name", "알 수 없음") : "알 수 없음";
+                // 선수 정보는 메모리 스냅샷에서 조회
+                PlayerStatsSnapshot batterInfo = playerStats.get(atBat.getBatterPNo());
+                PlayerStatsSnapshot pitcherInfo = playerStats.get(atBat.getPitcherPNo());
 
-                Double batterAvg = 0.0;
-                if (batterInfo != null && batterInfo.containsKey("batting_stats")) {
-                    @SuppressWarnings("unchecked")
-                    Map<String, Object> battingStats = (Map<String, Object>) batterInfo.get("batting_stats");
-                    batterAvg = (Double) battingStats.getOrDefault("b_AVG", 0.0);
-                }
+                String batterName = batterInfo != null ? batterInfo.getPlayerName() : "알 수 없음";
+                String pitcherName = pitcherInfo != null ? pitcherInfo.getPlayerName() : "알 수 없음";
+                Double batterAvg = batterInfo != null ? batterInfo.displayAvg() : 0.0;
 
                 atBatMap.put("batter_name", batterName);
                 atBatMap.put("pitcher_name", pitcherName);
@@ -556,6 +504,10 @@ public class SimulationService {
                 // AI 예측 확률 (JSON 문자열)
                 atBatMap.put("probabilities", atBat.getProbabilities());
 
+                // 타석 후 홈팀 승리 확률, 공격팀 기준 변화량
+                atBatMap.put("winProbability", atBat.getWinProbability());
+                atBatMap.put("winProbabilityAdded", atBat.getWinProbabilityAdded());
+
                 return atBatMap;
             }).collect(java.util.stream.Collectors.toList());
 
@@ -584,15 +536,15 @@ public class SimulationService {
                 return createErrorResponse("이미 시작된 게임입니다.");
             }
 
-            // 라인업에서 첫 타자/투수 정보 추출
-            ObjectMapper objectMapper = new ObjectMapper();
-            TypeReference<Map<String, Object>> typeRef = new TypeReference<Map<String, Object>>() {};
-            Map<String, Object> homeLineup = objectMapper.readValue(simulation.getHomeLineup(), typeRef);
-            Map<String, Object> awayLineup = objectMapper.readValue(simulation.getAwayLineup(), typeRef);
+            // 라인업에서 첫 타자/투수 정보 추출 (게임 시작 시 한 번 파싱 후 캐시)
+            Lineup.Pair lineups = lineupCache.refresh(simulation);
 
             // 1회초 시작: 어웨이팀 공격, 홈팀 수비
-            Long firstBatterPNo = Long.valueOf(awayLineup.get("batting1").toString()); // 어웨이팀 1번타자
-            Long firstPitcherPNo = Long.valueOf(homeLineup.get("pitcher").toString()); // 홈팀 투수
+            long firstBatterPNo = lineups.getAway().batterAt(0); // 어웨이팀 1번타자
+            long firstPitcherPNo = lineups.getHome().getPitcherPNo(); // 홈팀 투수
+            if (firstBatterPNo == 0 || firstPitcherPNo == 0) {
+                return createErrorResponse("라인업에서 선수 정보를 찾을 수 없습니다.");
+            }
 
             // 초기 게임 상태 생성
             SimulationGameStateEntity gameState = SimulationGameStateEntity.builder()
@@ -614,10 +566,17 @@ public class SimulationService {
 
             gameState = gameStateRepo.save(gameState);
 
+            // 이후 타석 진행은 메모리 상태 기준 (DB는 write-behind), 게임 명령은 게임별 actor가 직렬 처리
+            LiveGameState liveState = liveStateStore.register(gameState);
+            liveState.setBoxScore(new BoxScore());
+            saveSnapshot(liveState, null);
+            simulationActors.create(simulationId);
+
             Map<String, Object> response = new HashMap<>();
             response.put("status", "success");
             response.put("message", "게임이 시작되었습니다.");
-            response.put("gameState", convertGameStateToMap(gameState));
+            response.put("gameState", convertGameStateToMap(liveState));
+            liveFeed.publishState(simulationId, "start", response);
 
             return response;
 
@@ -628,92 +587,152 @@ public class SimulationService {
         }
     }
 
-    // 시뮬레이션별 동시성 제어용 락 맵
-    private final Map<Long, Lock> simulationLocks = new ConcurrentHashMap<>();
-
     /**
-     * 다음 타석 처리 (실시간 타석별 시뮬레이션)
-     * 시뮬레이션별 락으로 동시성 제어 (여러 게임 동시 진행 허용)
+     * 다음 타석 처리 1단계: 타석 전 상황 확인 후 예측 요청 (실시간 타석별 시뮬레이션)
+     * 게임별 actor(SimulationActors)에서 직렬로 실행되며, 예측을 기다리는 동안 스레드를 점유하지 않는다.
+     * 예측이 끝나면 같은 actor에서 finishAtBat으로 이어서 처리한다.
      */
-    public Map<String, Object> processNextAtBat(Long simulationId) {
-        Lock lock = simulationLocks.computeIfAbsent(simulationId, id -> new ReentrantLock());
-        lock.lock();
+    public AtBatStep beginAtBat(Long simulationId) {
         try {
-            // 현재 게임 상태 조회
-            SimulationGameStateEntity gameState = gameStateRepo.findBySimulationId(simulationId)
+            // 현재 게임 상태 조회 (메모리 상주 상태, 없으면 마지막 flush 상태에서 복원)
+            LiveGameState gameState = liveStateStore.get(simulationId)
                 .orElseThrow(() -> new RuntimeException("게임 상태를 찾을 수 없습니다."));
 
             // 게임이 종료되었는지 확인
-            if ("FINISHED".equals(gameState.getGameStatus())) {
+            if (gameState.isFinished()) {
                 Map<String, Object> response = new HashMap<>();
                 response.put("status", "game_ended");
                 response.put("message", "게임이 이미 종료되었습니다.");
                 response.put("gameState", convertGameStateToMap(gameState));
-                SimulationEntity simulation = simulationRepo.findById(simulationId).orElseThrow(() -> new RuntimeException("시뮬레이션을 찾을 수 없습니다."));
                 // 종료되었는데 종료 처리 안되었을 경우, simulation 수정
-                if (Boolean.FALSE.equals(simulation.getIsFinished())) {
-                    simulation.setIsFinished(true);
-                    simulationRepo.save(simulation);
-                }
-                return response;
+                markSimulationFinished(gameState.getSimulation());
+                return AtBatStep.done(response);
             }
 
             // 게임이 진행 중이 아닌 경우 처리하지 않음
-            if (!"PLAYING".equals(gameState.getGameStatus())) {
+            if (!gameState.isPlaying()) {
                 log.debug("게임이 진행 중이 아닙니다. simulationId={}, status={}", simulationId, gameState.getGameStatus());
-                return null;
+                return AtBatStep.done(null);
             }
 
-            // 시뮬레이션 정보 조회
-            SimulationEntity simulation = simulationRepo.findById(simulationId)
-                .orElseThrow(() -> new RuntimeException("시뮬레이션을 찾을 수 없습니다."));
+            // 시뮬레이션 정보 (게임 상태와 함께 메모리에 보관)
+            SimulationEntity simulation = gameState.getSimulation();
+
+            // 타석 예측: 선계산된 타임라인이 있으면 다음 타석을 꺼내 쓰고,
+            // 없으면 JVM 내 ONNX 모델(local) 또는 예측 캐시/Python 서버(remote)
+            Map<String, Object> precomputed = timelinePrecomputer.next(simulationId, gameState);
+            CompletableFuture<Map<String, Object>> prediction = precomputed != null
+                ? CompletableFuture.completedFuture(precomputed)
+                : predictAtBatAsync(simulation, gameState, false);
 
             // 타석 시작 전 상태 저장
-            boolean isAwayAttacking = "초".equals(gameState.getHalf());
-            int currentBatterIdx = isAwayAttacking ? gameState.getAwayBatterIdx() : gameState.getHomeBatterIdx();
-            int currentBatterOrder = (currentBatterIdx % 9) + 1;
-            int currentInning = gameState.getInning();
-            String currentHalf = gameState.getHalf();
-            String currentInningHalf = String.valueOf(currentInning) + (currentHalf != null ? currentHalf : "초");
+            return new AtBatStep(gameState, prediction);
 
-            // 타자/투수 정보 구성
-            Map<String, Object> atBatRequest = buildAtBatRequest(simulation, gameState);
+        } catch (Exception e) {
+            System.err.println("타석 처리 오류: " + e.getMessage());
+            e.printStackTrace();
+            return AtBatStep.done(createErrorResponse("타석 처리 실패: " + e.getMessage()));
+        }
+    }
 
-            // Python 서버로 단일 타석 예측 요청
-            Map<String, Object> atBatResult = callPythonSingleAtBat(atBatRequest);
+    /**
+     * 다음 타석 처리 2단계: 예측 결과를 게임 상태에 반영하고 기록 저장 (beginAtBat과 같은 actor에서 실행)
+     * @param error 예측 실패 예외 (없으면 null)
+     */
+    public Map<String, Object> finishAtBat(AtBatStep step, Map<String, Object> atBatResult, Throwable error) {
+        try {
+            LiveGameState gameState = step.gameState;
+            Long simulationId = gameState.getSimulationId();
+            SimulationEntity simulation = gameState.getSimulation();
+            boolean isAwayAttacking = step.isAwayAttacking;
+            int currentBatterOrder = step.batterOrder;
+            int currentInning = step.inning;
+            String currentHalf = step.half;
+            String currentInningHalf = String.valueOf(currentInning) + (currentHalf != null ? currentHalf : "초");
 
-            if (atBatResult.containsKey("error")) {
-                return atBatResult;
+            if (error != null || atBatResult == null) {
+                return createErrorResponse("타석 예측 실패: " + (error != null ? error.getMessage() : "응답 없음"));
+            }
+            // 중지/되감기 등으로 예측 요청 이후 게임이 바뀌었으면 반영하지 않음
+            if (!gameState.isPlaying() || liveStateStore.find(simulationId).orElse(null) != gameState) {
+                return createErrorResponse("예측 도중 게임 상태가 변경되었습니다.");
             }
 
-            // 타석 결과 저장 및 게임 상태 업데이트
-            Long atBatId = saveAtBatResultFromPython(simulationId, gameState, atBatResult, currentBatterOrder);
-            updateGameStateFromPython(gameState, atBatResult, isAwayAttacking, simulation); // simulation 전달
+            if (isErrorResponse(atBatResult)) {
+                return atBatResult;
+            }
 
-            // 선수 정보 추가
+            // Python 결과 중 타석 결과 분류만 사용 (주루/아웃/경기 종료는 Java 규칙으로 처리)
+            AtBatOutcome outcome = AtBatOutcome.fromKorean((String) atBatResult.get("result_korean"));
+            if (outcome == null) {
+                return createErrorResponse("알 수 없는 타석 결과: " + atBatResult.get("result_korean"));
+            }
             Long batterPNo = Long.valueOf(atBatResult.get("batter_p_no").toString());
             Long pitcherPNo = Long.valueOf(atBatResult.get("pitcher_p_no").toString());
 
-            Map<String, Object> batterInfo = getPlayerStatsByPNo(batterPNo);
-            Map<String, Object> pitcherInfo = getPlayerStatsByPNo(pitcherPNo);
+            // 타석 기록 자리/ID를 먼저 확보 (저장이 밀려 있으면 게임 상태를 바꾸지 않고 이 타석은 실패)
+            Long reservedAtBatId;
+            try {
+                reservedAtBatId = atBatWriter.reserve();
+            } catch (RuntimeException e) {
+                return createErrorResponse("타석 기록을 저장할 수 없습니다: " + e.getMessage());
+            }
+
+            // 타석 결과 반영 후 기록 저장, 게임 상태 확정
+            AtBatRules.Transition transition = new AtBatRules.Transition();
+            BoxScore boxScore = ensureBoxScore(gameState);
+            int outsBefore = gameState.getOuts();
+            Double winProbabilityBefore = winExpectancy.homeWinProbability(gameState);
+            AtBatEntity.AtBatEntityBuilder atBat = beginAtBatRecord(simulation, gameState, batterPNo, pitcherPNo, currentBatterOrder, atBatResult)
+                .id(reservedAtBatId);
+            Map<String, Object> narrationRequest = localNarrationRequest(simulation, gameState, atBatResult);
+            applyAtBatResult(gameState, outcome, batterPNo, atBatResult, isAwayAttacking, simulation, transition);
+
+            // 승리 확률 (홈팀 기준)과 이번 타석의 변화량 (공격팀 기준)
+            Double winProbability = transition.isGameEnded()
+                ? winExpectancy.finalHomeWinProbability(transition.getWinner())
+                : winExpectancy.homeWinProbability(gameState);
+            Double winProbabilityAdded = WinExpectancy.winProbabilityAdded(winProbabilityBefore, winProbability, isAwayAttacking);
+            atBat.winProbability(winProbability).winProbabilityAdded(winProbabilityAdded);
+            boxScore.record(isAwayAttacking, currentInning, currentBatterOrder - 1, outcome, transition.getRuns(),
+                BoxScore.outsRecorded(outsBefore, gameState.getOuts()));
+            Long atBatId = saveAtBatResult(atBat, outcome, gameState, transition);
+            commitGameState(gameState, transition, simulation);
+            if (transition.isInningChanged() && !transition.isGameEnded() && atBatId != null) {
+                saveSnapshot(gameState, atBatId);
+            }
+
+            // 응답의 결과/상태는 Java에서 처리한 값으로 교체
+            atBatResult.put("result", outcome.getCode());
+            atBatResult.put("rbi", transition.getRuns());
+            Map<String, Object> newGameState = newGameStateMap(gameState, transition);
+            atBatResult.put("new_game_state", newGameState);
+            atBatResult.put("game_ended", transition.isGameEnded());
+            atBatResult.put("winner", transition.getWinner());
+            atBatResult.put("win_probability", winProbability);
+            atBatResult.put("win_probability_added", winProbabilityAdded);
+
+            // FastAPI를 거치지 않은 타석은 확정된 결과로 게임 로그/편파 해설/기사 요청
+            if (narrationRequest != null) {
+                narrateAtBat(narration(narrationRequest, outcome, atBatResult.get("probabilities"), transition, newGameState));
+            }
+
+            // 선수 정보 추가
+
+            PlayerStatsSnapshot batterInfo = playerStats.get(batterPNo);
+            PlayerStatsSnapshot pitcherInfo = playerStats.get(pitcherPNo);
 
             // 응답에 선수 정보 및 DB ID 추가
             atBatResult.put("id", atBatId);
-            atBatResult.put("batter_name", batterInfo.getOrDefault("player_name", "알 수 없음"));
-            atBatResult.put("pitcher_name", pitcherInfo.getOrDefault("player_name", "알 수 없음"));
+            atBatResult.put("batter_name", batterInfo != null ? batterInfo.getPlayerName() : "알 수 없음");
+            atBatResult.put("pitcher_name", pitcherInfo != null ? pitcherInfo.getPlayerName() : "알 수 없음");
             atBatResult.put("batting_order", currentBatterOrder);
             atBatResult.put("inningHalf", currentInningHalf);
             atBatResult.put("inning", currentInning);
             atBatResult.put("half", currentHalf);
             atBatResult.put("isAwayAttacking", isAwayAttacking);
 
-            if (batterInfo.containsKey("batting_stats")) {
-                @SuppressWarnings("unchecked")
-                Map<String, Object> battingStats = (Map<String, Object>) batterInfo.get("batting_stats");
-                atBatResult.put("batter_avg", battingStats.getOrDefault("b_AVG", 0.0));
-            } else {
-                atBatResult.put("batter_avg", 0.0);
-            }
+            atBatResult.put("batter_avg", batterInfo != null ? batterInfo.displayAvg() : 0.0);
 
             // 🔔 게임 종료 알림
             Boolean gameEnded = (Boolean) atBatResult.getOrDefault("game_ended", false);
@@ -721,8 +740,6 @@ public class SimulationService {
                 Long userId = simulation.getUser().getId();
                 String winner = (String) atBatResult.get("winner");
                 
-                @SuppressWarnings("unchecked")
-                Map<String, Object> newGameState = (Map<String, Object>) atBatResult.get("new_game_state");
                 int homeScore = (Integer) newGameState.get("homeScore");
                 int awayScore = (Integer) newGameState.get("awayScore");
                 
@@ -732,8 +749,34 @@ public class SimulationService {
             // 응답 구성
             Map<String, Object> response = new HashMap<>();
             response.put("status", "success");
+            // 이번 타석으로 바뀐 필드만 (직전 버전 → 현재 버전)
+            LiveGameState.Version current = gameState.currentVersion();
+            LiveGameState.Version previous = gameState.versionAt(current.getVersion() - 1);
+            Map<String, Object> stateDelta = previous != null ? versionDelta(gameState.getEpoch(), previous, current) : null;
+            Map<String, Object> fullState = versionToMap(gameState.getEpoch(), current);
+
+            // 이번 타석으로 바뀐 박스스코어 (타자 한 줄, 상대 투수, 이닝 득점)
+            Map<String, Object> boxScoreChanges = boxScore.changes(isAwayAttacking, currentInning, currentBatterOrder - 1);
+
             response.put("atBatResult", atBatResult);
-            response.put("gameState", convertGameStateToMap(gameState));
+            response.put("gameState", fullState);
+            response.put("stateDelta", stateDelta);
+            response.put("boxScore", boxScoreChanges);
+
+            // 시청자 중계 (직렬화 1회 후 구독자 전체에 push, 전체 상태 대신 델타만 전송)
+            Map<String, Object> frame = new HashMap<>();
+            frame.put("status", "success");
+            frame.put("atBatResult", atBatResult);
+            frame.put("boxScore", boxScoreChanges);
+            if (stateDelta != null) {
+                frame.put("stateDelta", stateDelta);
+            } else {
+                frame.put("gameState", fullState);
+            }
+            liveFeed.publishAtBat(simulationId, frame, fullState);
+            if (gameEnded) {
+                liveFeed.end(simulationId);
+            }
 
             return response;
 
@@ -741,17 +784,144 @@ public class SimulationService {
             System.err.println("타석 처리 오류: " + e.getMessage());
             e.printStackTrace();
             return createErrorResponse("타석 처리 실패: " + e.getMessage());
-        } finally {
-            lock.unlock();
         }
     }
 
+    /**
+     * 예측 요청을 보낸 타석 (타석 전 상황 + 예측 결과 future)
+     * done이면 예측 없이 바로 응답(response)을 돌려준다.
+     */
+    public static final class AtBatStep {
+        private final LiveGameState gameState;
+        private final boolean isAwayAttacking;
+        private final int batterOrder;
+        private final int inning;
+        private final String half;
+        private final CompletableFuture<Map<String, Object>> prediction;
+        private final Map<String, Object> response;
+
+        private AtBatStep(LiveGameState gameState, CompletableFuture<Map<String, Object>> prediction) {
+            this.gameState = gameState;
+            this.isAwayAttacking = gameState.isTop();
+            int batterIdx = isAwayAttacking ? gameState.getAwayBatterIdx() : gameState.getHomeBatterIdx();
+            this.batterOrder = (batterIdx % 9) + 1;
+            this.inning = gameState.getInning();
+            this.half = gameState.getHalf();
+            this.prediction = prediction;
+            this.response = null;
+        }
+
+        private AtBatStep(Map<String, Object> response) {
+            this.gameState = null;
+            this.isAwayAttacking = false;
+            this.batterOrder = 0;
+            this.inning = 0;
+            this.half = null;
+            this.prediction = null;
+            this.response = response;
+        }
+
+        static AtBatStep done(Map<String, Object> response) {
+            return new AtBatStep(response);
+        }
+
+        public boolean isDone() {
+            return prediction == null;
+        }
+
+        public Map<String, Object> getResponse() {
+            return response;
+        }
+
+        public CompletableFuture<Map<String, Object>> getPrediction() {
+            return prediction;
+        }
+    }
+
+    /**
+     * DB와 연결되지 않은 게임 상태로 한 타석 진행 (경기 선계산용)
+     * 예측 후 타석 결과를 상태에 반영하고, 실시간 진행 시 같은 결과가 재현되도록 타석 후 상태(new_game_state)를 응답에 담는다.
+     * 예측 실패 시 상태는 바뀌지 않는다.
+     */
+    public Map<String, Object> simulateDetachedAtBat(SimulationEntity simulation, LiveGameState gameState) {
+        boolean isAwayAttacking = gameState.isTop();
+        Map<String, Object> atBatResult = predictAtBatAsync(simulation, gameState, true).join();
+        if (isErrorResponse(atBatResult)) {
+            return atBatResult != null ? atBatResult : createErrorResponse("타석 예측 실패");
+        }
+        @SuppressWarnings("unchecked")
+        Map<String, Object> request = (Map<String, Object>) atBatResult.remove(NARRATION);
+        if (request == null) {
+            request = localNarrationRequest(simulation, gameState, atBatResult);
+        }
+        AtBatOutcome outcome = AtBatOutcome.fromKorean((String) atBatResult.get("result_korean"));
+        if (outcome == null) {
+            return createErrorResponse("알 수 없는 타석 결과: " + atBatResult.get("result_korean"));
+        }
+        long batterPNo = Long.parseLong(atBatResult.get("batter_p_no").toString());
+
+        AtBatRules.Transition transition = new AtBatRules.Transition();
+        applyAtBatResult(gameState, outcome, batterPNo, atBatResult, isAwayAttacking, simulation, transition);
+        Map<String, Object> newGameState = newGameStateMap(gameState, transition);
+        atBatResult.put("new_game_state", newGameState);
+
+        // 공개될 때 해설/기사를 만들도록 요청과 Java 규칙의 결과를 함께 보관
+        if (request != null) {
+            request.remove("precompute");
+            atBatResult.put(NARRATION, narration(request, outcome, atBatResult.get("probabilities"), transition, newGameState));
+        }
+        return atBatResult;
+    }
+
+    /**
+     * 확정된 타석을 FastAPI에 보내 게임 로그/편파 해설/기사 생성 요청 (응답은 기다리지 않음)
+     * FastAPI를 거치지 않은 실시간 타석과 선계산된 타석이 공개될 때 사용
+     * @param narration narration()으로 만든 요청
+     */
+    public void narrateAtBat(Map<String, Object> narration) {
+        CompletableFuture.runAsync(() -> {
+            try {
+                inferenceGuard.post(AtBatInferenceGuard.NARRATE, narration);
+            } catch (Exception e) {
+                log.warn("타석 해설 요청 실패: {}", e.getMessage());
+            }
+        }, simulationActors.blockingExecutor());
+    }
+
+    /**
+     * JVM에서 추첨한 예측이면 타석 전 상황의 해설용 요청 (FastAPI 예측이거나 성능 저하 모드 결과면 null)
+     * 예측 응답의 LOCAL_PREDICTION 표시는 여기서 제거한다.
+     */
+    private Map<String, Object> localNarrationRequest(SimulationEntity simulation, LiveGameState gameState,
+                                                      Map<String, Object> atBatResult) {
+        if (atBatResult.remove(LOCAL_PREDICTION) == null || atBatResult.containsKey("degraded")) {
+            return null;
+        }
+        return buildAtBatRequest(simulation, gameState);
+    }
+
+    // /simulate-at-bat/narrate 요청 (타석 전 요청 + Java 규칙으로 확정한 결과)
+    private static Map<String, Object> narration(Map<String, Object> request, AtBatOutcome outcome, Object probabilities,
+                                                 AtBatRules.Transition transition, Map<String, Object> newGameState) {
+        Map<String, Object> decided = new HashMap<>();
+        decided.put("result_korean", outcome.getKorean());
+        decided.put("probabilities", probabilities);
+        decided.put("rbi", transition.getRuns());
+        decided.put("new_game_state", newGameState);
+        decided.put("game_ended", transition.isGameEnded());
+        decided.put("winner", transition.getWinner());
+        Map<String, Object> narration = new HashMap<>();
+        narration.put("request", request);
+        narration.put("result", decided);
+        return narration;
+    }
+
     /**
      * 현재 게임 상태 조회
      */
     public Map<String, Object> getCurrentGameState(Long simulationId) {
         try {
-            SimulationGameStateEntity gameState = gameStateRepo.findBySimulationId(simulationId)
+            LiveGameState gameState = liveStateStore.get(simulationId)
                 .orElseThrow(() -> new RuntimeException("게임 상태를 찾을 수 없습니다."));
 
             Map<String, Object> response = new HashMap<>();
@@ -766,10 +936,549 @@ public class SimulationService {
         }
     }
 
+    /**
+     * 박스스코어 조회 (이닝별 득점, 타순별 타자 기록, 팀별 투수 기록)
+     * 진행 중이면 메모리의 박스스코어, 끝난 경기는 저장된 박스스코어 (없으면 타석 기록에서 한 번 만들어 저장)
+     */
+    public Map<String, Object> getBoxScore(Long simulationId) {
+        try {
+            LiveGameState gameState = liveStateStore.find(simulationId).orElse(null);
+            SimulationEntity simulation;
+            BoxScore boxScore;
+            if (gameState != null) {
+                simulation = gameState.getSimulation();
+                boxScore = ensureBoxScore(gameState);
+            } else {
+                simulation = simulationRepo.findById(simulationId)
+                    .orElseThrow(() -> new RuntimeException("시뮬레이션을 찾을 수 없습니다."));
+                byte[] saved = gameStateRepo.findBoxScoreBySimulationId(simulationId);
+                if (saved != null) {
+                    boxScore = BoxScore.decode(saved);
+                } else {
+                    atBatWriter.flush(simulationId);
+                    boxScore = rebuildBoxScore(loadAtBatLog(simulation));
+                    LiveGameState finished = liveStateStore.get(simulationId).orElse(null);
+                    if (finished != null && !finished.isPlaying() && !"READY".equals(finished.getGameStatus())) {
+                        gameStateRepo.updateBoxScore(simulationId, boxScore.encode());
+                    }
+                }
+            }
+
+            Map<String, Object> box = boxScore.toMap();
+            Lineup.Pair lineups = lineupCache.get(simulation);
+            putLineupPlayers(box, lineups);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("status", "success");
+            response.put("simulationId", simulationId);
+            response.put("boxScore", box);
+            return response;
+
+        } catch (Exception e) {
+            log.error("박스스코어 조회 오류: simulationId={}", simulationId, e);
+            return createErrorResponse("박스스코어 조회 실패: " + e.getMessage());
+        }
+    }
+
+    // 타순/투수 기록에 선수 번호와 이름 추가
+    @SuppressWarnings("unchecked")
+    private void putLineupPlayers(Map<String, Object> box, Lineup.Pair lineups) {
+        Map<String, Object> batting = (Map<String, Object>) box.get("batting");
+        Map<String, Object> pitching = (Map<String, Object>) box.get("pitching");
+        for (String team : List.of("away", "home")) {
+            Lineup lineup = "away".equals(team) ? lineups.getAway() : lineups.getHome();
+            List<Map<String, Object>> lines = (List<Map<String, Object>>) batting.get(team);
+            for (int slot = 0; slot < lines.size(); slot++) {
+                putPlayer(lines.get(slot), lineup.batterAt(slot));
+            }
+            putPlayer((Map<String, Object>) pitching.get(team), lineup.getPitcherPNo());
+        }
+    }
+
+    private void putPlayer(Map<String, Object> line, long pNo) {
+        PlayerStatsSnapshot info = pNo != 0 ? playerStats.get(pNo) : null;
+        line.put("pNo", pNo != 0 ? pNo : null);
+        line.put("name", info != null ? info.getPlayerName() : "알 수 없음");
+    }
+
+    /**
+     * 진행 중인 게임의 박스스코어 (서버 재시작 등으로 없으면 저장된 타석 기록에서 한 번 재구성)
+     */
+    private BoxScore ensureBoxScore(LiveGameState gameState) {
+        synchronized (gameState) {
+            if (gameState.getBoxScore() == null) {
+                atBatWriter.flush(gameState.getSimulationId());
+                gameState.setBoxScore(rebuildBoxScore(loadAtBatLog(gameState.getSimulation())));
+            }
+            return gameState.getBoxScore();
+        }
+    }
+
+    /**
+     * 타석 기록으로 박스스코어 재구성 (발생 순서로 정렬된 타석 기록)
+     */
+    private BoxScore rebuildBoxScore(List<AtBatEntity> atBats) {
+        BoxScore boxScore = new BoxScore();
+        for (AtBatEntity atBat : atBats) {
+            AtBatOutcome outcome = AtBatOutcome.fromKorean(atBat.getResultKorean());
+            String inningHalf = atBat.getInningHalf();
+            if (outcome == null || atBat.getBattingOrder() == null || inningHalf == null
+                    || !inningHalf.matches("\\d+[초말]")) {
+                continue;
+            }
+            int inning = Integer.parseInt(inningHalf.substring(0, inningHalf.length() - 1));
+            boolean top = inningHalf.endsWith("초");
+            int outsBefore = atBat.getPrevOuts() != null ? atBat.getPrevOuts() : 0;
+            int outsAfter = atBat.getNewOuts() != null ? atBat.getNewOuts() : outsBefore;
+            boxScore.record(top, inning, atBat.getBattingOrder() - 1, outcome,
+                atBat.getRbi() != null ? atBat.getRbi() : 0, BoxScore.outsRecorded(outsBefore, outsAfter));
+        }
+        return boxScore;
+    }
+
+    private void saveBoxScore(LiveGameState gameState) {
+        BoxScore boxScore = gameState.getBoxScore();
+        if (boxScore != null) {
+            gameStateRepo.updateBoxScore(gameState.getSimulationId(), boxScore.encode());
+        }
+    }
+
+    /**
+     * 게임 상태 ETag (메모리에 있는 게임만, 없으면 null)
+     * epoch.version 형태라 값이 바뀌지 않았으면 직렬화 없이 비교할 수 있다.
+     */
+    public String gameStateETag(Long simulationId) {
+        return liveStateStore.find(simulationId)
+            .map(state -> eTag(state.getEpoch(), state.currentVersion().getVersion()))
+            .orElse(null);
+    }
+
+    /**
+     * 응답(gameState/delta)의 ETag
+     */
+    public static String gameStateETag(Map<String, Object> response) {
+        Object body = response.get("delta") instanceof Map ? response.get("delta") : response.get("gameState");
+        if (!(body instanceof Map)) {
+            return null;
+        }
+        Map<?, ?> state = (Map<?, ?>) body;
+        if (state.get("epoch") == null || state.get("version") == null) {
+            return null;
+        }
+        return eTag(((Number) state.get("epoch")).longValue(), ((Number) state.get("version")).longValue());
+    }
+
+    private static String eTag(long epoch, long version) {
+        return "\"" + epoch + "." + version + "\"";
+    }
+
+    /**
+     * since 버전 이후 바뀐 필드만 조회 (이력에 없거나 epoch가 다르면 전체 상태)
+     */
+    public Map<String, Object> getGameStateSince(Long simulationId, Long epoch, long since) {
+        LiveGameState gameState = liveStateStore.find(simulationId).orElse(null);
+        if (gameState == null) {
+            return getCurrentGameState(simulationId);
+        }
+        LiveGameState.Version current = gameState.currentVersion();
+        LiveGameState.Version from = epoch != null && epoch == gameState.getEpoch() ? gameState.versionAt(since) : null;
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "success");
+        if (from != null) {
+            response.put("delta", versionDelta(gameState.getEpoch(), from, current));
+        } else {
+            response.put("gameState", versionToMap(gameState.getEpoch(), current));
+        }
+        return response;
+    }
+
+    /**
+     * 특정 버전의 전체 게임 상태 조회 (최근 버전만 보관)
+     */
+    public Map<String, Object> getGameStateAt(Long simulationId, Long epoch, long version) {
+        LiveGameState gameState = liveStateStore.find(simulationId).orElse(null);
+        LiveGameState.Version state = gameState != null && (epoch == null || epoch == gameState.getEpoch())
+            ? gameState.versionAt(version) : null;
+        if (state == null) {
+            return createErrorResponse("해당 버전의 게임 상태가 없습니다: " + version);
+        }
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "success");
+        response.put("gameState", versionToMap(gameState.getEpoch(), state));
+        return response;
+    }
+
+    /**
+     * 관리자 게임 중지 (게임 actor에서 실행)
+     * 게임 루프에서 빼고 STOPPED 상태로 저장한 뒤 메모리에서 내린다. 서버 재시작 시에도 복구되지 않는다.
+     */
+    public Map<String, Object> stopRealtimeGame(Long simulationId) {
+        try {
+            LiveGameState gameState = liveStateStore.find(simulationId).orElse(null);
+            if (gameState == null || !gameState.isPlaying()) {
+                return createErrorResponse("진행 중인 게임이 아닙니다.");
+            }
+
+            quartzScheduler.stopGameProgress(simulationId);
+            synchronized (gameState) {
+                gameState.setGameStatus("STOPPED");
+                gameState.setUpdatedAt(LocalDateTime.now());
+            }
+            liveStateStore.markDirty(gameState);
+
+            atBatWriter.flush(simulationId);
+            saveBoxScore(gameState);
+            liveStateStore.flushAndEvict(simulationId);
+            lineupCache.invalidate(simulationId);
+            timelinePrecomputer.discard(simulationId);
+            simulationActors.discard(simulationId);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("status", "success");
+            response.put("message", "게임이 중지되었습니다.");
+            response.put("gameState", convertGameStateToMap(gameState));
+            liveFeed.publishState(simulationId, "stop", response);
+            liveFeed.end(simulationId);
+            return response;
+
+        } catch (Exception e) {
+            log.error("게임 중지 오류: simulationId={}", simulationId, e);
+            return createErrorResponse("게임 중지 실패: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 특정 이닝 초/말 시작 시점으로 되감기 (게임 actor에서 실행)
+     * 해당 하프 이닝 스냅샷이 있으면 스냅샷으로 바로 복원하고, 없으면(스냅샷 도입 이전 경기)
+     * 해당 하프 이닝 첫 타석의 타석 전 상황으로 되돌린다. 두 경우 모두 그 이후 타석 기록은 삭제한다.
+     */
+    public Map<String, Object> rewindToHalfInning(Long simulationId, int inning, String half) {
+        try {
+            LiveGameState gameState = liveStateStore.find(simulationId).orElse(null);
+            if (gameState == null || !gameState.isPlaying()) {
+                return createErrorResponse("진행 중인 게임이 아닙니다.");
+            }
+            if (!"초".equals(half) && !"말".equals(half)) {
+                return createErrorResponse("half는 초 또는 말이어야 합니다.");
+            }
+
+            // 저장 대기 중인 타석까지 반영한 뒤 삭제
+            atBatWriter.flush(simulationId);
+            String inningHalf = inning + half;
+            boolean top = "초".equals(half);
+
+            SimulationSnapshotEntity snapshot = snapshotRepo
+                .findFirstBySimulation_IdAndInningAndHalfOrderByIdDesc(simulationId, inning, half).orElse(null);
+            if (snapshot != null) {
+                // 스냅샷 이후의 자기 타석부터 삭제 (게임/분기 시작 스냅샷이면 자기 타석 전부)
+                Long lastAtBatId = snapshot.getLastAtBatId();
+                boolean origin = lastAtBatId == null || lastAtBatId.equals(gameState.getSimulation().getForkAtBatId());
+                long fromId = origin ? 0L : lastAtBatId + 1;
+                if (simulationRepo.existsByParentSimulationIdAndForkAtBatIdGreaterThanEqual(simulationId, fromId)) {
+                    return createErrorResponse("분기된 시뮬레이션이 공유하는 구간으로는 되돌릴 수 없습니다.");
+                }
+                int deleted = atBatRepo.deleteBySimulationIdFromId(simulationId, fromId);
+                snapshotRepo.deleteBySimulationIdAfter(simulationId, snapshot.getId());
+                timelinePrecomputer.discard(simulationId);
+
+                // 박스스코어가 없는 스냅샷이면 다음 타석에서 타석 기록으로 재구성
+                BoxScore boxScore = snapshot.getBoxScore() != null ? BoxScore.decode(snapshot.getBoxScore()) : null;
+                restoreHalfInning(gameState, inning, top, snapshot.getHomeScore(), snapshot.getAwayScore(),
+                    snapshot.getHomeBatterIdx(), snapshot.getAwayBatterIdx(), boxScore);
+                return rewoundResponse(gameState, inningHalf, deleted);
+            }
+
+            // 발생 순서대로 조회
+            List<AtBatEntity> atBats = atBatRepo.findBySimulation_IdOrderByIdAsc(simulationId);
+            int firstIdx = -1;
+            for (int i = 0; i < atBats.size(); i++) {
+                if (inningHalf.equals(atBats.get(i).getInningHalf())) {
+                    firstIdx = i;
+                    break;
+                }
+            }
+            if (firstIdx < 0) {
+                return createErrorResponse("해당 이닝의 타석 기록이 없습니다: " + inningHalf);
+            }
+            AtBatEntity first = atBats.get(firstIdx);
+            if (simulationRepo.existsByParentSimulationIdAndForkAtBatIdGreaterThanEqual(simulationId, first.getId())) {
+                return createErrorResponse("분기된 시뮬레이션이 공유하는 구간으로는 되돌릴 수 없습니다.");
+            }
+
+            // 타순: 공격팀은 첫 타석 타자부터, 수비팀은 직전 공격 마지막 타자의 다음 타자부터
+            int attackingIdx = first.getBattingOrder() != null ? first.getBattingOrder() - 1 : 0;
+            int defendingIdx = 0;
+            String defendingHalf = top ? "말" : "초";
+            for (int i = firstIdx - 1; i >= 0; i--) {
+                AtBatEntity previous = atBats.get(i);
+                if (previous.getInningHalf() != null && previous.getInningHalf().endsWith(defendingHalf)) {
+                    defendingIdx = previous.getBattingOrder() != null ? previous.getBattingOrder() % 9 : 0;
+                    break;
+                }
+            }
+
+            atBatRepo.deleteBySimulationIdFromId(simulationId, first.getId());
+            snapshotRepo.deleteBySimulationIdFromAtBat(simulationId, first.getId());
+            timelinePrecomputer.discard(simulationId);
+            BoxScore boxScore = rebuildBoxScore(atBats.subList(0, firstIdx));
+
+            restoreHalfInning(gameState, inning, top, first.getPrevScoreHome(), first.getPrevScoreAway(),
+                top ? defendingIdx : attackingIdx, top ? attackingIdx : defendingIdx, boxScore);
+            // 다음 되감기/분기는 스냅샷에서
+            saveSnapshot(gameState, firstIdx > 0 ? atBats.get(firstIdx - 1).getId() : null);
+            return rewoundResponse(gameState, inningHalf, atBats.size() - firstIdx);
+
+        } catch (Exception e) {
+            log.error("게임 되감기 오류: simulationId={}", simulationId, e);
+            return createErrorResponse("게임 되감기 실패: " + e.getMessage());
+        }
+    }
+
+    // 하프 이닝 시작 상황으로 게임 상태 복원
+    private void restoreHalfInning(LiveGameState gameState, int inning, boolean top, int homeScore, int awayScore,
+                                   int homeBatterIdx, int awayBatterIdx, BoxScore boxScore) {
+        synchronized (gameState) {
+            gameState.setInning(inning);
+            gameState.setTop(top);
+            gameState.setOuts(0);
+            gameState.placeRunners(0, 0, 0);
+            gameState.setHomeScore(homeScore);
+            gameState.setAwayScore(awayScore);
+            gameState.setHomeBatterIdx(homeBatterIdx);
+            gameState.setAwayBatterIdx(awayBatterIdx);
+            gameState.setWinner(null);
+            gameState.setBoxScore(boxScore);
+            calculateAndSetNextBatterPitcher(gameState, gameState.getSimulation());
+            gameState.setUpdatedAt(LocalDateTime.now());
+        }
+        liveStateStore.markDirty(gameState);
+    }
+
+    private Map<String, Object> rewoundResponse(LiveGameState gameState, String inningHalf, int deletedAtBats) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "success");
+        response.put("message", inningHalf + " 시작 시점으로 되돌렸습니다.");
+        response.put("deletedAtBats", deletedAtBats);
+        response.put("gameState", convertGameStateToMap(gameState));
+        // 시청자는 이 이벤트를 받으면 타석 목록을 되감은 지점까지 지운다
+        liveFeed.publishState(gameState.getSimulationId(), "rewind", response);
+        return response;
+    }
+
+    // =============================================
+    // 🔀 스냅샷 / 분기(what-if) 시뮬레이션
+    // =============================================
+
+    /**
+     * 분기(what-if) 시뮬레이션 생성 후 바로 시작
+     * 이닝 초/말 시작 스냅샷에서 새 시뮬레이션을 시작한다. 그 이전 타석은 다시 읽거나 계산하지 않고,
+     * 기록도 복사하지 않고 원본의 것을 공유한다 (조회 시 원본 타석 + 분기 이후 자기 타석).
+     */
+    public Map<String, Object> forkSimulation(Long simulationId, int inning, String half, UsersDto loginUser) {
+        try {
+            if (!"초".equals(half) && !"말".equals(half)) {
+                return createErrorResponse("half는 초 또는 말이어야 합니다.");
+            }
+            SimulationEntity source = simulationRepo.findById(simulationId)
+                .orElseThrow(() -> new RuntimeException("시뮬레이션을 찾을 수 없습니다."));
+            // 분기는 원본 타석 기록을 공유해 원본 삭제를 막으므로 본인 또는 관리자만
+            if (!"ADMIN".equals(loginUser.getRole()) && !Objects.equals(loginUser.getId(), source.getUser().getId())) {
+                return createErrorResponse("분기할 수 없는 시뮬레이션입니다.");
+            }
+            UsersEntity user = usersRepo.findById(loginUser.getId())
+                .orElseThrow(() -> new RuntimeException("사용자를 찾을 수 없습니다."));
+
+            SimulationSnapshotEntity snapshot = findSnapshot(source, inning, half);
+            if (snapshot == null) {
+                return createErrorResponse("해당 이닝의 스냅샷이 없습니다: " + inning + half);
+            }
+
+            // 공유할 타석 기록의 주인: 스냅샷의 시뮬레이션, 그 시뮬레이션의 분기 시점 스냅샷이면 그 원본
+            Long parentId = snapshot.getSimulation().getId();
+            Long forkAtBatId = snapshot.getLastAtBatId();
+            if (forkAtBatId != null) {
+                SimulationEntity owner = parentId.equals(source.getId()) ? source : simulationRepo.findById(parentId).orElse(null);
+                if (owner != null && forkAtBatId.equals(owner.getForkAtBatId())) {
+                    parentId = owner.getParentSimulationId();
+                }
+                // 공유 구간은 DB에 있어야 한다
+                atBatWriter.flush(parentId);
+            }
+
+            SimulationEntity fork = simulationRepo.save(SimulationEntity.builder()
+                .hometeam(source.getHometeam())
+                .awayteam(source.getAwayteam())
+                .homeLineup(source.getHomeLineup())
+                .awayLineup(source.getAwayLineup())
+                .user(user)
+                .showAt(LocalDateTime.now())
+                .isFinished(false)
+                .parentSimulationId(parentId)
+                .forkAtBatId(forkAtBatId)
+                .build());
+            Long forkId = fork.getId();
+
+            // 스냅샷 시점의 다음 타자/투수
+            Lineup.Pair lineups = lineupCache.refresh(fork);
+            boolean top = "초".equals(half);
+            int batterIdx = top ? snapshot.getAwayBatterIdx() : snapshot.getHomeBatterIdx();
+            long nextBatterPNo = lineups.attacking(top).batterAt(batterIdx);
+            long pitcherPNo = lineups.defending(top).getPitcherPNo();
+            if (nextBatterPNo == 0 || pitcherPNo == 0) {
+                return createErrorResponse("라인업에서 선수 정보를 찾을 수 없습니다.");
+            }
+
+            SimulationGameStateEntity gameState = gameStateRepo.save(SimulationGameStateEntity.builder()
+                .simulation(fork)
+                .inning(snapshot.getInning())
+                .half(snapshot.getHalf())
+                .outs(0)
+                .homeScore(snapshot.getHomeScore())
+                .awayScore(snapshot.getAwayScore())
+                .homeBatterIdx(snapshot.getHomeBatterIdx())
+                .awayBatterIdx(snapshot.getAwayBatterIdx())
+                .currentPitcherPNo(pitcherPNo)
+                .nextBatterPNo(nextBatterPNo)
+                .gameStatus("PLAYING")
+                .build());
+
+            LiveGameState liveState = liveStateStore.register(gameState);
+            // 박스스코어가 없는 스냅샷이면 첫 타석에서 (공유 구간 포함) 타석 기록으로 재구성
+            if (snapshot.getBoxScore() != null) {
+                liveState.setBoxScore(BoxScore.decode(snapshot.getBoxScore()));
+            }
+            // 분기 시점 스냅샷 (원본 스냅샷 복사, 되감기/재분기 기준)
+            saveSnapshot(liveState, forkAtBatId);
+            simulationActors.create(forkId);
+            quartzScheduler.scheduleGameProgress(forkId);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("status", "success");
+            response.put("message", inning + half + " 시작 시점에서 분기한 게임이 시작되었습니다.");
+            response.put("simulation_id", forkId);
+            response.put("parentSimulationId", parentId);
+            response.put("forkAtBatId", forkAtBatId);
+            response.put("data", SimulationDto.toDto(fork));
+            response.put("gameState", convertGameStateToMap(liveState));
+            liveFeed.publishState(forkId, "start", response);
+            return response;
+
+        } catch (Exception e) {
+            log.error("시뮬레이션 분기 오류: simulationId={}", simulationId, e);
+            return createErrorResponse("시뮬레이션 분기 실패: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 분기 가능한 시점 (이 시뮬레이션의 이닝 초/말 시작 스냅샷)
+     */
+    public Map<String, Object> getSnapshots(Long simulationId) {
+        try {
+            SimulationEntity simulation = simulationRepo.findById(simulationId)
+                .orElseThrow(() -> new RuntimeException("시뮬레이션을 찾을 수 없습니다."));
+
+            List<Map<String, Object>> snapshots = new ArrayList<>();
+            for (SimulationSnapshotEntity snapshot : snapshotRepo.findBySimulation_IdOrderByIdAsc(simulationId)) {
+                Map<String, Object> map = new HashMap<>();
+                map.put("id", snapshot.getId());
+                map.put("inning", snapshot.getInning());
+                map.put("half", snapshot.getHalf());
+                map.put("homeScore", snapshot.getHomeScore());
+                map.put("awayScore", snapshot.getAwayScore());
+                map.put("lastAtBatId", snapshot.getLastAtBatId());
+                map.put("createdAt", snapshot.getCreatedAt());
+                snapshots.add(map);
+            }
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("status", "success");
+            response.put("simulationId", simulationId);
+            response.put("parentSimulationId", simulation.getParentSimulationId());
+            response.put("forkAtBatId", simulation.getForkAtBatId());
+            response.put("snapshots", snapshots);
+            return response;
+
+        } catch (Exception e) {
+            log.error("스냅샷 조회 오류: simulationId={}", simulationId, e);
+            return createErrorResponse("스냅샷 조회 실패: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 하프 이닝 시작 스냅샷 저장 (게임 시작, 이닝 교체, 분기, 스냅샷 없는 되감기)
+     * 저장에 실패해도 게임은 계속 진행한다 (그 이닝에서 분기할 수 없고, 되감기는 타석 기록으로 처리)
+     */
+    private void saveSnapshot(LiveGameState gameState, Long lastAtBatId) {
+        try {
+            BoxScore boxScore = gameState.getBoxScore();
+            snapshotRepo.save(SimulationSnapshotEntity.builder()
+                .simulation(gameState.getSimulation())
+                .inning(gameState.getInning())
+                .half(gameState.getHalf())
+                .homeScore(gameState.getHomeScore())
+                .awayScore(gameState.getAwayScore())
+                .homeBatterIdx(gameState.getHomeBatterIdx())
+                .awayBatterIdx(gameState.getAwayBatterIdx())
+                .lastAtBatId(lastAtBatId)
+                .boxScore(boxScore != null ? boxScore.encode() : null)
+                .build());
+        } catch (Exception e) {
+            log.warn("스냅샷 저장 실패: simulationId={}, {}{}", gameState.getSimulationId(),
+                gameState.getInning(), gameState.getHalf(), e);
+        }
+    }
+
+    /**
+     * 이닝 초/말 시작 스냅샷 조회
+     * 분기 시뮬레이션의 분기 시점 이전 이닝이면 원본을 따라 올라가며 찾는다.
+     */
+    private SimulationSnapshotEntity findSnapshot(SimulationEntity simulation, int inning, String half) {
+        SimulationEntity current = simulation;
+        while (current != null) {
+            SimulationSnapshotEntity snapshot = snapshotRepo
+                .findFirstBySimulation_IdAndInningAndHalfOrderByIdDesc(current.getId(), inning, half).orElse(null);
+            if (snapshot != null) {
+                return snapshot;
+            }
+            SimulationSnapshotEntity origin = snapshotRepo.findFirstBySimulation_IdOrderByIdAsc(current.getId()).orElse(null);
+            if (current.getParentSimulationId() == null || origin == null
+                    || halfIndex(inning, half) >= halfIndex(origin.getInning(), origin.getHalf())) {
+                return null;
+            }
+            current = simulationRepo.findById(current.getParentSimulationId()).orElse(null);
+        }
+        return null;
+    }
+
+    private static int halfIndex(int inning, String half) {
+        return (inning - 1) * 2 + ("말".equals(half) ? 1 : 0);
+    }
+
+    /**
+     * 타석 기록 (발생 순서)
+     * 분기 시뮬레이션은 원본(그 원본까지)과 공유하는 구간을 먼저 읽고 자기 타석을 잇는다.
+     */
+    private List<AtBatEntity> loadAtBatLog(SimulationEntity simulation) {
+        return loadAtBatLog(simulation, null);
+    }
+
+    // lastId까지의 타석 (null이면 전체)
+    private List<AtBatEntity> loadAtBatLog(SimulationEntity simulation, Long lastId) {
+        List<AtBatEntity> atBats = new ArrayList<>();
+        if (simulation.getParentSimulationId() != null && simulation.getForkAtBatId() != null) {
+            simulationRepo.findById(simulation.getParentSimulationId())
+                .ifPresent(parent -> atBats.addAll(loadAtBatLog(parent, simulation.getForkAtBatId())));
+        }
+        // 끝난 시뮬레이션은 보관본이 있으면 보관본에서
+        atBats.addAll(atBatArchiver.load(simulation, lastId));
+        return atBats;
+    }
+
     /**
      * 타석 요청 데이터 구성
      */
-    private Map<String, Object> buildAtBatRequest(SimulationEntity simulation, SimulationGameStateEntity gameState) {
+    private Map<String, Object> buildAtBatRequest(SimulationEntity simulation, LiveGameState gameState) {
         try {
             Map<String, Object> request = new HashMap<>();
             request.put("simulation_id",simulation.getId());
@@ -786,35 +1495,24 @@ public class SimulationService {
             request.put("homeScore", gameState.getHomeScore());
             request.put("awayScore", gameState.getAwayScore());
 
-            // 라인업 정보 파싱
-            ObjectMapper objectMapper = new ObjectMapper();
-            TypeReference<Map<String, Object>> typeRef = new TypeReference<Map<String, Object>>() {};
-            Map<String, Object> homeLineup = objectMapper.readValue(simulation.getHomeLineup(), typeRef);
-            Map<String, Object> awayLineup = objectMapper.readValue(simulation.getAwayLineup(), typeRef);
-
-            // 공격팀과 수비팀 결정
-            boolean isAwayAttacking = "초".equals(gameState.getHalf());
-            Map<String, Object> attackingLineup = isAwayAttacking ? awayLineup : homeLineup;
-            Map<String, Object> defendingLineup = isAwayAttacking ? homeLineup : awayLineup;
+            // 공격팀과 수비팀 결정 (캐시된 라인업)
+            Lineup.Pair lineups = lineupCache.get(simulation);
+            boolean isAwayAttacking = gameState.isTop();
 
             // 현재 타자 정보
             int currentBatterIdx = isAwayAttacking ? gameState.getAwayBatterIdx() : gameState.getHomeBatterIdx();
-            int batterIndex = currentBatterIdx % 9 + 1;
 
             // 라인업에서 선수 번호 추출
-            Object batterObj = attackingLineup.get("batting" + batterIndex);
-            Object pitcherObj = defendingLineup.get("pitcher");
+            long batterPNo = lineups.attacking(isAwayAttacking).batterAt(currentBatterIdx);
+            long pitcherPNo = lineups.defending(isAwayAttacking).getPitcherPNo();
 
-            if (batterObj == null || pitcherObj == null) {
+            if (batterPNo == 0 || pitcherPNo == 0) {
                 throw new RuntimeException("라인업에서 선수 정보를 찾을 수 없습니다.");
             }
 
-            Long batterPNo = Long.valueOf(batterObj.toString());
-            Long pitcherPNo = Long.valueOf(pitcherObj.toString());
-
             // 선수 스탯 정보 추가
-            request.put("batter", getPlayerStatsByPNo(batterPNo));
-            request.put("pitcher", getPlayerStatsByPNo(pitcherPNo));
+            request.put("batter", playerRequestFragment(batterPNo));
+            request.put("pitcher", playerRequestFragment(pitcherPNo));
 
             return request;
 
@@ -825,33 +1523,143 @@ public class SimulationService {
         }
     }
 
+    /**
+     * 타석 예측 (Python /simulate-at-bat 응답과 같은 키로 반환)
+     * - local: JVM 내 ONNX 모델
+     * - matrix: 맞대결 행렬의 상황별 확률에서 추첨 (live-at-bats 설정, 행렬에 없는 선수면 아래로)
+     * - remote: 같은 상황/맞대결의 확률이 캐시에 있으면 캐시된 분포에서 추첨, 없으면 Python 서버 호출 후 확률 저장
+     * 편파 해설/기사 생성은 FastAPI 쪽 기능이므로 FastAPI를 거치지 않은 타석은 LOCAL_PREDICTION으로 표시해 결과 확정 후 따로 요청한다
+     * 비동기로 동작해 FastAPI 호출 시 응답을 기다리는 동안 스레드를 점유하지 않는다
+     * @param precompute 경기 선계산 타석 (FastAPI가 게임 로그/해설/기사를 만들지 않고, 응답에 NARRATION용 요청을 담는다)
+     */
+    private CompletableFuture<Map<String, Object>> predictAtBatAsync(SimulationEntity simulation, LiveGameState gameState,
+                                                                     boolean precompute) {
+        Lineup.Pair lineups = lineupCache.get(simulation);
+        boolean isAwayAttacking = gameState.isTop();
+        int currentBatterIdx = isAwayAttacking ? gameState.getAwayBatterIdx() : gameState.getHomeBatterIdx();
+        long batterPNo = lineups.attacking(isAwayAttacking).batterAt(currentBatterIdx);
+        long pitcherPNo = lineups.defending(isAwayAttacking).getPitcherPNo();
+
+        if (onnxAtBatModel.isEnabled()) {
+            return CompletableFuture.completedFuture(predictAtBatLocally(gameState, batterPNo, pitcherPNo));
+        }
+
+        if (matchupMatrix.servesLiveAtBats()) {
+            double[] probabilities = matchupMatrix.probabilities(batterPNo, pitcherPNo, gameState.basesMask(), gameState.getOuts());
+            if (probabilities != null) {
+                return CompletableFuture.completedFuture(sampledAtBatResult(probabilities, batterPNo, pitcherPNo));
+            }
+        }
+
+        long cacheKey = AtBatPredictionCache.key(batterPNo, pitcherPNo, gameState);
+        double[] cached = predictionCache.get(cacheKey);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(sampledAtBatResult(cached, batterPNo, pitcherPNo));
+        }
+
+        long generation = predictionCache.generation();
+        Map<String, Object> request = buildAtBatRequest(simulation, gameState);
+        if (precompute) {
+            request.put("precompute", true);
+        }
+        return callPythonAtBat(request, !precompute && spectatorPresence.isWatched(simulation.getId())).thenApply(result -> {
+            if (!isErrorResponse(result)) {
+                predictionCache.put(cacheKey, result.get("probabilities"), generation);
+                if (precompute) {
+                    result.put(NARRATION, request);
+                }
+                return result;
+            }
+            // 선계산은 실패를 그대로 돌려줘 TimelinePrecomputer가 재시도/포기를 판단 (리그 평균 결과로 경기 전체를 채우지 않도록)
+            if (precompute || !inferenceGuard.isEnabled()) {
+                return result;
+            }
+            // FastAPI를 쓸 수 없으면 맞대결 행렬(행렬에 없으면 리그 평균) 결과표로 진행 (캐시하지 않음)
+            inferenceGuard.recordDegraded();
+            double[] fallback = matchupMatrix.probabilities(batterPNo, pitcherPNo, gameState.basesMask(), gameState.getOuts());
+            if (fallback == null) {
+                fallback = inferenceGuard.leagueAverage(gameState.basesMask(), gameState.getOuts());
+            }
+            Map<String, Object> degraded = sampledAtBatResult(fallback, batterPNo, pitcherPNo);
+            degraded.put("degraded", true);
+            return degraded;
+        });
+    }
+
+    /**
+     * JVM 내 ONNX 모델로 타석 예측
+     */
+    private Map<String, Object> predictAtBatLocally(LiveGameState gameState, long batterPNo, long pitcherPNo) {
+        try {
+            PlayerStatsSnapshot batter = batterPNo != 0 ? playerStats.get(batterPNo) : null;
+            PlayerStatsSnapshot pitcher = pitcherPNo != 0 ? playerStats.get(pitcherPNo) : null;
+            if (batter == null || pitcher == null) {
+                return createErrorResponse("라인업에서 선수 정보를 찾을 수 없습니다.");
+            }
+            return sampledAtBatResult(onnxAtBatModel.probabilities(gameState, batter, pitcher), batterPNo, pitcherPNo);
+
+        } catch (Exception e) {
+            log.error("JVM 내 타석 예측 실패: {}", e.getMessage());
+            return createErrorResponse("타석 예측 실패: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 결과별 확률에서 타석 결과를 추첨해 예측 응답 구성
+     */
+    private Map<String, Object> sampledAtBatResult(double[] probabilities, long batterPNo, long pitcherPNo) {
+        AtBatOutcome outcome = AtBatOutcome.sample(probabilities, ThreadLocalRandom.current());
+        Map<String, Object> result = new HashMap<>();
+        result.put("result_korean", outcome.getKorean());
+        result.put("probabilities", AtBatOutcome.probabilityMap(probabilities));
+        result.put("batter_p_no", batterPNo);
+        result.put("pitcher_p_no", pitcherPNo);
+        result.put(LOCAL_PREDICTION, true);
+        return result;
+    }
+
+    /**
+     * Python 서버로 타석 예측 요청 (응답이 오면 완료되는 future, 실패는 에러 응답으로 완료)
+     * 배치 요청기를 우선 사용하고, 배치로 처리되지 못하면 단건 호출로 대체 (단건 호출은 전용 스레드에서)
+     * @param watched 관전 중인 게임 (배치에서 먼저 보냄)
+     */
+    private CompletableFuture<Map<String, Object>> callPythonAtBat(Map<String, Object> request, boolean watched) {
+        if (!atBatBatcher.isEnabled()) {
+            return CompletableFuture.supplyAsync(() -> callPythonSingleAtBat(request), simulationActors.blockingExecutor());
+        }
+        return atBatBatcher.submit(request, watched)
+            .orTimeout(atBatTimeoutMs, TimeUnit.MILLISECONDS)
+            .exceptionallyCompose(e -> {
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                if (cause instanceof AtBatBatcher.BatchUnavailableException) {
+                    atBatBatcher.recordFallback();
+                    return CompletableFuture.supplyAsync(() -> callPythonSingleAtBat(request), simulationActors.blockingExecutor());
+                }
+                if (cause instanceof TimeoutException) {
+                    // 배치가 늦게라도 처리될 수 있으므로 단건 재호출 없이 다음 타석 주기에 재시도
+                    log.error("Python 배치 타석 응답 시간 초과: simulationId={}", request.get("simulation_id"));
+                    return CompletableFuture.completedFuture(createErrorResponse("Python 서버 응답 시간 초과"));
+                }
+                log.error("Python 배치 타석 호출 실패: {}", cause.getMessage());
+                return CompletableFuture.completedFuture(createErrorResponse("Python 서버 호출 실패: " + cause.getMessage()));
+            });
+    }
+
     /**
      * Python 서버로 단일 타석 예측 요청
      */
     private Map<String, Object> callPythonSingleAtBat(Map<String, Object> request) {
         try {
-            String pythonServerUrl = fastapiServerUrl + "/simulate-at-bat";
-            
             log.info("Python 서버로 타석 요청 전송: {}", request);
 
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-
-            HttpEntity<Map<String, Object>> requestEntity = new HttpEntity<>(request, headers);
+            Map<String, Object> body = inferenceGuard.post(AtBatInferenceGuard.SINGLE, request);
 
-            @SuppressWarnings("rawtypes")
-            ResponseEntity<Map> response = restTemplate.postForEntity(
-                pythonServerUrl,
-                requestEntity,
-                Map.class
-            );
-
-            @SuppressWarnings("unchecked")
-            Map<String, Object> body = (Map<String, Object>) response.getBody();
-            
             log.info("Python 서버 응답 수신: {}", body);
             return body;
 
+        } catch (AtBatInferenceGuard.InferenceUnavailableException e) {
+            log.warn("Python 타석 호출 불가: {}", e.getMessage());
+            return createErrorResponse(e.getMessage());
         } catch (Exception e) {
             log.error("Python 완전한 시뮬레이션 호출 실패: {}", e.getMessage());
             e.printStackTrace();
@@ -860,99 +1668,120 @@ public class SimulationService {
     }
 
     /**
-     * Python에서 계산된 게임 상태를 DB에 반영
+     * 타석 결과를 메모리 게임 상태에 반영 (주루/아웃/이닝 교체/경기 종료는 AtBatRules)
      * @param wasAwayAttacking 타석 시작 시점에 어웨이팀이 공격했는지 여부
      * @param simulation 시뮬레이션 정보 (라인업 조회용)
      */
-    private void updateGameStateFromPython(SimulationGameStateEntity gameState, Map<String, Object> pythonResult, boolean wasAwayAttacking, SimulationEntity simulation) {
-        try {
-            Object newGameStateObj = pythonResult.get("new_game_state");
-            if (!(newGameStateObj instanceof Map)) {
-                System.err.println("❌ new_game_state가 Map 타입이 아닙니다.");
-                return;
+    private void applyAtBatResult(LiveGameState gameState, AtBatOutcome outcome, long batterPNo, Map<String, Object> pythonResult,
+                                  boolean wasAwayAttacking, SimulationEntity simulation, AtBatRules.Transition transition) {
+        synchronized (gameState) {
+            boolean advance = groundOutAdvance(gameState, outcome, pythonResult);
+            AtBatRules.resolve(gameState, outcome, batterPNo, advance, transition);
+
+            // 타자 순번 증가
+            if (wasAwayAttacking) {
+                gameState.setAwayBatterIdx((gameState.getAwayBatterIdx() + 1) % 9);
+            } else {
+                gameState.setHomeBatterIdx((gameState.getHomeBatterIdx() + 1) % 9);
             }
-            @SuppressWarnings("unchecked")
-            Map<String, Object> newGameState = (Map<String, Object>) newGameStateObj;
-
-            if (newGameState != null) {
-                gameState.setInning((Integer) newGameState.get("inning"));
-                gameState.setHalf((String) newGameState.get("half"));
-                gameState.setOuts((Integer) newGameState.get("outs"));
-                gameState.setHomeScore((Integer) newGameState.get("homeScore"));
-                gameState.setAwayScore((Integer) newGameState.get("awayScore"));
-
-                // 베이스 정보 안전하게 변환 (Python에서 Integer로 올 수 있음)
-                gameState.setBase1(convertToLong(newGameState.get("base1")));
-                gameState.setBase2(convertToLong(newGameState.get("base2")));
-                gameState.setBase3(convertToLong(newGameState.get("base3")));
-
-                // 타자 순번 증가
-                if (wasAwayAttacking) {
-                    int nextIdx = (gameState.getAwayBatterIdx() + 1) % 9;
-                    gameState.setAwayBatterIdx(nextIdx);
-                } else {
-                    int nextIdx = (gameState.getHomeBatterIdx() + 1) % 9;
-                    gameState.setHomeBatterIdx(nextIdx);
-                }
-
-                // 게임 종료 처리
-                Boolean gameEnded = (Boolean) pythonResult.getOrDefault("game_ended", false);
-                if (gameEnded) {
-                    gameState.setGameStatus("FINISHED");
-                    gameState.setWinner((String) pythonResult.get("winner"));
-                    // 게임 종료 시 다음 타자/투수 정보 초기화
-                    gameState.setNextBatterPNo(null);
-                    gameState.setCurrentPitcherPNo(null);
-                    
-                    // 종료되었는데 종료 처리 안되었을 경우, simulation 수정
-                    if (Boolean.FALSE.equals(simulation.getIsFinished())) {
-                        simulation.setIsFinished(true);
-                        simulationRepo.save(simulation);
-                    }
-                } else {
-                    // 🆕 다음 타자/투수 정보 계산 (게임이 진행 중일 때만)
-                    calculateAndSetNextBatterPitcher(gameState, simulation);
-                }
 
-                gameState.setUpdatedAt(LocalDateTime.now());
-                gameStateRepo.save(gameState);
+            // 게임 종료 처리
+            if (transition.isGameEnded()) {
+                gameState.setGameStatus("FINISHED");
+                gameState.setWinner(transition.getWinner());
+                // 게임 종료 시 다음 타자/투수 정보 초기화
+                gameState.setNextBatterPNo(null);
+                gameState.setCurrentPitcherPNo(null);
+            } else {
+                // 🆕 다음 타자/투수 정보 계산 (게임이 진행 중일 때만)
+                calculateAndSetNextBatterPitcher(gameState, simulation);
             }
 
+            gameState.setUpdatedAt(LocalDateTime.now());
+        }
+    }
+
+    /**
+     * 2루 주자만 있을 때 땅볼 아웃 진루 여부
+     * Python이 같은 타석을 처리한 결과가 있으면 그 결과를 따르고(기사/로그와 일치), 없으면 직접 추첨
+     */
+    private boolean groundOutAdvance(LiveGameState gameState, AtBatOutcome outcome, Map<String, Object> pythonResult) {
+        if (outcome != AtBatOutcome.GROUND_OUT || gameState.basesMask() != 0b010) {
+            return false;
+        }
+        Object newGameStateObj = pythonResult.get("new_game_state");
+        if (newGameStateObj instanceof Map) {
+            Map<?, ?> newGameState = (Map<?, ?>) newGameStateObj;
+            if (newGameState.get("base3") != null) return true;
+            if (newGameState.get("base2") != null) return false;
+        }
+        return AtBatRules.rollGroundOutAdvance(ThreadLocalRandom.current());
+    }
+
+    /**
+     * 게임 상태 변경 확정 (DB는 write-behind, 게임 종료 시 즉시 반영)
+     */
+    private void commitGameState(LiveGameState gameState, AtBatRules.Transition transition, SimulationEntity simulation) {
+        liveStateStore.markDirty(gameState);
+
+        if (transition.isGameEnded()) {
+            // 게임 종료는 즉시 DB 반영 후 메모리에서 제거 (타석 기록, 박스스코어 포함)
+            // 단계마다 따로 처리: 한 단계가 실패해도 나머지 정리와 종료 표시는 항상 수행
+            Long simulationId = gameState.getSimulationId();
+            // 실패해도 남은 기록은 writer에 남아 재시도된다
+            gameEndStep("타석 기록 저장", simulationId, () -> atBatWriter.flush(simulationId));
+            gameEndStep("박스스코어 저장", simulationId, () -> saveBoxScore(gameState));
+            // 실패하면 메모리에 남아 다음 write-behind flush에서 다시 저장된다
+            gameEndStep("게임 상태 저장", simulationId, () -> liveStateStore.flushAndEvict(simulationId));
+            gameEndStep("라인업 캐시 정리", simulationId, () -> lineupCache.invalidate(simulationId));
+            gameEndStep("선계산 정리", simulationId, () -> timelinePrecomputer.discard(simulationId));
+            gameEndStep("액터 정리", simulationId, () -> simulationActors.discard(simulationId));
+            // 종료되었는데 종료 처리 안되었을 경우, simulation 수정
+            gameEndStep("종료 표시", simulationId, () -> markSimulationFinished(simulation));
+        }
+    }
+
+    // 게임 종료 처리 한 단계 (실패는 로그만 남기고 다음 단계 진행)
+    private void gameEndStep(String step, Long simulationId, Runnable action) {
+        try {
+            action.run();
         } catch (Exception e) {
-            System.err.println("❌ Python 결과로 게임 상태 업데이트 오류: " + e.getMessage());
-            e.printStackTrace();
+            log.error("게임 종료 {} 오류: simulationId={}", step, simulationId, e);
         }
     }
 
+    /**
+     * 타석 후 게임 상태 (응답용)
+     */
+    private Map<String, Object> newGameStateMap(LiveGameState gameState, AtBatRules.Transition transition) {
+        Map<String, Object> newGameState = new HashMap<>();
+        newGameState.put("inning", gameState.getInning());
+        newGameState.put("half", gameState.getHalf());
+        newGameState.put("outs", gameState.getOuts());
+        newGameState.put("homeScore", gameState.getHomeScore());
+        newGameState.put("awayScore", gameState.getAwayScore());
+        newGameState.put("base1", gameState.getBase1());
+        newGameState.put("base2", gameState.getBase2());
+        newGameState.put("base3", gameState.getBase3());
+        newGameState.put("inning_changed", transition.isInningChanged());
+        return newGameState;
+    }
+
     /**
      * 🆕 다음 타자/투수 정보를 계산하여 gameState에 설정
      */
-    private void calculateAndSetNextBatterPitcher(SimulationGameStateEntity gameState, SimulationEntity simulation) {
+    private void calculateAndSetNextBatterPitcher(LiveGameState gameState, SimulationEntity simulation) {
         try {
-            // 라인업 정보 파싱
-            ObjectMapper objectMapper = new ObjectMapper();
-            TypeReference<Map<String, Object>> typeRef = new TypeReference<Map<String, Object>>() {};
-            Map<String, Object> homeLineup = objectMapper.readValue(simulation.getHomeLineup(), typeRef);
-            Map<String, Object> awayLineup = objectMapper.readValue(simulation.getAwayLineup(), typeRef);
-
-            // 현재 공격팀/수비팀 결정
-            boolean isAwayAttacking = "초".equals(gameState.getHalf());
-            Map<String, Object> attackingLineup = isAwayAttacking ? awayLineup : homeLineup;
-            Map<String, Object> defendingLineup = isAwayAttacking ? homeLineup : awayLineup;
+            // 현재 공격팀/수비팀 결정 (캐시된 라인업)
+            Lineup.Pair lineups = lineupCache.get(simulation);
+            boolean isAwayAttacking = gameState.isTop();
 
             // 다음 타자 계산
             int nextBatterIdx = isAwayAttacking ? gameState.getAwayBatterIdx() : gameState.getHomeBatterIdx();
-            int nextBatterOrder = (nextBatterIdx % 9) + 1;
-            Object nextBatterObj = attackingLineup.get("batting" + nextBatterOrder);
-            Long nextBatterPNo = nextBatterObj != null ? Long.valueOf(nextBatterObj.toString()) : null;
 
-            // 현재 투수 (교체가 없다면 동일)
-            Object pitcherObj = defendingLineup.get("pitcher");
-            Long currentPitcherPNo = pitcherObj != null ? Long.valueOf(pitcherObj.toString()) : null;
-
-            // gameState에 설정
-            gameState.setNextBatterPNo(nextBatterPNo);
-            gameState.setCurrentPitcherPNo(currentPitcherPNo);
+            // gameState에 설정 (현재 투수는 교체가 없다면 동일, 0 = 없음)
+            gameState.setNextBatterPNo(lineups.attacking(isAwayAttacking).batterAt(nextBatterIdx));
+            gameState.setCurrentPitcherPNo(lineups.defending(isAwayAttacking).getPitcherPNo());
 
         } catch (Exception e) {
             System.err.println("❌ 다음 타자/투수 정보 계산 오류: " + e.getMessage());
@@ -963,124 +1792,171 @@ public class SimulationService {
 
 
     /**
-     * Python에서 계산된 타석 결과를 DB에 저장
+     * 타석 기록 시작 (타석 전 상황)
      */
-    private Long saveAtBatResultFromPython(Long simulationId, SimulationGameStateEntity gameState, Map<String, Object> pythonResult, int battingOrder) {
-        try {
-            // SimulationEntity 조회
-            SimulationEntity simulation = simulationRepo.findById(simulationId)
-                .orElseThrow(() -> new RuntimeException("시뮬레이션을 찾을 수 없습니다."));
-
-            // 선수 정보 가져오기
-            Long batterPNo = Long.valueOf(pythonResult.get("batter_p_no").toString());
-            Long pitcherPNo = Long.valueOf(pythonResult.get("pitcher_p_no").toString());
-
-            // Map<String, Object> batterInfo = getPlayerStatsByPNo(batterPNo);
-            //Map<String, Object> pitcherInfo = getPlayerStatsByPNo(pitcherPNo);
-
-            // 이닝 정보 구성
-            String inningHalf = String.valueOf(gameState.getInning()) +
-                               (gameState.getHalf() != null ? gameState.getHalf() : "초");
-
-            // Python에서 반환한 타석 후 상태 추출
-            @SuppressWarnings("unchecked")
-            Map<String, Object> newGameState = (Map<String, Object>) pythonResult.get("new_game_state");
-
-            // probabilities를 JSON 문자열로 변환
-            String probabilitiesJson = null;
-            if (pythonResult.containsKey("probabilities")) {
-                try {
-                    ObjectMapper objectMapper = new ObjectMapper();
-                    probabilitiesJson = objectMapper.writeValueAsString(pythonResult.get("probabilities"));
-                } catch (Exception e) {
-                    System.err.println("⚠️ probabilities JSON 변환 실패: " + e.getMessage());
-                }
+    private AtBatEntity.AtBatEntityBuilder beginAtBatRecord(SimulationEntity simulation, LiveGameState gameState,
+                                                            Long batterPNo, Long pitcherPNo, int battingOrder,
+                                                            Map<String, Object> pythonResult) {
+        // 이닝 정보 구성
+        String inningHalf = String.valueOf(gameState.getInning()) + gameState.getHalf();
+
+        // probabilities를 JSON 문자열로 변환
+        String probabilitiesJson = null;
+        if (pythonResult.containsKey("probabilities")) {
+            try {
+                probabilitiesJson = objectMapper.writeValueAsString(pythonResult.get("probabilities"));
+            } catch (Exception e) {
+                System.err.println("⚠️ probabilities JSON 변환 실패: " + e.getMessage());
             }
+        }
 
-            AtBatEntity atBat = AtBatEntity.builder()
-                .simulation(simulation)
-                .inningHalf(inningHalf)
-                .pitcherPNo(pitcherPNo)
-                .batterPNo(batterPNo)
-                .battingOrder(battingOrder)
-                .prevScoreHome(gameState.getHomeScore())
-                .prevScoreAway(gameState.getAwayScore())
-                .prevOuts(gameState.getOuts())
-                .prevBase1(gameState.getBase1())
-                .prevBase2(gameState.getBase2())
-                .prevBase3(gameState.getBase3())
-                .result((String) pythonResult.get("result"))
-                .resultKorean((String) pythonResult.get("result_korean"))
-                .rbi((Integer) pythonResult.getOrDefault("rbi", 0))
-                .newScoreHome((Integer) newGameState.get("homeScore"))
-                .newScoreAway((Integer) newGameState.get("awayScore"))
-                .newOuts((Integer) newGameState.get("outs"))
-                .newBase1(convertToLong(newGameState.get("base1")))
-                .newBase2(convertToLong(newGameState.get("base2")))
-                .newBase3(convertToLong(newGameState.get("base3")))
-                .probabilities(probabilitiesJson)
-                .build();
+        return AtBatEntity.builder()
+            .simulation(simulation)
+            .inningHalf(inningHalf)
+            .pitcherPNo(pitcherPNo)
+            .batterPNo(batterPNo)
+            .battingOrder(battingOrder)
+            .prevScoreHome(gameState.getHomeScore())
+            .prevScoreAway(gameState.getAwayScore())
+            .prevOuts(gameState.getOuts())
+            .prevBase1(gameState.getBase1())
+            .prevBase2(gameState.getBase2())
+            .prevBase3(gameState.getBase3())
+            .probabilities(probabilitiesJson);
+    }
 
-            AtBatEntity savedAtBat = atBatRepo.save(atBat);
-            return savedAtBat.getId();
+    /**
+     * 타석 기록 저장 (타석 후 상황)
+     */
+    private Long saveAtBatResult(AtBatEntity.AtBatEntityBuilder atBat, AtBatOutcome outcome,
+                                 LiveGameState gameState, AtBatRules.Transition transition) {
+        try {
+            atBat.result(outcome.getCode())
+                .resultKorean(outcome.getKorean())
+                .rbi(transition.getRuns())
+                .newScoreHome(gameState.getHomeScore())
+                .newScoreAway(gameState.getAwayScore())
+                .newOuts(gameState.getOuts())
+                .newBase1(gameState.getBase1())
+                .newBase2(gameState.getBase2())
+                .newBase3(gameState.getBase3());
+
+            // ID는 reserve에서 부여, INSERT는 다른 게임의 타석과 묶어서 배치로 (write-behind)
+            return atBatWriter.write(atBat.build());
 
         } catch (Exception e) {
-            System.err.println("❌ Python 타석 기록 저장 오류: " + e.getMessage());
+            System.err.println("❌ 타석 기록 저장 오류: " + e.getMessage());
             e.printStackTrace();
             return null;
         }
     }
 
     /**
-     * 게임 상태를 Map으로 변환
+     * 시뮬레이션 종료 표시 (아직 표시되지 않은 경우에만 저장)
      */
-    private Map<String, Object> convertGameStateToMap(SimulationGameStateEntity gameState) {
+    private void markSimulationFinished(SimulationEntity simulation) {
+        if (Boolean.FALSE.equals(simulation.getIsFinished())) {
+            simulation.setIsFinished(true);
+            simulationRepo.save(simulation);
+        }
+    }
+
+    /**
+     * 게임 상태를 Map으로 변환 (마지막으로 확정된 버전 기준)
+     */
+    private Map<String, Object> convertGameStateToMap(LiveGameState gameState) {
+        return versionToMap(gameState.getEpoch(), gameState.currentVersion());
+    }
+
+    /**
+     * 확정된 버전의 전체 게임 상태
+     */
+    private Map<String, Object> versionToMap(long epoch, LiveGameState.Version state) {
         Map<String, Object> map = new HashMap<>();
-        map.put("inning", gameState.getInning());
-        map.put("half", gameState.getHalf());
-        map.put("outs", gameState.getOuts());
-        map.put("base1", gameState.getBase1());
-        map.put("base2", gameState.getBase2());
-        map.put("base3", gameState.getBase3());
-        map.put("homeScore", gameState.getHomeScore());
-        map.put("awayScore", gameState.getAwayScore());
-        map.put("homeBatterIdx", gameState.getHomeBatterIdx());
-        map.put("awayBatterIdx", gameState.getAwayBatterIdx());
-        map.put("gameStatus", gameState.getGameStatus());
-        map.put("winner", gameState.getWinner());
+        map.put("epoch", epoch);
+        map.put("version", state.getVersion());
+        map.put("inning", state.getInning());
+        map.put("half", state.getHalf());
+        map.put("outs", state.getOuts());
+        map.put("base1", state.getBase1());
+        map.put("base2", state.getBase2());
+        map.put("base3", state.getBase3());
+        map.put("bases", state.basesMask());
+        map.put("homeScore", state.getHomeScore());
+        map.put("awayScore", state.getAwayScore());
+        map.put("homeBatterIdx", state.getHomeBatterIdx());
+        map.put("awayBatterIdx", state.getAwayBatterIdx());
+        map.put("gameStatus", state.getGameStatus());
+        map.put("winner", state.getWinner());
 
         // 🆕 다음 타자/현재 투수 정보 추가
-        map.put("nextBatterPNo", gameState.getNextBatterPNo());
-        map.put("currentPitcherPNo", gameState.getCurrentPitcherPNo());
-
-        // 🆕 선수 이름 정보 추가
-        if (gameState.getNextBatterPNo() != null) {
-            Map<String, Object> batterInfo = getPlayerStatsByPNo(gameState.getNextBatterPNo());
-            if (batterInfo != null) {
-                map.put("nextBatterName", batterInfo.get("player_name"));
-                // 타자 타율도 추가
-                if (batterInfo.containsKey("batting_stats")) {
-                    @SuppressWarnings("unchecked")
-                    Map<String, Object> battingStats = (Map<String, Object>) batterInfo.get("batting_stats");
-                    map.put("nextBatterAvg", battingStats.getOrDefault("b_AVG", 0.0));
-                }
-            }
+        map.put("nextBatterPNo", state.getNextBatterPNo());
+        map.put("currentPitcherPNo", state.getCurrentPitcherPNo());
+        putNextBatterInfo(map, state.getNextBatterPNo());
+        putPitcherInfo(map, state.getCurrentPitcherPNo());
+
+        return map;
+    }
+
+    /**
+     * 두 버전 사이에 바뀐 필드만 (주자는 비트마스크, 선수가 바뀌면 이름/기록 포함)
+     */
+    private Map<String, Object> versionDelta(long epoch, LiveGameState.Version from, LiveGameState.Version to) {
+        Map<String, Object> delta = new HashMap<>();
+        delta.put("epoch", epoch);
+        delta.put("from", from.getVersion());
+        delta.put("version", to.getVersion());
+        if (from.getInning() != to.getInning()) delta.put("inning", to.getInning());
+        if (from.isTop() != to.isTop()) delta.put("half", to.getHalf());
+        if (from.getOuts() != to.getOuts()) delta.put("outs", to.getOuts());
+        if (!Objects.equals(from.getBase1(), to.getBase1()) || !Objects.equals(from.getBase2(), to.getBase2())
+                || !Objects.equals(from.getBase3(), to.getBase3())) {
+            delta.put("bases", to.basesMask());
+        }
+        if (from.getHomeScore() != to.getHomeScore()) delta.put("homeScore", to.getHomeScore());
+        if (from.getAwayScore() != to.getAwayScore()) delta.put("awayScore", to.getAwayScore());
+        if (from.getHomeBatterIdx() != to.getHomeBatterIdx()) delta.put("homeBatterIdx", to.getHomeBatterIdx());
+        if (from.getAwayBatterIdx() != to.getAwayBatterIdx()) delta.put("awayBatterIdx", to.getAwayBatterIdx());
+        if (!Objects.equals(from.getGameStatus(), to.getGameStatus())) delta.put("gameStatus", to.getGameStatus());
+        if (!Objects.equals(from.getWinner(), to.getWinner())) delta.put("winner", to.getWinner());
+        if (!Objects.equals(from.getNextBatterPNo(), to.getNextBatterPNo())) {
+            delta.put("nextBatterPNo", to.getNextBatterPNo());
+            putNextBatterInfo(delta, to.getNextBatterPNo());
         }
+        if (!Objects.equals(from.getCurrentPitcherPNo(), to.getCurrentPitcherPNo())) {
+            delta.put("currentPitcherPNo", to.getCurrentPitcherPNo());
+            putPitcherInfo(delta, to.getCurrentPitcherPNo());
+        }
+        return delta;
+    }
 
-        if (gameState.getCurrentPitcherPNo() != null) {
-            Map<String, Object> pitcherInfo = getPlayerStatsByPNo(gameState.getCurrentPitcherPNo());
-            if (pitcherInfo != null) {
-                map.put("currentPitcherName", pitcherInfo.get("player_name"));
-                // 투수 ERA도 추가
-                if (pitcherInfo.containsKey("pitching_stats")) {
-                    @SuppressWarnings("unchecked")
-                    Map<String, Object> pitchingStats = (Map<String, Object>) pitcherInfo.get("pitching_stats");
-                    map.put("currentPitcherERA", pitchingStats.getOrDefault("p_ERA", 0.0));
-                }
+    // 🆕 선수 이름 정보 추가
+    private void putNextBatterInfo(Map<String, Object> map, Long batterPNo) {
+        if (batterPNo == null) {
+            return;
+        }
+        PlayerStatsSnapshot batterInfo = playerStats.get(batterPNo);
+        if (batterInfo != null) {
+            map.put("nextBatterName", batterInfo.getPlayerName());
+            // 타자 타율도 추가
+            if (batterInfo.isBatter()) {
+                map.put("nextBatterAvg", batterInfo.displayAvg());
             }
         }
+    }
 
-        return map;
+    private void putPitcherInfo(Map<String, Object> map, Long pitcherPNo) {
+        if (pitcherPNo == null) {
+            return;
+        }
+        PlayerStatsSnapshot pitcherInfo = playerStats.get(pitcherPNo);
+        if (pitcherInfo != null) {
+            map.put("currentPitcherName", pitcherInfo.getPlayerName());
+            // 투수 ERA도 추가
+            if (pitcherInfo.isPitcher()) {
+                map.put("currentPitcherERA", pitcherInfo.displayEra());
+            }
+        }
     }
 
 }
@@ -0,0 +1,73 @@
+package com.ict.springboot.service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.stereotype.Service;
+
+import com.ict.springboot.websocket.WebSocketServer;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 게임별 관전자 수 (웹소켓 채팅 세션 + SSE 중계 구독자)
+ * - 게임 루프는 관전자가 있는 게임만 실시간 간격으로 진행하고, 관전자가 없는 게임은 몰아서 진행한다
+ * - 타석 예측 배치는 관전자가 있는 게임의 요청을 먼저 보낸다
+ * - 집계는 두 쪽의 세션 맵을 그때그때 세는 것이라 별도 상태를 두지 않는다
+ */
+@Service
+@RequiredArgsConstructor
+public class SpectatorPresence {
+
+    private final WebSocketServer webSocketServer;
+    private final SimulationLiveFeed liveFeed;
+
+    public int viewers(Long simulationId) {
+        return webSocketServer.countOpenSessions(simulationId) + liveFeed.subscriberCount(simulationId);
+    }
+
+    public boolean isWatched(Long simulationId) {
+        return liveFeed.subscriberCount(simulationId) > 0 || webSocketServer.countOpenSessions(simulationId) > 0;
+    }
+
+    /**
+     * 게임 하나의 관전자 수
+     */
+    public Map<String, Object> presence(Long simulationId) {
+        int websocket = webSocketServer.countOpenSessions(simulationId);
+        int sse = liveFeed.subscriberCount(simulationId);
+        return presenceOf(simulationId, websocket, sse);
+    }
+
+    /**
+     * 관전자가 있는 모든 게임 (관전자 많은 순)
+     */
+    public List<Map<String, Object>> watchedGames() {
+        Map<Long, Integer> websocketCounts = webSocketServer.openSessionCounts();
+        Map<Long, Integer> sseCounts = liveFeed.subscriberCounts();
+        Set<Long> simulationIds = new HashSet<>(websocketCounts.keySet());
+        simulationIds.addAll(sseCounts.keySet());
+
+        List<Map<String, Object>> games = new ArrayList<>();
+        for (Long simulationId : simulationIds) {
+            games.add(presenceOf(simulationId,
+                websocketCounts.getOrDefault(simulationId, 0), sseCounts.getOrDefault(simulationId, 0)));
+        }
+        games.sort((a, b) -> Integer.compare((Integer) b.get("viewers"), (Integer) a.get("viewers")));
+        return games;
+    }
+
+    private static Map<String, Object> presenceOf(Long simulationId, int websocket, int sse) {
+        Map<String, Object> presence = new LinkedHashMap<>();
+        presence.put("simulationId", simulationId);
+        presence.put("websocket", websocket);
+        presence.put("sse", sse);
+        presence.put("viewers", websocket + sse);
+        presence.put("watched", websocket + sse > 0);
+        return presence;
+    }
+}
@@ -0,0 +1,336 @@
+package com.ict.springboot.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+import com.ict.springboot.entity.SimulationEntity;
+import com.ict.springboot.repository.SimulationRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 경기 선계산(precompute-and-drip)
+ * - 경기 시작(showAt) 몇 분 전 Quartz Job이 등록하면, 백그라운드에서 경기 전체를 가능한 한 빨리 시뮬레이션해
+ *   타석별 예측 결과를 타임라인으로 보관한다
+ * - 실제 경기는 기존대로 GameLoopEngine이 타석 간격마다 진행하되, 타석 예측 대신 타임라인의 다음 타석을 꺼내 쓴다
+ *   (AT_BATS 저장/게임 상태/시청자 전송은 실시간 경로와 같다)
+ * - 선계산 요청은 FastAPI에서 게임 로그/편파 해설/기사를 만들지 않고(precompute), 타석을 꺼내 쓸 때 해설 요청(narrate)을 보낸다
+ * - 동시에 선계산하는 경기 수를 max-concurrent로 제한해 FastAPI 추론 부하를 시간에 걸쳐 분산
+ * - 타임라인과 실제 상황이 어긋나거나(재시작 복구 등) 진행이 선계산을 따라잡으면 타임라인을 버리고 실시간 예측으로 진행
+ */
+@Service
+@Slf4j
+public class TimelinePrecomputer {
+
+    // SimulationService -> TimelinePrecomputer -> SimulationService 순환 참조 방지
+    @Autowired
+    @Lazy
+    private SimulationService simulationService;
+
+    private final SimulationRepository simulationRepo;
+
+    @Value("${simulation.precompute.enabled:false}")
+    private boolean enabled;
+
+    @Value("${simulation.precompute.lead-minutes:3}")
+    private int leadMinutes;
+
+    @Value("${simulation.precompute.max-concurrent:2}")
+    private int maxConcurrent;
+
+    @Value("${simulation.precompute.max-retries:3}")
+    private int maxRetries;
+
+    @Value("${simulation.precompute.retry-delay-ms:2000}")
+    private long retryDelayMs;
+
+    @Value("${simulation.precompute.max-at-bats:400}")
+    private int maxAtBats;
+
+    // simulationId -> 선계산 타임라인
+    private final Map<Long, Timeline> timelines = new ConcurrentHashMap<>();
+
+    private ExecutorService pool;
+
+    // 지표
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong abandoned = new AtomicLong();
+    private final AtomicLong computedAtBats = new AtomicLong();
+    private final AtomicLong servedAtBats = new AtomicLong();
+    private final AtomicLong totalComputeMs = new AtomicLong();
+
+    public TimelinePrecomputer(SimulationRepository simulationRepo) {
+        this.simulationRepo = simulationRepo;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        AtomicInteger workerSeq = new AtomicInteger();
+        pool = Executors.newFixedThreadPool(Math.max(1, maxConcurrent), r -> {
+            Thread t = new Thread(r, "timeline-precompute-" + workerSeq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        log.info("경기 선계산 사용: {}분 전 시작, 동시 {}경기", leadMinutes, maxConcurrent);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+        // 메모리 타임라인은 재시작 후 사용할 수 없으므로 남은 경기는 실시간 예측으로 진행
+        timelines.values().forEach(timeline -> timeline.status = Status.ABANDONED);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 경기 시작 몇 분 전에 선계산을 시작할지
+     */
+    public int getLeadMinutes() {
+        return leadMinutes;
+    }
+
+    /**
+     * 선계산 등록 (이미 등록된 경기면 무시)
+     */
+    public boolean submit(Long simulationId) {
+        if (!enabled) {
+            return false;
+        }
+        Timeline timeline = new Timeline(simulationId);
+        if (timelines.putIfAbsent(simulationId, timeline) != null) {
+            return false;
+        }
+        submitted.incrementAndGet();
+        pool.execute(() -> compute(timeline));
+        return true;
+    }
+
+    /**
+     * 다음 타석의 선계산 결과 (Python /simulate-at-bat 응답과 같은 형태, 없으면 null → 실시간 예측)
+     * 현재 상황이 타임라인의 타석 전 상황과 다르면 타임라인을 버린다.
+     */
+    public Map<String, Object> next(Long simulationId, LiveGameState state) {
+        Timeline timeline = timelines.get(simulationId);
+        if (timeline == null) {
+            return null;
+        }
+        Entry entry;
+        synchronized (timeline) {
+            if (timeline.cursor >= timeline.entries.size()) {
+                abandon(timeline, timeline.status == Status.RUNNING
+                    ? "경기 진행이 선계산을 따라잡음" : "타임라인 종료 후 추가 타석");
+                return null;
+            }
+            entry = timeline.entries.get(timeline.cursor);
+            if (entry.situation != situation(state)) {
+                abandon(timeline, "타석 전 상황 불일치 (" + timeline.cursor + "번째 타석)");
+                return null;
+            }
+            timeline.cursor++;
+            servedAtBats.incrementAndGet();
+            if (timeline.status == Status.COMPLETE && timeline.cursor == timeline.entries.size()) {
+                timelines.remove(simulationId, timeline);
+            }
+        }
+        if (entry.narration != null) {
+            simulationService.narrateAtBat(entry.narration);
+        }
+        // 호출하는 쪽에서 응답 키를 덧붙이므로 복사본 반환
+        return new HashMap<>(entry.result);
+    }
+
+    /**
+     * 타임라인 제거 (경기 종료/삭제/라인업 변경)
+     */
+    public void discard(Long simulationId) {
+        Timeline timeline = timelines.remove(simulationId);
+        if (timeline != null) {
+            timeline.status = Status.ABANDONED;
+        }
+    }
+
+    public Map<String, Object> metrics() {
+        int running = 0;
+        int ready = 0;
+        long buffered = 0;
+        for (Timeline timeline : timelines.values()) {
+            if (timeline.status == Status.RUNNING) running++;
+            if (timeline.status == Status.COMPLETE) ready++;
+            synchronized (timeline) {
+                buffered += timeline.entries.size() - timeline.cursor;
+            }
+        }
+        long done = completed.get();
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("enabled", enabled);
+        metrics.put("leadMinutes", leadMinutes);
+        metrics.put("maxConcurrent", maxConcurrent);
+        metrics.put("running", running);
+        metrics.put("ready", ready);
+        metrics.put("bufferedAtBats", buffered);
+        metrics.put("submitted", submitted.get());
+        metrics.put("completed", done);
+        metrics.put("abandoned", abandoned.get());
+        metrics.put("computedAtBats", computedAtBats.get());
+        metrics.put("servedAtBats", servedAtBats.get());
+        metrics.put("avgComputeMs", done > 0 ? totalComputeMs.get() / (double) done : 0.0);
+        return metrics;
+    }
+
+    // =============================================
+    // 선계산 워커
+    // =============================================
+
+    private void compute(Timeline timeline) {
+        Long simulationId = timeline.simulationId;
+        long startNanos = System.nanoTime();
+        try {
+            SimulationEntity simulation = simulationRepo.findById(simulationId).orElse(null);
+            if (simulation == null) {
+                abandon(timeline, "시뮬레이션 없음");
+                return;
+            }
+
+            LiveGameState state = LiveGameState.detached(simulation);
+            while (state.isPlaying()) {
+                if (timeline.status != Status.RUNNING) {
+                    return;
+                }
+                if (timeline.entries.size() >= maxAtBats) {
+                    abandon(timeline, "최대 타석 수 초과");
+                    return;
+                }
+                long situation = situation(state);
+                Map<String, Object> result = simulateWithRetry(simulation, state);
+                if (result == null) {
+                    abandon(timeline, "타석 예측 실패");
+                    return;
+                }
+                synchronized (timeline) {
+                    if (timeline.status != Status.RUNNING) {
+                        return;
+                    }
+                    timeline.entries.add(new Entry(situation, result));
+                }
+                computedAtBats.incrementAndGet();
+            }
+
+            synchronized (timeline) {
+                if (timeline.status != Status.RUNNING) {
+                    return;
+                }
+                timeline.status = Status.COMPLETE;
+            }
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            completed.incrementAndGet();
+            totalComputeMs.addAndGet(elapsedMs);
+            log.info("경기 선계산 완료: simulationId={}, 타석={}, {}ms, 승리={}",
+                simulationId, timeline.entries.size(), elapsedMs, state.getWinner());
+
+        } catch (Exception e) {
+            log.error("경기 선계산 오류: simulationId={}", simulationId, e);
+            abandon(timeline, "선계산 오류");
+        }
+    }
+
+    // 예측 실패 시 간격을 늘려 가며 재시도 (실패한 타석은 상태를 바꾸지 않는다)
+    private Map<String, Object> simulateWithRetry(SimulationEntity simulation, LiveGameState state) throws InterruptedException {
+        for (int attempt = 0; attempt <= maxRetries; attempt++) {
+            if (attempt > 0) {
+                Thread.sleep(retryDelayMs * attempt);
+            }
+            Map<String, Object> result = simulationService.simulateDetachedAtBat(simulation, state);
+            if (!result.containsKey("error") && !"error".equals(result.get("status"))) {
+                return result;
+            }
+            log.warn("선계산 타석 예측 실패 (재시도 {}/{}): simulationId={}, {}",
+                attempt + 1, maxRetries, simulation.getId(), result.get("message"));
+        }
+        return null;
+    }
+
+    private void abandon(Timeline timeline, String reason) {
+        synchronized (timeline) {
+            if (timeline.status == Status.ABANDONED) {
+                return;
+            }
+            timeline.status = Status.ABANDONED;
+        }
+        timelines.remove(timeline.simulationId, timeline);
+        abandoned.incrementAndGet();
+        log.info("경기 선계산 타임라인 폐기 (실시간 예측으로 진행): simulationId={}, {}", timeline.simulationId, reason);
+    }
+
+    /**
+     * 타석 전 상황 (이닝/초말/아웃/주자/점수/타순)
+     */
+    static long situation(LiveGameState state) {
+        return ((long) state.getInning() << 36)
+            | ((long) (state.isTop() ? 1 : 0) << 35)
+            | ((long) state.getOuts() << 33)
+            | ((long) state.basesMask() << 30)
+            | ((long) (state.getHomeScore() & 0xFF) << 22)
+            | ((long) (state.getAwayScore() & 0xFF) << 14)
+            | ((long) (state.getHomeBatterIdx() & 0x7F) << 7)
+            | (state.getAwayBatterIdx() & 0x7F);
+    }
+
+    private enum Status {
+        RUNNING, COMPLETE, ABANDONED
+    }
+
+    /**
+     * 선계산된 타석 하나 (타석 전 상황 + 예측 응답 + 공개 시 보낼 해설 요청)
+     */
+    private static final class Entry {
+        private final long situation;
+        private final Map<String, Object> result;
+        // 해설 요청이 없는 타석이면 null
+        private final Map<String, Object> narration;
+
+        @SuppressWarnings("unchecked")
+        private Entry(long situation, Map<String, Object> result) {
+            this.situation = situation;
+            this.narration = (Map<String, Object>) result.remove(SimulationService.NARRATION);
+            this.result = result;
+        }
+    }
+
+    /**
+     * 경기 하나의 선계산 타임라인 (entries/cursor는 타임라인 모니터로 동기화)
+     */
+    private static final class Timeline {
+        private final Long simulationId;
+        private final List<Entry> entries = new ArrayList<>();
+        private int cursor;
+        private volatile Status status = Status.RUNNING;
+
+        private Timeline(Long simulationId) {
+            this.simulationId = simulationId;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.ict.springboot.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 실시간 승리 확률 (승리 기대값 표 조회)
+ * - 시작 시 table-path의 표(WinExpectancyTable 형식)를 읽고, 없으면 백그라운드에서 만들어 저장한다
+ * - 표 만들기는 같은 시드/표본 수면 같은 결과가 나오는 배치 작업 (엔진 API로 다시 만들 수 있음)
+ * - 타석마다 타석 전/후 상황으로 홈팀 승리 확률(WP)과 공격팀 기준 변화량(WPA)을 O(1)로 계산
+ * - 표가 준비되기 전에는 null (타석 기록에 값이 비어 있음)
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WinExpectancy {
+
+    // 저장 값 자릿수 (소수 넷째 자리, 보관 형식과 같은 단위)
+    private static final double SCALE = 10000.0;
+
+    private final PlayerStatsRegistry playerStats;
+
+    @Value("${simulation.win-expectancy.enabled:false}")
+    private boolean enabled;
+
+    @Value("${simulation.win-expectancy.table-path:win_expectancy.bin}")
+    private String tablePath;
+
+    @Value("${simulation.win-expectancy.seed:1}")
+    private long defaultSeed;
+
+    // 주자/아웃 상황마다 시뮬레이션할 하프 이닝 수
+    @Value("${simulation.win-expectancy.samples:200000}")
+    private int defaultSamples;
+
+    private volatile WinExpectancyTable table;
+    private volatile String source;
+    private volatile LocalDateTime loadedAt;
+    private volatile long buildMs;
+
+    /**
+     * 시작 시 표 읽기 (없으면 만들어 저장, 선수 스탯 로딩과 겹치지 않도록 백그라운드)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        File file = new File(tablePath);
+        if (file.isFile()) {
+            try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+                install(WinExpectancyTable.read(in), "file");
+                log.info("승리 기대값 표 로딩: {} (seed={}, 표본={})", file, table.getSeed(), table.getSamples());
+                return;
+            } catch (IOException e) {
+                log.warn("승리 기대값 표 로딩 실패, 다시 만듭니다: {}", e.getMessage());
+            }
+        }
+        Thread builder = new Thread(() -> {
+            try {
+                // 리그 평균은 선수 스탯 스냅샷으로 계산하므로 로딩될 때까지 잠시 기다린다
+                for (int i = 0; i < 60 && playerStats.size() == 0; i++) {
+                    Thread.sleep(1000);
+                }
+                rebuild(null, null);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                log.error("승리 기대값 표 만들기 실패", e);
+            }
+        }, "win-expectancy-builder");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    /**
+     * 표 만들기 배치 작업 (리그 평균 확률표로 시뮬레이션 → 파일 저장 → 교체)
+     * @param seed 난수 시드 (null이면 설정값)
+     * @param samples 상황별 하프 이닝 수 (null이면 설정값)
+     */
+    public synchronized Map<String, Object> rebuild(Long seed, Integer samples) {
+        long runSeed = seed != null ? seed : defaultSeed;
+        int runSamples = samples != null ? samples : defaultSamples;
+        if (runSamples < 1000 || runSamples > 10_000_000) {
+            throw new IllegalArgumentException("표본 수는 1000~10000000 사이여야 합니다.");
+        }
+        long startNanos = System.nanoTime();
+        Log5MatchupModel.MatchupTable league = Log5MatchupModel.matchup(null, null,
+            Log5MatchupModel.LeagueRates.from(playerStats.all()));
+        WinExpectancyTable built = WinExpectancyTable.build(league, runSeed, runSamples);
+        buildMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+
+        try {
+            save(built);
+        } catch (IOException e) {
+            log.warn("승리 기대값 표 저장 실패 (메모리에서만 사용): {}", e.getMessage());
+        }
+        install(built, "built");
+        log.info("승리 기대값 표 생성: seed={}, 표본={}, {}ms", runSeed, runSamples, buildMs);
+        return metrics();
+    }
+
+    public boolean isReady() {
+        return table != null;
+    }
+
+    /**
+     * 타석 전 상황의 홈팀 승리 확률 (표가 없으면 null)
+     */
+    public Double homeWinProbability(LiveGameState state) {
+        WinExpectancyTable current = table;
+        if (current == null) {
+            return null;
+        }
+        return round(current.homeWinProbability(state.getInning(), state.isTop(), state.getOuts(), state.basesMask(),
+            state.getHomeScore(), state.getAwayScore()));
+    }
+
+    /**
+     * 경기가 끝난 뒤의 홈팀 승리 확률 (무승부 0.5, 표가 없으면 null)
+     */
+    public Double finalHomeWinProbability(String winner) {
+        if (table == null) {
+            return null;
+        }
+        if (AtBatRules.HOME.equals(winner)) {
+            return 1.0;
+        }
+        return AtBatRules.AWAY.equals(winner) ? 0.0 : 0.5;
+    }
+
+    /**
+     * 공격팀 기준 승리 확률 변화량 (WPA)
+     */
+    public static Double winProbabilityAdded(Double before, Double after, boolean awayAttacking) {
+        if (before == null || after == null) {
+            return null;
+        }
+        return round(awayAttacking ? before - after : after - before);
+    }
+
+    public Map<String, Object> metrics() {
+        WinExpectancyTable current = table;
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("enabled", enabled);
+        metrics.put("ready", current != null);
+        metrics.put("tablePath", tablePath);
+        metrics.put("source", source);
+        metrics.put("loadedAt", loadedAt);
+        metrics.put("seed", current != null ? current.getSeed() : null);
+        metrics.put("samples", current != null ? current.getSamples() : null);
+        metrics.put("cells", current != null ? current.size() : 0);
+        metrics.put("tableBytes", current != null ? current.size() * 4L : 0);
+        metrics.put("buildMs", buildMs);
+        return metrics;
+    }
+
+    private void install(WinExpectancyTable loaded, String from) {
+        table = loaded;
+        source = from;
+        loadedAt = LocalDateTime.now();
+    }
+
+    // 임시 파일에 쓴 뒤 교체 (쓰는 도중 재시작해도 깨진 표를 읽지 않도록)
+    private void save(WinExpectancyTable built) throws IOException {
+        File file = new File(tablePath);
+        File dir = file.getAbsoluteFile().getParentFile();
+        if (dir != null && !dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("디렉터리를 만들 수 없습니다: " + dir);
+        }
+        File temp = new File(dir, file.getName() + ".tmp");
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(temp))) {
+            built.write(out);
+        }
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * SCALE) / SCALE;
+    }
+}
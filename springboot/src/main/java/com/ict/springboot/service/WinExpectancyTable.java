@@ -0,0 +1,216 @@
+package com.ict.springboot.service;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * 승리 기대값 표 (상황별 홈팀 승리 확률, 무승부는 0.5)
+ * - 인덱스: 이닝(1~12) x 초/말 x 아웃(0~2) x 주자 비트마스크(0~7) x 점수 차(홈 - 원정, -15~15)를 float 배열 하나에 평탄화
+ * - 만들기: 리그 평균 맞대결 확률표로 주자/아웃 상황마다 하프 이닝을 시뮬레이션해(AtBatRules) 남은 득점 분포를 구하고,
+ *   12회부터 거꾸로 이닝별 승리 확률을 계산 (9회 이후 끝내기, 9회초 종료 시 홈팀 리드, 12회말 종료 시 무승부 규칙 반영)
+ * - 같은 시드/표본 수/리그 평균이면 스레드 수와 상관없이 같은 표가 나온다 (상황마다 시드에서 나눈 난수 사용)
+ */
+public final class WinExpectancyTable {
+
+    public static final int MAX_INNING = 12;
+    public static final int MAX_DIFF = 15;
+
+    private static final int DIFFS = MAX_DIFF * 2 + 1;
+    private static final int STATES = 8 * 3;
+    private static final int SIZE = MAX_INNING * 2 * STATES * DIFFS;
+    // 하프 이닝 득점 분포 구간 (마지막 구간 = 그 이상)
+    private static final int MAX_RUNS = 20;
+    // 계산 중 점수 차 범위 (표 범위 + 한 하프 이닝 최대 득점, 밖은 경계값)
+    private static final int WIDE_DIFF = MAX_DIFF + MAX_RUNS * 2;
+    private static final int WIDE_DIFFS = WIDE_DIFF * 2 + 1;
+
+    private static final int MAGIC = 0x57455850; // "WEXP"
+    private static final int FORMAT = 1;
+
+    private final float[] values;
+    private final long seed;
+    private final int samples;
+
+    private WinExpectancyTable(float[] values, long seed, int samples) {
+        this.values = values;
+        this.seed = seed;
+        this.samples = samples;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getSamples() {
+        return samples;
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    /**
+     * 홈팀 승리 확률 (타석 전 상황, 이닝/점수 차는 표 범위로 제한)
+     * @param bases 주자 비트마스크 (1루 = 1, 2루 = 2, 3루 = 4)
+     */
+    public double homeWinProbability(int inning, boolean top, int outs, int bases, int homeScore, int awayScore) {
+        return values[index(inning, top, outs, bases, homeScore - awayScore)];
+    }
+
+    static int index(int inning, boolean top, int outs, int bases, int diff) {
+        int i = Math.max(1, Math.min(inning, MAX_INNING)) - 1;
+        int d = Math.max(-MAX_DIFF, Math.min(diff, MAX_DIFF)) + MAX_DIFF;
+        return ((((i * 2 + (top ? 0 : 1)) * 3 + Math.max(0, Math.min(outs, 2))) * 8 + (bases & 7)) * DIFFS) + d;
+    }
+
+    // =============================================
+    // 만들기
+    // =============================================
+
+    /**
+     * 표 만들기
+     * @param league 리그 평균 맞대결 확률표 (모든 타석에 사용)
+     * @param seed 난수 시드
+     * @param samples 주자/아웃 상황마다 시뮬레이션할 하프 이닝 수
+     */
+    public static WinExpectancyTable build(Log5MatchupModel.MatchupTable league, long seed, int samples) {
+        // 상황마다 독립된 난수 (병렬 실행 순서와 무관)
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] randoms = new SplittableRandom[STATES];
+        for (int s = 0; s < STATES; s++) {
+            randoms[s] = root.split();
+        }
+        double[][] runs = new double[STATES][];
+        IntStream.range(0, STATES).parallel().forEach(s -> runs[s] = runDistribution(league, s, samples, randoms[s]));
+
+        // startOf[이닝][초/말][점수 차]: 하프 이닝 시작(무사 주자 없음) 시점의 홈팀 승리 확률
+        double[][][] startOf = new double[MAX_INNING + 2][2][WIDE_DIFFS];
+        float[] values = new float[SIZE];
+        for (int inning = MAX_INNING; inning >= 1; inning--) {
+            for (int half = 1; half >= 0; half--) {
+                boolean top = half == 0;
+                for (int d = -WIDE_DIFF; d <= WIDE_DIFF; d++) {
+                    startOf[inning][half][d + WIDE_DIFF] = remaining(startOf, runs[0], inning, top, d);
+                }
+                for (int s = 0; s < STATES; s++) {
+                    for (int d = -MAX_DIFF; d <= MAX_DIFF; d++) {
+                        values[index(inning, top, s % 3, s / 3, d)] = (float) remaining(startOf, runs[s], inning, top, d);
+                    }
+                }
+            }
+        }
+        return new WinExpectancyTable(values, seed, samples);
+    }
+
+    // 주자/아웃 상황 s에서 시작한 하프 이닝의 남은 득점 분포
+    private static double[] runDistribution(Log5MatchupModel.MatchupTable league, int s, int samples, SplittableRandom random) {
+        long[] counts = new long[MAX_RUNS + 1];
+        LiveGameState state = LiveGameState.detached();
+        AtBatRules.Transition transition = new AtBatRules.Transition();
+        int startBases = s / 3;
+        for (int n = 0; n < samples; n++) {
+            state.setInning(1);
+            state.setTop(true);
+            state.setOuts(s % 3);
+            state.placeRunners((startBases & 1) != 0 ? 1 : 0, (startBases & 2) != 0 ? 2 : 0, (startBases & 4) != 0 ? 3 : 0);
+            int runs = 0;
+            long batter = 10;
+            do {
+                int bases = state.basesMask();
+                AtBatOutcome outcome = league.sample(bases, state.getOuts(), random.nextDouble());
+                boolean advance = outcome != AtBatOutcome.GROUND_OUT || bases != 0b010
+                    || AtBatRules.rollGroundOutAdvance(random);
+                AtBatRules.resolve(state, outcome, batter++, advance, transition);
+                runs += transition.getRuns();
+            } while (!transition.isInningChanged());
+            counts[Math.min(runs, MAX_RUNS)]++;
+        }
+        double[] distribution = new double[MAX_RUNS + 1];
+        for (int r = 0; r <= MAX_RUNS; r++) {
+            distribution[r] = counts[r] / (double) samples;
+        }
+        return distribution;
+    }
+
+    // 하프 이닝 중(남은 득점 분포 runs) 점수 차 d일 때의 홈팀 승리 확률
+    private static double remaining(double[][][] startOf, double[] runs, int inning, boolean top, int d) {
+        double win = 0;
+        for (int r = 0; r <= MAX_RUNS; r++) {
+            double p = runs[r];
+            if (p == 0) {
+                continue;
+            }
+            if (top) {
+                win += p * afterHalf(startOf, inning, true, d - r);
+            } else if (inning >= 9 && d + r > 0) {
+                // 끝내기
+                win += p;
+            } else {
+                win += p * afterHalf(startOf, inning, false, d + r);
+            }
+        }
+        return win;
+    }
+
+    // 하프 이닝이 끝난 뒤 점수 차 d일 때의 홈팀 승리 확률
+    private static double afterHalf(double[][][] startOf, int inning, boolean top, int d) {
+        if (top) {
+            if (inning >= 9 && d > 0) {
+                return 1;
+            }
+            return startOf[inning][1][clamp(d)];
+        }
+        if (inning >= 9) {
+            if (d != 0) {
+                return d > 0 ? 1 : 0;
+            }
+            return inning == MAX_INNING ? 0.5 : startOf[inning + 1][0][WIDE_DIFF];
+        }
+        return startOf[inning + 1][0][clamp(d)];
+    }
+
+    private static int clamp(int d) {
+        return Math.max(-WIDE_DIFF, Math.min(d, WIDE_DIFF)) + WIDE_DIFF;
+    }
+
+    // =============================================
+    // 파일 형식: MAGIC, FORMAT, 시드, 표본 수, 최대 이닝, 최대 점수 차, 값 개수, float 값
+    // =============================================
+
+    public void write(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(FORMAT);
+        data.writeLong(seed);
+        data.writeInt(samples);
+        data.writeInt(MAX_INNING);
+        data.writeInt(MAX_DIFF);
+        data.writeInt(values.length);
+        for (float value : values) {
+            data.writeFloat(value);
+        }
+        data.flush();
+    }
+
+    public static WinExpectancyTable read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC || data.readInt() != FORMAT) {
+            throw new IOException("승리 기대값 표 형식이 아닙니다.");
+        }
+        long seed = data.readLong();
+        int samples = data.readInt();
+        if (data.readInt() != MAX_INNING || data.readInt() != MAX_DIFF || data.readInt() != SIZE) {
+            throw new IOException("승리 기대값 표 크기가 다릅니다.");
+        }
+        float[] values = new float[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            values[i] = data.readFloat();
+        }
+        return new WinExpectancyTable(values, seed, samples);
+    }
+}
@@ -3,6 +3,7 @@ package com.ict.springboot.websocket;
 import java.io.IOException;
 import java.util.ArrayDeque;
 import java.util.Deque;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -58,6 +59,27 @@ public class WebSocketServer extends TextWebSocketHandler {
 		return simulationClients.get(simulationId);
 	}
 
+	// 시뮬레이션별 열려 있는 세션 수 (관전자 수 집계용)
+	public int countOpenSessions(Long simulationId) {
+		Map<Long, WebSocketSession> clients = simulationClients.get(simulationId);
+		if (clients == null) return 0;
+		int count = 0;
+		for (WebSocketSession clientSession : clients.values()) {
+			if (clientSession.isOpen()) count++;
+		}
+		return count;
+	}
+
+	// 세션이 열려 있는 모든 시뮬레이션의 세션 수
+	public Map<Long, Integer> openSessionCounts() {
+		Map<Long, Integer> counts = new HashMap<>();
+		for (Long sId : simulationClients.keySet()) {
+			int count = countOpenSessions(sId);
+			if (count > 0) counts.put(sId, count);
+		}
+		return counts;
+	}
+
 	public Long getSimulationId(@NonNull WebSocketSession session) {
 		String query = session.getUri().getQuery(); 
 		return Long.valueOf(query.substring(query.lastIndexOf("simulationId="), query.length()).replace("simulationId=", ""));
@@ -0,0 +1,172 @@
+package com.ict.springboot.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ict.springboot.entity.AtBatEntity;
+import com.ict.springboot.entity.SimulationEntity;
+
+/**
+ * AtBatArchive 보관 형식(encode/decode) 왕복 테스트
+ */
+class AtBatArchiveCodecTests {
+
+    private static final SimulationEntity SIMULATION = SimulationEntity.builder().id(7L).build();
+    private static final LocalDateTime START = LocalDateTime.of(2025, 5, 3, 18, 30, 0, 125_000_000);
+
+    @Test
+    void gameRoundTrips() {
+        List<AtBatEntity> atBats = new ArrayList<>();
+        AtBatOutcome[] outcomes = AtBatOutcome.values();
+        int home = 0;
+        int away = 0;
+        for (int i = 0; i < 60; i++) {
+            int inning = i / 6 + 1;
+            boolean top = i % 6 < 3;
+            int runs = i % 7 == 0 ? 2 : 0;
+            AtBatEntity.AtBatEntityBuilder atBat = atBat(1000L + i * 3, inning + (top ? "초" : "말"), outcomes[i % outcomes.length])
+                .battingOrder(i % 9 + 1)
+                .batterPNo(60000L + i % 9 + (top ? 0 : 100))
+                .pitcherPNo(top ? 70001L : 70002L)
+                .prevScoreHome(home)
+                .prevScoreAway(away)
+                .prevOuts(i % 3)
+                .prevBase1(i % 2 == 0 ? 60000L + (i + 8) % 9 : null)
+                .prevBase3(i % 5 == 0 ? 60000L + (i + 7) % 9 : null)
+                .rbi(runs)
+                .probabilities(probabilitiesJson(i))
+                .winProbability((5000 + i % 10 * 100) / 10000.0)
+                .winProbabilityAdded((-123 + i % 5 * 10) / 10000.0)
+                .createdAt(START.plusSeconds(i * 20L));
+            if (top) {
+                away += runs;
+            } else {
+                home += runs;
+            }
+            atBats.add(atBat
+                .newScoreHome(home)
+                .newScoreAway(away)
+                .newOuts((i + 1) % 3)
+                .newBase2(i % 3 == 1 ? 60000L + i % 9 : null)
+                .build());
+        }
+
+        assertEquals(atBats, roundTrip(atBats));
+    }
+
+    @Test
+    void extraInningsRoundTrip() {
+        List<AtBatEntity> atBats = List.of(
+            atBat(1L, "10초", AtBatOutcome.FLY_OUT).build(),
+            atBat(2L, "11말", AtBatOutcome.WALK).build(),
+            atBat(3L, "15말", AtBatOutcome.HOME_RUN).newScoreHome(4).rbi(1).build());
+
+        List<AtBatEntity> decoded = roundTrip(atBats);
+        assertEquals(atBats, decoded);
+        assertEquals("15말", decoded.get(2).getInningHalf());
+    }
+
+    @Test
+    void emptyGameRoundTrips() {
+        assertTrue(roundTrip(List.of()).isEmpty(), "빈 경기는 빈 목록으로 복원");
+    }
+
+    @Test
+    void nullBasesAndProbabilitiesRoundTrip() {
+        AtBatEntity atBat = atBat(5L, "1초", AtBatOutcome.STRIKEOUT)
+            .battingOrder(null)
+            .prevOuts(null)
+            .newOuts(null)
+            .probabilities(null)
+            .winProbability(null)
+            .winProbabilityAdded(null)
+            .createdAt(null)
+            .build();
+
+        AtBatEntity decoded = roundTrip(List.of(atBat)).get(0);
+        assertEquals(atBat, decoded);
+        assertNull(decoded.getPrevBase1(), "빈 루는 null");
+        assertNull(decoded.getProbabilities(), "확률 없음은 null");
+        assertNull(decoded.getWinProbability(), "승리 확률 없음은 null");
+    }
+
+    @Test
+    void unsupportedValuesKeepOriginalText() {
+        List<AtBatEntity> atBats = List.of(
+            atBat(1L, "연장", AtBatOutcome.SINGLE).build(),
+            atBat(2L, "2초", AtBatOutcome.SINGLE).result("balk").resultKorean("보크").build(),
+            atBat(3L, "2초", AtBatOutcome.SINGLE).probabilities("{\"보크\":0.5}").build(),
+            atBat(4L, "2초", AtBatOutcome.SINGLE).probabilities("{}").build(),
+            atBat(5L, "2초", AtBatOutcome.SINGLE).probabilities("not json").build());
+
+        assertEquals(atBats, roundTrip(atBats));
+    }
+
+    @Test
+    void probabilitiesAreQuantizedToFourDecimals() throws Exception {
+        AtBatEntity atBat = atBat(1L, "3말", AtBatOutcome.DOUBLE)
+            .probabilities("{\"홈런\":0.123456,\"1루타\":0.87654}")
+            .build();
+
+        Map<String, Double> decoded = new ObjectMapper().readValue(roundTrip(List.of(atBat)).get(0).getProbabilities(),
+            new TypeReference<Map<String, Double>>() {});
+        assertEquals(2, decoded.size());
+        assertEquals(0.1235, decoded.get("홈런"), 1e-9, "홈런");
+        assertEquals(0.8765, decoded.get("1루타"), 1e-9, "1루타");
+    }
+
+    @Test
+    void rejectsUnknownFormat() {
+        assertThrows(IllegalArgumentException.class, () -> AtBatArchive.decode(new byte[] {99, 0}, SIMULATION));
+        assertThrows(IllegalArgumentException.class, () -> AtBatArchive.decode(new byte[0], SIMULATION));
+    }
+
+    private static List<AtBatEntity> roundTrip(List<AtBatEntity> atBats) {
+        return AtBatArchive.decode(AtBatArchive.encode(atBats), SIMULATION);
+    }
+
+    // 복원 결과와 직접 비교할 수 있는 기본 타석 (주자 없음, 점수 0, 시각은 밀리초 단위)
+    private static AtBatEntity.AtBatEntityBuilder atBat(Long id, String inningHalf, AtBatOutcome outcome) {
+        return AtBatEntity.builder()
+            .id(id)
+            .simulation(SIMULATION)
+            .inningHalf(inningHalf)
+            .battingOrder(1)
+            .batterPNo(60000L)
+            .pitcherPNo(70000L)
+            .prevScoreHome(0)
+            .prevScoreAway(0)
+            .prevOuts(0)
+            .result(outcome.getCode())
+            .resultKorean(outcome.getKorean())
+            .rbi(0)
+            .newScoreHome(0)
+            .newScoreAway(0)
+            .newOuts(0)
+            .createdAt(START);
+    }
+
+    // decode가 만드는 형식 그대로의 확률 JSON (AtBatOutcome 순서, 소수 넷째 자리)
+    private static String probabilitiesJson(int seed) {
+        StringBuilder json = new StringBuilder("{");
+        AtBatOutcome[] outcomes = AtBatOutcome.values();
+        for (int o = 0; o < outcomes.length; o++) {
+            if (o > 0) {
+                json.append(',');
+            }
+            json.append('"').append(outcomes[o].getKorean()).append("\":").append(((seed * 37 + o * 113) % 900) / 10000.0);
+        }
+        return json.append('}').toString();
+    }
+}
@@ -0,0 +1,237 @@
+package com.ict.springboot.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * FastAPI 호출 보호 테스트
+ * 느리게/실패하게 바꿀 수 있는 FastAPI 대역(/simulate-at-bat, /simulate-at-bat/batch)으로
+ * 서킷 브레이커 열림/복구, 응답 시간 기반 타임아웃, 동시 호출 제한, 리그 평균 결과표를 확인한다
+ */
+class AtBatInferenceGuardTests {
+
+    private StubFastApi stub;
+    private AtBatInferenceGuard guard;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        stub = new StubFastApi();
+        AtBatPredictionCache cache = new AtBatPredictionCache();
+        guard = new AtBatInferenceGuard(new PlayerStatsRegistry(null, new ObjectMapper(), cache, new MatchupMatrix()), cache);
+        ReflectionTestUtils.setField(guard, "fastapiServerUrl", stub.url());
+        ReflectionTestUtils.setField(guard, "enabled", true);
+        ReflectionTestUtils.setField(guard, "windowSize", 10);
+        ReflectionTestUtils.setField(guard, "minCalls", 4);
+        ReflectionTestUtils.setField(guard, "failureRateThreshold", 0.5);
+        ReflectionTestUtils.setField(guard, "openMs", 300L);
+        ReflectionTestUtils.setField(guard, "halfOpenCalls", 2);
+        ReflectionTestUtils.setField(guard, "singleMaxConcurrent", 2);
+        ReflectionTestUtils.setField(guard, "batchMaxConcurrent", 2);
+        ReflectionTestUtils.setField(guard, "connectTimeoutMs", 1000);
+        ReflectionTestUtils.setField(guard, "minTimeoutMs", 200L);
+        ReflectionTestUtils.setField(guard, "maxTimeoutMs", 5000L);
+        guard.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.stop();
+    }
+
+    @Test
+    void opensAfterFailuresAndStopsCallingFastApi() {
+        stub.mode = Mode.FAIL;
+        for (int i = 0; i < 4; i++) {
+            assertThrows(AtBatInferenceGuard.InferenceUnavailableException.class, () -> guard.post(AtBatInferenceGuard.SINGLE, request()));
+        }
+        assertTrue(guard.isOpen(AtBatInferenceGuard.SINGLE));
+        assertEquals(4, stub.hits.get());
+
+        // 열린 동안은 FastAPI를 호출하지 않고 바로 실패
+        stub.mode = Mode.OK;
+        for (int i = 0; i < 10; i++) {
+            assertThrows(AtBatInferenceGuard.InferenceUnavailableException.class, () -> guard.post(AtBatInferenceGuard.SINGLE, request()));
+        }
+        assertEquals(4, stub.hits.get());
+        assertEquals(10L, endpointMetrics(AtBatInferenceGuard.SINGLE).get("rejectedOpen"));
+
+        // 엔드포인트별 브레이커 (배치는 영향 없음)
+        assertTrue(!guard.isOpen(AtBatInferenceGuard.BATCH));
+        assertEquals("ok", guard.post(AtBatInferenceGuard.BATCH, Map.of("requests", List.of(request()))).get("status"));
+    }
+
+    @Test
+    void closesAfterSuccessfulTrialCalls() throws Exception {
+        stub.mode = Mode.FAIL;
+        for (int i = 0; i < 4; i++) {
+            assertThrows(AtBatInferenceGuard.InferenceUnavailableException.class, () -> guard.post(AtBatInferenceGuard.SINGLE, request()));
+        }
+        assertTrue(guard.isOpen(AtBatInferenceGuard.SINGLE));
+
+        // 시험 호출이 실패하면 다시 열림
+        Thread.sleep(350);
+        assertThrows(AtBatInferenceGuard.InferenceUnavailableException.class, () -> guard.post(AtBatInferenceGuard.SINGLE, request()));
+        assertTrue(guard.isOpen(AtBatInferenceGuard.SINGLE));
+
+        // 복구 후 시험 호출이 모두 성공하면 닫힘
+        stub.mode = Mode.OK;
+        Thread.sleep(350);
+        assertEquals("ok", guard.post(AtBatInferenceGuard.SINGLE, request()).get("status"));
+        assertEquals("HALF_OPEN", endpointMetrics(AtBatInferenceGuard.SINGLE).get("state"));
+        assertEquals("ok", guard.post(AtBatInferenceGuard.SINGLE, request()).get("status"));
+        assertEquals("CLOSED", endpointMetrics(AtBatInferenceGuard.SINGLE).get("state"));
+        assertEquals(2L, endpointMetrics(AtBatInferenceGuard.SINGLE).get("opened"));
+    }
+
+    @Test
+    void slowCallsTimeOutAtLearnedLatency() {
+        // 빠른 응답으로 타임아웃을 하한까지 낮춘 뒤
+        for (int i = 0; i < 30; i++) {
+            guard.post(AtBatInferenceGuard.SINGLE, request());
+        }
+        assertEquals(200L, guard.timeoutMs(AtBatInferenceGuard.SINGLE));
+
+        // 그보다 느린 응답은 상한(5초)까지 기다리지 않고 실패
+        stub.mode = Mode.SLOW;
+        stub.delayMs = 1500;
+        long startNanos = System.nanoTime();
+        assertThrows(AtBatInferenceGuard.InferenceUnavailableException.class, () -> guard.post(AtBatInferenceGuard.SINGLE, request()));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos) < 1000);
+        assertEquals(1L, endpointMetrics(AtBatInferenceGuard.SINGLE).get("failures"));
+    }
+
+    @Test
+    void bulkheadRejectsCallsBeyondLimit() throws Exception {
+        stub.mode = Mode.SLOW;
+        stub.delayMs = 500;
+        CountDownLatch started = new CountDownLatch(2);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<Map<String, Object>>> inFlight = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                inFlight.add(executor.submit(() -> {
+                    started.countDown();
+                    return guard.post(AtBatInferenceGuard.SINGLE, request());
+                }));
+            }
+            started.await();
+            Thread.sleep(100);
+
+            // 동시 호출 한도(2)가 찼으므로 세 번째는 기다리지 않고 실패
+            assertThrows(AtBatInferenceGuard.InferenceUnavailableException.class, () -> guard.post(AtBatInferenceGuard.SINGLE, request()));
+            assertEquals(1L, endpointMetrics(AtBatInferenceGuard.SINGLE).get("rejectedBulkhead"));
+            for (Future<Map<String, Object>> future : inFlight) {
+                assertEquals("ok", future.get(5, TimeUnit.SECONDS).get("status"));
+            }
+            assertEquals(2, stub.hits.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void leagueAverageCoversEverySituation() {
+        for (int bases = 0; bases < 8; bases++) {
+            for (int outs = 0; outs < 3; outs++) {
+                double[] probabilities = guard.leagueAverage(bases, outs);
+                assertEquals(AtBatOutcome.values().length, probabilities.length);
+                double sum = 0;
+                for (double p : probabilities) {
+                    assertTrue(p > -1e-12);
+                    sum += p;
+                }
+                assertEquals(1.0, sum, 1e-9);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> endpointMetrics(String path) {
+        return (Map<String, Object>) guard.metrics().get(path);
+    }
+
+    private static Map<String, Object> request() {
+        return Map.of("simulation_id", 1, "batter_p_no", 100, "pitcher_p_no", 200);
+    }
+
+    enum Mode { OK, SLOW, FAIL }
+
+    /**
+     * FastAPI 대역 (응답 모드와 호출 횟수)
+     */
+    private static final class StubFastApi {
+        private final HttpServer server;
+        private final ExecutorService executor = Executors.newCachedThreadPool();
+        private final AtomicInteger hits = new AtomicInteger();
+        private volatile Mode mode = Mode.OK;
+        private volatile long delayMs;
+
+        private StubFastApi() throws IOException {
+            server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            server.createContext(AtBatInferenceGuard.SINGLE, this::handle);
+            server.createContext(AtBatInferenceGuard.BATCH, this::handle);
+            server.setExecutor(executor);
+            server.start();
+        }
+
+        private String url() {
+            return "http://127.0.0.1:" + server.getAddress().getPort();
+        }
+
+        private void handle(HttpExchange exchange) throws IOException {
+            hits.incrementAndGet();
+            exchange.getRequestBody().readAllBytes();
+            Mode current = mode;
+            if (current == Mode.SLOW) {
+                try {
+                    Thread.sleep(delayMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            int status = current == Mode.FAIL ? 500 : 200;
+            byte[] body = (current == Mode.FAIL ? "{\"detail\":\"model error\"}" : "{\"status\":\"ok\",\"results\":[]}")
+                .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            try {
+                exchange.sendResponseHeaders(status, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            } catch (IOException e) {
+                // 타임아웃으로 클라이언트가 먼저 끊음
+            } finally {
+                exchange.close();
+            }
+        }
+
+        private void stop() {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+}
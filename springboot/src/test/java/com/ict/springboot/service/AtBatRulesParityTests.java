@@ -0,0 +1,95 @@
+package com.ict.springboot.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.ict.springboot.entity.SimulationEntity;
+import com.ict.springboot.entity.SimulationGameStateEntity;
+
+/**
+ * AtBatRules 패리티 테스트
+ * python/model/export_at_bat_parity.py(AtBatSimulator)로 기록한 타석 결과(AT_BATS 컬럼 형식)를 재생해서 비교
+ */
+class AtBatRulesParityTests {
+
+    @Test
+    void replaysRecordedAtBats() throws Exception {
+        List<Map<String, String>> rows = readRows("/at_bat_parity.tsv");
+        assertTrue(rows.size() > 0, "패리티 데이터가 비어 있습니다.");
+
+        AtBatRules.Transition transition = new AtBatRules.Transition();
+        for (Map<String, String> row : rows) {
+            LiveGameState state = LiveGameState.from(SimulationGameStateEntity.builder()
+                .id(1L)
+                .simulation(SimulationEntity.builder().id(1L).build())
+                .inning(Integer.parseInt(row.get("inning")))
+                .half(row.get("half"))
+                .outs(Integer.parseInt(row.get("prev_outs")))
+                .homeScore(Integer.parseInt(row.get("prev_score_home")))
+                .awayScore(Integer.parseInt(row.get("prev_score_away")))
+                .base1(toLong(row.get("prev_base_1")))
+                .base2(toLong(row.get("prev_base_2")))
+                .base3(toLong(row.get("prev_base_3")))
+                .gameStatus("PLAYING")
+                .build());
+
+            AtBatOutcome outcome = AtBatOutcome.fromKorean(row.get("result_korean"));
+            assertNotNull(outcome, row.get("result_korean"));
+
+            AtBatRules.resolve(state, outcome, Long.parseLong(row.get("batter_p_no")),
+                Boolean.parseBoolean(row.get("ground_out_advance")), transition);
+
+            String message = row.toString();
+            assertEquals(Integer.parseInt(row.get("rbi")), transition.getRuns(), message);
+            assertEquals(Integer.parseInt(row.get("new_inning")), state.getInning(), message);
+            assertEquals(row.get("new_half"), state.getHalf(), message);
+            assertEquals(Integer.parseInt(row.get("new_outs")), state.getOuts(), message);
+            assertEquals(Integer.parseInt(row.get("new_score_home")), state.getHomeScore(), message);
+            assertEquals(Integer.parseInt(row.get("new_score_away")), state.getAwayScore(), message);
+            assertEquals(toLong(row.get("new_base_1")), state.getBase1(), message);
+            assertEquals(toLong(row.get("new_base_2")), state.getBase2(), message);
+            assertEquals(toLong(row.get("new_base_3")), state.getBase3(), message);
+            assertEquals(Boolean.parseBoolean(row.get("inning_changed")), transition.isInningChanged(), message);
+            assertEquals(Boolean.parseBoolean(row.get("game_ended")), transition.isGameEnded(), message);
+            assertEquals(emptyToNull(row.get("winner")), transition.getWinner(), message);
+        }
+    }
+
+    private static List<Map<String, String>> readRows(String resource) throws Exception {
+        List<Map<String, String>> rows = new ArrayList<>();
+        try (InputStream in = AtBatRulesParityTests.class.getResourceAsStream(resource);
+             BufferedReader br = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String[] header = br.readLine().split("\t", -1);
+            String line;
+            while ((line = br.readLine()) != null) {
+                String[] columns = line.split("\t", -1);
+                Map<String, String> row = new HashMap<>();
+                for (int i = 0; i < header.length; i++) {
+                    row.put(header[i], columns[i]);
+                }
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    private static Long toLong(String value) {
+        return value == null || value.isEmpty() ? null : Long.valueOf(value);
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+}
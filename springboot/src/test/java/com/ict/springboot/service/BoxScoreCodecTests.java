@@ -0,0 +1,101 @@
+package com.ict.springboot.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * BoxScore 저장 형식(encode/decode) 왕복 테스트
+ */
+class BoxScoreCodecTests {
+
+    @Test
+    void nineInningGameRoundTrips() {
+        BoxScore box = new BoxScore();
+        AtBatOutcome[] outcomes = AtBatOutcome.values();
+        for (int inning = 1; inning <= 9; inning++) {
+            for (int slot = 0; slot < 4; slot++) {
+                AtBatOutcome outcome = outcomes[(inning * 4 + slot) % outcomes.length];
+                box.record(true, inning, inning * 4 + slot, outcome, slot == 3 ? 1 : 0, outcome.isHit() ? 0 : 1);
+                box.record(false, inning, inning * 3 + slot, outcome, slot == 2 ? 2 : 0, outcome.isHit() ? 0 : 1);
+            }
+        }
+
+        assertRoundTrips(box);
+    }
+
+    @Test
+    void homeTeamSkipsBottomOfNinth() {
+        BoxScore box = new BoxScore();
+        for (int inning = 1; inning <= 8; inning++) {
+            box.record(true, inning, inning, AtBatOutcome.STRIKEOUT, 0, 1);
+            box.record(false, inning, inning, AtBatOutcome.HOME_RUN, 1, 0);
+        }
+        box.record(true, 9, 0, AtBatOutcome.FLY_OUT, 0, 1);
+
+        BoxScore decoded = assertRoundTrips(box);
+        List<?> home = lineScore(decoded, "home");
+        assertEquals(9, home.size());
+        assertNull(home.get(8), "치르지 않은 9회말은 null");
+    }
+
+    @Test
+    void extraInningsGrowLineScore() {
+        BoxScore box = new BoxScore();
+        for (int inning = 1; inning <= 12; inning++) {
+            box.record(true, inning, inning, AtBatOutcome.GROUND_OUT, 0, 1);
+            box.record(false, inning, inning, AtBatOutcome.SINGLE, inning == 12 ? 1 : 0, 0);
+        }
+
+        BoxScore decoded = assertRoundTrips(box);
+        assertEquals(12, lineScore(decoded, "away").size());
+        assertEquals(1, lineScore(decoded, "home").get(11));
+
+        // 복원한 박스스코어에도 이어서 연장 기록 (line score를 다시 늘린다)
+        box.record(true, 13, 4, AtBatOutcome.HOME_RUN, 1, 0);
+        decoded.record(true, 13, 4, AtBatOutcome.HOME_RUN, 1, 0);
+        assertEquals(box.toMap(), decoded.toMap());
+        assertEquals(13, lineScore(decoded, "away").size());
+    }
+
+    @Test
+    void emptyGameRoundTrips() {
+        BoxScore decoded = assertRoundTrips(new BoxScore());
+        assertEquals(Arrays.asList(null, null, null, null, null, null, null, null, null), lineScore(decoded, "away"));
+    }
+
+    @Test
+    void largeCountsUseMultiByteVarints() {
+        BoxScore box = new BoxScore();
+        for (int i = 0; i < 300; i++) {
+            box.record(i % 2 == 0, 1 + i % 9, 0, AtBatOutcome.HOME_RUN, 4, 0);
+        }
+
+        assertRoundTrips(box);
+    }
+
+    @Test
+    void rejectsUnknownFormat() {
+        assertThrows(IllegalArgumentException.class, () -> BoxScore.decode(new byte[] {99}));
+    }
+
+    // 복원한 박스스코어가 응답/재인코딩 모두 같은지
+    private static BoxScore assertRoundTrips(BoxScore box) {
+        byte[] encoded = box.encode();
+        BoxScore decoded = BoxScore.decode(encoded);
+        assertEquals(box.toMap(), decoded.toMap());
+        assertArrayEquals(encoded, decoded.encode());
+        return decoded;
+    }
+
+    private static List<?> lineScore(BoxScore box, String team) {
+        return (List<?>) ((Map<?, ?>) box.toMap().get("lineScore")).get(team);
+    }
+}
@@ -0,0 +1,160 @@
+package com.ict.springboot.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ict.springboot.entity.PlayerEntity;
+
+/**
+ * JVM 내 타석 예측 패리티 테스트
+ * python/model/export_onnx_model.py가 기록한 고정 상황별 Python 서비스 값과 비교
+ * - 입력 벡터: AtBatFeatureEncoder 결과가 Python 피처(create_prediction_input + feature_engineering)와 일치
+ *   (테스트 리소스 at_bat_feature_parity.tsv, 모델 없이 항상 실행)
+ * - 확률: ONNX 모델 결과가 Python 서비스 확률(at_bat_model_parity.tsv)과 허용 오차(내보내기 시 측정값) 안에서 일치
+ *   모델을 내보내지 않은 환경(모델 파일 없음)에서는 건너뛴다
+ */
+class OnnxAtBatModelParityTests {
+
+    private static final File MODEL_DIR = new File(System.getProperty("inference.model-dir", "../python/model"));
+    private static final File MODEL = new File(MODEL_DIR, "at_bat_model.onnx");
+    private static final File METADATA = new File(MODEL_DIR, "at_bat_model.json");
+    private static final File PARITY = new File(MODEL_DIR, "at_bat_model_parity.tsv");
+
+    @Test
+    void encodesSameFeaturesAsPythonService() throws Exception {
+        AtBatFeatureEncoder encoder = AtBatFeatureEncoder.withDefaultVocabulary();
+
+        List<Map<String, String>> rows;
+        try (InputStream in = OnnxAtBatModelParityTests.class.getResourceAsStream("/at_bat_feature_parity.tsv");
+             BufferedReader br = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            rows = readRows(br);
+        }
+        assertTrue(rows.size() > 0, "패리티 데이터가 비어 있습니다.");
+
+        float[] features = new float[AtBatFeatureEncoder.FEATURE_COUNT];
+        for (Map<String, String> row : rows) {
+            encode(encoder, row, features);
+            for (int i = 0; i < features.length; i++) {
+                String name = AtBatFeatureEncoder.FEATURE_NAMES.get(i);
+                assertEquals(toFloat(row.get("f_" + name)), features[i], row + " " + name);
+            }
+        }
+    }
+
+    @Test
+    void matchesPythonServiceProbabilities() throws Exception {
+        assumeTrue(PARITY.isFile() && MODEL.isFile() && METADATA.isFile(), "내보낸 모델 없음: " + MODEL_DIR);
+        OnnxAtBatModel model = new OnnxAtBatModel(new ObjectMapper());
+        model.load(MODEL, METADATA);
+        try {
+            double tolerance = readTolerance();
+            float[] features = new float[AtBatFeatureEncoder.FEATURE_COUNT];
+            for (Map<String, String> row : readModelRows()) {
+                encode(model.getEncoder(), row, features);
+                double[] probabilities = model.probabilities(features);
+                for (AtBatOutcome outcome : AtBatOutcome.values()) {
+                    double expected = Double.parseDouble(row.get("prob_" + outcome.getKorean()));
+                    assertEquals(expected, probabilities[outcome.ordinal()], tolerance, row + " " + outcome);
+                }
+            }
+        } finally {
+            model.stop();
+        }
+    }
+
+    private static void encode(AtBatFeatureEncoder encoder, Map<String, String> row, float[] out) {
+        PlayerStatsSnapshot batter = snapshot(row, "batter");
+        PlayerStatsSnapshot pitcher = snapshot(row, "pitcher");
+        encoder.encode(Integer.parseInt(row.get("inning")), Integer.parseInt(row.get("outs")),
+            Integer.parseInt(row.get("bases")), "초".equals(row.get("half")), batter, pitcher, out);
+    }
+
+    // 패리티 데이터의 선수 컬럼(Python 요청 JSON 값)으로 스냅샷 생성
+    // b_* 컬럼은 타자의 batting_stats, p_* 컬럼은 투수의 pitching_stats (유형이 다르면 비어 있음)
+    private static PlayerStatsSnapshot snapshot(Map<String, String> row, String role) {
+        PlayerEntity player = PlayerEntity.builder()
+            .pNo("batter".equals(role) ? 1L : 2L)
+            .playerType(row.get(role + "_type"))
+            .hand(row.get(role + "_hand"))
+            .bAvg(toDouble(row.get("b_AVG")))
+            .bObp(toDouble(row.get("b_OBP")))
+            .b2B(toInteger(row.get("b_2B")))
+            .b3B(toInteger(row.get("b_3B")))
+            .bHr(toInteger(row.get("b_HR")))
+            .bHp(toInteger(row.get("b_HP")))
+            .bGdp(toInteger(row.get("b_GDP")))
+            .bSf(toInteger(row.get("b_SF")))
+            .bRbi(toInteger(row.get("b_RBI")))
+            .bSb(toInteger(row.get("b_SB")))
+            .bSo(toInteger(row.get("b_SO")))
+            .bEpa(toInteger(row.get("b_ePA")))
+            .pEra(toDouble(row.get("p_ERA")))
+            .pFip(toDouble(row.get("p_FIP")))
+            .pWhip(toDouble(row.get("p_WHIP")))
+            .pIp(toDouble(row.get("p_IP")))
+            .p2B(toInteger(row.get("p_2B")))
+            .p3B(toInteger(row.get("p_3B")))
+            .pHr(toInteger(row.get("p_HR")))
+            .pHp(toInteger(row.get("p_HP")))
+            .pSo(toInteger(row.get("p_SO")))
+            .pRoe(toInteger(row.get("p_ROE")))
+            .build();
+        return new PlayerStatsSnapshot(player, "{}");
+    }
+
+    private static double readTolerance() throws Exception {
+        try (BufferedReader br = Files.newBufferedReader(PARITY.toPath(), StandardCharsets.UTF_8)) {
+            return Double.parseDouble(br.readLine().substring("# tolerance=".length()));
+        }
+    }
+
+    private static List<Map<String, String>> readModelRows() throws Exception {
+        try (BufferedReader br = Files.newBufferedReader(PARITY.toPath(), StandardCharsets.UTF_8)) {
+            br.readLine(); // # tolerance=...
+            return readRows(br);
+        }
+    }
+
+    private static List<Map<String, String>> readRows(BufferedReader br) throws Exception {
+        List<Map<String, String>> rows = new ArrayList<>();
+        String[] header = br.readLine().split("\t", -1);
+        String line;
+        while ((line = br.readLine()) != null) {
+            String[] columns = line.split("\t", -1);
+            Map<String, String> row = new HashMap<>();
+            for (int i = 0; i < header.length; i++) {
+                row.put(header[i], columns[i]);
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    // 빈 값 = Python None
+    private static Double toDouble(String value) {
+        return value == null || value.isEmpty() ? null : Double.valueOf(value);
+    }
+
+    private static Integer toInteger(String value) {
+        return value == null || value.isEmpty() ? null : (int) Double.parseDouble(value);
+    }
+
+    private static float toFloat(String value) {
+        return value == null || value.isEmpty() ? Float.NaN : (float) Double.parseDouble(value);
+    }
+}
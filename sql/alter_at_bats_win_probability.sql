@@ -0,0 +1,6 @@
+-- 타석별 승리 확률 (WinExpectancy 승리 기대값 표 조회 값, 소수 넷째 자리)
+-- AtBatEntity에 컬럼이 추가되었으므로 ddl-auto=update가 아니면 배포 전에 적용
+ALTER TABLE AT_BATS ADD (
+    win_probability NUMBER(5, 4),        -- 타석 후 홈팀 승리 확률 (무승부 0.5)
+    win_probability_added NUMBER(5, 4)   -- 공격팀 기준 승리 확률 변화량 (WPA)
+);
@@ -0,0 +1,3 @@
+-- 경기 종료/중지 시 한 번 저장하는 박스스코어 (BoxScore.encode 형식, 보통 200 bytes 내외)
+-- SimulationGameStateEntity에 컬럼이 추가되었으므로 ddl-auto=update가 아니면 배포 전에 적용
+ALTER TABLE SIMULATION_GAME_STATE ADD (box_score RAW(2000));
@@ -0,0 +1,3 @@
+-- 타석 기록 배치 저장용 시퀀스 블록 (AtBatEntity allocationSize = 50)
+-- 적용 전에는 시퀀스 값을 한 번에 50씩 건너뛰지 않고 1씩 증가하는 기존 방식으로 동작한다
+ALTER SEQUENCE SEQ_AT_BATS INCREMENT BY 50;
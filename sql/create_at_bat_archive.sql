@@ -0,0 +1,12 @@
+-- 끝난 시뮬레이션의 타석 기록 보관본 (AtBatArchive 형식, 시뮬레이션당 1건)
+-- SimulationAtBatArchiveEntity가 추가되었으므로 ddl-auto=update가 아니면 배포 전에 적용
+CREATE TABLE SIMULATION_AT_BAT_ARCHIVE (
+    simulation_id NUMBER(20)  NOT NULL PRIMARY KEY,
+    at_bat_count  NUMBER(10)  NOT NULL,
+    row_bytes     NUMBER(19)  NOT NULL,
+    archive_bytes NUMBER(10)  NOT NULL,
+    archive       BLOB        NOT NULL,
+    rows_purged   NUMBER(1)   DEFAULT 0,
+    created_at    TIMESTAMP   DEFAULT SYSDATE,
+    CONSTRAINT FK_AT_BAT_ARCHIVE_SIMULATION FOREIGN KEY (simulation_id) REFERENCES SIMULATIONS (id)
+);
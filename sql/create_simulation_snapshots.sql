@@ -0,0 +1,23 @@
+-- 하프 이닝 시작 스냅샷 (분기/되감기 시작점, 한 번 저장 후 수정하지 않음)
+-- SimulationSnapshotEntity / SimulationEntity에 컬럼이 추가되었으므로 ddl-auto=update가 아니면 배포 전에 적용
+CREATE SEQUENCE SEQ_SIM_SNAPSHOT START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE SIMULATION_SNAPSHOTS (
+    id              NUMBER(20)   NOT NULL PRIMARY KEY,
+    simulation_id   NUMBER(20)   NOT NULL,
+    inning          NUMBER(10)   NOT NULL,
+    half            VARCHAR2(10) NOT NULL,
+    home_score      NUMBER(10)   NOT NULL,
+    away_score      NUMBER(10)   NOT NULL,
+    home_batter_idx NUMBER(10)   NOT NULL,
+    away_batter_idx NUMBER(10)   NOT NULL,
+    last_at_bat_id  NUMBER(19),
+    box_score       RAW(2000),
+    created_at      TIMESTAMP    DEFAULT SYSDATE,
+    CONSTRAINT FK_SIM_SNAPSHOTS_SIMULATION FOREIGN KEY (simulation_id) REFERENCES SIMULATIONS (id)
+);
+
+CREATE INDEX IDX_SIM_SNAPSHOTS_SIMULATION ON SIMULATION_SNAPSHOTS (simulation_id, inning, half);
+
+-- 분기 시뮬레이션: 원본 시뮬레이션과 공유하는 원본 타석 기록의 마지막 타석 ID
+ALTER TABLE SIMULATIONS ADD (parent_simulation_id NUMBER(20), fork_at_bat_id NUMBER(19));